@@ -1,9 +1,31 @@
 package codingblackfemales.action;
 
 import codingblackfemales.sequencer.Sequencer;
+import org.agrona.MutableDirectBuffer;
 
 public interface Action {
 
+    /**
+     * The most an action may encode when batched, the same 1KB every action has always been sent in.
+     */
+    int MAX_ENCODED_LENGTH = 1024;
+
+    int NOT_BATCHED = -1;
+
+    /**
+     * Sends the action on its own. An {@link codingblackfemales.container.Actioner} encodes it into a buffer of its
+     * own instead, so this is only called for actions that can't be encoded.
+     */
     void apply(final Sequencer sequencer);
 
+    /**
+     * Encodes the command at <code>offset</code> so that it can be sent to the sequencer in a batch with others.
+     * There are at least {@link #MAX_ENCODED_LENGTH} bytes available from the offset.
+     *
+     * @return the encoded length, or {@link #NOT_BATCHED} if the action must be applied on its own.
+     */
+    default int encode(final MutableDirectBuffer buffer, final int offset) {
+        return NOT_BATCHED;
+    }
+
 }
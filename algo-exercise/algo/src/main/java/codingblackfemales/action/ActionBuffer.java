@@ -0,0 +1,57 @@
+package codingblackfemales.action;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of the actions returned from one evaluation of the algo logic, in the order they were added.
+ * Null and {@link NoAction} are ignored, so logic can add whatever it computes without checking.
+ */
+public class ActionBuffer {
+
+    private Action[] actions;
+    private int size = 0;
+
+    public ActionBuffer() {
+        this(8);
+    }
+
+    public ActionBuffer(final int initialCapacity) {
+        this.actions = new Action[initialCapacity];
+    }
+
+    public ActionBuffer add(final Action action) {
+        if (action == null || action == NoAction.NoAction) {
+            return this;
+        }
+        if (size == actions.length) {
+            actions = Arrays.copyOf(actions, Math.max(1, size * 2));
+        }
+        actions[size++] = action;
+        return this;
+    }
+
+    public Action get(final int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException(String.format("index=[%s] size=[%s]", index, size));
+        }
+        return actions[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(actions, 0, size, null);
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ActionBuffer" + Arrays.toString(Arrays.copyOf(actions, size));
+    }
+}
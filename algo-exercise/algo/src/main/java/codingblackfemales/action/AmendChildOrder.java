@@ -0,0 +1,64 @@
+package codingblackfemales.action;
+
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sotw.ChildOrder;
+import messages.order.MessageHeaderEncoder;
+import messages.order.ModifyOrderEncoder;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Amends a live child order in one message rather than a cancel and a new order. The quantity is the new open
+ * quantity; reducing it at the same price keeps the order's place in the queue.
+ */
+public class AmendChildOrder implements Action {
+
+    private final ChildOrder orderToAmend;
+    private final long quantity;
+    private final long price;
+
+    public AmendChildOrder(final ChildOrder orderToAmend, final long quantity, final long price) {
+        this.orderToAmend = orderToAmend;
+        this.quantity = quantity;
+        this.price = price;
+    }
+
+    public ChildOrder getOrderToAmend() {
+        return orderToAmend;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    @Override
+    public String toString() {
+        return "AmendChildOrder(orderId=" + orderToAmend.getOrderId() + ",quantity=" + quantity + ",price=" + price + ")";
+    }
+
+    @Override
+    public void apply(final Sequencer sequencer) {
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[MAX_ENCODED_LENGTH]);
+        sequencer.onCommand(buffer, 0, encode(buffer, 0));
+    }
+
+    @Override
+    public int encode(final MutableDirectBuffer buffer, final int offset) {
+        final OrderEncoders encoders = OrderEncoders.get();
+        final ModifyOrderEncoder encoder = encoders.modifyOrder;
+        final MessageHeaderEncoder headerEncoder = encoders.header;
+
+        encoder.wrapAndApplyHeader(buffer, offset, headerEncoder);
+        headerEncoder.schemaId(ModifyOrderEncoder.SCHEMA_ID);
+        headerEncoder.version(ModifyOrderEncoder.SCHEMA_VERSION);
+
+        encoder.orderId(orderToAmend.getOrderId());
+        encoder.price(price);
+        encoder.quantity(quantity);
+        return headerEncoder.encodedLength() + encoder.encodedLength();
+    }
+}
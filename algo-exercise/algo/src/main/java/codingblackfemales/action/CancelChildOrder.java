@@ -4,10 +4,9 @@ import codingblackfemales.sequencer.Sequencer;
 import codingblackfemales.sotw.ChildOrder;
 import messages.order.CancelOrderEncoder;
 import messages.order.MessageHeaderEncoder;
+import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 
-import java.nio.ByteBuffer;
-
 public class CancelChildOrder implements Action{
 
     private final ChildOrder orderToCancel;
@@ -16,6 +15,10 @@ public class CancelChildOrder implements Action{
         this.orderToCancel = orderToCancel;
     }
 
+    public ChildOrder getOrderToCancel() {
+        return orderToCancel;
+    }
+
     @Override
     public String toString() {
         return "CancelChildOrder(" + orderToCancel + ")";
@@ -23,18 +26,21 @@ public class CancelChildOrder implements Action{
 
     @Override
     public void apply(final Sequencer sequencer) {
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[MAX_ENCODED_LENGTH]);
+        sequencer.onCommand(buffer, 0, encode(buffer, 0));
+    }
 
-        final CancelOrderEncoder encoder = new CancelOrderEncoder();
-        final ByteBuffer byteBuffer = ByteBuffer.allocateDirect(1024);
-        final UnsafeBuffer directBuffer = new UnsafeBuffer(byteBuffer);
-        final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    @Override
+    public int encode(final MutableDirectBuffer buffer, final int offset) {
+        final OrderEncoders encoders = OrderEncoders.get();
+        final CancelOrderEncoder encoder = encoders.cancelOrder;
+        final MessageHeaderEncoder headerEncoder = encoders.header;
 
-        encoder.wrapAndApplyHeader(directBuffer, 0, headerEncoder);
+        encoder.wrapAndApplyHeader(buffer, offset, headerEncoder);
         headerEncoder.schemaId(CancelOrderEncoder.SCHEMA_ID);
         headerEncoder.version(CancelOrderEncoder.SCHEMA_VERSION);
 
         encoder.orderId(orderToCancel.getOrderId());
-
-        sequencer.onCommand(directBuffer);
+        return headerEncoder.encodedLength() + encoder.encodedLength();
     }
 }
@@ -0,0 +1,82 @@
+package codingblackfemales.action;
+
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sotw.ChildOrder;
+import messages.order.BatchCancelOrderEncoder;
+import messages.order.MessageHeaderEncoder;
+import org.agrona.MutableDirectBuffer;
+
+import java.util.List;
+
+/**
+ * Cancels several child orders with a single <code>BatchCancelOrder</code> message, e.g. to pull everything that
+ * is resting in one evaluation rather than one order per evaluation.
+ */
+public class CancelChildOrders implements Action {
+
+    /**
+     * The most orders a single message can carry, bounded by the group's uint16 count.
+     */
+    public static final int MAX_ORDERS = 65_535;
+
+    private final List<ChildOrder> ordersToCancel;
+
+    public CancelChildOrders(final List<ChildOrder> ordersToCancel) {
+        if (ordersToCancel.size() > MAX_ORDERS) {
+            throw new IllegalArgumentException(String.format("Too many orders to cancel in one batch count=[%s] max=[%s]", ordersToCancel.size(), MAX_ORDERS));
+        }
+        //the caller's list can change before a queued action is sent
+        this.ordersToCancel = List.copyOf(ordersToCancel);
+    }
+
+    public List<ChildOrder> getOrdersToCancel() {
+        return ordersToCancel;
+    }
+
+    @Override
+    public String toString() {
+        return "CancelChildOrders(count=" + ordersToCancel.size() + ")";
+    }
+
+    private int encodedLength() {
+        return MessageHeaderEncoder.ENCODED_LENGTH + BatchCancelOrderEncoder.BLOCK_LENGTH
+                + BatchCancelOrderEncoder.OrdersEncoder.sbeHeaderSize()
+                + ordersToCancel.size() * BatchCancelOrderEncoder.OrdersEncoder.sbeBlockLength();
+    }
+
+    @Override
+    public void apply(final Sequencer sequencer) {
+        final OrderEncoders encoders = OrderEncoders.get();
+        final MutableDirectBuffer buffer = encoders.acquireBuffer(encodedLength());
+        try {
+            sequencer.onCommand(buffer, 0, encodeOrders(buffer, 0));
+        } finally {
+            encoders.releaseBuffer();
+        }
+    }
+
+    /**
+     * Large batches that don't fit in the remaining space are sent on their own.
+     */
+    @Override
+    public int encode(final MutableDirectBuffer buffer, final int offset) {
+        if (encodedLength() > buffer.capacity() - offset) {
+            return NOT_BATCHED;
+        }
+        return encodeOrders(buffer, offset);
+    }
+
+    private int encodeOrders(final MutableDirectBuffer buffer, final int offset) {
+        final OrderEncoders encoders = OrderEncoders.get();
+        final BatchCancelOrderEncoder encoder = encoders.batchCancelOrder;
+        final MessageHeaderEncoder headerEncoder = encoders.header;
+
+        encoder.wrapAndApplyHeader(buffer, offset, headerEncoder);
+
+        final BatchCancelOrderEncoder.OrdersEncoder orders = encoder.ordersCount(ordersToCancel.size());
+        for (ChildOrder order : ordersToCancel) {
+            orders.next().orderId(order.getOrderId());
+        }
+        return headerEncoder.encodedLength() + encoder.encodedLength();
+    }
+}
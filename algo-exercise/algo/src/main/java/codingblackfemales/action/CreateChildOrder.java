@@ -4,12 +4,11 @@ import codingblackfemales.sequencer.Sequencer;
 import messages.order.CreateOrderEncoder;
 import messages.order.MessageHeaderEncoder;
 import messages.order.Side;
+import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.ByteBuffer;
-
 public class CreateChildOrder implements Action {
 
     private static final Logger logger = LoggerFactory.getLogger(CreateChildOrder.class);
@@ -18,30 +17,59 @@ public class CreateChildOrder implements Action {
 
     private final Side side;
 
+    private final long parentOrderId;
+
     public CreateChildOrder(final Side side, final long quantity, final long price) {
+        this(side, quantity, price, 0L);
+    }
+
+    public CreateChildOrder(final Side side, final long quantity, final long price, final long parentOrderId) {
         this.quantity = quantity;
         this.price = price;
         this.side = side;
+        this.parentOrderId = parentOrderId;
+    }
+
+    public Side getSide() {
+        return side;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    public long getParentOrderId() {
+        return parentOrderId;
     }
 
     @Override
     public String toString() {
-        return "CreateChildOrder(side=" + side + ",quantity=" + quantity + ",price=" + price + ")";
+        return "CreateChildOrder(side=" + side + ",quantity=" + quantity + ",price=" + price + ",parentOrderId=" + parentOrderId + ")";
+    }
+
+    @Override
+    public void apply(final Sequencer sequencer) {
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[MAX_ENCODED_LENGTH]);
+        sequencer.onCommand(buffer, 0, encode(buffer, 0));
     }
 
     @Override
-    public void apply(Sequencer sequencer) {
-        final CreateOrderEncoder encoder = new CreateOrderEncoder(); // encoder ensures format is in a friendly format to allow the sequncer to read the data
-        final ByteBuffer byteBuffer = ByteBuffer.allocateDirect(1024);
-        final UnsafeBuffer directBuffer = new UnsafeBuffer(byteBuffer);
-        final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder(); // a header for extra info 
+    public int encode(final MutableDirectBuffer buffer, final int offset) {
+        final OrderEncoders encoders = OrderEncoders.get();
+        final CreateOrderEncoder encoder = encoders.createOrder; // encoder ensures format is in a friendly format to allow the sequncer to read the data
+        final MessageHeaderEncoder headerEncoder = encoders.header; // a header for extra info 
 
-        encoder.wrapAndApplyHeader(directBuffer, 0, headerEncoder);
+        encoder.wrapAndApplyHeader(buffer, offset, headerEncoder);
         headerEncoder.schemaId(CreateOrderEncoder.SCHEMA_ID);
         headerEncoder.version(CreateOrderEncoder.SCHEMA_VERSION);
         encoder.price(price);
         encoder.quantity(quantity);
         encoder.side(side);
-        sequencer.onCommand(directBuffer);
+        encoder.parentOrderId(parentOrderId);
+        return headerEncoder.encodedLength() + encoder.encodedLength();
     }
 }
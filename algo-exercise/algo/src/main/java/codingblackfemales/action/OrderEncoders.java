@@ -0,0 +1,54 @@
+package codingblackfemales.action;
+
+import messages.order.BatchCancelOrderEncoder;
+import messages.order.CancelOrderEncoder;
+import messages.order.CreateOrderEncoder;
+import messages.order.MessageHeaderEncoder;
+import messages.order.ModifyOrderEncoder;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.util.Arrays;
+
+/**
+ * The encoders actions write themselves with, one set per thread. Nothing is called back while an action is being
+ * encoded, so a thread never needs more than one.
+ *
+ * The buffers an action is sent from are different: the sequencer dispatches before it returns and a consumer can
+ * apply another action meanwhile, so there is one buffer per level of nesting, each grown to the largest message
+ * sent from it.
+ */
+final class OrderEncoders {
+
+    private static final ThreadLocal<OrderEncoders> ENCODERS = ThreadLocal.withInitial(OrderEncoders::new);
+
+    final MessageHeaderEncoder header = new MessageHeaderEncoder();
+    final CreateOrderEncoder createOrder = new CreateOrderEncoder();
+    final ModifyOrderEncoder modifyOrder = new ModifyOrderEncoder();
+    final CancelOrderEncoder cancelOrder = new CancelOrderEncoder();
+    final BatchCancelOrderEncoder batchCancelOrder = new BatchCancelOrderEncoder();
+
+    private UnsafeBuffer[] buffers = new UnsafeBuffer[4];
+    private int depth = 0;
+
+    private OrderEncoders() {
+    }
+
+    static OrderEncoders get() {
+        return ENCODERS.get();
+    }
+
+    MutableDirectBuffer acquireBuffer(final int length) {
+        if (depth == buffers.length) {
+            buffers = Arrays.copyOf(buffers, depth * 2);
+        }
+        if (buffers[depth] == null || buffers[depth].capacity() < length) {
+            buffers[depth] = new UnsafeBuffer(new byte[Math.max(length, Action.MAX_ENCODED_LENGTH)]);
+        }
+        return buffers[depth++];
+    }
+
+    void releaseBuffer() {
+        depth--;
+    }
+}
@@ -1,8 +1,18 @@
 package codingblackfemales.algo;
 
 import codingblackfemales.action.Action;
+import codingblackfemales.action.ActionBuffer;
 import codingblackfemales.sotw.SimpleAlgoState;
 
 public interface AlgoLogic {
     Action evaluate(final SimpleAlgoState state); // evaluates action based on a given state 
+
+    /**
+     * Adds every action to take in reaction to the state, so that e.g. a cancel and two new orders go out in the
+     * same cycle rather than over three. The container calls this one, by default it adds the single action from
+     * {@link #evaluate(SimpleAlgoState)}; logic that overrides it can return NoAction from the single version.
+     */
+    default void evaluate(final SimpleAlgoState state, final ActionBuffer actions) {
+        actions.add(evaluate(state));
+    }
 }
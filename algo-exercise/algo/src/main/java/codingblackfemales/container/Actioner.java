@@ -1,22 +1,100 @@
 package codingblackfemales.container;
 
 import codingblackfemales.action.Action;
+import codingblackfemales.action.ActionBuffer;
 import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.frame.FrameAppender;
+import org.agrona.concurrent.UnsafeBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 
 public class Actioner {
     private static final Logger logger = LoggerFactory.getLogger(Actioner.class);
 
+    private static final int BATCH_CAPACITY = 64 * 1024;
+
     private final Sequencer sequencer;
 
+    //one per level of nesting, as the sequencer can re-enter the algo while an action or batch is still being sent
+    private final ArrayList<FrameAppender> batches = new ArrayList<>();
+    private int batchDepth = 0;
+
     public Actioner(Sequencer sequencer) {
         this.sequencer = sequencer;
     }
 
+    /**
+     * Encodes the action into this actioner's own buffer for the depth, so sending one allocates nothing.
+     */
     public void processAction(final Action action){
         logger.info("[ALGO] Actioner, sending action:" + action);
-        action.apply(sequencer);
+        final FrameAppender scratch = batch(batchDepth++);
+        try {
+            final int length = action.encode(scratch.buffer(), 0);
+            if (length == Action.NOT_BATCHED) {
+                action.apply(sequencer);
+            } else {
+                sequencer.onCommand(scratch.buffer(), 0, length);
+            }
+        } finally {
+            batchDepth--;
+        }
+    }
+
+    /**
+     * Sends the actions to the sequencer as a single batch, in order. Actions that can't be encoded into the batch
+     * are applied on their own between the batched actions before and after them.
+     */
+    public void processActions(final ActionBuffer actions){
+        final FrameAppender batch = batch(batchDepth++);
+        try {
+            for (int i = 0; i < actions.size(); i++) {
+                final Action action = actions.get(i);
+                logger.info("[ALGO] Actioner, batching action:" + action);
+
+                if (!batch.hasCapacityFor(Action.MAX_ENCODED_LENGTH)) {
+                    sendBatch(batch);
+                }
+
+                final int length = action.encode(batch.buffer(), batch.messageOffset());
+                if (length == Action.NOT_BATCHED) {
+                    sendBatch(batch);
+                    action.apply(sequencer);
+                } else {
+                    batch.commit(length);
+                }
+            }
+            sendBatch(batch);
+        } finally {
+            batch.reset();
+            batchDepth--;
+        }
+    }
+
+    private FrameAppender batch(final int depth){
+        if (depth == batches.size()) {
+            batches.add(new FrameAppender(new UnsafeBuffer(ByteBuffer.allocateDirect(BATCH_CAPACITY))));
+        }
+        return batches.get(depth);
+    }
+
+    private void sendBatch(final FrameAppender batch){
+        if (batch.position() > 0) {
+            final int length = batch.position();
+            batch.reset();
+            sequencer.onCommandBatch(batch.buffer(), 0, length);
+        }
+    }
+
+    /**
+     * Called by the container on every message, giving actioners that hold actions back a chance to release them.
+     *
+     * @return the number of actions sent.
+     */
+    public int poll(){
+        return 0;
     }
 }
@@ -1,14 +1,20 @@
 package codingblackfemales.container;
 
-import codingblackfemales.action.NoAction;
+import codingblackfemales.action.ActionBuffer;
 import codingblackfemales.algo.AlgoLogic;
+import codingblackfemales.sequencer.clock.CachedClock;
+import codingblackfemales.sequencer.clock.Clock;
+import codingblackfemales.sequencer.clock.SystemClock;
 import codingblackfemales.sequencer.net.Consumer;
+import codingblackfemales.sequencer.net.Subscription;
 import codingblackfemales.service.MarketDataService;
 import codingblackfemales.service.OrderService;
 import codingblackfemales.sotw.SimpleAlgoState;
 import codingblackfemales.sotw.SimpleAlgoStateImpl;
 import org.agrona.DirectBuffer;
 
+import java.util.ArrayList;
+
 public class AlgoContainer implements Consumer {
 
     private final MarketDataService marketDataService;
@@ -20,15 +26,33 @@ public class AlgoContainer implements Consumer {
 
     private final SimpleAlgoState state;
 
+    //moved on once per message, so an evaluation sees one time however often the logic reads it
+    private final CachedClock clock;
+
+    //one per level of nesting, the logic is re-entered when its own actions are sequenced
+    private final ArrayList<ActionBuffer> actionBuffers = new ArrayList<>();
+    private int evaluationDepth = 0;
+
+    private int batchDepth = 0;
+
     public AlgoContainer(final MarketDataService marketDataService,
                          final OrderService orderService,
                          final RunTrigger runTrigger,
                          final Actioner actioner) {
+        this(marketDataService, orderService, runTrigger, actioner, SystemClock.INSTANCE);
+    }
+
+    public AlgoContainer(final MarketDataService marketDataService,
+                         final OrderService orderService,
+                         final RunTrigger runTrigger,
+                         final Actioner actioner,
+                         final Clock clock) {
         this.marketDataService = marketDataService;
         this.orderService = orderService;
         this.runTrigger = runTrigger;
         this.actioner = actioner;
-        this.state = new SimpleAlgoStateImpl(marketDataService, orderService);
+        this.clock = new CachedClock(clock);
+        this.state = new SimpleAlgoStateImpl(marketDataService, orderService, this.clock);
     }
 
     public MarketDataService getMarketDataService(){
@@ -43,9 +67,46 @@ public class AlgoContainer implements Consumer {
         this.logic = logic;
     }
 
+    /**
+     * The run trigger is only set by the services, so the container needs the messages they handle and no others.
+     */
+    @Override
+    public Subscription getSubscription() {
+        return marketDataService.getSubscription().and(orderService.getSubscription());
+    }
+
+    @Override
+    public void onBatchStart() {
+        batchDepth++;
+    }
+
+    /**
+     * Within a batch the run trigger is left set, so the logic runs once against the state at the end of the batch.
+     */
+    @Override
+    public void onBatchEnd() {
+        if (batchDepth > 0) {
+            batchDepth--;
+        }
+        if (batchDepth == 0 && runTrigger.shouldRun()) {
+            runAlgoLogic();
+        }
+    }
+
+    @Override
+    public void onMessage(final DirectBuffer buffer, final int offset, final int length) {
+        //the container only reacts to the run trigger, so there is no need for a view over the frame
+        onMessage(buffer);
+    }
+
     @Override
     public void onMessage(DirectBuffer buffer){
-        if(runTrigger.shouldRun()){
+        clock.update();
+        actioner.poll();
+
+        if(batchDepth > 0){
+            //defer until onBatchEnd
+        }else if(runTrigger.shouldRun()){
             runAlgoLogic();
 
         }else {
@@ -54,12 +115,24 @@ public class AlgoContainer implements Consumer {
     }
 
     private void runAlgoLogic(){
-        final var action = logic.evaluate(state);
+        if(evaluationDepth == actionBuffers.size()){
+            actionBuffers.add(new ActionBuffer());
+        }
+        final ActionBuffer actions = actionBuffers.get(evaluationDepth++);
+
+        try {
+            logic.evaluate(state, actions);
 
-        runTrigger.hasRun();
+            runTrigger.hasRun();
 
-        if(action !=null && (!action.equals(NoAction.NoAction))){
-            actioner.processAction(action);
+            if (actions.size() == 1) {
+                actioner.processAction(actions.get(0));
+            } else if (actions.size() > 1) {
+                actioner.processActions(actions);
+            }
+        } finally {
+            actions.clear();
+            evaluationDepth--;
         }
     }
 
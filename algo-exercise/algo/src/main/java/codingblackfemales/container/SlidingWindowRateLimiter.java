@@ -0,0 +1,73 @@
+package codingblackfemales.container;
+
+/**
+ * Allows at most <code>limit</code> events in any window of <code>windowNanos</code>. The timestamps of the last
+ * <code>limit</code> events are kept in a ring, so the oldest event in the window is always the next slot to be
+ * overwritten and a check is a single comparison.
+ */
+public class SlidingWindowRateLimiter {
+
+    private final long[] timestamps;
+    private final long windowNanos;
+
+    private int index = 0;
+    private int count = 0;
+
+    public SlidingWindowRateLimiter(final int limit, final long windowNanos) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive, was " + limit);
+        }
+        this.timestamps = new long[limit];
+        this.windowNanos = windowNanos;
+    }
+
+    public boolean isAvailable(final long nowNanos) {
+        return count < timestamps.length || nowNanos - timestamps[index] >= windowNanos;
+    }
+
+    /**
+     * @return true if <code>events</code> more events would all be within the limit.
+     */
+    public boolean isAvailable(final long nowNanos, final int events) {
+        final int free = timestamps.length - count;
+        if (events <= free) {
+            return true;
+        }
+        if (events > timestamps.length) {
+            return false;
+        }
+        //until the ring is full the oldest event is in the first slot, the rest have to have left the window
+        final int oldest = count < timestamps.length ? 0 : index;
+        return nowNanos - timestamps[(oldest + events - free - 1) % timestamps.length] >= windowNanos;
+    }
+
+    /**
+     * @return true, recording the event, if it is within the limit.
+     */
+    public boolean tryAcquire(final long nowNanos) {
+        if (!isAvailable(nowNanos)) {
+            return false;
+        }
+        timestamps[index] = nowNanos;
+        index = (index + 1) % timestamps.length;
+        count = Math.min(count + 1, timestamps.length);
+        return true;
+    }
+
+    public int limit() {
+        return timestamps.length;
+    }
+
+    /**
+     * @return the number of events in the window ending now.
+     */
+    public int used(final long nowNanos) {
+        int used = 0;
+        for (int i = 0; i < count; i++) {
+            if (nowNanos - timestamps[i] < windowNanos) {
+                used++;
+            }
+        }
+        return used;
+    }
+}
@@ -0,0 +1,16 @@
+package codingblackfemales.container;
+
+public enum ThrottlePolicy {
+    /**
+     * Hold actions over the limit and send them in order as the window allows.
+     */
+    QUEUE,
+    /**
+     * Drop actions over the limit.
+     */
+    REJECT,
+    /**
+     * Queue, but collapse held actions that a newer one supersedes.
+     */
+    COALESCE
+}
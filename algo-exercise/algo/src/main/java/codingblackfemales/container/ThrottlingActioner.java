@@ -0,0 +1,344 @@
+package codingblackfemales.container;
+
+import codingblackfemales.action.Action;
+import codingblackfemales.action.ActionBuffer;
+import codingblackfemales.action.AmendChildOrder;
+import codingblackfemales.action.CancelChildOrder;
+import codingblackfemales.action.CancelChildOrders;
+import codingblackfemales.action.CreateChildOrder;
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.clock.Clock;
+import codingblackfemales.sequencer.clock.SystemClock;
+import codingblackfemales.sotw.ChildOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * An {@link Actioner} that keeps creates and cancels within per-window limits, as exchanges cap message rates.
+ * Actions over the limit are queued, rejected or coalesced according to the {@link ThrottlePolicy}; held actions
+ * are released on later calls and whenever the container polls. Other actions are never throttled.
+ *
+ * Creates and cancels are held apart: each goes out in order against its own limit, so a full create window never
+ * holds back a cancel, nor the other way round.
+ *
+ * Amends count against the create limit, as they can put new quantity on the book; a batch cancel is one message
+ * against the cancel limit.
+ *
+ * Coalescing collapses a held action when a newer one supersedes it: a second cancel or amend for the same order,
+ * or a newer create for the same side and price level. Creates at other prices are kept, as they may be meant to
+ * rest alongside each other. A create that follows a held cancel on the same side is merged with it into a single
+ * amend of the cancelled order, halving the traffic of a requote.
+ */
+public class ThrottlingActioner extends Actioner implements ThrottlingActionerMXBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThrottlingActioner.class);
+
+    private final SlidingWindowRateLimiter creates;
+    private final SlidingWindowRateLimiter cancels;
+    private final ThrottlePolicy policy;
+    private final Clock clock;
+
+    private final ArrayDeque<Action> queue = new ArrayDeque<>();
+
+    private long sentCreates = 0L;
+    private long sentCancels = 0L;
+    private long sentAmends = 0L;
+    private long throttled = 0L;
+    private long rejected = 0L;
+    private long coalesced = 0L;
+
+    public ThrottlingActioner(final Sequencer sequencer, final int createsPerWindow, final int cancelsPerWindow,
+                              final long windowNanos, final ThrottlePolicy policy) {
+        this(sequencer, createsPerWindow, cancelsPerWindow, windowNanos, policy, SystemClock.INSTANCE);
+    }
+
+    public ThrottlingActioner(final Sequencer sequencer, final int createsPerWindow, final int cancelsPerWindow,
+                              final long windowNanos, final ThrottlePolicy policy, final Clock clock) {
+        super(sequencer);
+        this.creates = new SlidingWindowRateLimiter(createsPerWindow, windowNanos);
+        this.cancels = new SlidingWindowRateLimiter(cancelsPerWindow, windowNanos);
+        this.policy = policy;
+        this.clock = clock;
+    }
+
+    @Override
+    public void processAction(final Action action) {
+        final long now = clock.nanoTime();
+
+        drain(now);
+
+        final SlidingWindowRateLimiter limiter = limiter(action);
+        if (limiter == null || (!isHolding(limiter) && limiter.tryAcquire(now))) {
+            send(action);
+            return;
+        }
+
+        throttled++;
+        switch (policy) {
+            case REJECT:
+                rejected++;
+                logger.warn("[ALGO] Throttled, rejecting action:" + action);
+                break;
+            case COALESCE:
+                final Action toQueue = coalesce(action);
+                if (toQueue != null) {
+                    queue.addLast(toQueue);
+                }
+                break;
+            default:
+                queue.addLast(action);
+                break;
+        }
+    }
+
+    /**
+     * Actions that all fit in the window, with nothing held ahead of them, are sent as one batch. Otherwise each is
+     * throttled on its own and anything held goes out as the window allows.
+     */
+    @Override
+    public void processActions(final ActionBuffer actions) {
+        final long now = clock.nanoTime();
+
+        drain(now);
+
+        if (queue.isEmpty() && tryAcquireAll(actions, now)) {
+            for (int i = 0; i < actions.size(); i++) {
+                count(actions.get(i));
+            }
+            super.processActions(actions);
+            return;
+        }
+
+        for (int i = 0; i < actions.size(); i++) {
+            processAction(actions.get(i));
+        }
+    }
+
+    @Override
+    public int poll() {
+        return queue.isEmpty() ? 0 : drain(clock.nanoTime());
+    }
+
+    private int drain(final long now) {
+        int sent = 0;
+        Action action;
+        while ((action = pollSendable(now)) != null) {
+            send(action);
+            sent++;
+        }
+        return sent;
+    }
+
+    /**
+     * Takes the first held action whose limit has room. Sending can re-enter the actioner, so the queue is only
+     * changed here and never while an action is out.
+     */
+    private Action pollSendable(final long now) {
+        boolean createsFull = false;
+        boolean cancelsFull = false;
+        final Iterator<Action> held = queue.iterator();
+        while (held.hasNext() && !(createsFull && cancelsFull)) {
+            final Action action = held.next();
+            final SlidingWindowRateLimiter limiter = limiter(action);
+            if (limiter == creates ? createsFull : cancelsFull) {
+                continue;
+            }
+            if (limiter.tryAcquire(now)) {
+                held.remove();
+                return action;
+            }
+            if (limiter == creates) {
+                createsFull = true;
+            } else {
+                cancelsFull = true;
+            }
+        }
+        return null;
+    }
+
+    private boolean isHolding(final SlidingWindowRateLimiter limiter) {
+        for (Action action : queue) {
+            if (limiter(action) == limiter) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the action to queue, or null when it was merged into a held action.
+     */
+    private Action coalesce(final Action action) {
+        if (action instanceof CreateChildOrder && mergeIntoHeldCancel((CreateChildOrder) action)) {
+            coalesced++;
+            return null;
+        }
+
+        final Iterator<Action> held = queue.iterator();
+        while (held.hasNext()) {
+            if (supersedes(action, held.next())) {
+                held.remove();
+                coalesced++;
+            }
+        }
+        return action;
+    }
+
+    /**
+     * A new order for the same parent and side as a held cancel becomes an amend of the cancelled order, sent where
+     * the cancel would have been.
+     */
+    private boolean mergeIntoHeldCancel(final CreateChildOrder create) {
+        final int size = queue.size();
+        boolean merged = false;
+        for (int i = 0; i < size; i++) {
+            final Action older = queue.pollFirst();
+            if (!merged && older instanceof CancelChildOrder && canAmend(((CancelChildOrder) older).getOrderToCancel(), create)) {
+                queue.addLast(new AmendChildOrder(((CancelChildOrder) older).getOrderToCancel(), create.getQuantity(), create.getPrice()));
+                merged = true;
+            } else {
+                queue.addLast(older);
+            }
+        }
+        return merged;
+    }
+
+    private static boolean canAmend(final ChildOrder child, final CreateChildOrder create) {
+        return child.getSide() == create.getSide() && child.getParentOrderId() == create.getParentOrderId();
+    }
+
+    private static boolean supersedes(final Action newer, final Action older) {
+        if (newer instanceof CancelChildOrder && older instanceof CancelChildOrder) {
+            return ((CancelChildOrder) newer).getOrderToCancel().getOrderId() == ((CancelChildOrder) older).getOrderToCancel().getOrderId();
+        }
+        if (newer instanceof AmendChildOrder && older instanceof AmendChildOrder) {
+            return ((AmendChildOrder) newer).getOrderToAmend().getOrderId() == ((AmendChildOrder) older).getOrderToAmend().getOrderId();
+        }
+        if (newer instanceof CreateChildOrder && older instanceof CreateChildOrder) {
+            return ((CreateChildOrder) newer).getSide() == ((CreateChildOrder) older).getSide()
+                    && ((CreateChildOrder) newer).getPrice() == ((CreateChildOrder) older).getPrice();
+        }
+        return false;
+    }
+
+    /**
+     * @return the limit the action counts against, or null if it is never throttled.
+     */
+    private SlidingWindowRateLimiter limiter(final Action action) {
+        if (action instanceof CreateChildOrder || action instanceof AmendChildOrder) {
+            return creates;
+        } else if (action instanceof CancelChildOrder || action instanceof CancelChildOrders) {
+            return cancels;
+        }
+        return null;
+    }
+
+    private boolean tryAcquireAll(final ActionBuffer actions, final long now) {
+        int createCount = 0;
+        int cancelCount = 0;
+        for (int i = 0; i < actions.size(); i++) {
+            final SlidingWindowRateLimiter limiter = limiter(actions.get(i));
+            if (limiter == creates) {
+                createCount++;
+            } else if (limiter == cancels) {
+                cancelCount++;
+            }
+        }
+        if (!creates.isAvailable(now, createCount) || !cancels.isAvailable(now, cancelCount)) {
+            return false;
+        }
+        for (int i = 0; i < createCount; i++) {
+            creates.tryAcquire(now);
+        }
+        for (int i = 0; i < cancelCount; i++) {
+            cancels.tryAcquire(now);
+        }
+        return true;
+    }
+
+    private void send(final Action action) {
+        count(action);
+        super.processAction(action);
+    }
+
+    private void count(final Action action) {
+        if (action instanceof CreateChildOrder) {
+            sentCreates++;
+        } else if (action instanceof CancelChildOrder || action instanceof CancelChildOrders) {
+            sentCancels++;
+        } else if (action instanceof AmendChildOrder) {
+            sentAmends++;
+        }
+    }
+
+    public void registerMBean(final String name) {
+        try {
+            final ObjectName objectName = new ObjectName("codingblackfemales.algo:type=Throttle,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        } catch (JMException e) {
+            throw new RuntimeException(String.format("Failed to register throttle metrics name=[%s]", name), e);
+        }
+    }
+
+    @Override
+    public String getPolicy() {
+        return policy.name();
+    }
+
+    @Override
+    public long getSentCreates() {
+        return sentCreates;
+    }
+
+    @Override
+    public long getSentCancels() {
+        return sentCancels;
+    }
+
+    @Override
+    public long getSentAmends() {
+        return sentAmends;
+    }
+
+    @Override
+    public long getThrottled() {
+        return throttled;
+    }
+
+    @Override
+    public long getRejected() {
+        return rejected;
+    }
+
+    @Override
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public int getCreatesInWindow() {
+        return creates.used(clock.nanoTime());
+    }
+
+    @Override
+    public int getCancelsInWindow() {
+        return cancels.used(clock.nanoTime());
+    }
+
+    @Override
+    public String toString() {
+        return "ThrottlingActioner(policy=" + policy + ",sentCreates=" + sentCreates + ",sentCancels=" + sentCancels + ",sentAmends=" + sentAmends
+                + ",throttled=" + throttled + ",rejected=" + rejected + ",coalesced=" + coalesced + ",queueDepth=" + queue.size() + ")";
+    }
+}
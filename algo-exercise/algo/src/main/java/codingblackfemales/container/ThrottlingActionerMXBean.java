@@ -0,0 +1,23 @@
+package codingblackfemales.container;
+
+public interface ThrottlingActionerMXBean {
+    String getPolicy();
+
+    long getSentCreates();
+
+    long getSentCancels();
+
+    long getSentAmends();
+
+    long getThrottled();
+
+    long getRejected();
+
+    long getCoalesced();
+
+    int getQueueDepth();
+
+    int getCreatesInWindow();
+
+    int getCancelsInWindow();
+}
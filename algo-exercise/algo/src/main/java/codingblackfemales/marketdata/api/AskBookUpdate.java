@@ -9,4 +9,16 @@ public interface AskBookUpdate extends MarketDataMessage {
     }
 
     List<BookEntry> askBook();
+
+    default int askDepth() {
+        return askBook().size();
+    }
+
+    default long askPrice(final int level) {
+        return askBook().get(level).price();
+    }
+
+    default long askSize(final int level) {
+        return askBook().get(level).size();
+    }
 }
@@ -9,4 +9,16 @@ public interface BidBookUpdate extends MarketDataMessage {
     }
 
     List<BookEntry> bidBook();
+
+    default int bidDepth() {
+        return bidBook().size();
+    }
+
+    default long bidPrice(final int level) {
+        return bidBook().get(level).price();
+    }
+
+    default long bidSize(final int level) {
+        return bidBook().get(level).size();
+    }
 }
@@ -15,4 +15,32 @@ public interface BookUpdate extends MarketDataMessage {
     List<BookEntry> bidBook();
 
     List<BookEntry> askBook();
+
+    /**
+     * Level by level access to the book, which array backed updates serve without creating a {@link BookEntry}
+     * per level.
+     */
+    default int bidDepth() {
+        return bidBook().size();
+    }
+
+    default long bidPrice(final int level) {
+        return bidBook().get(level).price();
+    }
+
+    default long bidSize(final int level) {
+        return bidBook().get(level).size();
+    }
+
+    default int askDepth() {
+        return askBook().size();
+    }
+
+    default long askPrice(final int level) {
+        return askBook().get(level).price();
+    }
+
+    default long askSize(final int level) {
+        return askBook().get(level).size();
+    }
 }
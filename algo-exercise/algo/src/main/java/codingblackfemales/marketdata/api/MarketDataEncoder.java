@@ -1,82 +1,143 @@
 package codingblackfemales.marketdata.api;
 
 import messages.marketdata.*;
+import org.agrona.ExpandableDirectByteBuffer;
+import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 
-import java.nio.ByteBuffer;
-
 import static java.lang.String.format;
 
+/**
+ * Encodes market data messages to SBE. The length of a message is worked out from its book sizes before anything
+ * is written, so callers get back exactly the encoded bytes and copies downstream never move more than that.
+ *
+ * The messages have no field for the event time, so it goes in the header's sequencer timestamp: a recorded
+ * message was sequenced at its event time, and the sequencer stamps its own time over it when it is replayed.
+ */
 public class MarketDataEncoder {
+
+    public static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * The most entries one side of a book can carry, bounded by the group's uint16 count.
+     */
+    public static final int MAX_BOOK_ENTRIES = 65_535;
+
     private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
     private final BookUpdateEncoder bookUpdateEncoder = new BookUpdateEncoder();
     private final AskBookUpdateEncoder askBookUpdateEncoder = new AskBookUpdateEncoder();
     private final BidBookUpdateEncoder bidBookUpdateEncoder = new BidBookUpdateEncoder();
 
+    private final ExpandableDirectByteBuffer buffer = new ExpandableDirectByteBuffer(INITIAL_CAPACITY);
+    private final UnsafeBuffer encoded = new UnsafeBuffer(new byte[0]);
+
+    /**
+     * Encodes into a buffer owned by this encoder, which grows as needed and is reused by the next call. The view
+     * returned is exactly the length of the message and is only valid until then.
+     */
     public UnsafeBuffer encode(final MarketDataMessage message) {
+        final int length = encode(message, buffer, 0);
+        encoded.wrap(buffer, 0, length);
+        return encoded;
+    }
+
+    /**
+     * Encodes into the caller's buffer at <code>offset</code>, returning the encoded length. An expandable buffer
+     * is grown to fit, any other buffer must already be large enough.
+     */
+    public int encode(final MarketDataMessage message, final MutableDirectBuffer buffer, final int offset) {
+        final int length = encodedLength(message);
+        if (!buffer.isExpandable() && offset + length > buffer.capacity()) {
+            throw new IllegalArgumentException(format("Buffer too small for message length=[%s] offset=[%s] capacity=[%s] message=[%s]", length, offset, buffer.capacity(), message));
+        }
+        buffer.checkLimit(offset + length);
+
         switch (message.updateType()) {
             case BookUpdate:
-                return doEncode((BookUpdate) message);
+                doEncode((BookUpdate) message, buffer, offset);
+                break;
             case AskUpdate:
-                return doEncode((AskBookUpdate) message);
+                doEncode((AskBookUpdate) message, buffer, offset);
+                break;
             case BidUpdate:
-                return doEncode((BidBookUpdate) message);
+                doEncode((BidBookUpdate) message, buffer, offset);
+                break;
             default:
                 throw new RuntimeException(format("Unsupported updateType=[%s] message=[%s]", message.updateType(), message));
         }
+        headerEncoder.sequencerTimestamp(message.eventTime());
+        return length;
     }
 
-    private UnsafeBuffer doEncode(final AskBookUpdate update) {
-        final UnsafeBuffer directBuffer = buffer();
-        askBookUpdateEncoder.wrapAndApplyHeader(directBuffer, 0, headerEncoder);
+    /**
+     * The number of bytes {@link #encode(MarketDataMessage, MutableDirectBuffer, int)} will write for the message.
+     */
+    public static int encodedLength(final MarketDataMessage message) {
+        switch (message.updateType()) {
+            case BookUpdate:
+                final BookUpdate update = (BookUpdate) message;
+                return MessageHeaderEncoder.ENCODED_LENGTH + BookUpdateEncoder.BLOCK_LENGTH
+                        + groupLength(BookUpdateEncoder.BidBookEncoder.sbeHeaderSize(), BookUpdateEncoder.BidBookEncoder.sbeBlockLength(), update.bidDepth(), message)
+                        + groupLength(BookUpdateEncoder.AskBookEncoder.sbeHeaderSize(), BookUpdateEncoder.AskBookEncoder.sbeBlockLength(), update.askDepth(), message);
+            case AskUpdate:
+                return MessageHeaderEncoder.ENCODED_LENGTH + AskBookUpdateEncoder.BLOCK_LENGTH
+                        + groupLength(AskBookUpdateEncoder.AskBookEncoder.sbeHeaderSize(), AskBookUpdateEncoder.AskBookEncoder.sbeBlockLength(), ((AskBookUpdate) message).askDepth(), message);
+            case BidUpdate:
+                return MessageHeaderEncoder.ENCODED_LENGTH + BidBookUpdateEncoder.BLOCK_LENGTH
+                        + groupLength(BidBookUpdateEncoder.BidBookEncoder.sbeHeaderSize(), BidBookUpdateEncoder.BidBookEncoder.sbeBlockLength(), ((BidBookUpdate) message).bidDepth(), message);
+            default:
+                throw new RuntimeException(format("Unsupported updateType=[%s] message=[%s]", message.updateType(), message));
+        }
+    }
+
+    private static int groupLength(final int headerSize, final int blockLength, final int depth, final MarketDataMessage message) {
+        if (depth > MAX_BOOK_ENTRIES) {
+            throw new IllegalArgumentException(format("Too many book entries count=[%s] max=[%s] message=[%s]", depth, MAX_BOOK_ENTRIES, message));
+        }
+        return headerSize + depth * blockLength;
+    }
+
+    private void doEncode(final AskBookUpdate update, final MutableDirectBuffer directBuffer, final int offset) {
+        askBookUpdateEncoder.wrapAndApplyHeader(directBuffer, offset, headerEncoder);
         askBookUpdateEncoder.venue(update.venue());
         askBookUpdateEncoder.instrumentId(update.instrumentId());
-        AskBookUpdateEncoder.AskBookEncoder askBookEncoder = askBookUpdateEncoder.askBookCount(update.askBook().size());
-        for (int i = 0; i < update.askBook().size(); i++) {
-            BookEntry bookEntry = update.askBook().get(i);
-            askBookEncoder.next().price(bookEntry.price()).size(bookEntry.size());
+        final int depth = update.askDepth();
+        AskBookUpdateEncoder.AskBookEncoder askBookEncoder = askBookUpdateEncoder.askBookCount(depth);
+        for (int i = 0; i < depth; i++) {
+            askBookEncoder.next().price(update.askPrice(i)).size(update.askSize(i));
         }
-        return directBuffer;
     }
 
-    private UnsafeBuffer doEncode(final BidBookUpdate update) {
-        final UnsafeBuffer directBuffer = buffer();
-        bidBookUpdateEncoder.wrapAndApplyHeader(directBuffer, 0, headerEncoder);
+    private void doEncode(final BidBookUpdate update, final MutableDirectBuffer directBuffer, final int offset) {
+        bidBookUpdateEncoder.wrapAndApplyHeader(directBuffer, offset, headerEncoder);
         bidBookUpdateEncoder.venue(update.venue());
         bidBookUpdateEncoder.instrumentId(update.instrumentId());
-        BidBookUpdateEncoder.BidBookEncoder bidBookEncoder = bidBookUpdateEncoder.bidBookCount(update.bidBook().size());
-        for (int i = 0; i < update.bidBook().size(); i++) {
-            BookEntry bookEntry = update.bidBook().get(i);
-            bidBookEncoder.next().price(bookEntry.price()).size(bookEntry.size());
+        final int depth = update.bidDepth();
+        BidBookUpdateEncoder.BidBookEncoder bidBookEncoder = bidBookUpdateEncoder.bidBookCount(depth);
+        for (int i = 0; i < depth; i++) {
+            bidBookEncoder.next().price(update.bidPrice(i)).size(update.bidSize(i));
         }
-        return directBuffer;
     }
 
-    private UnsafeBuffer doEncode(final BookUpdate update) {
-        final UnsafeBuffer directBuffer = buffer();
-        bookUpdateEncoder.wrapAndApplyHeader(directBuffer, 0, headerEncoder);
+    private void doEncode(final BookUpdate update, final MutableDirectBuffer directBuffer, final int offset) {
+        bookUpdateEncoder.wrapAndApplyHeader(directBuffer, offset, headerEncoder);
         bookUpdateEncoder.venue(update.venue());
         bookUpdateEncoder.instrumentId(update.instrumentId());
 
-        BookUpdateEncoder.AskBookEncoder askBookEncoder = bookUpdateEncoder.askBookCount(update.askBook().size());
-        for (int i = 0; i < update.askBook().size(); i++) {
-            BookEntry bookEntry = update.askBook().get(i);
-            askBookEncoder.next().price(bookEntry.price()).size(bookEntry.size());
+        //groups have to be written in schema order, bids first
+        final int bidDepth = update.bidDepth();
+        BookUpdateEncoder.BidBookEncoder bidBookEncoder = bookUpdateEncoder.bidBookCount(bidDepth);
+        for (int i = 0; i < bidDepth; i++) {
+            bidBookEncoder.next().price(update.bidPrice(i)).size(update.bidSize(i));
         }
 
-        BookUpdateEncoder.BidBookEncoder bidBookEncoder = bookUpdateEncoder.bidBookCount(update.bidBook().size());
-        for (int i = 0; i < update.bidBook().size(); i++) {
-            BookEntry bookEntry = update.bidBook().get(i);
-            bidBookEncoder.next().price(bookEntry.price()).size(bookEntry.size());
+        final int askDepth = update.askDepth();
+        BookUpdateEncoder.AskBookEncoder askBookEncoder = bookUpdateEncoder.askBookCount(askDepth);
+        for (int i = 0; i < askDepth; i++) {
+            askBookEncoder.next().price(update.askPrice(i)).size(update.askSize(i));
         }
 
         bookUpdateEncoder.instrumentStatus(update.instrumentStatus());
         bookUpdateEncoder.source(Source.STREAM);
-        return directBuffer;
-    }
-
-    private UnsafeBuffer buffer() {
-        final ByteBuffer byteBuffer = ByteBuffer.allocateDirect(1024);
-        return new UnsafeBuffer(byteBuffer);
     }
 }
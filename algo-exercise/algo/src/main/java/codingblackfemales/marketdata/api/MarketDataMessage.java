@@ -8,4 +8,9 @@ public interface MarketDataMessage {
     Venue venue();
 
     UpdateType updateType();
+
+    /**
+     * @return nanoseconds since the epoch when the update happened, zero if it wasn't recorded.
+     */
+    long eventTime();
 }
@@ -0,0 +1,88 @@
+package codingblackfemales.marketdata.gen;
+
+import codingblackfemales.marketdata.api.MarketDataEncoder;
+import codingblackfemales.marketdata.api.MarketDataMessage;
+import codingblackfemales.sequencer.frame.FrameAppender;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes generated market data as SBE messages in {@link codingblackfemales.sequencer.frame.Frame}s, the same
+ * layout the sequencer takes in batches, so a file can be read back without any parsing. Messages are encoded
+ * straight into a write buffer which is flushed to the file as it fills. Each message's event time is kept in its
+ * SBE header, see {@link MarketDataEncoder}.
+ *
+ * @see codingblackfemales.marketdata.impl.BinaryFileMarketDataProvider
+ */
+public class BinaryFileMarketDataGenerator implements AutoCloseable {
+
+    public static final int DEFAULT_BUFFER_LENGTH = 1024 * 1024;
+
+    private final String marketDataFileName;
+    private final MarketDataGenerator generator;
+    private final FileChannel channel;
+    private final ByteBuffer byteBuffer;
+    private final FrameAppender appender;
+    private final MarketDataEncoder encoder = new MarketDataEncoder();
+
+    public BinaryFileMarketDataGenerator(final String marketDataFileName, final MarketDataGenerator generator) {
+        this(marketDataFileName, generator, DEFAULT_BUFFER_LENGTH);
+    }
+
+    public BinaryFileMarketDataGenerator(final String marketDataFileName, final MarketDataGenerator generator, final int bufferLength) {
+        this.marketDataFileName = marketDataFileName;
+        this.generator = generator;
+        this.byteBuffer = ByteBuffer.allocateDirect(bufferLength);
+        this.appender = new FrameAppender(new UnsafeBuffer(byteBuffer));
+        try {
+            channel = FileChannel.open(Paths.get(marketDataFileName), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Failed to create market data file marketDataFileName=[%s]", marketDataFileName), e);
+        }
+    }
+
+    public void generate(final int entriesCount) {
+        for (int i = 0; i < entriesCount; i++) {
+            write(generator.next());
+        }
+    }
+
+    public void write(final MarketDataMessage message) {
+        final int length = MarketDataEncoder.encodedLength(message);
+        if (!appender.hasCapacityFor(length)) {
+            flush();
+            if (!appender.hasCapacityFor(length)) {
+                throw new IllegalArgumentException(String.format("Message larger than the write buffer length=[%s] bufferLength=[%s] message=[%s]", length, byteBuffer.capacity(), message));
+            }
+        }
+        encoder.encode(message, appender.buffer(), appender.messageOffset());
+        appender.commit(length);
+    }
+
+    public void flush() {
+        byteBuffer.clear().limit(appender.position());
+        try {
+            while (byteBuffer.hasRemaining()) {
+                channel.write(byteBuffer);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Failed to write market data file marketDataFileName=[%s]", marketDataFileName), e);
+        }
+        appender.reset();
+    }
+
+    @Override
+    public void close() {
+        flush();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Failed to close market data file marketDataFileName=[%s]", marketDataFileName), e);
+        }
+    }
+}
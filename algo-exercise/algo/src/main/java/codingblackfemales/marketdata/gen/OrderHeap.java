@@ -0,0 +1,191 @@
+package codingblackfemales.marketdata.gen;
+
+import codingblackfemales.marketdata.gen.RandomMarketDataGenerator.Order;
+import codingblackfemales.marketdata.impl.BookLevels;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * A binary heap of orders, best first. Unlike a {@link java.util.PriorityQueue} it can get, remove or re-price the
+ * order at any position in O(log n): each order keeps track of where it is in the heap, so it is never searched for.
+ */
+final class OrderHeap {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Comparator<Order> comparator;
+    private Order[] orders = new Order[INITIAL_CAPACITY];
+    private int size;
+
+    //positions still to be visited when walking the best levels, reused between calls
+    private int[] candidates = new int[INITIAL_CAPACITY];
+
+    OrderHeap(final Comparator<Order> comparator) {
+        this.comparator = comparator;
+    }
+
+    int size() {
+        return size;
+    }
+
+    Order peek() {
+        return size == 0 ? null : orders[0];
+    }
+
+    /**
+     * Positions are in heap order rather than price order, any position from zero to size is valid.
+     */
+    Order get(final int position) {
+        checkPosition(position);
+        return orders[position];
+    }
+
+    void add(final Order order) {
+        if (size == orders.length) {
+            orders = Arrays.copyOf(orders, size * 2);
+        }
+        orders[size] = order;
+        order.position = size;
+        size++;
+        siftUp(order.position);
+    }
+
+    Order removeAt(final int position) {
+        checkPosition(position);
+        final Order removed = orders[position];
+        size--;
+        final Order last = orders[size];
+        orders[size] = null;
+        if (position != size) {
+            orders[position] = last;
+            last.position = position;
+            siftDown(position);
+            siftUp(last.position);
+        }
+        removed.position = -1;
+        return removed;
+    }
+
+    /**
+     * Restores the heap after the price of the order at the position has changed.
+     */
+    void update(final int position) {
+        checkPosition(position);
+        final Order order = orders[position];
+        siftUp(position);
+        siftDown(order.position);
+    }
+
+    /**
+     * Copies at most <code>maxLevels</code> of the best orders into the levels, best first, without disturbing the
+     * heap. Only the orders that could be next are looked at, so this is O(k log k) for k levels however big the
+     * heap is.
+     */
+    void copyBest(final int maxLevels, final BookLevels levels) {
+        if (size == 0 || maxLevels <= 0) {
+            return;
+        }
+        if (candidates.length < maxLevels + 1) {
+            candidates = new int[maxLevels + 1];
+        }
+
+        int candidateCount = 0;
+        candidates[candidateCount++] = 0;
+        for (int copied = 0; copied < maxLevels && candidateCount > 0; copied++) {
+            final int best = candidates[0];
+            levels.add(orders[best].price, orders[best].qty);
+
+            candidates[0] = candidates[--candidateCount];
+            candidateSiftDown(candidateCount);
+
+            final int left = 2 * best + 1;
+            if (left < size) {
+                candidateCount = candidateAdd(candidateCount, left);
+                if (left + 1 < size) {
+                    candidateCount = candidateAdd(candidateCount, left + 1);
+                }
+            }
+        }
+    }
+
+    Stream<Order> stream() {
+        return Arrays.stream(orders, 0, size);
+    }
+
+    private void siftUp(int position) {
+        final Order order = orders[position];
+        while (position > 0) {
+            final int parent = (position - 1) >>> 1;
+            if (comparator.compare(order, orders[parent]) >= 0) {
+                break;
+            }
+            orders[position] = orders[parent];
+            orders[position].position = position;
+            position = parent;
+        }
+        orders[position] = order;
+        order.position = position;
+    }
+
+    private void siftDown(int position) {
+        final Order order = orders[position];
+        final int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && comparator.compare(orders[child + 1], orders[child]) < 0) {
+                child++;
+            }
+            if (comparator.compare(order, orders[child]) <= 0) {
+                break;
+            }
+            orders[position] = orders[child];
+            orders[position].position = position;
+            position = child;
+        }
+        orders[position] = order;
+        order.position = position;
+    }
+
+    private int candidateAdd(final int candidateCount, final int heapPosition) {
+        int position = candidateCount;
+        while (position > 0) {
+            final int parent = (position - 1) >>> 1;
+            if (comparator.compare(orders[heapPosition], orders[candidates[parent]]) >= 0) {
+                break;
+            }
+            candidates[position] = candidates[parent];
+            position = parent;
+        }
+        candidates[position] = heapPosition;
+        return candidateCount + 1;
+    }
+
+    private void candidateSiftDown(final int candidateCount) {
+        if (candidateCount == 0) {
+            return;
+        }
+        final int heapPosition = candidates[0];
+        int position = 0;
+        final int half = candidateCount >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < candidateCount && comparator.compare(orders[candidates[child + 1]], orders[candidates[child]]) < 0) {
+                child++;
+            }
+            if (comparator.compare(orders[heapPosition], orders[candidates[child]]) <= 0) {
+                break;
+            }
+            candidates[position] = candidates[child];
+            position = child;
+        }
+        candidates[position] = heapPosition;
+    }
+
+    private void checkPosition(final int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException(String.format("position=[%s] size=[%s]", position, size));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package codingblackfemales.marketdata.gen;
+
+import messages.marketdata.Venue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates several binary market data files at once, e.g. one per instrument or per day, each on its own thread.
+ *
+ * Every file gets its own seed, drawn in the order the files were added from a generator seeded with the root seed.
+ * A file's contents therefore depend only on the root seed and its position in the list, never on how the threads
+ * were scheduled, and any one file can be regenerated on its own from {@link #getSeed(int)} and
+ * {@link #getFirstEventTime()}. Every file starts at the same event time, which is fixed rather than taken from
+ * the clock, so generating again with the same seed writes the same bytes.
+ */
+public class ParallelMarketDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelMarketDataGenerator.class);
+
+    /**
+     * 2024-01-01T00:00:00Z in nanoseconds since the epoch.
+     */
+    public static final long DEFAULT_FIRST_EVENT_TIME = 1_704_067_200_000_000_000L;
+
+    private final SplittableRandom seeds;
+    private final int threads;
+    private final long firstEventTime;
+    private final List<Runnable> jobs = new ArrayList<>();
+    private final List<Long> jobSeeds = new ArrayList<>();
+
+    public ParallelMarketDataGenerator(final long seed) {
+        this(seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelMarketDataGenerator(final long seed, final int threads) {
+        this(seed, threads, DEFAULT_FIRST_EVENT_TIME);
+    }
+
+    public ParallelMarketDataGenerator(final long seed, final int threads, final long firstEventTime) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException(String.format("threads=[%s] must be positive", threads));
+        }
+        if (firstEventTime <= 0) {
+            throw new IllegalArgumentException(String.format("firstEventTime=[%s] must be positive", firstEventTime));
+        }
+        this.seeds = new SplittableRandom(seed);
+        this.threads = threads;
+        this.firstEventTime = firstEventTime;
+    }
+
+    public ParallelMarketDataGenerator add(final String marketDataFileName,
+                                           final long instrumentId,
+                                           final Venue venue,
+                                           final long priceLevel,
+                                           final long priceMaxDelta,
+                                           final long marketDataMessagesMaxLevel,
+                                           final int entriesCount) {
+        final long seed = seeds.nextLong();
+        jobSeeds.add(seed);
+        jobs.add(() -> {
+            final RandomMarketDataGenerator generator = new RandomMarketDataGenerator(instrumentId, venue, priceLevel, priceMaxDelta, marketDataMessagesMaxLevel, seed)
+                    .setEventTimes(firstEventTime, RandomMarketDataGenerator.DEFAULT_EVENT_INTERVAL_NANOS);
+            try (BinaryFileMarketDataGenerator file = new BinaryFileMarketDataGenerator(marketDataFileName, generator)) {
+                file.generate(entriesCount);
+            }
+            logger.info("Generated marketDataFileName=[{}] instrumentId=[{}] entriesCount=[{}] seed=[{}]", marketDataFileName, instrumentId, entriesCount, seed);
+        });
+        return this;
+    }
+
+    /**
+     * @return the seed of the <code>index</code>th file added, to regenerate just that file with a
+     * {@link RandomMarketDataGenerator}.
+     */
+    public long getSeed(final int index) {
+        return jobSeeds.get(index);
+    }
+
+    public long getFirstEventTime() {
+        return firstEventTime;
+    }
+
+    /**
+     * Generates every file that has been added, returning once they have all been written.
+     */
+    public void generate() {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, jobs.size())), runnable -> {
+            final Thread thread = new Thread(runnable, "market-data-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (Runnable job : jobs) {
+                futures.add(executor.submit(job));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while generating market data", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to generate market data", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,22 +1,24 @@
 package codingblackfemales.marketdata.gen;
 
-import codingblackfemales.marketdata.api.BookEntry;
 import codingblackfemales.marketdata.api.MarketDataMessage;
-import codingblackfemales.marketdata.impl.AskBookUpdateImpl;
-import codingblackfemales.marketdata.impl.BidBookUpdateImpl;
-import codingblackfemales.marketdata.impl.BookUpdateImpl;
+import codingblackfemales.marketdata.impl.ArrayAskBookUpdate;
+import codingblackfemales.marketdata.impl.ArrayBidBookUpdate;
+import codingblackfemales.marketdata.impl.ArrayBookUpdate;
+import codingblackfemales.marketdata.impl.BookLevels;
+import codingblackfemales.sequencer.clock.SystemClock;
 import messages.marketdata.InstrumentStatus;
 import messages.marketdata.Venue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static java.lang.Math.toIntExact;
 
 public class RandomMarketDataGenerator implements MarketDataGenerator {
+    public static final long DEFAULT_EVENT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
     private static final long BID_START = Long.MIN_VALUE;
     private static final long ASK_START = Long.MAX_VALUE;
     private static final int spreadMultiplierMin = 5;
@@ -30,18 +32,44 @@ public class RandomMarketDataGenerator implements MarketDataGenerator {
     private long marketDataMessagesMaxLevel;
     private final InstrumentStatus instrumentStatus = InstrumentStatus.CONTINUOUS;
     private final Comparator<Order> buysCompare = Order::compareTo;
-    private final Queue<Order> buys = new PriorityQueue<>(buysCompare);
+    private final OrderHeap buys = new OrderHeap(buysCompare);
     private final Comparator<Order> sellsCompare = (t1, t2) -> -1 * t1.compareTo(t2);
-    private final Queue<Order> sells = new PriorityQueue<>(sellsCompare);
+    private final OrderHeap sells = new OrderHeap(sellsCompare);
+    private final SplittableRandom random;
     private long mid;
     private long bid = BID_START;
     private long ask = ASK_START;
+    private long eventTime = SystemClock.INSTANCE.epochNanos();
+    private long eventIntervalNanos = DEFAULT_EVENT_INTERVAL_NANOS;
 
     public RandomMarketDataGenerator(final long instrumentId,
                                      final Venue venue,
                                      final long priceLevel,
                                      final long priceMaxDelta,
                                      final long marketDataMessagesMaxLevel) {
+        this(instrumentId, venue, priceLevel, priceMaxDelta, marketDataMessagesMaxLevel, new SplittableRandom());
+    }
+
+    /**
+     * The same seed and parameters always generate the same books, and with the same {@link #setEventTimes} the
+     * same messages.
+     */
+    public RandomMarketDataGenerator(final long instrumentId,
+                                     final Venue venue,
+                                     final long priceLevel,
+                                     final long priceMaxDelta,
+                                     final long marketDataMessagesMaxLevel,
+                                     final long seed) {
+        this(instrumentId, venue, priceLevel, priceMaxDelta, marketDataMessagesMaxLevel, new SplittableRandom(seed));
+    }
+
+    private RandomMarketDataGenerator(final long instrumentId,
+                                      final Venue venue,
+                                      final long priceLevel,
+                                      final long priceMaxDelta,
+                                      final long marketDataMessagesMaxLevel,
+                                      final SplittableRandom random) {
+        this.random = random;
         this.startPriceLevel = this.mid = priceLevel;
         this.priceMaxDelta = priceMaxDelta;
         this.instrumentId = instrumentId;
@@ -50,6 +78,20 @@ public class RandomMarketDataGenerator implements MarketDataGenerator {
         initBook();
     }
 
+    /**
+     * The first message is stamped with <code>firstEventTime</code>, in nanoseconds since the epoch, and each one
+     * after it <code>intervalNanos</code> later. By default messages start when the generator was created and come
+     * a millisecond apart.
+     */
+    public RandomMarketDataGenerator setEventTimes(final long firstEventTime, final long intervalNanos) {
+        if (firstEventTime <= 0 || intervalNanos < 0) {
+            throw new IllegalArgumentException(String.format("Invalid event times firstEventTime=[%s] intervalNanos=[%s]", firstEventTime, intervalNanos));
+        }
+        this.eventTime = firstEventTime;
+        this.eventIntervalNanos = intervalNanos;
+        return this;
+    }
+
     @Override
     public MarketDataMessage next() {
         return updateBook();
@@ -107,7 +149,7 @@ public class RandomMarketDataGenerator implements MarketDataGenerator {
         if (!sellUpdated && !buyUpdated) {
             // we have been very unlucky, just insert new order
             Side side = Side.values()[(int) rand0Max(Side.values().length)];
-            Queue<Order> orders = side == Side.Buy ? buys : sells;
+            OrderHeap orders = side == Side.Buy ? buys : sells;
             newOrder(side, orders);
             if (side == Side.Buy) {
                 buyUpdated = true;
@@ -116,13 +158,15 @@ public class RandomMarketDataGenerator implements MarketDataGenerator {
             }
         }
 
-        return toMarketDataMessage(buyUpdated, sellUpdated);
+        final MarketDataMessage message = toMarketDataMessage(buyUpdated, sellUpdated);
+        eventTime += eventIntervalNanos;
+        return message;
     }
 
     private Side doUpdateBook() {
         for (int i = 0; i < 20; i++) {
             Side side = Side.values()[(int) rand0Max(Side.values().length)];
-            Queue<Order> orders = side == Side.Buy ? buys : sells;
+            OrderHeap orders = side == Side.Buy ? buys : sells;
             Action action = Action.values()[(int) rand0Max(Action.values().length)];
 
             switch (action) {
@@ -147,38 +191,37 @@ public class RandomMarketDataGenerator implements MarketDataGenerator {
         return null;
     }
 
-    private void cancel(Side side, Queue<Order> orders) {
+    private void cancel(Side side, OrderHeap orders) {
         if (orders.size() > 0) {
             int idx = toIntExact(rand0Max(orders.size()));
-            orders.remove(orders.toArray()[idx]);
+            orders.removeAt(idx);
             logger.debug("cancel side=[{}] idx=[{}] qty=[{}]", side, idx);
             updateAskBid();
         }
     }
 
-    private void updateQty(Side side, Queue<Order> orders) {
+    private void updateQty(Side side, OrderHeap orders) {
         if (orders.size() > 0) {
             int idx = toIntExact(rand0Max(orders.size()));
-            Order order = (Order) orders.toArray()[idx];
+            Order order = orders.get(idx);
             order.qty = nextQty();
             logger.debug("qty_update side=[{}] idx=[{}] qty=[{}]", side, idx, order.qty);
         }
     }
 
-    private void updatePrice(Side side, Queue<Order> orders) {
+    private void updatePrice(Side side, OrderHeap orders) {
         if (orders.size() > 0) {
             nextSpreadMultiplier();
             int idx = toIntExact(rand0Max(orders.size()));
-            Order order = (Order) orders.toArray()[idx];
-            orders.remove(order);
+            Order order = orders.get(idx);
             order.price = side == Side.Buy ? nextBid() : nextAsk();
-            orders.add(order);
+            orders.update(idx);
             updateAskBid();
             logger.debug("price_update side=[{}] idx=[{}] price=[{}]", side, idx, order.price);
         }
     }
 
-    private void newOrder(Side side, Queue<Order> orders) {
+    private void newOrder(Side side, OrderHeap orders) {
         nextSpreadMultiplier();
         final Order order;
         if (side == Side.Buy) {
@@ -276,19 +319,21 @@ public class RandomMarketDataGenerator implements MarketDataGenerator {
     }
 
     private long rand0Max(long bound) {
-        return ThreadLocalRandom.current().nextLong(bound);
+        return random.nextLong(bound);
     }
 
     private long rand(long min, long max) {
         if (min >= max) {
             throw new RuntimeException(String.format("min >= max -- min=[%s] max=[%s]", min, max));
         }
-        return ThreadLocalRandom.current().nextLong(min, max);
+        return random.nextLong(min, max);
     }
 
-    class Order implements Comparable<Order> {
+    static class Order implements Comparable<Order> {
         long price;
         long qty;
+        //where the order currently sits in its side's heap
+        int position = -1;
 
         public Order(long price, long qty) {
             this.price = price;
@@ -342,29 +387,21 @@ public class RandomMarketDataGenerator implements MarketDataGenerator {
     }
 
     private MarketDataMessage toAskBookUpdate() {
-        return new AskBookUpdateImpl(instrumentId, venue, toBookEntries(this.sells));
+        return new ArrayAskBookUpdate(eventTime, instrumentId, venue, toBookLevels(this.sells));
     }
 
     private MarketDataMessage toBidBookUpdate() {
-        return new BidBookUpdateImpl(instrumentId, venue, toBookEntries(this.buys));
+        return new ArrayBidBookUpdate(eventTime, instrumentId, venue, toBookLevels(this.buys));
     }
 
     private MarketDataMessage toBookUpdate() {
-        return new BookUpdateImpl(instrumentId, venue, instrumentStatus, toBookEntries(this.buys), toBookEntries(this.sells));
-    }
-
-    private List<BookEntry> toBookEntries(Queue<Order> orders) {
-        List<BookEntry> bidBook = new ArrayList<>();
-        Queue<Order> buys = new PriorityQueue(orders);
-        Order buy;
-        int count = 0;
-        while ((buy = buys.poll()) != null) {
-            bidBook.add(new BookEntry().setPrice(buy.price).setSize(buy.qty));
-            count++;
-            if (count == marketDataMessagesMaxLevel) {
-                break;
-            }
-        }
-        return bidBook;
+        return new ArrayBookUpdate(eventTime, instrumentId, venue, instrumentStatus, toBookLevels(this.buys), toBookLevels(this.sells));
+    }
+
+    private BookLevels toBookLevels(OrderHeap orders) {
+        final int depth = marketDataMessagesMaxLevel > 0 ? toIntExact(Math.min(orders.size(), marketDataMessagesMaxLevel)) : orders.size();
+        final BookLevels levels = new BookLevels(depth);
+        orders.copyBest(depth, levels);
+        return levels;
     }
 }
\ No newline at end of file
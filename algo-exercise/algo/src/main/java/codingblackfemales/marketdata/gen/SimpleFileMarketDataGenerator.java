@@ -1,12 +1,21 @@
 package codingblackfemales.marketdata.gen;
 
+import codingblackfemales.marketdata.api.AskBookUpdate;
+import codingblackfemales.marketdata.api.BidBookUpdate;
+import codingblackfemales.marketdata.api.BookEntry;
+import codingblackfemales.marketdata.api.BookUpdate;
 import codingblackfemales.marketdata.api.MarketDataMessage;
+import codingblackfemales.marketdata.impl.AskBookUpdateImpl;
+import codingblackfemales.marketdata.impl.BidBookUpdateImpl;
+import codingblackfemales.marketdata.impl.BookUpdateImpl;
 import com.google.gson.Gson;
 
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class SimpleFileMarketDataGenerator {
     private final Gson gson = new Gson();
@@ -15,6 +24,8 @@ public class SimpleFileMarketDataGenerator {
     private final BufferedWriter writer;
     private final String lineSeparator;
     private final MarketDataGenerator generator;
+    private final List<BookEntry> bidEntries = new ArrayList<>();
+    private final List<BookEntry> askEntries = new ArrayList<>();
 
     public SimpleFileMarketDataGenerator(final String marketDataFileName,
                                          final MarketDataGenerator generator) {
@@ -45,10 +56,59 @@ public class SimpleFileMarketDataGenerator {
         try {
             for (int i = 0; i < entriesCount; i++) {
                 MarketDataMessage marketDataMessage = generator.next();
-                writer.write(marketDataMessage.updateType().ordinal() + "," + gson.toJson(marketDataMessage) + lineSeparator);
+                writer.write(marketDataMessage.updateType().ordinal() + "," + gson.toJson(toFileFormat(marketDataMessage)) + lineSeparator);
             }
         } catch (IOException e) {
             throw new RuntimeException(String.format("Failed to create market data file marketDataFileName=[%s]", marketDataFileName), e);
         }
     }
+
+    /**
+     * The file holds the list backed form that {@link codingblackfemales.marketdata.impl.SimpleFileMarketDataProvider}
+     * reads back, whichever implementation the generator produced. Other implementations are read level by level
+     * into entries this generator keeps, as the message is serialised before the next one is made.
+     */
+    private MarketDataMessage toFileFormat(final MarketDataMessage message) {
+        if (message.getClass() == message.updateType().getMessageClass()) {
+            return message;
+        }
+        switch (message.updateType()) {
+            case BookUpdate:
+                final BookUpdate update = (BookUpdate) message;
+                resize(bidEntries, update.bidDepth());
+                for (int i = 0; i < bidEntries.size(); i++) {
+                    bidEntries.get(i).setPrice(update.bidPrice(i)).setSize(update.bidSize(i));
+                }
+                resize(askEntries, update.askDepth());
+                for (int i = 0; i < askEntries.size(); i++) {
+                    askEntries.get(i).setPrice(update.askPrice(i)).setSize(update.askSize(i));
+                }
+                return new BookUpdateImpl(update.eventTime(), update.instrumentId(), update.venue(), update.instrumentStatus(), bidEntries, askEntries);
+            case AskUpdate:
+                final AskBookUpdate askUpdate = (AskBookUpdate) message;
+                resize(askEntries, askUpdate.askDepth());
+                for (int i = 0; i < askEntries.size(); i++) {
+                    askEntries.get(i).setPrice(askUpdate.askPrice(i)).setSize(askUpdate.askSize(i));
+                }
+                return new AskBookUpdateImpl(askUpdate.eventTime(), askUpdate.instrumentId(), askUpdate.venue(), askEntries);
+            case BidUpdate:
+                final BidBookUpdate bidUpdate = (BidBookUpdate) message;
+                resize(bidEntries, bidUpdate.bidDepth());
+                for (int i = 0; i < bidEntries.size(); i++) {
+                    bidEntries.get(i).setPrice(bidUpdate.bidPrice(i)).setSize(bidUpdate.bidSize(i));
+                }
+                return new BidBookUpdateImpl(bidUpdate.eventTime(), bidUpdate.instrumentId(), bidUpdate.venue(), bidEntries);
+            default:
+                throw new RuntimeException(String.format("Unsupported updateType=[%s] message=[%s]", message.updateType(), message));
+        }
+    }
+
+    private static void resize(final List<BookEntry> entries, final int depth) {
+        while (entries.size() > depth) {
+            entries.remove(entries.size() - 1);
+        }
+        while (entries.size() < depth) {
+            entries.add(new BookEntry());
+        }
+    }
 }
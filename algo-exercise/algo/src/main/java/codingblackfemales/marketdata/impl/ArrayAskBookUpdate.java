@@ -0,0 +1,70 @@
+package codingblackfemales.marketdata.impl;
+
+import codingblackfemales.marketdata.api.AskBookUpdate;
+import codingblackfemales.marketdata.api.BookEntry;
+import messages.marketdata.Venue;
+
+import java.util.List;
+
+public class ArrayAskBookUpdate implements AskBookUpdate {
+    private final long eventTime;
+    private final long instrumentId;
+    private final Venue venue;
+    private final BookLevels asks;
+
+    public ArrayAskBookUpdate(long instrumentId, Venue venue, BookLevels asks) {
+        this(0L, instrumentId, venue, asks);
+    }
+
+    public ArrayAskBookUpdate(long eventTime, long instrumentId, Venue venue, BookLevels asks) {
+        this.eventTime = eventTime;
+        this.instrumentId = instrumentId;
+        this.venue = venue;
+        this.asks = asks;
+    }
+
+    @Override
+    public List<BookEntry> askBook() {
+        return asks.toBookEntries();
+    }
+
+    @Override
+    public int askDepth() {
+        return asks.depth();
+    }
+
+    @Override
+    public long askPrice(final int level) {
+        return asks.price(level);
+    }
+
+    @Override
+    public long askSize(final int level) {
+        return asks.size(level);
+    }
+
+    @Override
+    public long eventTime() {
+        return eventTime;
+    }
+
+    @Override
+    public long instrumentId() {
+        return instrumentId;
+    }
+
+    @Override
+    public Venue venue() {
+        return venue;
+    }
+
+    @Override
+    public String toString() {
+        return "ArrayAskBookUpdate{" +
+                "eventTime=" + eventTime +
+                ", instrumentId=" + instrumentId +
+                ", venue=" + venue +
+                ", askBook=" + asks +
+                '}';
+    }
+}
@@ -0,0 +1,70 @@
+package codingblackfemales.marketdata.impl;
+
+import codingblackfemales.marketdata.api.BidBookUpdate;
+import codingblackfemales.marketdata.api.BookEntry;
+import messages.marketdata.Venue;
+
+import java.util.List;
+
+public class ArrayBidBookUpdate implements BidBookUpdate {
+    private final long eventTime;
+    private final long instrumentId;
+    private final Venue venue;
+    private final BookLevels bids;
+
+    public ArrayBidBookUpdate(long instrumentId, Venue venue, BookLevels bids) {
+        this(0L, instrumentId, venue, bids);
+    }
+
+    public ArrayBidBookUpdate(long eventTime, long instrumentId, Venue venue, BookLevels bids) {
+        this.eventTime = eventTime;
+        this.instrumentId = instrumentId;
+        this.venue = venue;
+        this.bids = bids;
+    }
+
+    @Override
+    public List<BookEntry> bidBook() {
+        return bids.toBookEntries();
+    }
+
+    @Override
+    public int bidDepth() {
+        return bids.depth();
+    }
+
+    @Override
+    public long bidPrice(final int level) {
+        return bids.price(level);
+    }
+
+    @Override
+    public long bidSize(final int level) {
+        return bids.size(level);
+    }
+
+    @Override
+    public long eventTime() {
+        return eventTime;
+    }
+
+    @Override
+    public long instrumentId() {
+        return instrumentId;
+    }
+
+    @Override
+    public Venue venue() {
+        return venue;
+    }
+
+    @Override
+    public String toString() {
+        return "ArrayBidBookUpdate{" +
+                "eventTime=" + eventTime +
+                ", instrumentId=" + instrumentId +
+                ", venue=" + venue +
+                ", bidBook=" + bids +
+                '}';
+    }
+}
@@ -0,0 +1,106 @@
+package codingblackfemales.marketdata.impl;
+
+import codingblackfemales.marketdata.api.BookEntry;
+import codingblackfemales.marketdata.api.BookUpdate;
+import messages.marketdata.InstrumentStatus;
+import messages.marketdata.Venue;
+
+import java.util.List;
+
+/**
+ * A {@link BookUpdate} held in {@link BookLevels} rather than lists of entries. The level accessors read the
+ * arrays directly, {@link #bidBook()} and {@link #askBook()} copy them into new lists on every call.
+ */
+public class ArrayBookUpdate implements BookUpdate {
+    private final long eventTime;
+    private final long instrumentId;
+    private final Venue venue;
+    private final InstrumentStatus instrumentStatus;
+    private final BookLevels bids;
+    private final BookLevels asks;
+
+    public ArrayBookUpdate(long instrumentId, Venue venue, InstrumentStatus instrumentStatus, BookLevels bids, BookLevels asks) {
+        this(0L, instrumentId, venue, instrumentStatus, bids, asks);
+    }
+
+    public ArrayBookUpdate(long eventTime, long instrumentId, Venue venue, InstrumentStatus instrumentStatus, BookLevels bids, BookLevels asks) {
+        this.eventTime = eventTime;
+        this.instrumentId = instrumentId;
+        this.venue = venue;
+        this.instrumentStatus = instrumentStatus;
+        this.bids = bids;
+        this.asks = asks;
+    }
+
+    @Override
+    public InstrumentStatus instrumentStatus() {
+        return instrumentStatus;
+    }
+
+    @Override
+    public List<BookEntry> bidBook() {
+        return bids.toBookEntries();
+    }
+
+    @Override
+    public List<BookEntry> askBook() {
+        return asks.toBookEntries();
+    }
+
+    @Override
+    public int bidDepth() {
+        return bids.depth();
+    }
+
+    @Override
+    public long bidPrice(final int level) {
+        return bids.price(level);
+    }
+
+    @Override
+    public long bidSize(final int level) {
+        return bids.size(level);
+    }
+
+    @Override
+    public int askDepth() {
+        return asks.depth();
+    }
+
+    @Override
+    public long askPrice(final int level) {
+        return asks.price(level);
+    }
+
+    @Override
+    public long askSize(final int level) {
+        return asks.size(level);
+    }
+
+    @Override
+    public long eventTime() {
+        return eventTime;
+    }
+
+    @Override
+    public long instrumentId() {
+        return instrumentId;
+    }
+
+    @Override
+    public Venue venue() {
+        return venue;
+    }
+
+    @Override
+    public String toString() {
+        return "ArrayBookUpdate{" +
+                "eventTime=" + eventTime +
+                ", instrumentId=" + instrumentId +
+                ", venue=" + venue +
+                ", instrumentStatus=" + instrumentStatus +
+                ", bidBook=" + bids +
+                ", askBook=" + asks +
+                '}';
+    }
+}
@@ -7,11 +7,17 @@ import messages.marketdata.Venue;
 import java.util.List;
 
 public class AskBookUpdateImpl implements AskBookUpdate {
+    private long eventTime;
     private long instrumentId;
     private Venue venue;
     private List<BookEntry> askBook;
 
     public AskBookUpdateImpl(long instrumentId, Venue venue, List<BookEntry> askBook) {
+        this(0L, instrumentId, venue, askBook);
+    }
+
+    public AskBookUpdateImpl(long eventTime, long instrumentId, Venue venue, List<BookEntry> askBook) {
+        this.eventTime = eventTime;
         this.instrumentId = instrumentId;
         this.venue = venue;
         this.askBook = askBook;
@@ -22,6 +28,11 @@ public class AskBookUpdateImpl implements AskBookUpdate {
         return askBook;
     }
 
+    @Override
+    public long eventTime() {
+        return eventTime;
+    }
+
     @Override
     public long instrumentId() {
         return instrumentId;
@@ -35,7 +46,8 @@ public class AskBookUpdateImpl implements AskBookUpdate {
     @Override
     public String toString() {
         return "AskBookUpdateImpl{" +
-                "instrumentId=" + instrumentId +
+                "eventTime=" + eventTime +
+                ", instrumentId=" + instrumentId +
                 ", venue=" + venue +
                 ", askBook=" + askBook +
                 '}';
@@ -7,11 +7,17 @@ import messages.marketdata.Venue;
 import java.util.List;
 
 public class BidBookUpdateImpl implements BidBookUpdate {
+    private long eventTime;
     private long instrumentId;
     private Venue venue;
     private List<BookEntry> bidBook;
 
     public BidBookUpdateImpl(long instrumentId, Venue venue, List<BookEntry> bidBook) {
+        this(0L, instrumentId, venue, bidBook);
+    }
+
+    public BidBookUpdateImpl(long eventTime, long instrumentId, Venue venue, List<BookEntry> bidBook) {
+        this.eventTime = eventTime;
         this.instrumentId = instrumentId;
         this.venue = venue;
         this.bidBook = bidBook;
@@ -22,6 +28,11 @@ public class BidBookUpdateImpl implements BidBookUpdate {
         return bidBook;
     }
 
+    @Override
+    public long eventTime() {
+        return eventTime;
+    }
+
     @Override
     public long instrumentId() {
         return instrumentId;
@@ -35,7 +46,8 @@ public class BidBookUpdateImpl implements BidBookUpdate {
     @Override
     public String toString() {
         return "BidBookUpdateImpl{" +
-                "instrumentId=" + instrumentId +
+                "eventTime=" + eventTime +
+                ", instrumentId=" + instrumentId +
                 ", venue=" + venue +
                 ", bidBook=" + bidBook +
                 '}';
@@ -0,0 +1,170 @@
+package codingblackfemales.marketdata.impl;
+
+import codingblackfemales.marketdata.api.MarketDataMessage;
+import codingblackfemales.marketdata.api.MarketDataProvider;
+import codingblackfemales.sequencer.frame.Frame;
+import messages.marketdata.AskBookUpdateDecoder;
+import messages.marketdata.BidBookUpdateDecoder;
+import messages.marketdata.BookUpdateDecoder;
+import messages.marketdata.MessageHeaderDecoder;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads back a file written by {@link codingblackfemales.marketdata.gen.BinaryFileMarketDataGenerator}, a chunk at
+ * a time so files of any size can be replayed. Messages are decoded into the array backed implementations, with
+ * the event time taken from the header as {@link codingblackfemales.marketdata.api.MarketDataEncoder} wrote it.
+ */
+public class BinaryFileMarketDataProvider implements MarketDataProvider, AutoCloseable {
+
+    public static final int DEFAULT_BUFFER_LENGTH = 1024 * 1024;
+
+    private final String marketDataFileName;
+    private final FileChannel channel;
+    private final ByteBuffer byteBuffer;
+    private final UnsafeBuffer buffer;
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final BookUpdateDecoder bookUpdateDecoder = new BookUpdateDecoder();
+    private final AskBookUpdateDecoder askBookUpdateDecoder = new AskBookUpdateDecoder();
+    private final BidBookUpdateDecoder bidBookUpdateDecoder = new BidBookUpdateDecoder();
+
+    //the unread bytes of the file are [position, limit) in the buffer
+    private int position;
+    private int limit;
+
+    public BinaryFileMarketDataProvider(final String marketDataFileName) {
+        this(marketDataFileName, DEFAULT_BUFFER_LENGTH);
+    }
+
+    public BinaryFileMarketDataProvider(final String marketDataFileName, final int bufferLength) {
+        this.marketDataFileName = marketDataFileName;
+        this.byteBuffer = ByteBuffer.allocateDirect(bufferLength);
+        this.buffer = new UnsafeBuffer(byteBuffer);
+        try {
+            channel = FileChannel.open(Paths.get(marketDataFileName), StandardOpenOption.READ);
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Failed to read file marketDataFileName=[%s]", marketDataFileName), e);
+        }
+    }
+
+    @Override
+    public MarketDataMessage poll() {
+        if (!fill(Frame.HEADER_LENGTH)) {
+            if (position != limit) {
+                throw new IllegalStateException(String.format("Truncated frame at the end of marketDataFileName=[%s]", marketDataFileName));
+            }
+            return null;
+        }
+
+        final int messageLength = buffer.getInt(position + Frame.LENGTH_OFFSET, ByteOrder.LITTLE_ENDIAN);
+        if (messageLength <= 0) {
+            throw new IllegalStateException(String.format("Malformed frame: message length=[%d] in marketDataFileName=[%s]", messageLength, marketDataFileName));
+        }
+        final int frameLength = Frame.frameLength(messageLength);
+        if (!fill(frameLength)) {
+            throw new IllegalStateException(String.format("Truncated frame at the end of marketDataFileName=[%s]", marketDataFileName));
+        }
+
+        final MarketDataMessage message = decode(Frame.messageOffset(position));
+        position += frameLength;
+        return message;
+    }
+
+    private MarketDataMessage decode(final int offset) {
+        headerDecoder.wrap(buffer, offset);
+        //template ids are only unique within a schema, an order message could pass for a book update
+        if (headerDecoder.schemaId() != MessageHeaderDecoder.SCHEMA_ID) {
+            throw new IllegalStateException(String.format("Unsupported schemaId=[%s] in marketDataFileName=[%s]", headerDecoder.schemaId(), marketDataFileName));
+        }
+        final int bodyOffset = offset + headerDecoder.encodedLength();
+        final int blockLength = headerDecoder.blockLength();
+        final int version = headerDecoder.version();
+        final long eventTime = headerDecoder.sequencerTimestamp();
+
+        switch (headerDecoder.templateId()) {
+            case BookUpdateDecoder.TEMPLATE_ID: {
+                bookUpdateDecoder.wrap(buffer, bodyOffset, blockLength, version);
+                final BookUpdateDecoder.BidBookDecoder bidBook = bookUpdateDecoder.bidBook();
+                final BookLevels bids = new BookLevels(bidBook.count());
+                for (BookUpdateDecoder.BidBookDecoder bid : bidBook) {
+                    bids.add(bid.price(), bid.size());
+                }
+                final BookUpdateDecoder.AskBookDecoder askBook = bookUpdateDecoder.askBook();
+                final BookLevels asks = new BookLevels(askBook.count());
+                for (BookUpdateDecoder.AskBookDecoder ask : askBook) {
+                    asks.add(ask.price(), ask.size());
+                }
+                return new ArrayBookUpdate(eventTime, bookUpdateDecoder.instrumentId(), bookUpdateDecoder.venue(), bookUpdateDecoder.instrumentStatus(), bids, asks);
+            }
+            case AskBookUpdateDecoder.TEMPLATE_ID: {
+                askBookUpdateDecoder.wrap(buffer, bodyOffset, blockLength, version);
+                final AskBookUpdateDecoder.AskBookDecoder askBook = askBookUpdateDecoder.askBook();
+                final BookLevels asks = new BookLevels(askBook.count());
+                for (AskBookUpdateDecoder.AskBookDecoder ask : askBook) {
+                    asks.add(ask.price(), ask.size());
+                }
+                return new ArrayAskBookUpdate(eventTime, askBookUpdateDecoder.instrumentId(), askBookUpdateDecoder.venue(), asks);
+            }
+            case BidBookUpdateDecoder.TEMPLATE_ID: {
+                bidBookUpdateDecoder.wrap(buffer, bodyOffset, blockLength, version);
+                final BidBookUpdateDecoder.BidBookDecoder bidBook = bidBookUpdateDecoder.bidBook();
+                final BookLevels bids = new BookLevels(bidBook.count());
+                for (BidBookUpdateDecoder.BidBookDecoder bid : bidBook) {
+                    bids.add(bid.price(), bid.size());
+                }
+                return new ArrayBidBookUpdate(eventTime, bidBookUpdateDecoder.instrumentId(), bidBookUpdateDecoder.venue(), bids);
+            }
+            default:
+                throw new IllegalStateException(String.format("Unsupported templateId=[%s] in marketDataFileName=[%s]", headerDecoder.templateId(), marketDataFileName));
+        }
+    }
+
+    /**
+     * Makes sure at least <code>length</code> unread bytes are in the buffer, moving what is left to the start and
+     * reading more of the file if need be.
+     *
+     * @return false if the file ends first.
+     */
+    private boolean fill(final int length) {
+        if (limit - position >= length) {
+            return true;
+        }
+        if (length > byteBuffer.capacity()) {
+            throw new IllegalStateException(String.format("Frame larger than the read buffer length=[%d] bufferLength=[%d]", length, byteBuffer.capacity()));
+        }
+
+        byteBuffer.limit(limit).position(position);
+        byteBuffer.compact();
+        limit -= position;
+        position = 0;
+
+        try {
+            while (limit < length) {
+                byteBuffer.limit(byteBuffer.capacity()).position(limit);
+                final int read = channel.read(byteBuffer);
+                if (read < 0) {
+                    return false;
+                }
+                limit += read;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Failed to read file marketDataFileName=[%s]", marketDataFileName), e);
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new RuntimeException(String.format("Failed to close file marketDataFileName=[%s]", marketDataFileName), e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package codingblackfemales.marketdata.impl;
+
+import codingblackfemales.marketdata.api.BookEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One side of a book as two parallel arrays of prices and sizes, best level first. Holding a book this way costs
+ * the same few objects however deep it is, where a <code>List&lt;BookEntry&gt;</code> needs one per level.
+ */
+public class BookLevels {
+
+    private final long[] prices;
+    private final long[] sizes;
+    private int depth;
+
+    public BookLevels(final int capacity) {
+        this.prices = new long[capacity];
+        this.sizes = new long[capacity];
+    }
+
+    public BookLevels add(final long price, final long size) {
+        if (depth == prices.length) {
+            throw new IllegalStateException(String.format("Book is full capacity=[%s]", prices.length));
+        }
+        prices[depth] = price;
+        sizes[depth] = size;
+        depth++;
+        return this;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public long price(final int level) {
+        checkLevel(level);
+        return prices[level];
+    }
+
+    public long size(final int level) {
+        checkLevel(level);
+        return sizes[level];
+    }
+
+    private void checkLevel(final int level) {
+        if (level < 0 || level >= depth) {
+            throw new IndexOutOfBoundsException(String.format("level=[%s] depth=[%s]", level, depth));
+        }
+    }
+
+    /**
+     * Copies the levels out into book entries, for code that still wants the list form.
+     */
+    public List<BookEntry> toBookEntries() {
+        final List<BookEntry> entries = new ArrayList<>(depth);
+        for (int i = 0; i < depth; i++) {
+            entries.add(new BookEntry().setPrice(prices[i]).setSize(sizes[i]));
+        }
+        return entries;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < depth; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(sizes[i]).append('@').append(prices[i]);
+        }
+        return builder.append(']').toString();
+    }
+}
@@ -8,6 +8,7 @@ import messages.marketdata.Venue;
 import java.util.List;
 
 public class BookUpdateImpl implements BookUpdate {
+    private long eventTime;
     private long instrumentId;
     private Venue venue;
     private InstrumentStatus instrumentStatus;
@@ -15,6 +16,11 @@ public class BookUpdateImpl implements BookUpdate {
     private List<BookEntry> askBook;
 
     public BookUpdateImpl(long instrumentId, Venue venue, InstrumentStatus instrumentStatus, List<BookEntry> bidBook, List<BookEntry> askBook) {
+        this(0L, instrumentId, venue, instrumentStatus, bidBook, askBook);
+    }
+
+    public BookUpdateImpl(long eventTime, long instrumentId, Venue venue, InstrumentStatus instrumentStatus, List<BookEntry> bidBook, List<BookEntry> askBook) {
+        this.eventTime = eventTime;
         this.instrumentId = instrumentId;
         this.venue = venue;
         this.instrumentStatus = instrumentStatus;
@@ -37,6 +43,11 @@ public class BookUpdateImpl implements BookUpdate {
         return askBook;
     }
 
+    @Override
+    public long eventTime() {
+        return eventTime;
+    }
+
     @Override
     public long instrumentId() {
         return instrumentId;
@@ -50,7 +61,8 @@ public class BookUpdateImpl implements BookUpdate {
     @Override
     public String toString() {
         return "BookUpdateImpl{" +
-                "instrumentId=" + instrumentId +
+                "eventTime=" + eventTime +
+                ", instrumentId=" + instrumentId +
                 ", venue=" + venue +
                 ", instrumentStatus=" + instrumentStatus +
                 ", bidBook=" + bidBook +
@@ -0,0 +1,148 @@
+package codingblackfemales.marketdata.replay;
+
+import codingblackfemales.marketdata.api.MarketDataEncoder;
+import codingblackfemales.marketdata.api.MarketDataMessage;
+import codingblackfemales.marketdata.api.MarketDataProvider;
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.clock.Clock;
+import codingblackfemales.sequencer.clock.SimulatedClock;
+import codingblackfemales.sequencer.clock.SystemClock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends recorded market data from a {@link MarketDataProvider} into a sequencer, paced by the messages' event times
+ * according to the {@link ReplayMode}.
+ *
+ * Each message is due at the replay's start plus its offset from the first event time, divided by the speed, so
+ * time spent processing one message is made up on the next rather than accumulating as drift. Waits park until
+ * close to the due time and spin the rest, as a park can overshoot by tens of microseconds. Messages without an
+ * event time are sent straight away.
+ *
+ * When replaying as fast as possible into a backtest, a {@link SimulatedClock} can be driven to each message's
+ * event time before it is sent, so the algo sees the recorded time rather than the wall clock. A simulated clock
+ * given as the pacing clock is moved on to each due time rather than waited for.
+ */
+public class MarketDataReplayer {
+
+    public static final long DEFAULT_SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final MarketDataProvider provider;
+    private final Sequencer sequencer;
+    private final ReplayMode mode;
+    private final double speed;
+    private final Clock clock;
+    private final MarketDataEncoder encoder = new MarketDataEncoder();
+
+    private SimulatedClock simulatedClock;
+    private long spinNanos = DEFAULT_SPIN_NANOS;
+
+    private long firstEventTime = 0L;
+    private long startTime = 0L;
+    private long replayedCount = 0L;
+
+    public MarketDataReplayer(final MarketDataProvider provider, final Sequencer sequencer, final ReplayMode mode) {
+        this(provider, sequencer, mode, 1.0d, SystemClock.INSTANCE);
+    }
+
+    public MarketDataReplayer(final MarketDataProvider provider, final Sequencer sequencer, final ReplayMode mode, final double speed) {
+        this(provider, sequencer, mode, speed, SystemClock.INSTANCE);
+    }
+
+    public MarketDataReplayer(final MarketDataProvider provider, final Sequencer sequencer, final ReplayMode mode,
+                              final double speed, final Clock clock) {
+        if (!(speed > 0.0d)) {
+            throw new IllegalArgumentException(String.format("Replay speed must be positive speed=[%s]", speed));
+        }
+        if (mode == ReplayMode.ORIGINAL_PACE && speed != 1.0d) {
+            throw new IllegalArgumentException(String.format("Original pace replays at speed 1.0 speed=[%s]", speed));
+        }
+        this.provider = provider;
+        this.sequencer = sequencer;
+        this.mode = mode;
+        this.speed = speed;
+        this.clock = clock;
+    }
+
+    /**
+     * Moves the clock to each message's event time before it is sent.
+     */
+    public MarketDataReplayer setSimulatedClock(final SimulatedClock simulatedClock) {
+        this.simulatedClock = simulatedClock;
+        return this;
+    }
+
+    /**
+     * How close to the due time to stop parking and spin instead, trading CPU for less jitter.
+     */
+    public MarketDataReplayer setSpinNanos(final long spinNanos) {
+        this.spinNanos = spinNanos;
+        return this;
+    }
+
+    /**
+     * @return the number of messages replayed.
+     */
+    public long replay() {
+        while (replayNext()) {
+        }
+        return replayedCount;
+    }
+
+    /**
+     * Waits until the next message is due, then sends it.
+     *
+     * @return false once the provider has no more messages.
+     */
+    public boolean replayNext() {
+        final MarketDataMessage message = provider.poll();
+        if (message == null) {
+            return false;
+        }
+
+        final long eventTime = message.eventTime();
+        if (eventTime != 0L) {
+            if (firstEventTime == 0L) {
+                firstEventTime = eventTime;
+                startTime = clock.nanoTime();
+            }
+            if (mode != ReplayMode.AS_FAST_AS_POSSIBLE) {
+                awaitDue(startTime + (long) ((eventTime - firstEventTime) / speed));
+            }
+            if (simulatedClock != null && eventTime > simulatedClock.epochNanos()) {
+                simulatedClock.setTime(eventTime);
+            }
+        }
+
+        sequencer.onCommand(encoder.encode(message));
+        replayedCount++;
+        return true;
+    }
+
+    private void awaitDue(final long dueTime) {
+        if (clock instanceof SimulatedClock) {
+            final SimulatedClock simulated = (SimulatedClock) clock;
+            if (dueTime > simulated.nanoTime()) {
+                simulated.setTime(dueTime);
+            }
+            return;
+        }
+        long remaining;
+        while ((remaining = dueTime - clock.nanoTime()) > 0) {
+            if (remaining > spinNanos) {
+                LockSupport.parkNanos(remaining - spinNanos);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    public ReplayMode getMode() {
+        return mode;
+    }
+
+    public long getReplayedCount() {
+        return replayedCount;
+    }
+}
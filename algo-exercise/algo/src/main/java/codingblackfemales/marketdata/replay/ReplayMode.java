@@ -0,0 +1,16 @@
+package codingblackfemales.marketdata.replay;
+
+public enum ReplayMode {
+    /**
+     * Send each message as soon as the one before it has been processed, e.g. for bulk research runs.
+     */
+    AS_FAST_AS_POSSIBLE,
+    /**
+     * Keep the gaps between the recorded event times, e.g. to soak test throttles and latency budgets.
+     */
+    ORIGINAL_PACE,
+    /**
+     * Keep the gaps between the recorded event times divided by the speed, so 2.0 replays twice as fast.
+     */
+    SCALED_PACE
+}
@@ -0,0 +1,425 @@
+package codingblackfemales.risk;
+
+import codingblackfemales.action.CancelChildOrders;
+import codingblackfemales.sequencer.DroppedCommandListener;
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.clock.Clock;
+import codingblackfemales.sequencer.clock.SystemClock;
+import codingblackfemales.sequencer.event.OrderEventListener;
+import codingblackfemales.sequencer.frame.FrameFilter;
+import codingblackfemales.sequencer.frame.FrameReader;
+import codingblackfemales.service.MarketDataService;
+import messages.marketdata.MessageHeaderDecoder;
+import messages.order.*;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Pre-trade risk checks between the algo and the sequencer, e.g. <code>new Actioner(riskGate)</code>. Every
+ * <code>CreateOrder</code> is checked against the {@link RiskLimits}; a rejected order is dropped and counted.
+ * Cancels always pass, so that the algo can still reduce risk when limits are hit or the kill switch is on, as do
+ * amends that only reduce quantity. Other amends are checked like a new order for the quantity they add.
+ *
+ * The gate must also be added as a consumer on the network: open quantity is reserved when an order is accepted
+ * here and released as fills and cancels arrive. Counters are atomics, so the checks and the network may run on
+ * different threads; the order rate window is only touched on the calling thread. What the gate knows of each open
+ * order is written by the network and read to check amends, so it is only touched under a lock.
+ *
+ * Like the OMS gate, this one reserves as it lets orders through. A gate after it has to report what it drops back
+ * here through its {@link DroppedCommandListener}, or the open totals never come down for those orders.
+ */
+public class PreTradeRiskGate extends OrderEventListener implements Sequencer, DroppedCommandListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PreTradeRiskGate.class);
+
+    private static final long ONE_SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long BASIS_POINTS = 10_000L;
+
+    private final Sequencer sequencer;
+    private final MarketDataService marketDataService;
+    private final RiskLimits limits;
+    private final Clock clock;
+
+    private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+    private final CreateOrderDecoder createOrder = new CreateOrderDecoder();
+    private final ModifyOrderDecoder modifyOrder = new ModifyOrderDecoder();
+    private final FrameFilter acceptFilter = this::accept;
+
+    private final long[] orderTimestamps;
+    private int orderTimestampIndex = 0;
+    private int orderTimestampCount = 0;
+
+    private final AtomicLong openQuantity = new AtomicLong();
+    private final AtomicLong openNotional = new AtomicLong();
+    private final AtomicLongArray rejections = new AtomicLongArray(RiskCheck.COUNT);
+    private volatile boolean killSwitch = false;
+
+    private DroppedCommandListener droppedCommandListener = DroppedCommandListener.NONE;
+
+    //guards the per order maps below
+    private final Object orderLock = new Object();
+    private final Long2LongHashMap openQuantityByOrder = new Long2LongHashMap(0L);
+    private final Long2LongHashMap priceByOrder = new Long2LongHashMap(0L);
+    private final Long2ObjectHashMap<Side> sideByOrder = new Long2ObjectHashMap<>();
+
+    public PreTradeRiskGate(final Sequencer sequencer, final MarketDataService marketDataService, final RiskLimits limits) {
+        this(sequencer, marketDataService, limits, SystemClock.INSTANCE);
+    }
+
+    public PreTradeRiskGate(final Sequencer sequencer, final MarketDataService marketDataService, final RiskLimits limits, final Clock clock) {
+        super(CreateOrderDecoder.TEMPLATE_ID, CancelOrderDecoder.TEMPLATE_ID, ModifyOrderDecoder.TEMPLATE_ID, BatchCancelOrderDecoder.TEMPLATE_ID,
+                CancelAckedOrderDecoder.TEMPLATE_ID, PartialFillOrderDecoder.TEMPLATE_ID, FillOrderDecoder.TEMPLATE_ID);
+        this.sequencer = sequencer;
+        this.marketDataService = marketDataService;
+        this.limits = limits;
+        this.clock = clock;
+        this.orderTimestamps = limits.maxOrdersPerSecond() == Integer.MAX_VALUE ? null : new long[limits.maxOrdersPerSecond()];
+    }
+
+    /**
+     * Set to the gate in front of this one, if it reserves anything for the orders it lets through.
+     */
+    public PreTradeRiskGate setDroppedCommandListener(final DroppedCommandListener droppedCommandListener) {
+        this.droppedCommandListener = droppedCommandListener;
+        return this;
+    }
+
+    public void activateKillSwitch() {
+        logger.warn("[RISK] Kill switch activated, all new orders will be rejected");
+        killSwitch = true;
+    }
+
+    /**
+     * Pulls every order the gate knows to be open with a single batch cancel, e.g. after the kill switch has been
+     * activated or when the algo disconnects.
+     *
+     * @return the number of orders cancelled.
+     */
+    public int cancelOpenOrders() {
+        final UnsafeBuffer buffer;
+        final int count;
+        final int length;
+        synchronized (orderLock) {
+            count = Math.min(sideByOrder.size(), CancelChildOrders.MAX_ORDERS);
+            if (count == 0) {
+                return 0;
+            }
+
+            length = messages.order.MessageHeaderEncoder.ENCODED_LENGTH + BatchCancelOrderEncoder.BLOCK_LENGTH
+                    + BatchCancelOrderEncoder.OrdersEncoder.sbeHeaderSize() + count * BatchCancelOrderEncoder.OrdersEncoder.sbeBlockLength();
+            buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(length));
+            final BatchCancelOrderEncoder encoder = new BatchCancelOrderEncoder();
+            encoder.wrapAndApplyHeader(buffer, 0, new messages.order.MessageHeaderEncoder());
+
+            final BatchCancelOrderEncoder.OrdersEncoder orders = encoder.ordersCount(count);
+            final Long2ObjectHashMap<Side>.KeyIterator orderIds = sideByOrder.keySet().iterator();
+            for (int i = 0; i < count; i++) {
+                orders.next().orderId(orderIds.nextLong());
+            }
+        }
+
+        logger.warn("[RISK] Cancelling " + count + " open orders");
+        sequencer.onCommand(buffer, 0, length);
+        return count;
+    }
+
+    public void resetKillSwitch() {
+        killSwitch = false;
+    }
+
+    public boolean isKillSwitchActive() {
+        return killSwitch;
+    }
+
+    public long getOpenQuantity() {
+        return openQuantity.get();
+    }
+
+    public long getOpenNotional() {
+        return openNotional.get();
+    }
+
+    public long getRejectCount(final int check) {
+        return rejections.get(check);
+    }
+
+    @Override
+    public void onCommand(final DirectBuffer buffer) {
+        onCommand(buffer, 0, buffer.capacity());
+    }
+
+    @Override
+    public void onCommand(final DirectBuffer buffer, final int offset, final int length) {
+        if (accept(buffer, offset, length)) {
+            sequencer.onCommand(buffer, offset, length);
+        }
+    }
+
+    /**
+     * Orders that pass are sent on together in the batch they came in, only a rejected order splits it.
+     */
+    @Override
+    public void onCommandBatch(final DirectBuffer buffer, final int offset, final int length) {
+        FrameReader.filter(buffer, offset, length, acceptFilter, sequencer);
+    }
+
+    private boolean accept(final DirectBuffer buffer, final int offset, final int length) {
+        header.wrap(buffer, offset);
+
+        if (header.schemaId() == CreateOrderDecoder.SCHEMA_ID && header.templateId() == CreateOrderDecoder.TEMPLATE_ID) {
+            createOrder.wrap(buffer, offset + header.encodedLength(), header.blockLength(), header.version());
+
+            final int result = check(createOrder.side(), createOrder.quantity(), createOrder.price());
+            if (result != RiskCheck.ACCEPTED) {
+                rejections.incrementAndGet(result);
+                logger.warn("[RISK] Rejected " + RiskCheck.name(result) + " " + createOrder);
+                droppedCommandListener.onDropped(buffer, offset, length);
+                return false;
+            }
+        } else if (header.schemaId() == ModifyOrderDecoder.SCHEMA_ID && header.templateId() == ModifyOrderDecoder.TEMPLATE_ID) {
+            modifyOrder.wrap(buffer, offset + header.encodedLength(), header.blockLength(), header.version());
+
+            final int result = checkAmend(modifyOrder.orderId(), modifyOrder.quantity(), modifyOrder.price());
+            if (result != RiskCheck.ACCEPTED) {
+                rejections.incrementAndGet(result);
+                logger.warn("[RISK] Rejected " + RiskCheck.name(result) + " " + modifyOrder);
+                droppedCommandListener.onDropped(buffer, offset, length);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int check(final Side side, final long quantity, final long price) {
+        return check(side, quantity, price, 0L, 0L);
+    }
+
+    /**
+     * An order a later gate drops was let through here, so what it added to the open totals is taken off again.
+     * The per order view is only written from the network, so an amend's change is worked out as it was checked.
+     */
+    @Override
+    public void onDropped(final DirectBuffer buffer, final int offset, final int length) {
+        header.wrap(buffer, offset);
+
+        if (header.schemaId() == CreateOrderDecoder.SCHEMA_ID && header.templateId() == CreateOrderDecoder.TEMPLATE_ID) {
+            createOrder.wrap(buffer, offset + header.encodedLength(), header.blockLength(), header.version());
+            openQuantity(-createOrder.quantity(), -createOrder.quantity() * createOrder.price());
+        } else if (header.schemaId() == ModifyOrderDecoder.SCHEMA_ID && header.templateId() == ModifyOrderDecoder.TEMPLATE_ID) {
+            modifyOrder.wrap(buffer, offset + header.encodedLength(), header.blockLength(), header.version());
+
+            final long orderId = modifyOrder.orderId();
+            final boolean known;
+            final long openQuantity;
+            final long openPrice;
+            synchronized (orderLock) {
+                known = sideByOrder.containsKey(orderId);
+                openQuantity = openQuantityByOrder.get(orderId);
+                openPrice = priceByOrder.get(orderId);
+            }
+            if (known) {
+                openQuantity(openQuantity - modifyOrder.quantity(), openQuantity * openPrice - modifyOrder.quantity() * modifyOrder.price());
+            }
+        }
+
+        droppedCommandListener.onDropped(buffer, offset, length);
+    }
+
+    /**
+     * Orders we have not seen on the network yet are passed through, the book will reject them.
+     */
+    private int checkAmend(final long orderId, final long quantity, final long price) {
+        final Side side;
+        final long openQuantity;
+        final long openPrice;
+        synchronized (orderLock) {
+            side = sideByOrder.get(orderId);
+            openQuantity = openQuantityByOrder.get(orderId);
+            openPrice = priceByOrder.get(orderId);
+        }
+        if (side == null) {
+            return RiskCheck.ACCEPTED;
+        }
+
+        if (quantity <= openQuantity && price == openPrice) {
+            openQuantity(-(openQuantity - quantity), -(openQuantity - quantity) * price);
+            return RiskCheck.ACCEPTED;
+        }
+
+        return check(side, quantity, price, openQuantity, openQuantity * openPrice);
+    }
+
+    private int check(final Side side, final long quantity, final long price, final long replacedQuantity, final long replacedNotional) {
+        if (killSwitch) {
+            return RiskCheck.KILL_SWITCH;
+        }
+
+        final long now = clock.nanoTime();
+        if (orderTimestamps != null && orderTimestampCount == orderTimestamps.length
+                && now - orderTimestamps[orderTimestampIndex] < ONE_SECOND_NANOS) {
+            return RiskCheck.ORDER_RATE;
+        }
+
+        if (quantity > limits.maxOrderQuantity()) {
+            return RiskCheck.ORDER_QUANTITY;
+        }
+        if (openQuantity.get() + quantity - replacedQuantity > limits.maxOpenQuantity()) {
+            return RiskCheck.OPEN_QUANTITY;
+        }
+
+        //a fat finger can be big enough to wrap round to a small or negative notional
+        final long notional;
+        try {
+            notional = Math.multiplyExact(quantity, price);
+        } catch (ArithmeticException e) {
+            return RiskCheck.ORDER_NOTIONAL;
+        }
+        if (notional > limits.maxOrderNotional()) {
+            return RiskCheck.ORDER_NOTIONAL;
+        }
+        try {
+            if (Math.addExact(openNotional.get(), notional) - replacedNotional > limits.maxOpenNotional()) {
+                return RiskCheck.OPEN_NOTIONAL;
+            }
+        } catch (ArithmeticException e) {
+            return RiskCheck.OPEN_NOTIONAL;
+        }
+
+        if (isOutsidePriceBand(side, price)) {
+            return RiskCheck.PRICE_BAND;
+        }
+
+        if (orderTimestamps != null) {
+            orderTimestamps[orderTimestampIndex] = now;
+            orderTimestampIndex = (orderTimestampIndex + 1) % orderTimestamps.length;
+            orderTimestampCount = Math.min(orderTimestampCount + 1, orderTimestamps.length);
+        }
+        openQuantity(quantity - replacedQuantity, notional - replacedNotional);
+
+        return RiskCheck.ACCEPTED;
+    }
+
+    private void openQuantity(final long quantity, final long notional) {
+        openQuantity.addAndGet(quantity);
+        openNotional.addAndGet(notional);
+    }
+
+    /**
+     * There is nothing to check against when the relevant side of the book is empty, so the order is allowed.
+     */
+    private boolean isOutsidePriceBand(final Side side, final long price) {
+        if (limits.priceBandBasisPoints() == Long.MAX_VALUE) {
+            return false;
+        }
+        if (side == Side.BUY) {
+            if (marketDataService.getAskLength() == 0) {
+                return false;
+            }
+            final long bestAsk = marketDataService.getAskLevel(0).getPrice();
+            return price > bestAsk + bestAsk * limits.priceBandBasisPoints() / BASIS_POINTS;
+        } else {
+            if (marketDataService.getBidLength() == 0) {
+                return false;
+            }
+            final long bestBid = marketDataService.getBidLevel(0).getPrice();
+            return price < bestBid - bestBid * limits.priceBandBasisPoints() / BASIS_POINTS;
+        }
+    }
+
+    private void release(final long orderId, final long quantity) {
+        final long released;
+        final long price;
+        synchronized (orderLock) {
+            final long open = openQuantityByOrder.get(orderId);
+            released = Math.min(open, quantity);
+            if (released == 0L) {
+                return;
+            }
+            price = priceByOrder.get(orderId);
+            if (open == released) {
+                forget(orderId);
+            } else {
+                openQuantityByOrder.put(orderId, open - released);
+            }
+        }
+        openQuantity.addAndGet(-released);
+        openNotional.addAndGet(-released * price);
+    }
+
+    private void forget(final long orderId) {
+        openQuantityByOrder.remove(orderId);
+        priceByOrder.remove(orderId);
+        sideByOrder.remove(orderId);
+    }
+
+    @Override
+    public void onCreateOrder(final CreateOrderDecoder create) {
+        synchronized (orderLock) {
+            openQuantityByOrder.put(create.orderId(), create.quantity());
+            priceByOrder.put(create.orderId(), create.price());
+            sideByOrder.put(create.orderId(), create.side());
+        }
+    }
+
+    /**
+     * The open totals were already adjusted when the amend was checked, only the per order view moves here.
+     */
+    @Override
+    public void onModifyOrder(final ModifyOrderDecoder modify) {
+        synchronized (orderLock) {
+            if (!sideByOrder.containsKey(modify.orderId())) {
+                return;
+            }
+            if (modify.quantity() == 0L) {
+                forget(modify.orderId());
+            } else {
+                openQuantityByOrder.put(modify.orderId(), modify.quantity());
+                priceByOrder.put(modify.orderId(), modify.price());
+            }
+        }
+    }
+
+    @Override
+    public void onCancelOrder(final CancelOrderDecoder cancel) {
+        release(cancel.orderId(), Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onBatchCancelOrder(final BatchCancelOrderDecoder batchCancel) {
+        for (BatchCancelOrderDecoder.OrdersDecoder order : batchCancel.orders()) {
+            release(order.orderId(), Long.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public void onCancelAckedOrder(final CancelAckedOrderDecoder cancelAcked) {
+        release(cancelAcked.orderId(), Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onPartialFill(final PartialFillOrderDecoder partialFill) {
+        release(partialFill.orderId(), partialFill.quantity());
+    }
+
+    @Override
+    public void onFill(final FillOrderDecoder fill) {
+        release(fill.orderId(), fill.quantity());
+    }
+
+    @Override
+    public void onAckedOrder(final AckedOrderDecoder acked) {
+    }
+
+    @Override
+    public void onPendingOrder(final PendingOrderDecoder pending) {
+    }
+}
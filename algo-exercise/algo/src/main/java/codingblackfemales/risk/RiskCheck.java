@@ -0,0 +1,28 @@
+package codingblackfemales.risk;
+
+public class RiskCheck {
+    public static final int ACCEPTED = 0;
+    public static final int KILL_SWITCH = 1;
+    public static final int ORDER_RATE = 2;
+    public static final int ORDER_QUANTITY = 3;
+    public static final int OPEN_QUANTITY = 4;
+    public static final int ORDER_NOTIONAL = 5;
+    public static final int OPEN_NOTIONAL = 6;
+    public static final int PRICE_BAND = 7;
+
+    public static final int COUNT = 8;
+
+    public static String name(final int check) {
+        switch (check) {
+            case ACCEPTED: return "ACCEPTED";
+            case KILL_SWITCH: return "KILL_SWITCH";
+            case ORDER_RATE: return "ORDER_RATE";
+            case ORDER_QUANTITY: return "ORDER_QUANTITY";
+            case OPEN_QUANTITY: return "OPEN_QUANTITY";
+            case ORDER_NOTIONAL: return "ORDER_NOTIONAL";
+            case OPEN_NOTIONAL: return "OPEN_NOTIONAL";
+            case PRICE_BAND: return "PRICE_BAND";
+            default: return "UNKNOWN";
+        }
+    }
+}
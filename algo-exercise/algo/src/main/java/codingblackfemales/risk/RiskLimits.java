@@ -0,0 +1,87 @@
+package codingblackfemales.risk;
+
+/**
+ * Limits applied by the {@link PreTradeRiskGate}. Anything not set is unlimited.
+ */
+public class RiskLimits {
+
+    private int maxOrdersPerSecond = Integer.MAX_VALUE;
+    private long maxOrderQuantity = Long.MAX_VALUE;
+    private long maxOpenQuantity = Long.MAX_VALUE;
+    private long maxOrderNotional = Long.MAX_VALUE;
+    private long maxOpenNotional = Long.MAX_VALUE;
+    private long priceBandBasisPoints = Long.MAX_VALUE;
+
+    public RiskLimits() {
+    }
+
+    public int maxOrdersPerSecond() {
+        return maxOrdersPerSecond;
+    }
+
+    public long maxOrderQuantity() {
+        return maxOrderQuantity;
+    }
+
+    public long maxOpenQuantity() {
+        return maxOpenQuantity;
+    }
+
+    public long maxOrderNotional() {
+        return maxOrderNotional;
+    }
+
+    public long maxOpenNotional() {
+        return maxOpenNotional;
+    }
+
+    public long priceBandBasisPoints() {
+        return priceBandBasisPoints;
+    }
+
+    public RiskLimits setMaxOrdersPerSecond(int maxOrdersPerSecond) {
+        this.maxOrdersPerSecond = maxOrdersPerSecond;
+        return this;
+    }
+
+    public RiskLimits setMaxOrderQuantity(long maxOrderQuantity) {
+        this.maxOrderQuantity = maxOrderQuantity;
+        return this;
+    }
+
+    public RiskLimits setMaxOpenQuantity(long maxOpenQuantity) {
+        this.maxOpenQuantity = maxOpenQuantity;
+        return this;
+    }
+
+    public RiskLimits setMaxOrderNotional(long maxOrderNotional) {
+        this.maxOrderNotional = maxOrderNotional;
+        return this;
+    }
+
+    public RiskLimits setMaxOpenNotional(long maxOpenNotional) {
+        this.maxOpenNotional = maxOpenNotional;
+        return this;
+    }
+
+    /**
+     * How far an order may be priced through the touch: a buy no higher than best ask + band, a sell no lower than
+     * best bid - band. 100 basis points = 1%.
+     */
+    public RiskLimits setPriceBandBasisPoints(long priceBandBasisPoints) {
+        this.priceBandBasisPoints = priceBandBasisPoints;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "RiskLimits{" +
+                "maxOrdersPerSecond=" + maxOrdersPerSecond +
+                ", maxOrderQuantity=" + maxOrderQuantity +
+                ", maxOpenQuantity=" + maxOpenQuantity +
+                ", maxOrderNotional=" + maxOrderNotional +
+                ", maxOpenNotional=" + maxOpenNotional +
+                ", priceBandBasisPoints=" + priceBandBasisPoints +
+                '}';
+    }
+}
@@ -5,9 +5,11 @@ import codingblackfemales.sequencer.event.OrderEventListener;
 import codingblackfemales.sotw.ChildOrder;
 import codingblackfemales.sotw.OrderState;
 import messages.order.*;
+import org.agrona.collections.Long2ObjectHashMap;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 public class OrderService extends OrderEventListener {
 
@@ -15,6 +17,8 @@ public class OrderService extends OrderEventListener {
 
     private List<ChildOrder> children = new LinkedList<>();
 
+    private final Long2ObjectHashMap<ChildOrder> childrenById = new Long2ObjectHashMap<>();
+
     public OrderService(RunTrigger runTrigger) {
         this.runTrigger = runTrigger;
     }
@@ -25,7 +29,7 @@ public class OrderService extends OrderEventListener {
     }
 
     private ChildOrder createChildOrder(final CreateOrderDecoder create){
-        return new ChildOrder(create.side(), create.orderId(), create.quantity(), create.price(), OrderState.PENDING);
+        return new ChildOrder(create.side(), create.orderId(), create.quantity(), create.price(), OrderState.PENDING, create.parentOrderId());
     }
 
     private void updateState(ChildOrder child, int state){
@@ -38,12 +42,18 @@ public class OrderService extends OrderEventListener {
 
     @Override
     public void onCreateOrder(final CreateOrderDecoder create) {
-        children.add(createChildOrder(create));
+        final ChildOrder child = createChildOrder(create);
+        children.add(child);
+        childrenById.put(child.getOrderId(), child);
         triggerRun();
     }
 
     private ChildOrder find(long orderId){
-        return children.stream().filter( order -> order.getOrderId() == orderId).findFirst().get();
+        final ChildOrder child = childrenById.get(orderId);
+        if (child == null) {
+            throw new NoSuchElementException(String.format("Unknown child order orderId=[%s]", orderId));
+        }
+        return child;
     }
 
     @Override
@@ -52,6 +62,38 @@ public class OrderService extends OrderEventListener {
         triggerRun();
     }
 
+    /**
+     * The amend carries the new open quantity, the order's quantity stays the total including what has been filled.
+     * Amends of orders we don't know about are skipped, as the risk gates let them through.
+     */
+    @Override
+    public void onModifyOrder(final ModifyOrderDecoder modify) {
+        final ChildOrder child = childrenById.get(modify.orderId());
+        if (child == null) {
+            return;
+        }
+        child.setPrice(modify.price());
+        child.setQuantity(child.getFilledQuantity() + modify.quantity());
+        if (modify.quantity() == 0) {
+            updateState(child, OrderState.CANCELLED);
+        }
+        triggerRun();
+    }
+
+    /**
+     * Orders we don't know about are skipped, the batch may have been sent by another algo on the network.
+     */
+    @Override
+    public void onBatchCancelOrder(final BatchCancelOrderDecoder batchCancel) {
+        for (BatchCancelOrderDecoder.OrdersDecoder order : batchCancel.orders()) {
+            final ChildOrder child = childrenById.get(order.orderId());
+            if (child != null) {
+                updateState(child, OrderState.CANCELLED);
+            }
+        }
+        triggerRun();
+    }
+
     @Override
     public void onAckedOrder(final AckedOrderDecoder acked) {
         updateState(find(acked.orderId()), OrderState.ACKED);
@@ -11,17 +11,23 @@ public class ChildOrder {
     private long orderId;
     private long quantity;
     private long price;
+    private long parentOrderId;
 
     private int state;
 
     private List<ChildFill> fills = new LinkedList<>();
 
     public ChildOrder(Side side, long orderId, long quantity, long price, int state) {
+        this(side, orderId, quantity, price, state, 0L);
+    }
+
+    public ChildOrder(Side side, long orderId, long quantity, long price, int state, long parentOrderId) {
         this.side = side;
         this.orderId = orderId;
         this.quantity = quantity;
         this.price = price;
         this.state = state;
+        this.parentOrderId = parentOrderId;
     }
 
     public Side getSide() {
@@ -40,6 +46,18 @@ public class ChildOrder {
         return price;
     }
 
+    public long getParentOrderId() {
+        return parentOrderId;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    public void setPrice(long price) {
+        this.price = price;
+    }
+
     public long getFilledQuantity() {
         return fills.stream().map( cf -> cf.getQuantity()).collect(Collectors.summingLong(Long::longValue));
     }
@@ -1,5 +1,6 @@
 package codingblackfemales.sotw;
 
+import codingblackfemales.sequencer.clock.Clock;
 import codingblackfemales.sotw.marketdata.AskLevel;
 import codingblackfemales.sotw.marketdata.BidLevel;
 
@@ -20,4 +21,6 @@ public interface SimpleAlgoState {
     public List<ChildOrder> getActiveChildOrders();
 
     public long getInstrumentId();
+
+    public Clock getClock();
 }
@@ -1,5 +1,7 @@
 package codingblackfemales.sotw;
 
+import codingblackfemales.sequencer.clock.Clock;
+import codingblackfemales.sequencer.clock.SystemClock;
 import codingblackfemales.service.MarketDataService;
 import codingblackfemales.service.OrderService;
 import codingblackfemales.sotw.marketdata.AskLevel;
@@ -12,10 +14,21 @@ public class SimpleAlgoStateImpl implements SimpleAlgoState {
 
     public final MarketDataService marketDataService;
     public final OrderService orderService;
+    private final Clock clock;
 
     public SimpleAlgoStateImpl(final MarketDataService marketDataService, final OrderService orderService) {
+        this(marketDataService, orderService, SystemClock.INSTANCE);
+    }
+
+    public SimpleAlgoStateImpl(final MarketDataService marketDataService, final OrderService orderService, final Clock clock) {
         this.marketDataService = marketDataService;
         this.orderService = orderService;
+        this.clock = clock;
+    }
+
+    @Override
+    public Clock getClock() {
+        return clock;
     }
 
     @Override
@@ -0,0 +1,160 @@
+package codingblackfemales.container;
+
+import codingblackfemales.action.Action;
+import codingblackfemales.action.ActionBuffer;
+import codingblackfemales.action.CancelChildOrders;
+import codingblackfemales.action.CreateChildOrder;
+import codingblackfemales.action.NoAction;
+import codingblackfemales.algo.AlgoLogic;
+import codingblackfemales.sequencer.DefaultSequencer;
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.frame.FrameReader;
+import codingblackfemales.sequencer.marketdata.BookUpdates;
+import codingblackfemales.sequencer.net.Consumer;
+import codingblackfemales.sequencer.net.TestNetwork;
+import codingblackfemales.service.MarketDataService;
+import codingblackfemales.service.OrderService;
+import codingblackfemales.sotw.ChildOrder;
+import codingblackfemales.sotw.OrderState;
+import codingblackfemales.sotw.SimpleAlgoState;
+import messages.order.BatchCancelOrderDecoder;
+import messages.order.MessageHeaderDecoder;
+import messages.order.Side;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ActionerTest {
+
+    private final List<String> sent = new ArrayList<>();
+    private final List<DirectBuffer> buffers = new ArrayList<>();
+
+    private final Sequencer recordingSequencer = new Sequencer() {
+        @Override
+        public void onCommand(DirectBuffer buffer) {
+            sent.add("single");
+            buffers.add(buffer);
+        }
+
+        @Override
+        public void onCommandBatch(DirectBuffer buffer, int offset, int length) {
+            final int[] count = new int[1];
+            FrameReader.forEach(buffer, offset, length, (b, o, l) -> count[0]++);
+            sent.add("batch:" + count[0]);
+        }
+    };
+
+    @Test
+    public void testActionsThatCannotBeBatchedSplitTheBatch() {
+        final Action unbatched = sequencer -> sequencer.onCommand(new UnsafeBuffer(new byte[0]));
+
+        final ActionBuffer actions = new ActionBuffer()
+                .add(new CreateChildOrder(Side.BUY, 100, 1))
+                .add(new CreateChildOrder(Side.BUY, 100, 2))
+                .add(NoAction.NoAction)
+                .add(unbatched)
+                .add(new CreateChildOrder(Side.BUY, 100, 3));
+
+        assertEquals(4, actions.size());
+
+        new Actioner(recordingSequencer).processActions(actions);
+
+        assertEquals(List.of("batch:2", "single", "batch:1"), sent);
+    }
+
+    @Test
+    public void testActionsSentOnTheirOwnReuseTheActionersBuffer() {
+        final Actioner actioner = new Actioner(recordingSequencer);
+
+        actioner.processAction(new CreateChildOrder(Side.BUY, 100, 1));
+        actioner.processAction(new CreateChildOrder(Side.BUY, 100, 2));
+
+        assertEquals(List.of("single", "single"), sent);
+        assertSame(buffers.get(0), buffers.get(1));
+    }
+
+    @Test
+    public void testBatchCancelIsSentAtItsExactLengthWithTheOrdersItWasGiven() {
+        final List<ChildOrder> orders = new ArrayList<>();
+        orders.add(new ChildOrder(Side.BUY, 1, 100, 98, OrderState.ACKED));
+        orders.add(new ChildOrder(Side.BUY, 2, 100, 97, OrderState.ACKED));
+        final CancelChildOrders cancel = new CancelChildOrders(orders);
+        orders.add(new ChildOrder(Side.BUY, 3, 100, 96, OrderState.ACKED));
+
+        final MessageHeaderDecoder header = new MessageHeaderDecoder();
+        final BatchCancelOrderDecoder decoder = new BatchCancelOrderDecoder();
+        final List<Long> cancelled = new ArrayList<>();
+        cancel.apply(new Sequencer() {
+            @Override
+            public void onCommand(DirectBuffer buffer) {
+                throw new AssertionError("the batch should be sent with its length");
+            }
+
+            @Override
+            public void onCommand(DirectBuffer buffer, int offset, int length) {
+                header.wrap(buffer, offset);
+                decoder.wrap(buffer, offset + header.encodedLength(), header.blockLength(), header.version());
+                for (BatchCancelOrderDecoder.OrdersDecoder order : decoder.orders()) {
+                    cancelled.add(order.orderId());
+                }
+                assertEquals(header.encodedLength() + decoder.encodedLength(), length);
+            }
+        });
+
+        assertEquals(List.of(1L, 2L), cancelled);
+    }
+
+    @Test
+    public void testLogicCanPlaceSeveralOrdersInOneEvaluation() {
+        final TestNetwork network = new TestNetwork();
+        final Sequencer sequencer = new DefaultSequencer(network);
+        final RunTrigger runTrigger = new RunTrigger();
+        final AlgoContainer container = new AlgoContainer(new MarketDataService(runTrigger), new OrderService(runTrigger), runTrigger, new Actioner(sequencer));
+
+        final int[] evaluations = new int[1];
+        container.setLogic(new AlgoLogic() {
+            @Override
+            public Action evaluate(SimpleAlgoState state) {
+                return NoAction.NoAction;
+            }
+
+            @Override
+            public void evaluate(SimpleAlgoState state, ActionBuffer actions) {
+                evaluations[0]++;
+                if (state.getChildOrders().isEmpty()) {
+                    actions.add(new CreateChildOrder(Side.BUY, 100, 98))
+                            .add(new CreateChildOrder(Side.BUY, 100, 97))
+                            .add(new CreateChildOrder(Side.BUY, 100, 96));
+                }
+            }
+        });
+
+        final int[] batches = new int[1];
+        network.addConsumer(container.getMarketDataService());
+        network.addConsumer(container.getOrderService());
+        network.addConsumer(container);
+        network.addConsumer(new Consumer() {
+            @Override
+            public void onMessage(DirectBuffer buffer) {
+            }
+
+            @Override
+            public void onBatchStart() {
+                batches[0]++;
+            }
+        });
+
+        sequencer.onCommand(BookUpdates.tick());
+
+        assertEquals(3, container.getState().getChildOrders().size());
+        assertEquals(1, batches[0]);
+        //once for the tick, and once more after the batch of new orders
+        assertEquals(2, evaluations[0]);
+    }
+}
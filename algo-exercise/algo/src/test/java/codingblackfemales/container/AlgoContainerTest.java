@@ -0,0 +1,52 @@
+package codingblackfemales.container;
+
+import codingblackfemales.action.Action;
+import codingblackfemales.action.NoAction;
+import codingblackfemales.algo.AlgoLogic;
+import codingblackfemales.sequencer.DefaultSequencer;
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.clock.SimulatedClock;
+import codingblackfemales.sequencer.marketdata.BookUpdates;
+import codingblackfemales.sequencer.net.TestNetwork;
+import codingblackfemales.service.MarketDataService;
+import codingblackfemales.service.OrderService;
+import codingblackfemales.sotw.SimpleAlgoState;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class AlgoContainerTest {
+
+    @Test
+    public void testLogicSeesTheTimeOfTheMessage() {
+        final SimulatedClock source = new SimulatedClock(1_000L);
+        final TestNetwork network = new TestNetwork();
+        final Sequencer sequencer = new DefaultSequencer(network);
+        final RunTrigger runTrigger = new RunTrigger();
+        final AlgoContainer container = new AlgoContainer(new MarketDataService(runTrigger), new OrderService(runTrigger), runTrigger, new Actioner(sequencer), source);
+
+        final List<Long> times = new ArrayList<>();
+        container.setLogic(new AlgoLogic() {
+            @Override
+            public Action evaluate(SimpleAlgoState state) {
+                times.add(state.getClock().epochNanos());
+                source.advance(10L);
+                times.add(state.getClock().epochNanos());
+                return NoAction.NoAction;
+            }
+        });
+
+        network.addConsumer(container.getMarketDataService());
+        network.addConsumer(container.getOrderService());
+        network.addConsumer(container);
+
+        sequencer.onCommand(BookUpdates.tick());
+        source.setTime(2_000L);
+        sequencer.onCommand(BookUpdates.tick());
+
+        assertEquals(List.of(1_000L, 1_000L, 2_000L, 2_000L), times);
+    }
+}
@@ -0,0 +1,225 @@
+package codingblackfemales.container;
+
+import codingblackfemales.action.ActionBuffer;
+import codingblackfemales.action.AmendChildOrder;
+import codingblackfemales.action.CancelChildOrder;
+import codingblackfemales.action.CreateChildOrder;
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sotw.ChildOrder;
+import codingblackfemales.sotw.OrderState;
+import messages.marketdata.MessageHeaderDecoder;
+import messages.order.CancelOrderDecoder;
+import messages.order.CreateOrderDecoder;
+import messages.order.ModifyOrderDecoder;
+import messages.order.Side;
+import org.agrona.DirectBuffer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ThrottlingActionerTest {
+
+    private static final long WINDOW = 1_000L;
+
+    private final long[] now = new long[]{10_000L};
+    private final List<String> sent = new ArrayList<>();
+    private final int[] batches = new int[1];
+
+    private final Sequencer recordingSequencer = new Sequencer() {
+        private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+        private final CreateOrderDecoder create = new CreateOrderDecoder();
+        private final CancelOrderDecoder cancel = new CancelOrderDecoder();
+        private final ModifyOrderDecoder modify = new ModifyOrderDecoder();
+
+        @Override
+        public void onCommand(DirectBuffer buffer) {
+            header.wrap(buffer, 0);
+            if (header.templateId() == CreateOrderDecoder.TEMPLATE_ID) {
+                create.wrap(buffer, header.encodedLength(), header.blockLength(), header.version());
+                sent.add("create:" + create.price());
+            } else if (header.templateId() == CancelOrderDecoder.TEMPLATE_ID) {
+                cancel.wrap(buffer, header.encodedLength(), header.blockLength(), header.version());
+                sent.add("cancel:" + cancel.orderId());
+            } else if (header.templateId() == ModifyOrderDecoder.TEMPLATE_ID) {
+                modify.wrap(buffer, header.encodedLength(), header.blockLength(), header.version());
+                sent.add("amend:" + modify.orderId() + "@" + modify.price());
+            }
+        }
+
+        @Override
+        public void onCommandBatch(DirectBuffer buffer, int offset, int length) {
+            batches[0]++;
+            Sequencer.super.onCommandBatch(buffer, offset, length);
+        }
+    };
+
+    private ThrottlingActioner actioner(final ThrottlePolicy policy) {
+        return new ThrottlingActioner(recordingSequencer, 2, 1, WINDOW, policy, () -> now[0]);
+    }
+
+    private static ChildOrder child(final long orderId) {
+        return child(orderId, 0L);
+    }
+
+    private static ChildOrder child(final long orderId, final long parentOrderId) {
+        return new ChildOrder(Side.BUY, orderId, 100, 100, OrderState.ACKED, parentOrderId);
+    }
+
+    @Test
+    public void testQueuedActionsAreReleasedAsTheWindowSlides() {
+        final ThrottlingActioner actioner = actioner(ThrottlePolicy.QUEUE);
+
+        actioner.processAction(new CreateChildOrder(Side.BUY, 100, 1));
+        actioner.processAction(new CreateChildOrder(Side.BUY, 100, 2));
+        actioner.processAction(new CreateChildOrder(Side.BUY, 100, 3));
+        actioner.processAction(new CreateChildOrder(Side.BUY, 100, 4));
+
+        assertEquals(List.of("create:1", "create:2"), sent);
+        assertEquals(2, actioner.getQueueDepth());
+        assertEquals(2, actioner.getCreatesInWindow());
+
+        now[0] += WINDOW;
+        assertEquals(2, actioner.poll());
+
+        assertEquals(List.of("create:1", "create:2", "create:3", "create:4"), sent);
+        assertEquals(4, actioner.getSentCreates());
+        assertEquals(2, actioner.getThrottled());
+    }
+
+    @Test
+    public void testAFullCreateWindowDoesNotHoldBackCancels() {
+        final ThrottlingActioner actioner = actioner(ThrottlePolicy.QUEUE);
+
+        actioner.processAction(new CancelChildOrder(child(7)));
+
+        now[0] += WINDOW / 2;
+        actioner.processAction(new CreateChildOrder(Side.BUY, 100, 1));
+        actioner.processAction(new CreateChildOrder(Side.BUY, 100, 2));
+        actioner.processAction(new CreateChildOrder(Side.BUY, 100, 3));
+        actioner.processAction(new CancelChildOrder(child(8)));
+        assertEquals(List.of("cancel:7", "create:1", "create:2"), sent);
+
+        //the cancel window has room again, the create window doesn't yet
+        now[0] += WINDOW / 2;
+        assertEquals(1, actioner.poll());
+        assertEquals(List.of("cancel:7", "create:1", "create:2", "cancel:8"), sent);
+
+        actioner.processAction(new CancelChildOrder(child(9)));
+        assertEquals(2, actioner.getQueueDepth());
+
+        now[0] += WINDOW / 2;
+        assertEquals(1, actioner.poll());
+        assertEquals(List.of("cancel:7", "create:1", "create:2", "cancel:8", "create:3"), sent);
+    }
+
+    @Test
+    public void testActionsThatFitInTheWindowGoAsOneBatch() {
+        final ThrottlingActioner actioner = actioner(ThrottlePolicy.QUEUE);
+
+        actioner.processActions(new ActionBuffer()
+                .add(new CreateChildOrder(Side.BUY, 100, 1))
+                .add(new CancelChildOrder(child(7)))
+                .add(new CreateChildOrder(Side.BUY, 100, 2)));
+
+        assertEquals(List.of("create:1", "cancel:7", "create:2"), sent);
+        assertEquals(1, batches[0]);
+        assertEquals(2, actioner.getSentCreates());
+        assertEquals(1, actioner.getSentCancels());
+
+        now[0] += WINDOW;
+        actioner.processActions(new ActionBuffer()
+                .add(new CreateChildOrder(Side.BUY, 100, 3))
+                .add(new CreateChildOrder(Side.BUY, 100, 4))
+                .add(new CreateChildOrder(Side.BUY, 100, 5)));
+
+        assertEquals(List.of("create:1", "cancel:7", "create:2", "create:3", "create:4"), sent);
+        assertEquals(1, batches[0]);
+        assertEquals(1, actioner.getQueueDepth());
+    }
+
+    @Test
+    public void testRejectDropsActionsOverTheLimit() {
+        final ThrottlingActioner actioner = actioner(ThrottlePolicy.REJECT);
+
+        actioner.processAction(new CancelChildOrder(child(1)));
+        actioner.processAction(new CancelChildOrder(child(2)));
+        actioner.processAction(new CreateChildOrder(Side.SELL, 100, 1));
+
+        assertEquals(List.of("cancel:1", "create:1"), sent);
+        assertEquals(1, actioner.getRejected());
+        assertEquals(0, actioner.getQueueDepth());
+    }
+
+    @Test
+    public void testCoalesceKeepsOnlyTheLatestHeldAction() {
+        final ThrottlingActioner actioner = actioner(ThrottlePolicy.COALESCE);
+
+        actioner.processAction(new CreateChildOrder(Side.BUY, 100, 1));
+        actioner.processAction(new CreateChildOrder(Side.BUY, 100, 2));
+        actioner.processAction(new CreateChildOrder(Side.BUY, 100, 3));
+        actioner.processAction(new CreateChildOrder(Side.BUY, 200, 3));
+        //a different price level is kept, it may be meant to rest alongside
+        actioner.processAction(new CreateChildOrder(Side.BUY, 100, 4));
+        actioner.processAction(new CancelChildOrder(child(9)));
+        actioner.processAction(new CancelChildOrder(child(1)));
+        actioner.processAction(new CancelChildOrder(child(1)));
+
+        assertEquals(3, actioner.getQueueDepth());
+        assertEquals(2, actioner.getCoalesced());
+
+        now[0] += WINDOW;
+        actioner.poll();
+
+        assertEquals(List.of("create:1", "create:2", "cancel:9", "create:3", "create:4", "cancel:1"), sent);
+    }
+
+    @Test
+    public void testCoalesceMergesHeldCancelAndCreateIntoAmend() {
+        final ThrottlingActioner actioner = actioner(ThrottlePolicy.COALESCE);
+
+        actioner.processAction(new CreateChildOrder(Side.BUY, 100, 1));
+        actioner.processAction(new CreateChildOrder(Side.BUY, 100, 2));
+        actioner.processAction(new CancelChildOrder(child(1)));
+        actioner.processAction(new CancelChildOrder(child(2)));
+        actioner.processAction(new CreateChildOrder(Side.BUY, 100, 5));
+
+        assertEquals(1, actioner.getQueueDepth());
+        assertEquals(1, actioner.getCoalesced());
+
+        actioner.processAction(new AmendChildOrder(child(2), 100, 6));
+        assertEquals(1, actioner.getQueueDepth());
+        assertEquals(2, actioner.getCoalesced());
+
+        now[0] += WINDOW;
+        actioner.poll();
+
+        assertEquals(List.of("create:1", "create:2", "cancel:1", "amend:2@6"), sent);
+        assertEquals(1, actioner.getSentAmends());
+    }
+
+    @Test
+    public void testCoalescedAmendKeepsTheParentAndPlaceOfTheCancel() {
+        final ThrottlingActioner actioner = actioner(ThrottlePolicy.COALESCE);
+
+        actioner.processAction(new CreateChildOrder(Side.BUY, 100, 1));
+        actioner.processAction(new CreateChildOrder(Side.BUY, 100, 2));
+        actioner.processAction(new CancelChildOrder(child(1, 10)));
+        actioner.processAction(new CancelChildOrder(child(2, 10)));
+        actioner.processAction(new CancelChildOrder(child(3, 20)));
+        actioner.processAction(new CancelChildOrder(child(4, 10)));
+        actioner.processAction(new CreateChildOrder(Side.BUY, 100, 7, 20));
+
+        assertEquals(3, actioner.getQueueDepth());
+        assertEquals(1, actioner.getCoalesced());
+
+        now[0] += WINDOW;
+        actioner.poll();
+        now[0] += WINDOW;
+        actioner.poll();
+
+        assertEquals(List.of("create:1", "create:2", "cancel:1", "cancel:2", "amend:3@7", "cancel:4"), sent);
+    }
+}
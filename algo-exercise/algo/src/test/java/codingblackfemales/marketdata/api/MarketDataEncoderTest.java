@@ -0,0 +1,102 @@
+package codingblackfemales.marketdata.api;
+
+import codingblackfemales.marketdata.impl.ArrayBookUpdate;
+import codingblackfemales.marketdata.impl.AskBookUpdateImpl;
+import codingblackfemales.marketdata.impl.BookLevels;
+import codingblackfemales.marketdata.impl.BookUpdateImpl;
+import messages.marketdata.BookUpdateDecoder;
+import messages.marketdata.InstrumentStatus;
+import messages.marketdata.MessageHeaderDecoder;
+import messages.marketdata.Venue;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class MarketDataEncoderTest {
+
+    private final MarketDataEncoder encoder = new MarketDataEncoder();
+
+    private static List<BookEntry> levels(final int count, final long firstPrice, final long step) {
+        final List<BookEntry> levels = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            levels.add(new BookEntry().setPrice(firstPrice + i * step).setSize(100L + i));
+        }
+        return levels;
+    }
+
+    @Test
+    public void testDeepBookIsEncodedToItsExactLength() {
+        //far more levels than would fit in the 1KB buffer messages used to be encoded into
+        final BookUpdate update = new BookUpdateImpl(1234L, Venue.XLON, InstrumentStatus.CONTINUOUS, levels(100, 99L, -1L), levels(100, 101L, 1L));
+
+        final UnsafeBuffer encoded = encoder.encode(update);
+        assertEquals(MarketDataEncoder.encodedLength(update), encoded.capacity());
+
+        final BookUpdateDecoder decoder = new BookUpdateDecoder();
+        decoder.wrapAndApplyHeader(encoded, 0, new MessageHeaderDecoder());
+        assertEquals(1234L, decoder.instrumentId());
+
+        final BookUpdateDecoder.BidBookDecoder bids = decoder.bidBook();
+        assertEquals(100, bids.count());
+        assertEquals(99L, bids.next().price());
+        //groups are read in order, so the rest of the bids have to be stepped over to reach the asks
+        while (bids.hasNext()) {
+            bids.next();
+        }
+        final BookUpdateDecoder.AskBookDecoder asks = decoder.askBook();
+        assertEquals(100, asks.count());
+        assertEquals(101L, asks.next().price());
+        assertEquals(InstrumentStatus.CONTINUOUS, decoder.instrumentStatus());
+    }
+
+    @Test
+    public void testArrayBackedUpdateEncodesLikeTheListBackedOne() {
+        final BookLevels bids = new BookLevels(20);
+        final BookLevels asks = new BookLevels(20);
+        for (int i = 0; i < 20; i++) {
+            bids.add(99L - i, 100L + i);
+            asks.add(101L + i, 100L + i);
+        }
+        final ArrayBookUpdate arrays = new ArrayBookUpdate(1234L, Venue.XLON, InstrumentStatus.CONTINUOUS, bids, asks);
+        final BookUpdate lists = new BookUpdateImpl(1234L, Venue.XLON, InstrumentStatus.CONTINUOUS, levels(20, 99L, -1L), levels(20, 101L, 1L));
+
+        final byte[] fromArrays = new byte[MarketDataEncoder.encodedLength(arrays)];
+        encoder.encode(arrays).getBytes(0, fromArrays);
+        final byte[] fromLists = new byte[MarketDataEncoder.encodedLength(lists)];
+        encoder.encode(lists).getBytes(0, fromLists);
+
+        assertArrayEquals(fromLists, fromArrays);
+        assertEquals(lists.askBook().get(5).price(), arrays.askBook().get(5).price());
+    }
+
+    @Test
+    public void testEncoderReusesItsBuffer() {
+        final UnsafeBuffer first = encoder.encode(new AskBookUpdateImpl(1L, Venue.XLON, levels(1, 100L, 1L)));
+        final int firstLength = first.capacity();
+        final UnsafeBuffer second = encoder.encode(new AskBookUpdateImpl(1L, Venue.XLON, levels(3, 100L, 1L)));
+
+        assertSame(first, second);
+        assertEquals(firstLength + 2 * 16, second.capacity());
+    }
+
+    @Test
+    public void testEncodesIntoCallersBufferAtOffset() {
+        final AskBookUpdate update = new AskBookUpdateImpl(1L, Venue.XLON, levels(2, 100L, 1L));
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(256));
+
+        assertEquals(MarketDataEncoder.encodedLength(update), encoder.encode(update, buffer, 64));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFixedBufferThatIsTooSmallIsRejected() {
+        final BookUpdate update = new BookUpdateImpl(1234L, Venue.XLON, InstrumentStatus.CONTINUOUS, levels(100, 99L, -1L), levels(100, 101L, 1L));
+        encoder.encode(update, new UnsafeBuffer(ByteBuffer.allocateDirect(1024)), 0);
+    }
+}
@@ -0,0 +1,124 @@
+package codingblackfemales.marketdata.gen;
+
+import codingblackfemales.marketdata.api.MarketDataMessage;
+import codingblackfemales.marketdata.impl.BinaryFileMarketDataProvider;
+import codingblackfemales.sequencer.frame.Frame;
+import messages.marketdata.MessageHeaderDecoder;
+import messages.marketdata.Venue;
+import org.agrona.IoUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryFileMarketDataGeneratorTest {
+
+    private static final long START = 1_700_000_000_000_000_000L;
+
+    private File directory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("market-data-test").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        IoUtil.delete(directory, true);
+    }
+
+    private static void assertFileMatches(final String fileName, final RandomMarketDataGenerator expected, final int entriesCount, final int bufferLength) {
+        try (BinaryFileMarketDataProvider provider = new BinaryFileMarketDataProvider(fileName, bufferLength)) {
+            for (int i = 0; i < entriesCount; i++) {
+                final MarketDataMessage message = provider.poll();
+                final MarketDataMessage expectedMessage = expected.next();
+                assertEquals("message " + i, expectedMessage.toString(), String.valueOf(message));
+                assertEquals("message " + i, expectedMessage.eventTime(), message.eventTime());
+            }
+            assertNull(provider.poll());
+        }
+    }
+
+    @Test
+    public void testMessagesReadBackAsTheyWereGenerated() {
+        final String fileName = new File(directory, "1234.dat").getPath();
+
+        //small buffers, so frames straddle both the writes and the reads
+        try (BinaryFileMarketDataGenerator file = new BinaryFileMarketDataGenerator(fileName, new RandomMarketDataGenerator(1234, Venue.XLON, 1_000, 100, 15, 7L).setEventTimes(START, 1_000L), 4096)) {
+            file.generate(2_000);
+        }
+
+        assertFileMatches(fileName, new RandomMarketDataGenerator(1234, Venue.XLON, 1_000, 100, 15, 7L).setEventTimes(START, 1_000L), 2_000, 1024);
+    }
+
+    @Test
+    public void testParallelFilesCanEachBeRegeneratedFromTheirSeed() {
+        final ParallelMarketDataGenerator generator = new ParallelMarketDataGenerator(42L, 2);
+        for (int instrumentId = 1; instrumentId <= 4; instrumentId++) {
+            generator.add(new File(directory, instrumentId + ".dat").getPath(), instrumentId, Venue.XLON, 1_000 * instrumentId, 100, 15, 1_000);
+        }
+        generator.generate();
+
+        for (int instrumentId = 1; instrumentId <= 4; instrumentId++) {
+            final long seed = generator.getSeed(instrumentId - 1);
+            assertFileMatches(new File(directory, instrumentId + ".dat").getPath(),
+                    new RandomMarketDataGenerator(instrumentId, Venue.XLON, 1_000 * instrumentId, 100, 15, seed)
+                            .setEventTimes(generator.getFirstEventTime(), RandomMarketDataGenerator.DEFAULT_EVENT_INTERVAL_NANOS),
+                    1_000, BinaryFileMarketDataProvider.DEFAULT_BUFFER_LENGTH);
+        }
+
+        assertEquals(generator.getSeed(2), new ParallelMarketDataGenerator(42L, 1)
+                .add("a", 1, Venue.XLON, 1_000, 100, 15, 1)
+                .add("b", 2, Venue.XLON, 2_000, 100, 15, 1)
+                .add("c", 3, Venue.XLON, 3_000, 100, 15, 1)
+                .getSeed(2));
+    }
+
+    @Test
+    public void testParallelFilesAreTheSameEveryTimeForTheSameSeed() throws Exception {
+        final File first = new File(directory, "first");
+        final File second = new File(directory, "second");
+        for (File run : new File[]{first, second}) {
+            assertTrue(run.mkdir());
+            final ParallelMarketDataGenerator generator = new ParallelMarketDataGenerator(42L, 2);
+            for (int instrumentId = 1; instrumentId <= 3; instrumentId++) {
+                generator.add(new File(run, instrumentId + ".dat").getPath(), instrumentId, Venue.XLON, 1_000 * instrumentId, 100, 15, 1_000);
+            }
+            generator.generate();
+        }
+
+        for (int instrumentId = 1; instrumentId <= 3; instrumentId++) {
+            assertArrayEquals(Files.readAllBytes(new File(first, instrumentId + ".dat").toPath()),
+                    Files.readAllBytes(new File(second, instrumentId + ".dat").toPath()));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFramesFromAnotherSchemaAreRejected() throws Exception {
+        final String fileName = new File(directory, "1234.dat").getPath();
+        try (BinaryFileMarketDataGenerator file = new BinaryFileMarketDataGenerator(fileName, new RandomMarketDataGenerator(1234, Venue.XLON, 1_000, 100, 15, 7L))) {
+            file.generate(1);
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.WRITE)) {
+            final ByteBuffer schemaId = ByteBuffer.allocate(2).order(ByteOrder.LITTLE_ENDIAN).putShort((short) messages.order.MessageHeaderEncoder.SCHEMA_ID);
+            channel.write(schemaId.flip(), Frame.messageOffset(0) + MessageHeaderDecoder.schemaIdEncodingOffset());
+        }
+
+        try (BinaryFileMarketDataProvider provider = new BinaryFileMarketDataProvider(fileName)) {
+            provider.poll();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package codingblackfemales.marketdata.gen;
+
+import codingblackfemales.marketdata.gen.RandomMarketDataGenerator.Order;
+import codingblackfemales.marketdata.impl.BookLevels;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class OrderHeapTest {
+
+    private static final Comparator<Order> HIGHEST_FIRST = Order::compareTo;
+
+    private static void assertBestLevels(final OrderHeap heap, final List<Order> expected, final int maxLevels) {
+        expected.sort(HIGHEST_FIRST);
+        final int depth = Math.min(maxLevels, expected.size());
+        final BookLevels levels = new BookLevels(depth);
+        heap.copyBest(depth, levels);
+
+        assertEquals(depth, levels.depth());
+        for (int i = 0; i < depth; i++) {
+            assertEquals(expected.get(i).price, levels.price(i));
+        }
+    }
+
+    @Test
+    public void testRandomUpdatesKeepTheBestOrdersFirst() {
+        final Random random = new Random(42);
+        final OrderHeap heap = new OrderHeap(HIGHEST_FIRST);
+        final List<Order> orders = new ArrayList<>();
+
+        for (int i = 0; i < 10_000; i++) {
+            final int action = orders.isEmpty() ? 0 : random.nextInt(3);
+            if (action == 0) {
+                final Order order = new Order(random.nextInt(1_000), 1 + random.nextInt(100));
+                heap.add(order);
+                orders.add(order);
+            } else if (action == 1) {
+                orders.remove(heap.removeAt(random.nextInt(heap.size())));
+            } else {
+                final int position = random.nextInt(heap.size());
+                heap.get(position).price = random.nextInt(1_000);
+                heap.update(position);
+            }
+
+            assertEquals(orders.size(), heap.size());
+            if (i % 100 == 0) {
+                assertBestLevels(heap, orders, 15);
+            }
+        }
+        assertBestLevels(heap, orders, orders.size());
+    }
+
+    @Test
+    public void testOrdersKnowWhereTheyAre() {
+        final OrderHeap heap = new OrderHeap(HIGHEST_FIRST);
+        final List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final Order order = new Order(i * 7 % 100, 1);
+            heap.add(order);
+            orders.add(order);
+        }
+        heap.removeAt(10);
+        heap.removeAt(0);
+
+        for (Order order : orders) {
+            if (order.position >= 0) {
+                assertSame(order, heap.get(order.position));
+            }
+        }
+        assertEquals(98, heap.stream().count());
+    }
+}
@@ -6,7 +6,10 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static org.junit.Assert.assertEquals;
+
 public class RandomMarketDataGeneratorTest {
+    private static final long START = 1_700_000_000_000_000_000L;
     private Logger logger = LoggerFactory.getLogger(getClass());
 
     @Test
@@ -19,4 +22,21 @@ public class RandomMarketDataGeneratorTest {
             logger.info("{}",marketDataMessage);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void should_generate_the_same_marketdata_from_the_same_seed() {
+        final RandomMarketDataGenerator first = new RandomMarketDataGenerator(1, Venue.XLON, 1_000, 100, 15, 42L).setEventTimes(START, 1_000L);
+        final RandomMarketDataGenerator second = new RandomMarketDataGenerator(1, Venue.XLON, 1_000, 100, 15, 42L).setEventTimes(START, 1_000L);
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(first.next().toString(), second.next().toString());
+        }
+    }
+
+    @Test
+    public void should_stamp_each_message_an_interval_after_the_last() {
+        final RandomMarketDataGenerator generator = new RandomMarketDataGenerator(1, Venue.XLON, 1_000, 100, 15, 42L).setEventTimes(START, 1_000L);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(START + i * 1_000L, generator.next().eventTime());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package codingblackfemales.marketdata.replay;
+
+import codingblackfemales.marketdata.api.BookEntry;
+import codingblackfemales.marketdata.api.MarketDataMessage;
+import codingblackfemales.marketdata.api.MarketDataProvider;
+import codingblackfemales.marketdata.impl.AskBookUpdateImpl;
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.clock.SimulatedClock;
+import messages.marketdata.Venue;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class MarketDataReplayerTest {
+
+    private static final long START = TimeUnit.SECONDS.toNanos(1_700_000_000L);
+
+    private final SimulatedClock pacing = new SimulatedClock(TimeUnit.SECONDS.toNanos(5L));
+    private final List<Long> sentAt = new ArrayList<>();
+    private final Sequencer sequencer = buffer -> sentAt.add(pacing.nanoTime());
+
+    private static MarketDataProvider provider(final long... eventTimeOffsetsMillis) {
+        final List<MarketDataMessage> messages = new ArrayList<>();
+        for (long offset : eventTimeOffsetsMillis) {
+            messages.add(new AskBookUpdateImpl(START + TimeUnit.MILLISECONDS.toNanos(offset), 1234L, Venue.XLON, List.of(new BookEntry().setPrice(100L).setSize(100L))));
+        }
+        final Iterator<MarketDataMessage> iterator = messages.iterator();
+        return () -> iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private long sentAfterMillis(final int index) {
+        return TimeUnit.NANOSECONDS.toMillis(sentAt.get(index) - sentAt.get(0));
+    }
+
+    @Test
+    public void testAsFastAsPossibleDrivesTheSimulatedClock() {
+        final SimulatedClock clock = new SimulatedClock(0L);
+        final MarketDataReplayer replayer = new MarketDataReplayer(provider(0, 60_000, 120_000), sequencer, ReplayMode.AS_FAST_AS_POSSIBLE, 1.0d, pacing)
+                .setSimulatedClock(clock);
+
+        assertEquals(3, replayer.replay());
+        assertEquals(3, sentAt.size());
+        assertEquals(START + TimeUnit.MINUTES.toNanos(2), clock.epochNanos());
+        assertEquals(0, sentAfterMillis(2));
+    }
+
+    @Test
+    public void testOriginalPaceKeepsTheGapsBetweenEvents() {
+        new MarketDataReplayer(provider(0, 10, 30), sequencer, ReplayMode.ORIGINAL_PACE, 1.0d, pacing).replay();
+
+        assertEquals(3, sentAt.size());
+        assertEquals(10, sentAfterMillis(1));
+        assertEquals(30, sentAfterMillis(2));
+    }
+
+    @Test
+    public void testScaledPaceDividesTheGapsBySpeed() {
+        new MarketDataReplayer(provider(0, 100, 200), sequencer, ReplayMode.SCALED_PACE, 10.0d, pacing).replay();
+
+        assertEquals(3, sentAt.size());
+        assertEquals(10, sentAfterMillis(1));
+        assertEquals(20, sentAfterMillis(2));
+    }
+
+    @Test
+    public void testTimeSpentSendingIsMadeUpOnTheNextMessage() {
+        final Sequencer slowSequencer = buffer -> {
+            sentAt.add(pacing.nanoTime());
+            pacing.advance(TimeUnit.MILLISECONDS.toNanos(4));
+        };
+        new MarketDataReplayer(provider(0, 10, 20), slowSequencer, ReplayMode.ORIGINAL_PACE, 1.0d, pacing).replay();
+
+        assertEquals(10, sentAfterMillis(1));
+        assertEquals(20, sentAfterMillis(2));
+    }
+
+    @Test
+    public void testMessagesWithoutEventTimesAreNotPaced() {
+        final Iterator<MarketDataMessage> messages = List.<MarketDataMessage>of(
+                new AskBookUpdateImpl(1234L, Venue.XLON, List.of()),
+                new AskBookUpdateImpl(1234L, Venue.XLON, List.of())).iterator();
+
+        new MarketDataReplayer(() -> messages.hasNext() ? messages.next() : null, sequencer, ReplayMode.ORIGINAL_PACE, 1.0d, pacing).replay();
+
+        assertEquals(2, sentAt.size());
+        assertEquals(0, sentAfterMillis(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSpeedMustBePositive() {
+        new MarketDataReplayer(provider(), sequencer, ReplayMode.SCALED_PACE, 0.0d);
+    }
+}
@@ -0,0 +1,228 @@
+package codingblackfemales.risk;
+
+import codingblackfemales.action.ActionBuffer;
+import codingblackfemales.action.AmendChildOrder;
+import codingblackfemales.action.CancelChildOrders;
+import codingblackfemales.action.CreateChildOrder;
+import codingblackfemales.container.Actioner;
+import codingblackfemales.container.RunTrigger;
+import codingblackfemales.sequencer.DefaultSequencer;
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.marketdata.BookUpdates;
+import codingblackfemales.sequencer.net.Consumer;
+import codingblackfemales.sequencer.net.TestNetwork;
+import codingblackfemales.service.MarketDataService;
+import codingblackfemales.service.OrderService;
+import codingblackfemales.sotw.OrderState;
+import messages.order.CancelOrderEncoder;
+import messages.order.Side;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class PreTradeRiskGateTest {
+
+    private final long[] now = new long[]{1_000L};
+
+    private TestNetwork network;
+    private Sequencer sequencer;
+    private MarketDataService marketDataService;
+    private OrderService orderService;
+    private int batches;
+
+    private PreTradeRiskGate createGate(final RiskLimits limits) {
+        network = new TestNetwork();
+        sequencer = new DefaultSequencer(network);
+
+        final RunTrigger runTrigger = new RunTrigger();
+        marketDataService = new MarketDataService(runTrigger);
+        orderService = new OrderService(runTrigger);
+        final PreTradeRiskGate gate = new PreTradeRiskGate(sequencer, marketDataService, limits, () -> now[0]);
+
+        network.addConsumer(marketDataService);
+        network.addConsumer(orderService);
+        network.addConsumer(gate);
+        network.addConsumer(new Consumer() {
+            @Override
+            public void onMessage(DirectBuffer buffer) {
+            }
+
+            @Override
+            public void onBatchStart() {
+                batches++;
+            }
+        });
+
+        sequencer.onCommand(BookUpdates.tick());
+        return gate;
+    }
+
+    private void cancel(final long orderId) {
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+        final CancelOrderEncoder encoder = new CancelOrderEncoder();
+        encoder.wrapAndApplyHeader(buffer, 0, new messages.order.MessageHeaderEncoder());
+        encoder.orderId(orderId);
+        sequencer.onCommand(buffer);
+    }
+
+    @Test
+    public void testOpenQuantityIsReservedAndReleasedOnCancel() {
+        final PreTradeRiskGate gate = createGate(new RiskLimits().setMaxOpenQuantity(150));
+
+        new CreateChildOrder(Side.BUY, 100, 98).apply(gate);
+        new CreateChildOrder(Side.BUY, 100, 98).apply(gate);
+
+        assertEquals(1, orderService.children().size());
+        assertEquals(1, gate.getRejectCount(RiskCheck.OPEN_QUANTITY));
+        assertEquals(100, gate.getOpenQuantity());
+        assertEquals(9800, gate.getOpenNotional());
+
+        cancel(orderService.children().get(0).getOrderId());
+        assertEquals(0, gate.getOpenQuantity());
+
+        new CreateChildOrder(Side.BUY, 100, 98).apply(gate);
+        assertEquals(2, orderService.children().size());
+    }
+
+    @Test
+    public void testAmendsAreCheckedForTheQuantityTheyAdd() {
+        final PreTradeRiskGate gate = createGate(new RiskLimits().setMaxOpenQuantity(150));
+
+        new CreateChildOrder(Side.BUY, 100, 98).apply(gate);
+
+        new AmendChildOrder(orderService.children().get(0), 200, 98).apply(gate);
+        assertEquals(1, gate.getRejectCount(RiskCheck.OPEN_QUANTITY));
+        assertEquals(100, orderService.children().get(0).getQuantity());
+
+        new AmendChildOrder(orderService.children().get(0), 150, 99).apply(gate);
+        assertEquals(150, orderService.children().get(0).getQuantity());
+        assertEquals(99, orderService.children().get(0).getPrice());
+        assertEquals(150, gate.getOpenQuantity());
+        assertEquals(150 * 99, gate.getOpenNotional());
+
+        gate.activateKillSwitch();
+        new AmendChildOrder(orderService.children().get(0), 50, 99).apply(gate);
+        assertEquals(50, orderService.children().get(0).getQuantity());
+        assertEquals(50, gate.getOpenQuantity());
+        assertEquals(50 * 99, gate.getOpenNotional());
+    }
+
+    @Test
+    public void testBatchCancelReleasesEveryOrder() {
+        final PreTradeRiskGate gate = createGate(new RiskLimits());
+
+        new CreateChildOrder(Side.BUY, 100, 98).apply(gate);
+        new CreateChildOrder(Side.BUY, 100, 97).apply(gate);
+        new CreateChildOrder(Side.SELL, 100, 101).apply(gate);
+
+        new CancelChildOrders(orderService.children().subList(0, 2)).apply(gate);
+        assertEquals(OrderState.CANCELLED, orderService.children().get(0).getState());
+        assertEquals(OrderState.CANCELLED, orderService.children().get(1).getState());
+        assertEquals(100, gate.getOpenQuantity());
+
+        gate.activateKillSwitch();
+        assertEquals(1, gate.cancelOpenOrders());
+        assertEquals(OrderState.CANCELLED, orderService.children().get(2).getState());
+        assertEquals(0, gate.getOpenQuantity());
+        assertEquals(0, gate.cancelOpenOrders());
+    }
+
+    @Test
+    public void testOrderRateIsLimitedPerSecond() {
+        final PreTradeRiskGate gate = createGate(new RiskLimits().setMaxOrdersPerSecond(3));
+
+        for (int i = 0; i < 5; i++) {
+            new CreateChildOrder(Side.BUY, 1, 98).apply(gate);
+        }
+        assertEquals(3, orderService.children().size());
+        assertEquals(2, gate.getRejectCount(RiskCheck.ORDER_RATE));
+
+        now[0] += TimeUnit.SECONDS.toNanos(1);
+        new CreateChildOrder(Side.BUY, 1, 98).apply(gate);
+        assertEquals(4, orderService.children().size());
+    }
+
+    @Test
+    public void testBatchesAreCheckedAndSentOnTogether() {
+        final PreTradeRiskGate gate = createGate(new RiskLimits().setMaxOrderQuantity(100));
+        final Actioner actioner = new Actioner(gate);
+
+        actioner.processActions(new ActionBuffer()
+                .add(new CreateChildOrder(Side.BUY, 100, 98))
+                .add(new CreateChildOrder(Side.BUY, 100, 97)));
+        assertEquals(1, batches);
+        assertEquals(2, orderService.children().size());
+
+        actioner.processActions(new ActionBuffer()
+                .add(new CreateChildOrder(Side.BUY, 100, 96))
+                .add(new CreateChildOrder(Side.BUY, 200, 95))
+                .add(new CreateChildOrder(Side.BUY, 100, 94)));
+        assertEquals(1, gate.getRejectCount(RiskCheck.ORDER_QUANTITY));
+        assertEquals(4, orderService.children().size());
+        //the orders either side of the rejected one still go as batches
+        assertEquals(3, batches);
+        assertEquals(400, gate.getOpenQuantity());
+    }
+
+    @Test
+    public void testNotionalThatOverflowsIsRejected() {
+        final PreTradeRiskGate gate = createGate(new RiskLimits());
+
+        new CreateChildOrder(Side.BUY, Long.MAX_VALUE / 2, 98).apply(gate);
+
+        assertEquals(1, gate.getRejectCount(RiskCheck.ORDER_NOTIONAL));
+        assertEquals(0, orderService.children().size());
+        assertEquals(0, gate.getOpenQuantity());
+    }
+
+    @Test
+    public void testOpenTotalsComeBackDownWhenALaterGateDropsTheOrder() {
+        final PreTradeRiskGate later = createGate(new RiskLimits().setMaxOrderQuantity(100));
+        final PreTradeRiskGate gate = new PreTradeRiskGate(later, marketDataService, new RiskLimits(), () -> now[0]);
+        network.addConsumer(gate);
+        later.setDroppedCommandListener(gate);
+
+        new CreateChildOrder(Side.BUY, 100, 98).apply(gate);
+        new CreateChildOrder(Side.BUY, 200, 97).apply(gate);
+        assertEquals(100, gate.getOpenQuantity());
+        assertEquals(9800, gate.getOpenNotional());
+
+        new AmendChildOrder(orderService.children().get(0), 150, 99).apply(gate);
+        assertEquals(100, gate.getOpenQuantity());
+        assertEquals(9800, gate.getOpenNotional());
+
+        new AmendChildOrder(orderService.children().get(0), 40, 98).apply(gate);
+        assertEquals(2, later.getRejectCount(RiskCheck.ORDER_QUANTITY));
+        assertEquals(40, gate.getOpenQuantity());
+        assertEquals(40 * 98, gate.getOpenNotional());
+    }
+
+    @Test
+    public void testFatFingerNotionalAndKillSwitch() {
+        final PreTradeRiskGate gate = createGate(new RiskLimits().setPriceBandBasisPoints(500).setMaxOrderNotional(10_000));
+
+        //best ask is 100, so a buy up to 105 is inside a 5% band
+        new CreateChildOrder(Side.BUY, 10, 105).apply(gate);
+        new CreateChildOrder(Side.BUY, 10, 106).apply(gate);
+        //best bid is 98, 5% below is 93.1
+        new CreateChildOrder(Side.SELL, 10, 93).apply(gate);
+        new CreateChildOrder(Side.BUY, 200, 100).apply(gate);
+
+        assertEquals(1, orderService.children().size());
+        assertEquals(2, gate.getRejectCount(RiskCheck.PRICE_BAND));
+        assertEquals(1, gate.getRejectCount(RiskCheck.ORDER_NOTIONAL));
+
+        gate.activateKillSwitch();
+        new CreateChildOrder(Side.BUY, 10, 100).apply(gate);
+        assertEquals(1, gate.getRejectCount(RiskCheck.KILL_SWITCH));
+
+        //cancels still get through with the kill switch on
+        cancel(orderService.children().get(0).getOrderId());
+        assertEquals(0, gate.getOpenQuantity());
+    }
+}
@@ -1,6 +1,5 @@
 package codingblackfemales.orderbook;
 
-import codingblackfemales.orderbook.visitor.MutatingAddOrderVisitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -8,8 +7,6 @@ public class BidBookSide extends OrderBookSide{
 
     private static final Logger logger = LoggerFactory.getLogger(BidBookSide.class);
 
-    private final MutatingAddOrderVisitor addOrderVisitor = new MutatingAddOrderVisitor();
-
 //    public void onBidBook(BidBookUpdateDecoder bidBook) {
 //        removeMarketDataOrders();
 //        AddBidMarketDataOrders(bidBook);
@@ -20,9 +17,8 @@ public class BidBookSide extends OrderBookSide{
 //        addBidkMarketDataOrders(bookUpdate);
 //    }
 
-    @Override
-    MutatingAddOrderVisitor getAddOrderVisitor() {
-        return addOrderVisitor;
+    boolean isBetter(long price, long than){
+        return price > than;
     }
 
     boolean isBetweenLevels(OrderBookLevel previous, OrderBookLevel next, long price){
@@ -1,9 +1,13 @@
 package codingblackfemales.orderbook;
 
+import codingblackfemales.collection.intrusive.IntrusiveNodePool;
 import codingblackfemales.orderbook.channel.MarketDataChannel;
 import codingblackfemales.orderbook.channel.OrderChannel;
+import codingblackfemales.orderbook.order.DefaultOrderFlyweight;
 import codingblackfemales.orderbook.order.LimitOrderFlyweight;
+import codingblackfemales.orderbook.order.MarketByOrderFlyweight;
 import codingblackfemales.orderbook.order.MarketDataOrderFlyweight;
+import codingblackfemales.orderbook.visitor.AmendOrderVisitor;
 import codingblackfemales.orderbook.visitor.CancelOrderVisitor;
 import codingblackfemales.orderbook.visitor.MutatingMatchOneMarketDataOrderVisitor;
 import codingblackfemales.orderbook.visitor.MutatingMatchOneOrderVisitor;
@@ -11,13 +15,21 @@ import codingblackfemales.orderbook.visitor.ReadOnlyMarketDataChannelPublishVisi
 import codingblackfemales.sequencer.event.MarketDataEventListener;
 import messages.marketdata.AskBookUpdateDecoder;
 import messages.marketdata.BidBookUpdateDecoder;
+import messages.marketdata.BookSide;
 import messages.marketdata.BookUpdateDecoder;
+import messages.marketdata.MboOrderAddDecoder;
+import messages.marketdata.MboOrderDeleteDecoder;
+import messages.marketdata.MboOrderExecuteDecoder;
+import messages.marketdata.MboOrderModifyDecoder;
 import messages.marketdata.Source;
 import messages.order.Side;
 import org.agrona.MutableDirectBuffer;
+import org.agrona.collections.Long2ObjectHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
 public class OrderBook extends MarketDataEventListener {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderBook.class);
@@ -26,11 +38,34 @@ public class OrderBook extends MarketDataEventListener {
     private final OrderChannel orderChannel;
 
     public OrderBook(final MarketDataChannel marketDataChannel, final OrderChannel orderChannel) {
+        super(ALL_TEMPLATES);
         this.marketDataChannel = marketDataChannel;
         this.orderChannel = orderChannel;
+        this.amendVisitor = new AmendOrderVisitor(limitOrders);
     }
 
-    private ReadOnlyMarketDataChannelPublishVisitor mktDataVisitor = new ReadOnlyMarketDataChannelPublishVisitor();
+    /*
+     * Orders and levels are pooled so a warm book doesn't allocate. Filling an order calls out to the rest of the
+     * backtest, which can send new orders straight back in, so nodes removed during an event are only reclaimed once
+     * the outermost event is done, and the matching visitors are kept one per depth.
+     */
+    private final IntrusiveNodePool<LimitOrderFlyweight> limitOrders = new IntrusiveNodePool<>(LimitOrderFlyweight::new, this::forgetLimitOrder);
+    private final IntrusiveNodePool<MarketDataOrderFlyweight> marketDataOrders = new IntrusiveNodePool<>(MarketDataOrderFlyweight::new);
+    private final IntrusiveNodePool<MarketByOrderFlyweight> marketByOrders = new IntrusiveNodePool<>(MarketByOrderFlyweight::new);
+
+    private int depth = 0;
+    private MutatingMatchOneOrderVisitor[] matchVisitors = new MutatingMatchOneOrderVisitor[4];
+    private MutatingMatchOneMarketDataOrderVisitor[] matchMarketDataVisitors = new MutatingMatchOneMarketDataOrderVisitor[4];
+    //the published book is still being dispatched when a consumer's reaction makes us publish again
+    private ReadOnlyMarketDataChannelPublishVisitor[] mktDataVisitors = new ReadOnlyMarketDataChannelPublishVisitor[4];
+
+    private final CancelOrderVisitor cancelVisitor = new CancelOrderVisitor(0);
+    private final AmendOrderVisitor amendVisitor;
+
+    //resting limit orders by id, an order leaves once it is reclaimed so the entry may be stale within an event
+    private final Long2ObjectHashMap<LimitOrderFlyweight> limitOrdersById = new Long2ObjectHashMap<>();
+
+    private final Long2ObjectHashMap<MarketByOrderFlyweight> marketByOrder = new Long2ObjectHashMap<>();
 
     private AskBookSide askBookSide = new AskBookSide();
     private BidBookSide bidBookSide = new BidBookSide();
@@ -57,14 +92,19 @@ public class OrderBook extends MarketDataEventListener {
 
     @Override
     public void onBookUpdate(BookUpdateDecoder bookUpdate) {
-        //don't process updates from ourself.
-        if(!bookUpdate.source().equals(Source.ORDERBOOK)){
-            logger.info("[ORDERBOOK] Processing Mkt Data Update");
-            getBidBookSide().removeMarketDataOrders();
-            addOrMatchBidMarketDataOrders(bookUpdate);
+        enter();
+        try{
+            //don't process updates from ourself.
+            if(!bookUpdate.source().equals(Source.ORDERBOOK)){
+                logger.info("[ORDERBOOK] Processing Mkt Data Update");
+                getBidBookSide().removeMarketDataOrders();
+                addOrMatchBidMarketDataOrders(bookUpdate);
 
-            getAskBookSide().removeMarketDataOrders();
-            addOrMatchAskMarketDataOrders(bookUpdate);
+                getAskBookSide().removeMarketDataOrders();
+                addOrMatchAskMarketDataOrders(bookUpdate);
+            }
+        }finally{
+            exit();
         }
     }
 
@@ -72,10 +112,11 @@ public class OrderBook extends MarketDataEventListener {
         for(BookUpdateDecoder.AskBookDecoder decoder : bookUpdateDecoder.askBook()) {
             final long price = decoder.price();
             final long quantity = decoder.size();
-            var marketOrder = new MarketDataOrderFlyweight(Side.SELL, price, quantity);
+            var marketOrder = marketDataOrders.acquire().set(Side.SELL, price, quantity);
             logger.debug("[ORDERBOOK] ASK: Adding order" + marketOrder);
             if(canMatch(Side.SELL, price)){
                 matchMarketDataOrder(marketOrder);
+                marketDataOrders.release(marketOrder);
             }else{
                 getAskBookSide().addMarketDataOrder(marketOrder);
             }
@@ -86,10 +127,11 @@ public class OrderBook extends MarketDataEventListener {
         for(AskBookUpdateDecoder.AskBookDecoder decoder : askBookUpdateDecoder.askBook()) {
             final long price = decoder.price();
             final long quantity = decoder.size();
-            var marketOrder = new MarketDataOrderFlyweight(Side.SELL, price, quantity);
+            var marketOrder = marketDataOrders.acquire().set(Side.SELL, price, quantity);
             logger.debug("[ORDERBOOK] ASK: Adding order" + marketOrder);
             if(canMatch(Side.SELL, price)){
                 matchMarketDataOrder(marketOrder);
+                marketDataOrders.release(marketOrder);
             }else{
                 getAskBookSide().addMarketDataOrder(marketOrder);
             }
@@ -100,10 +142,11 @@ public class OrderBook extends MarketDataEventListener {
         for(BidBookUpdateDecoder.BidBookDecoder decoder : askBookUpdateDecoder.bidBook()) {
             final long price = decoder.price();
             final long quantity = decoder.size();
-            var marketOrder = new MarketDataOrderFlyweight(Side.SELL, price, quantity);
+            var marketOrder = marketDataOrders.acquire().set(Side.SELL, price, quantity);
             logger.debug("[ORDERBOOK] ASK: Adding order" + marketOrder);
             if(canMatch(Side.BUY, price)){
                 matchMarketDataOrder(marketOrder);
+                marketDataOrders.release(marketOrder);
             }else{
                 getBidBookSide().addMarketDataOrder(marketOrder);
             }
@@ -114,10 +157,11 @@ public class OrderBook extends MarketDataEventListener {
         for(BookUpdateDecoder.AskBookDecoder decoder : bookUpdateDecoder.askBook()) {
             final long price = decoder.price();
             final long quantity = decoder.size();
-            var marketOrder = new MarketDataOrderFlyweight(Side.SELL, price, quantity);
+            var marketOrder = marketDataOrders.acquire().set(Side.SELL, price, quantity);
             logger.debug("[ORDERBOOK] ASK: Adding order" + marketOrder);
             if(canMatch(Side.BUY, price)){
                 matchMarketDataOrder(marketOrder);
+                marketDataOrders.release(marketOrder);
             }else{
                 getBidBookSide().addMarketDataOrder(marketOrder);
             }
@@ -126,18 +170,191 @@ public class OrderBook extends MarketDataEventListener {
 
     @Override
     public void onAskBook(AskBookUpdateDecoder askBook) {
-        getAskBookSide().removeMarketDataOrders();
-        addOrMatchAskMarketDataOrders(askBook);
+        enter();
+        try{
+            getAskBookSide().removeMarketDataOrders();
+            addOrMatchAskMarketDataOrders(askBook);
+        }finally{
+            exit();
+        }
     }
 
     @Override
     public void onBidBook(BidBookUpdateDecoder bidBook) {
-        getBidBookSide().removeMarketDataOrders();
-        addOrMatchBidMarketDataOrders(bidBook);
+        enter();
+        try{
+            getBidBookSide().removeMarketDataOrders();
+            addOrMatchBidMarketDataOrders(bidBook);
+        }finally{
+            exit();
+        }
+    }
+
+    /*
+     * Market by order: the market's orders are kept one by one, so ours queue behind whatever was there first and
+     * only fill once the market has traded through the orders ahead of them.
+     */
+
+    @Override
+    public void onMboOrderAdd(MboOrderAddDecoder add) {
+        enter();
+        try{
+            final Side side = toSide(add.side());
+            final long orderId = add.orderId();
+            final long price = add.price();
+
+            //the market's own orders never cross each other, so anything that does can only trade with ours
+            final long remaining = matchOurOrders(side, price, add.size());
+
+            if(remaining > 0){
+                addMarketByOrder(marketByOrders.acquire().set(side, price, remaining, orderId));
+            }
+            publishBook();
+        }finally{
+            exit();
+        }
+    }
+
+    @Override
+    public void onMboOrderModify(MboOrderModifyDecoder modify) {
+        enter();
+        try{
+            final MarketByOrderFlyweight order = marketByOrder.get(modify.orderId());
+            if(order == null){
+                logger.warn("[ORDERBOOK] Market order to modify not found (id=:" + modify.orderId() + ")");
+                return;
+            }
+
+            final OrderBookSide side = getSide(order.getSide());
+            final OrderBookLevel level = side.findLevel(order.getPrice());
+
+            //nothing left is a delete, whatever the price
+            if(modify.size() == 0){
+                marketByOrder.remove(order.getOrderId());
+                side.reduceOrder(level, order, order.getQuantity());
+            //as on the exchange, only a reduction at the same price keeps its place in the queue
+            }else if(modify.price() == order.getPrice() && modify.size() <= order.getQuantity()){
+                side.reduceOrder(level, order, order.getQuantity() - modify.size());
+            }else{
+                side.reduceOrder(level, order, order.getQuantity());
+                addMarketByOrder(marketByOrders.acquire().set(order.getSide(), modify.price(), modify.size(), order.getOrderId()));
+            }
+            publishBook();
+        }finally{
+            exit();
+        }
+    }
+
+    @Override
+    public void onMboOrderDelete(MboOrderDeleteDecoder delete) {
+        enter();
+        try{
+            final MarketByOrderFlyweight order = marketByOrder.remove(delete.orderId());
+            if(order == null){
+                logger.warn("[ORDERBOOK] Market order to delete not found (id=:" + delete.orderId() + ")");
+                return;
+            }
+
+            final OrderBookSide side = getSide(order.getSide());
+            side.reduceOrder(side.findLevel(order.getPrice()), order, order.getQuantity());
+            publishBook();
+        }finally{
+            exit();
+        }
+    }
+
+    /**
+     * The market traded against one of its orders, so whatever of ours is ahead of it in the queue would have traded
+     * first. We fill those, and only what is left comes off the market's order.
+     */
+    @Override
+    public void onMboOrderExecute(MboOrderExecuteDecoder execute) {
+        enter();
+        try{
+            final MarketByOrderFlyweight executed = marketByOrder.get(execute.orderId());
+            if(executed == null){
+                logger.warn("[ORDERBOOK] Market order executed not found (id=:" + execute.orderId() + ")");
+                return;
+            }
+
+            final OrderBookSide side = getSide(executed.getSide());
+            final OrderBookLevel level = side.findLevel(executed.getPrice());
+
+            long remaining = execute.size();
+            DefaultOrderFlyweight order = level.getFirstOrder();
+            while(order != executed && remaining > 0){
+                final DefaultOrderFlyweight next = order.next();
+                if(order instanceof LimitOrderFlyweight){
+                    final long fillQuantity = Math.min(remaining, order.getQuantity());
+                    remaining -= fillQuantity;
+                    logger.info("[ORDERBOOK] Filled " + fillQuantity + "@" + level.getPrice() + " ahead of market order for order:" + order);
+                    orderChannel.publishFill(fillQuantity, level.getPrice(), (LimitOrderFlyweight) order);
+                    side.reduceOrder(level, order, fillQuantity);
+                }
+                order = next;
+            }
+
+            if(remaining > 0){
+                final long executedQuantity = Math.min(remaining, executed.getQuantity());
+                if(executedQuantity == executed.getQuantity()){
+                    marketByOrder.remove(executed.getOrderId());
+                }
+                side.reduceOrder(level, executed, executedQuantity);
+            }
+            publishBook();
+        }finally{
+            exit();
+        }
+    }
+
+    private void addMarketByOrder(final MarketByOrderFlyweight order){
+        marketByOrder.put(order.getOrderId(), order);
+        getSide(order.getSide()).addOrder(order);
+    }
+
+    private long matchOurOrders(final Side side, final long price, long quantity){
+        final OrderBookSide contraSide = getSide(side == Side.BUY ? Side.SELL : Side.BUY);
+
+        OrderBookLevel level = contraSide.getFirstLevel();
+        while(level != null && quantity > 0 && canMatch(side, price)){
+            final OrderBookLevel nextLevel = level.next();
+            DefaultOrderFlyweight order = level.getFirstOrder();
+            while(order != null && quantity > 0){
+                final DefaultOrderFlyweight next = order.next();
+                if(order instanceof LimitOrderFlyweight){
+                    final long fillQuantity = Math.min(quantity, order.getQuantity());
+                    quantity -= fillQuantity;
+                    logger.info("[ORDERBOOK] Filled " + fillQuantity + "@" + level.getPrice() + " for order:" + order);
+                    orderChannel.publishFill(fillQuantity, level.getPrice(), (LimitOrderFlyweight) order);
+                    contraSide.reduceOrder(level, order, fillQuantity);
+                }
+                order = next;
+            }
+            if(level == contraSide.getFirstLevel()){
+                //whatever is left on this level isn't ours, so it won't trade
+                break;
+            }
+            level = nextLevel;
+        }
+        return quantity;
+    }
+
+    private OrderBookSide getSide(final Side side){
+        return side == Side.BUY ? getBidBookSide() : getAskBookSide();
+    }
+
+    private static Side toSide(final BookSide side){
+        return side == BookSide.BID ? Side.BUY : Side.SELL;
     }
 
     public void matchOrder(final LimitOrderFlyweight limit) {
-        final MutatingMatchOneOrderVisitor visitor = new MutatingMatchOneOrderVisitor(limit, orderChannel);
+        if(depth >= matchVisitors.length){
+            matchVisitors = Arrays.copyOf(matchVisitors, depth * 2);
+        }
+        if(matchVisitors[depth] == null){
+            matchVisitors[depth] = new MutatingMatchOneOrderVisitor(orderChannel);
+        }
+        final MutatingMatchOneOrderVisitor visitor = matchVisitors[depth].reset(limit);
         if(limit.getSide().equals(Side.BUY)){
             getAskBookSide().accept(visitor);
         }else if(limit.getSide().equals(Side.SELL)){
@@ -146,7 +363,13 @@ public class OrderBook extends MarketDataEventListener {
     }
 
     public void matchMarketDataOrder(final MarketDataOrderFlyweight market) {
-        final MutatingMatchOneMarketDataOrderVisitor visitor = new MutatingMatchOneMarketDataOrderVisitor(market, orderChannel);
+        if(depth >= matchMarketDataVisitors.length){
+            matchMarketDataVisitors = Arrays.copyOf(matchMarketDataVisitors, depth * 2);
+        }
+        if(matchMarketDataVisitors[depth] == null){
+            matchMarketDataVisitors[depth] = new MutatingMatchOneMarketDataOrderVisitor(orderChannel);
+        }
+        final MutatingMatchOneMarketDataOrderVisitor visitor = matchMarketDataVisitors[depth].reset(market);
         if(market.getSide().equals(Side.BUY)){
             getAskBookSide().accept(visitor);
         }else if(market.getSide().equals(Side.SELL)){
@@ -155,6 +378,7 @@ public class OrderBook extends MarketDataEventListener {
     }
 
     public void addLiquidity(final LimitOrderFlyweight limit) {
+        limitOrdersById.put(limit.getOrderId(), limit);
         if(limit.getSide().equals(Side.BUY)){
             logger.info("[ORDERBOOK] Adding passive limit order to BID book" + limit);
             this.getBidBookSide().addLimitOrder(limit);
@@ -165,33 +389,155 @@ public class OrderBook extends MarketDataEventListener {
     }
 
     public void onLimitOrder(final LimitOrderFlyweight limit) {
-        if(canMatch(limit.getSide(), limit.getPrice())){
-            matchOrder(limit);
-        }else{
-            addLiquidity(limit);
-        }
+        enter();
+        try{
+            if(canMatch(limit.getSide(), limit.getPrice())){
+                matchOrder(limit);
+                limitOrders.release(limit);
+            }else{
+                addLiquidity(limit);
+            }
 
-        publishBook();
+            publishBook();
+        }finally{
+            exit();
+        }
     }
 
     public void onCancelOrder(final long orderIdToCancel){
-        logger.info("[ORDERBOOK] Cancelling order (id=:" + orderIdToCancel + ")");
-        var cancelVisitor = new CancelOrderVisitor(orderIdToCancel);
-        getAskBookSide().accept(cancelVisitor);
-        getBidBookSide().accept(cancelVisitor);
-        publishBook();
+        enter();
+        try{
+            logger.info("[ORDERBOOK] Cancelling order (id=:" + orderIdToCancel + ")");
+            cancelVisitor.reset(orderIdToCancel);
+            getAskBookSide().accept(cancelVisitor);
+            getBidBookSide().accept(cancelVisitor);
+            publishBook();
+        }finally{
+            exit();
+        }
+    }
+
+    /**
+     * Cancels all the orders, finding each by its id rather than walking the book, and publishes a single book update.
+     */
+    public void onBatchCancelOrder(final long[] orderIdsToCancel, final int count){
+        enter();
+        try{
+            logger.info("[ORDERBOOK] Cancelling " + count + " orders");
+            int notFound = 0;
+            for(int i = 0; i < count; i++){
+                if(!cancelRestingOrder(orderIdsToCancel[i])){
+                    notFound++;
+                }
+            }
+
+            if(notFound > 0){
+                logger.warn("[ORDERBOOK] " + notFound + " orders to cancel were not found");
+            }
+            publishBook();
+        }finally{
+            exit();
+        }
+    }
+
+    private boolean cancelRestingOrder(final long orderId){
+        final LimitOrderFlyweight limit = limitOrdersById.remove(orderId);
+        if(limit == null || limit.getOrderId() != orderId){
+            return false;
+        }
+        final OrderBookSide side = getSide(limit.getSide());
+        final OrderBookLevel level = side.findLevel(limit.getPrice());
+        //taken off the book since it was indexed, e.g. filled or cancelled earlier in this event
+        if(level == null || !level.contains(limit)){
+            return false;
+        }
+        logger.info("[ORDERBOOK] Cancelling order: " + limit);
+        side.reduceOrder(level, limit, limit.getQuantity());
+        return true;
+    }
+
+    private void forgetLimitOrder(final LimitOrderFlyweight limit){
+        if(limitOrdersById.get(limit.getOrderId()) == limit){
+            limitOrdersById.remove(limit.getOrderId());
+        }
+    }
+
+    public void onAmendOrder(final long orderId, final long price, final long quantity){
+        enter();
+        try{
+            logger.info("[ORDERBOOK] Amending order (id=:" + orderId + ") to price=" + price + ",quantity=" + quantity);
+            amendVisitor.reset(orderId, price, quantity);
+            getAskBookSide().accept(amendVisitor);
+            getBidBookSide().accept(amendVisitor);
+
+            if(!amendVisitor.isFound()){
+                logger.warn("[ORDERBOOK] Order to amend not found (id=:" + orderId + ")");
+            }
+
+            //the replacement can fill, and the fill can bring us back here, so don't hold on to the visitor
+            final LimitOrderFlyweight replacement = amendVisitor.getReplacement();
+            if(replacement != null){
+                onLimitOrder(replacement);
+            }else{
+                publishBook();
+            }
+        }finally{
+            exit();
+        }
+    }
+
+    private void enter(){
+        depth++;
+    }
+
+    private void exit(){
+        if(--depth == 0){
+            reclaim();
+        }
+    }
+
+    private void reclaim(){
+        limitOrders.reclaim();
+        marketDataOrders.reclaim();
+        marketByOrders.reclaim();
+        getBidBookSide().getLevelPool().reclaim();
+        getAskBookSide().getLevelPool().reclaim();
     }
 
+    /**
+     * @return a pooled limit order, which goes back to the pool once it leaves the book.
+     */
+    public LimitOrderFlyweight newLimitOrder(final Side side, final long price, final long quantity, final long orderId){
+        return limitOrders.acquire().set(side, price, quantity, orderId);
+    }
+
+    IntrusiveNodePool<LimitOrderFlyweight> getLimitOrderPool(){
+        return limitOrders;
+    }
+
+    IntrusiveNodePool<MarketDataOrderFlyweight> getMarketDataOrderPool(){
+        return marketDataOrders;
+    }
 
     public void publishBook(){
-        final var messageBuffer = getBookUpdateMessage();
-        marketDataChannel.publish(messageBuffer);
+        marketDataChannel.publish(encodeBook().message());
     }
 
     public MutableDirectBuffer getBookUpdateMessage(){
-        mktDataVisitor.start();
-        getBidBookSide().accept(mktDataVisitor);
-        getAskBookSide().accept(mktDataVisitor);
-        return mktDataVisitor.end();
+        return encodeBook().end();
+    }
+
+    private ReadOnlyMarketDataChannelPublishVisitor encodeBook(){
+        if(depth >= mktDataVisitors.length){
+            mktDataVisitors = Arrays.copyOf(mktDataVisitors, depth * 2);
+        }
+        if(mktDataVisitors[depth] == null){
+            mktDataVisitors[depth] = new ReadOnlyMarketDataChannelPublishVisitor();
+        }
+        final ReadOnlyMarketDataChannelPublishVisitor visitor = mktDataVisitors[depth];
+        visitor.start();
+        getBidBookSide().accept(visitor);
+        getAskBookSide().accept(visitor);
+        return visitor;
     }
 }
@@ -1,5 +1,6 @@
 package codingblackfemales.orderbook;
 
+import codingblackfemales.collection.intrusive.IntrusiveLinkedList;
 import codingblackfemales.collection.intrusive.IntrusiveLinkedListNode;
 import codingblackfemales.orderbook.order.DefaultOrderFlyweight;
 import codingblackfemales.orderbook.order.MarketDataOrderFlyweight;
@@ -10,13 +11,23 @@ public class OrderBookLevel extends IntrusiveLinkedListNode<OrderBookLevel> {
     private long price;
     private long quantity;
 
-    private DefaultOrderFlyweight firstOrder;
+    private final IntrusiveLinkedList<DefaultOrderFlyweight> orders = new IntrusiveLinkedList<>();
 
 
     public OrderBookLevel() {
         super();
     }
 
+    /**
+     * Readies a pooled level for a new price.
+     */
+    public OrderBookLevel reset(final long price) {
+        this.price = price;
+        this.quantity = 0;
+        this.orders.clear();
+        return this;
+    }
+
     public long getPrice() {
         return price;
     }
@@ -33,32 +44,46 @@ public class OrderBookLevel extends IntrusiveLinkedListNode<OrderBookLevel> {
         this.quantity = quantity;
     }
 
-    public void setFirstOrder(final DefaultOrderFlyweight order){
-        this.firstOrder = order;
+    /**
+     * Queues the order behind the ones already on the level.
+     */
+    public void addOrder(final DefaultOrderFlyweight order){
+        this.orders.addLast(order);
     }
 
     public DefaultOrderFlyweight getFirstOrder(){
-        return this.firstOrder;
+        return this.orders.first();
+    }
+
+    public boolean contains(final DefaultOrderFlyweight order){
+        return this.orders.contains(order);
+    }
+
+    public int getOrderCount(){
+        return this.orders.size();
     }
 
     public void removeMarketDataOrder(){
-        var order = this.firstOrder;
+        var order = this.orders.first();
         while(order != null){
+            final var next = order.next();
             if(order instanceof MarketDataOrderFlyweight){
-                var marketDataOrder = (MarketDataOrderFlyweight) order;
-                this.firstOrder = marketDataOrder.remove();
+                order.remove();
             }
-            order = order.next();
+            order = next;
         }
     }
 
     public void accept(OrderBookVisitor visitor, OrderBookSide side){
         visitor.visitLevel(side, this);
 
-        DefaultOrderFlyweight order = firstOrder;
+        DefaultOrderFlyweight order = orders.first();
 
-        if(firstOrder == null){
-            firstOrder = visitor.onNoFirstOrder();
+        if(order == null){
+            final DefaultOrderFlyweight newOrder = visitor.onNoFirstOrder();
+            if(newOrder != null){
+                orders.addLast(newOrder);
+            }
             return;
         }
 
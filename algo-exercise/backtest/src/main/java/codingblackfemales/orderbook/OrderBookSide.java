@@ -1,14 +1,25 @@
 package codingblackfemales.orderbook;
 
+import codingblackfemales.collection.intrusive.IntrusiveLinkedList;
+import codingblackfemales.collection.intrusive.IntrusiveNodePool;
+import codingblackfemales.orderbook.order.DefaultOrderFlyweight;
 import codingblackfemales.orderbook.order.LimitOrderFlyweight;
 import codingblackfemales.orderbook.order.MarketDataOrderFlyweight;
 import codingblackfemales.orderbook.visitor.FilteringOrderBookVisitor;
-import codingblackfemales.orderbook.visitor.MutatingAddOrderVisitor;
 import codingblackfemales.orderbook.visitor.MutatingRemoveAllMarketDataOrdersVisitor;
 import codingblackfemales.orderbook.visitor.OrderBookVisitor;
+import org.agrona.collections.Long2ObjectHashMap;
 
 public abstract class OrderBookSide {
-    private OrderBookLevel firstLevel;
+    private final IntrusiveLinkedList<OrderBookLevel> levels = new IntrusiveLinkedList<>();
+
+    private final IntrusiveNodePool<OrderBookLevel> levelPool = new IntrusiveNodePool<>(OrderBookLevel::new);
+
+    /*
+     * Levels by price, so events for a known price don't walk the book. Visitors can take levels out of the list
+     * without going through here, so an entry is only trusted while its level is still in the list at that price.
+     */
+    private final Long2ObjectHashMap<OrderBookLevel> levelsByPrice = new Long2ObjectHashMap<>();
 
     private final MutatingRemoveAllMarketDataOrdersVisitor removeMarketDataOrderVisitor = new MutatingRemoveAllMarketDataOrdersVisitor();
 
@@ -17,11 +28,11 @@ public abstract class OrderBookSide {
     }
 
     public OrderBookLevel getFirstLevel() {
-        return firstLevel;
+        return levels.first();
     }
 
-    public void setFirstLevel(OrderBookLevel level) {
-        firstLevel = level;
+    public int getLevelCount() {
+        return levels.size();
     }
 
     public void accept(final OrderBookVisitor visitor){
@@ -34,7 +45,8 @@ public abstract class OrderBookSide {
         if(levelToVisit == null){
             OrderBookLevel level = visitor.onNoFirstLevel();
             if(level != null) {
-                setFirstLevel(level);
+                levels.addLast(level);
+                levelsByPrice.put(level.getPrice(), level);
                 level.accept(visitor, this);
             }
             return;
@@ -61,7 +73,8 @@ public abstract class OrderBookSide {
                 visitor.missingBookLevel(levelToVisit, nextLevel, priceToFind);
             } else if (isNewDeepestLevel(levelToVisit, nextLevel, priceToFind)) {
                 OrderBookLevel level = visitor.missingBookLevel(levelToVisit, nextLevel, priceToFind);
-                levelToVisit.last().add(level);
+                levels.addLast(level);
+                levelsByPrice.put(level.getPrice(), level);
             } // TODO: this a bug : what is this is the new highest level?
         }else{
             levelToVisit.accept(visitor, this);
@@ -70,6 +83,89 @@ public abstract class OrderBookSide {
 
 
 
+    /**
+     * @return the level at exactly this price, or null if there isn't one.
+     */
+    public OrderBookLevel findLevel(final long price){
+        final OrderBookLevel level = levelsByPrice.get(price);
+        if(level == null){
+            return null;
+        }
+        if(levels.contains(level) && level.getPrice() == price){
+            return level;
+        }
+        levelsByPrice.remove(price);
+        return null;
+    }
+
+    /**
+     * Adds the order at the back of the queue for its price, creating the level in price order if need be.
+     */
+    void addOrder(final DefaultOrderFlyweight order){
+        final OrderBookLevel level = getOrCreateLevel(order.getPrice());
+        level.addOrder(order);
+        level.setQuantity(level.getQuantity() + order.getQuantity());
+    }
+
+    /**
+     * Takes quantity off an order, removing it from the queue (and the level, once empty) when none is left.
+     * Visitors that take quantity off the book go through here too, so no empty level is left behind.
+     */
+    public void reduceOrder(final OrderBookLevel level, final DefaultOrderFlyweight order, final long quantity){
+        level.setQuantity(level.getQuantity() - quantity);
+        if(quantity < order.getQuantity()){
+            order.setQuantity(order.getQuantity() - quantity);
+            return;
+        }
+
+        order.remove();
+        if(level.getFirstOrder() == null){
+            levelsByPrice.remove(level.getPrice());
+            level.remove();
+        }
+    }
+
+    private OrderBookLevel getOrCreateLevel(final long price){
+        final OrderBookLevel existing = findLevel(price);
+        if(existing != null){
+            return existing;
+        }
+
+        //a new level is most often the new deepest one, so check there before walking from the top
+        final OrderBookLevel last = levels.last();
+        if(last == null || isBetter(last.getPrice(), price)){
+            final OrderBookLevel newLevel = newLevel(price);
+            levels.addLast(newLevel);
+            levelsByPrice.put(price, newLevel);
+            return newLevel;
+        }
+
+        var level = getFirstLevel();
+        while(level.getPrice() != price && !isBetter(price, level.getPrice())){
+            level = level.next();
+        }
+        if(level.getPrice() == price){
+            //added by a visitor rather than through here
+            levelsByPrice.put(price, level);
+            return level;
+        }
+
+        final OrderBookLevel newLevel = newLevel(price);
+        levels.insertBefore(level, newLevel);
+        levelsByPrice.put(price, newLevel);
+        return newLevel;
+    }
+
+    private OrderBookLevel newLevel(final long price){
+        return levelPool.acquire().reset(price);
+    }
+
+    IntrusiveNodePool<OrderBookLevel> getLevelPool(){
+        return levelPool;
+    }
+
+    abstract boolean isBetter(long price, long than);
+
     abstract boolean isBetweenLevels(OrderBookLevel previous, OrderBookLevel next, long price);
 
     abstract boolean isNewDeepestLevel(OrderBookLevel previous, OrderBookLevel next, long price);
@@ -79,15 +175,11 @@ public abstract class OrderBookSide {
     }
 
     void addMarketDataOrder(MarketDataOrderFlyweight order){
-        this.getAddOrderVisitor().setOrderToAdd(order);
-        this.accept(this.getAddOrderVisitor());
+        addOrder(order);
     }
 
     void addLimitOrder(LimitOrderFlyweight order){
-        this.getAddOrderVisitor().setOrderToAdd(order);
-        this.accept(this.getAddOrderVisitor());
+        addOrder(order);
     }
 
-    abstract MutatingAddOrderVisitor getAddOrderVisitor();
-
 }
@@ -1,7 +1,6 @@
 package codingblackfemales.orderbook.consumer;
 
 import codingblackfemales.orderbook.OrderBook;
-import codingblackfemales.orderbook.order.LimitOrderFlyweight;
 import codingblackfemales.sequencer.event.OrderEventListener;
 import messages.order.*;
 import org.slf4j.Logger;
@@ -13,13 +12,17 @@ public class OrderBookInboundOrderConsumer extends OrderEventListener {
 
     private final OrderBook book;
 
+    private long[] batchCancelOrderIds = new long[64];
+
     public OrderBookInboundOrderConsumer(OrderBook book) {
+        //only the orders coming in to the book, not the book's own responses
+        super(CreateOrderDecoder.TEMPLATE_ID, CancelOrderDecoder.TEMPLATE_ID, ModifyOrderDecoder.TEMPLATE_ID, BatchCancelOrderDecoder.TEMPLATE_ID);
         this.book = book;
     }
 
     @Override
     public void onCreateOrder(CreateOrderDecoder create) {
-        final var limit = new LimitOrderFlyweight(create.side(), create.price(), create.quantity(), create.orderId());
+        final var limit = book.newLimitOrder(create.side(), create.price(), create.quantity(), create.orderId());
         //logger.info("Adding limit Order:" + limit + " to book");
         book.onLimitOrder(limit);
     }
@@ -29,6 +32,24 @@ public class OrderBookInboundOrderConsumer extends OrderEventListener {
         book.onCancelOrder(cancel.orderId());
     }
 
+    @Override
+    public void onModifyOrder(ModifyOrderDecoder modify) {
+        book.onAmendOrder(modify.orderId(), modify.price(), modify.quantity());
+    }
+
+    @Override
+    public void onBatchCancelOrder(BatchCancelOrderDecoder batchCancel) {
+        final var orders = batchCancel.orders();
+        if(orders.count() > batchCancelOrderIds.length){
+            batchCancelOrderIds = new long[orders.count()];
+        }
+        int count = 0;
+        for(BatchCancelOrderDecoder.OrdersDecoder order : orders){
+            batchCancelOrderIds[count++] = order.orderId();
+        }
+        book.onBatchCancelOrder(batchCancelOrderIds, count);
+    }
+
     @Override
     public void onAckedOrder(AckedOrderDecoder acked) {
 
@@ -16,6 +16,20 @@ public class LimitOrderFlyweight extends DefaultOrderFlyweight {
         this.orderId = orderId;
     }
 
+    public LimitOrderFlyweight() {
+    }
+
+    /**
+     * Readies a pooled order for reuse.
+     */
+    public LimitOrderFlyweight set(Side side, long price, long quantity, long orderId) {
+        this.side = side;
+        this.price = price;
+        this.quantity = quantity;
+        this.orderId = orderId;
+        return this;
+    }
+
     public Side getSide() {
         return side;
     }
@@ -0,0 +1,62 @@
+package codingblackfemales.orderbook.order;
+
+import messages.order.Side;
+
+/**
+ * Someone else's order on the book, from the market by order feed. Unlike {@link MarketDataOrderFlyweight}, which
+ * stands for a whole price level, each one sits in the level's queue alongside our own limit orders.
+ */
+public class MarketByOrderFlyweight extends DefaultOrderFlyweight {
+
+    private Side side;
+    private long price;
+    private long quantity;
+    private long orderId;
+
+    public MarketByOrderFlyweight() {
+    }
+
+    public MarketByOrderFlyweight(Side side, long price, long quantity, long orderId) {
+        set(side, price, quantity, orderId);
+    }
+
+    /**
+     * Readies a pooled order for reuse.
+     */
+    public MarketByOrderFlyweight set(Side side, long price, long quantity, long orderId) {
+        this.side = side;
+        this.price = price;
+        this.quantity = quantity;
+        this.orderId = orderId;
+        return this;
+    }
+
+    @Override
+    public Side getSide() {
+        return side;
+    }
+
+    @Override
+    public long getPrice() {
+        return price;
+    }
+
+    @Override
+    public long getQuantity() {
+        return quantity;
+    }
+
+    @Override
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    @Override
+    public String toString() {
+        return "MktByOrder(side="+side+",orderId="+orderId+",price="+price+",quantity="+quantity+")";
+    }
+}
@@ -14,6 +14,19 @@ public class MarketDataOrderFlyweight extends DefaultOrderFlyweight {
         this.quantity = quantity;
     }
 
+    public MarketDataOrderFlyweight() {
+    }
+
+    /**
+     * Readies a pooled order for reuse.
+     */
+    public MarketDataOrderFlyweight set(Side side, long price, long quantity) {
+        this.side = side;
+        this.price = price;
+        this.quantity = quantity;
+        return this;
+    }
+
     @Override
     public Side getSide() {
         return side;
@@ -0,0 +1,105 @@
+package codingblackfemales.orderbook.visitor;
+
+import codingblackfemales.collection.intrusive.IntrusiveNodePool;
+import codingblackfemales.orderbook.OrderBookLevel;
+import codingblackfemales.orderbook.OrderBookSide;
+import codingblackfemales.orderbook.order.DefaultOrderFlyweight;
+import codingblackfemales.orderbook.order.LimitOrderFlyweight;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Amends a resting limit order. Reducing the quantity at the same price is done in place, so the order keeps its
+ * place in the level's queue. Any other amend (a new price, or more quantity) loses priority: the order is removed
+ * and {@link #getReplacement()} holds the order to re-submit to the book.
+ */
+public class AmendOrderVisitor implements OrderBookVisitor{
+
+    private static final Logger logger = LoggerFactory.getLogger(AmendOrderVisitor.class);
+
+    private final IntrusiveNodePool<LimitOrderFlyweight> limitOrders;
+
+    private long orderId;
+    private long price;
+    private long quantity;
+
+    private boolean found = false;
+    private LimitOrderFlyweight replacement = null;
+
+    public AmendOrderVisitor(final long orderId, final long price, final long quantity) {
+        this.limitOrders = null;
+        reset(orderId, price, quantity);
+    }
+
+    /**
+     * A reusable visitor, see {@link #reset(long, long, long)}, whose replacement orders come from the pool.
+     */
+    public AmendOrderVisitor(final IntrusiveNodePool<LimitOrderFlyweight> limitOrders) {
+        this.limitOrders = limitOrders;
+    }
+
+    public AmendOrderVisitor reset(final long orderId, final long price, final long quantity) {
+        this.orderId = orderId;
+        this.price = price;
+        this.quantity = quantity;
+        this.found = false;
+        this.replacement = null;
+        return this;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    public LimitOrderFlyweight getReplacement() {
+        return replacement;
+    }
+
+    @Override
+    public void visitSide(OrderBookSide side) {}
+
+    @Override
+    public void visitLevel(OrderBookSide side, OrderBookLevel level) {}
+
+    @Override
+    public void visitOrder(DefaultOrderFlyweight order, OrderBookSide side, OrderBookLevel level, boolean isLast) {
+        if(found || !(order instanceof LimitOrderFlyweight)){
+            return;
+        }
+
+        final LimitOrderFlyweight limit = (LimitOrderFlyweight) order;
+        if(limit.getOrderId() != orderId){
+            return;
+        }
+
+        found = true;
+
+        if(limit.getPrice() == price && quantity <= limit.getQuantity() && quantity > 0){
+            logger.info("[ORDERBOOK] Amending order in place: " + limit + " to quantity=" + quantity);
+            side.reduceOrder(level, limit, limit.getQuantity() - quantity);
+        }else{
+            logger.info("[ORDERBOOK] Replacing order: " + limit + " with price=" + price + ",quantity=" + quantity);
+            //the level goes too if this was its only order
+            side.reduceOrder(level, limit, limit.getQuantity());
+            if(quantity > 0){
+                replacement = limitOrders == null ? new LimitOrderFlyweight() : limitOrders.acquire();
+                replacement.set(limit.getSide(), price, quantity, orderId);
+            }
+        }
+    }
+
+    @Override
+    public OrderBookLevel missingBookLevel(OrderBookLevel previous, OrderBookLevel next, long price) {
+        return null;
+    }
+
+    @Override
+    public OrderBookLevel onNoFirstLevel() {
+        return null;
+    }
+
+    @Override
+    public DefaultOrderFlyweight onNoFirstOrder() {
+        return null;
+    }
+}
@@ -11,12 +11,20 @@ public class CancelOrderVisitor implements OrderBookVisitor{
 
     private Logger logger = LoggerFactory.getLogger(CancelOrderVisitor.class);
 
-    private final long orderId;
+    private long orderId;
 
     public CancelOrderVisitor(final long orderId) {
         this.orderId = orderId;
     }
 
+    /**
+     * Reuses the visitor for another order.
+     */
+    public CancelOrderVisitor reset(final long orderId) {
+        this.orderId = orderId;
+        return this;
+    }
+
     @Override
     public void visitSide(OrderBookSide side) {}
 
@@ -31,7 +39,7 @@ public class CancelOrderVisitor implements OrderBookVisitor{
             LimitOrderFlyweight limit = (LimitOrderFlyweight) order;
             if(limit.getOrderId() == orderId){
                 logger.info("[ORDERBOOK] Cancelling order: " + limit);
-                level.setFirstOrder(limit.remove());
+                limit.remove();
                 level.setQuantity(level.getQuantity() - limit.getQuantity());
             }
         }
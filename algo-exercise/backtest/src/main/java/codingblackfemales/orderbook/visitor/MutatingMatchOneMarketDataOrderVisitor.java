@@ -14,7 +14,7 @@ public class MutatingMatchOneMarketDataOrderVisitor implements OrderBookVisitor{
 
     private static final Logger logger = LoggerFactory.getLogger(MutatingMatchOneMarketDataOrderVisitor.class);
 
-    private final MarketDataOrderFlyweight orderToMatch;
+    private MarketDataOrderFlyweight orderToMatch;
     private long filledQuantity;
     private long remainingQuantity;
     private boolean isFullyFilled = false;
@@ -28,6 +28,24 @@ public class MutatingMatchOneMarketDataOrderVisitor implements OrderBookVisitor{
         this.orderChannel = orderChannel;
     }
 
+    /**
+     * A reusable visitor, see {@link #reset}.
+     */
+    public MutatingMatchOneMarketDataOrderVisitor(final OrderChannel orderChannel) {
+        this.orderChannel = orderChannel;
+    }
+
+    /**
+     * Reuses the visitor for another order.
+     */
+    public MutatingMatchOneMarketDataOrderVisitor reset(final MarketDataOrderFlyweight orderToMatch) {
+        this.filledQuantity = 0;
+        this.isFullyFilled = false;
+        this.orderToMatch = orderToMatch;
+        this.remainingQuantity = orderToMatch.getQuantity();
+        return this;
+    }
+
     @Override
     public void visitSide(OrderBookSide side) {}
 
@@ -45,7 +63,7 @@ public class MutatingMatchOneMarketDataOrderVisitor implements OrderBookVisitor{
                 long fillQuantity = order.getQuantity();
                 remainingQuantity -= fillQuantity;
                 filledQuantity += fillQuantity;
-                level.setFirstOrder(order.remove());
+                order.remove();
                 if(order instanceof LimitOrderFlyweight){
                     logger.info("Filled:" + fillQuantity + "@" + orderToMatch.getPrice());
                     publishFill(fillQuantity, orderToMatch.getPrice(),(LimitOrderFlyweight) order);
@@ -13,7 +13,7 @@ public class MutatingMatchOneOrderVisitor implements OrderBookVisitor{
 
     private static final Logger logger = LoggerFactory.getLogger(MutatingMatchOneOrderVisitor.class);
 
-    private final LimitOrderFlyweight orderToMatch;
+    private LimitOrderFlyweight orderToMatch;
     private long filledQuantity;
     private long remainingQuantity;
     private boolean isFullyFilled = false;
@@ -27,6 +27,24 @@ public class MutatingMatchOneOrderVisitor implements OrderBookVisitor{
         this.orderChannel = orderChannel;
     }
 
+    /**
+     * A reusable visitor, see {@link #reset}.
+     */
+    public MutatingMatchOneOrderVisitor(final OrderChannel orderChannel) {
+        this.orderChannel = orderChannel;
+    }
+
+    /**
+     * Reuses the visitor for another order.
+     */
+    public MutatingMatchOneOrderVisitor reset(final LimitOrderFlyweight orderToMatch) {
+        this.filledQuantity = 0;
+        this.isFullyFilled = false;
+        this.orderToMatch = orderToMatch;
+        this.remainingQuantity = orderToMatch.getQuantity();
+        return this;
+    }
+
     @Override
     public void visitSide(OrderBookSide side) {}
 
@@ -44,10 +62,10 @@ public class MutatingMatchOneOrderVisitor implements OrderBookVisitor{
                 long fillQuantity = order.getQuantity();
                 remainingQuantity -= fillQuantity;
                 filledQuantity += fillQuantity;
-                level.setFirstOrder(order.remove());
+                order.remove();
                 level.setQuantity(level.getQuantity() - fillQuantity);
                 if(level.getQuantity()==0){
-                    side.setFirstLevel(level.remove());
+                    level.remove();
                 }
                 publishFill(fillQuantity, order.getPrice(), orderToMatch);
             //if we can only take a nibble...
@@ -59,7 +77,7 @@ public class MutatingMatchOneOrderVisitor implements OrderBookVisitor{
                 order.setQuantity(remainingQty);
                 level.setQuantity(level.getQuantity() - fillQuantity);
                 if(level.getQuantity()==0){
-                    side.setFirstLevel(level.remove());
+                    level.remove();
                 }
                 publishFill(fillQuantity, order.getPrice(), orderToMatch);
             }
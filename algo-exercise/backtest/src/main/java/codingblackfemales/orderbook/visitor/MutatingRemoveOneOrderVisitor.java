@@ -32,7 +32,7 @@ public class MutatingRemoveOneOrderVisitor implements OrderBookVisitor{
 
             if(limit.getOrderId() == getOrderIdToRemove()){
                 System.out.println("yes it is....");
-                level.setFirstOrder(order.remove());
+                order.remove();
                 level.setQuantity(level.getQuantity() - limit.getQuantity());
             }
         }
@@ -6,13 +6,13 @@ import codingblackfemales.orderbook.OrderBookLevel;
 import codingblackfemales.orderbook.OrderBookSide;
 import codingblackfemales.orderbook.order.DefaultOrderFlyweight;
 import messages.marketdata.*;
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableDirectByteBuffer;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.nio.ByteBuffer;
-
 public class ReadOnlyMarketDataChannelPublishVisitor implements OrderBookVisitor {
 
     private static final Logger logger = LoggerFactory.getLogger(ReadOnlyMarketDataChannelPublishVisitor.class);
@@ -20,13 +20,11 @@ public class ReadOnlyMarketDataChannelPublishVisitor implements OrderBookVisitor
     private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
     private final BookUpdateEncoder encoder = new BookUpdateEncoder();
 
-    private ByteBuffer byteBuffer; //= ByteBuffer.allocateDirect(1024);
-    private UnsafeBuffer directBuffer; //= new UnsafeBuffer(byteBuffer);
+    //reused for every update, it grows with the book rather than being sized for a shallow one
+    private final ExpandableDirectByteBuffer directBuffer = new ExpandableDirectByteBuffer(1024);
+    private final UnsafeBuffer message = new UnsafeBuffer(new byte[0]);
 
     public void start(){
-        byteBuffer = ByteBuffer.allocateDirect(1024);
-        directBuffer = new UnsafeBuffer(byteBuffer);
-
         encoder.wrapAndApplyHeader(directBuffer, 0, headerEncoder);
         //set the fields to desired valus
         encoder.venue(Venue.XLON);
@@ -39,6 +37,21 @@ public class ReadOnlyMarketDataChannelPublishVisitor implements OrderBookVisitor
         return directBuffer;
     }
 
+    /**
+     * @return the length of the update in {@link #end()}, the buffer itself is usually longer.
+     */
+    public int length(){
+        return headerEncoder.encodedLength() + encoder.encodedLength();
+    }
+
+    /**
+     * @return a view of just the update, re-wrapped on each call.
+     */
+    public DirectBuffer message(){
+        message.wrap(directBuffer, 0, length());
+        return message;
+    }
+
 
     @Override
     public void visitLevel(OrderBookSide side, OrderBookLevel level) {}
@@ -46,7 +59,9 @@ public class ReadOnlyMarketDataChannelPublishVisitor implements OrderBookVisitor
     @Override
     public void visitSide(OrderBookSide side) {
         if(side instanceof BidBookSide){
+            //an empty side still needs its group header, or the asks would be read as bids
             if(side.getFirstLevel() == null){
+                encoder.bidBookCount(0);
                 return;
             }
 
@@ -61,6 +76,7 @@ public class ReadOnlyMarketDataChannelPublishVisitor implements OrderBookVisitor
             }
         }else if(side instanceof AskBookSide){
             if(side.getFirstLevel() == null){
+                encoder.askBookCount(0);
                 return;
             }
             final var size = side.getFirstLevel().size();
@@ -0,0 +1,106 @@
+package codingblackfemales.orderbook;
+
+import codingblackfemales.orderbook.channel.MarketDataChannel;
+import codingblackfemales.orderbook.channel.OrderChannel;
+import codingblackfemales.orderbook.order.LimitOrderFlyweight;
+import codingblackfemales.sequencer.FillRecorder;
+import codingblackfemales.sequencer.marketdata.BookUpdates;
+import messages.marketdata.*;
+import messages.order.Side;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static codingblackfemales.sequencer.marketdata.BookUpdates.levels;
+
+public class AmendOrderBookVisitorTest {
+
+    private final FillRecorder fillRecorder = new FillRecorder();
+
+    private OrderBook book;
+
+    @Before
+    public void setUp(){
+        book = new OrderBook(new MarketDataChannel(buffer -> {}), new OrderChannel(fillRecorder));
+
+        final BookUpdateDecoder decoder = new BookUpdateDecoder();
+        decoder.wrapAndApplyHeader(BookUpdates.tick(levels(100L, 100L, 96L, 200L, 93L, 300L), levels(101L, 101L, 115L, 200L)), 0, new MessageHeaderDecoder());
+        book.onBookUpdate(decoder);
+
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 96L, 500L, 1));
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 96L, 300L, 2));
+    }
+
+    private OrderBookLevel bidLevel(final long price){
+        OrderBookLevel level = book.getBidBookSide().getFirstLevel();
+        while(level != null && level.getPrice() != price){
+            level = level.next();
+        }
+        return level;
+    }
+
+    @Test
+    public void testQuantityDownKeepsQueuePosition(){
+        Assert.assertEquals(1_000L, bidLevel(96L).getQuantity());
+
+        book.onAmendOrder(1, 96L, 200L);
+
+        final OrderBookLevel level = bidLevel(96L);
+        Assert.assertEquals(700L, level.getQuantity());
+
+        final var first = (LimitOrderFlyweight) level.getFirstOrder().next();
+        Assert.assertEquals(1, first.getOrderId());
+        Assert.assertEquals(200L, first.getQuantity());
+        Assert.assertEquals(2, ((LimitOrderFlyweight) first.next()).getOrderId());
+    }
+
+    @Test
+    public void testQuantityUpGoesToTheBackOfTheQueue(){
+        book.onAmendOrder(1, 96L, 600L);
+
+        final OrderBookLevel level = bidLevel(96L);
+        Assert.assertEquals(1_100L, level.getQuantity());
+        Assert.assertEquals(2, ((LimitOrderFlyweight) level.getFirstOrder().next()).getOrderId());
+        Assert.assertEquals(1, ((LimitOrderFlyweight) level.getFirstOrder().last()).getOrderId());
+    }
+
+    @Test
+    public void testPriceChangeMovesOrderAndCanMatch(){
+        book.onAmendOrder(2, 93L, 300L);
+
+        Assert.assertEquals(700L, bidLevel(96L).getQuantity());
+        Assert.assertEquals(600L, bidLevel(93L).getQuantity());
+
+        book.onAmendOrder(1, 101L, 500L);
+
+        Assert.assertEquals(200L, bidLevel(96L).getQuantity());
+        Assert.assertEquals(List.of("1:101@101"), fillRecorder.getFills());
+    }
+
+    @Test
+    public void testAmendToZeroCancels(){
+        book.onAmendOrder(2, 96L, 0L);
+
+        Assert.assertEquals(700L, bidLevel(96L).getQuantity());
+    }
+
+    @Test
+    public void testOrderAloneAtItsPriceTakesTheLevelWithIt(){
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 95L, 400L, 3));
+        Assert.assertEquals(4, book.getBidBookSide().getLevelCount());
+
+        book.onAmendOrder(3, 94L, 400L);
+
+        Assert.assertNull(bidLevel(95L));
+        Assert.assertNull(book.getBidBookSide().findLevel(95L));
+        Assert.assertEquals(400L, bidLevel(94L).getQuantity());
+        Assert.assertEquals(4, book.getBidBookSide().getLevelCount());
+
+        book.onAmendOrder(3, 94L, 0L);
+
+        Assert.assertNull(bidLevel(94L));
+        Assert.assertEquals(3, book.getBidBookSide().getLevelCount());
+    }
+}
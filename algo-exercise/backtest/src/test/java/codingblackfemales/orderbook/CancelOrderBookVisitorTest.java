@@ -96,6 +96,26 @@ public class CancelOrderBookVisitorTest {
         Assert.assertEquals( 5_000L, book.getAskBookSide().getFirstLevel().next().next().getQuantity());
     }
 
+    @Test
+    public void testBatchCancelBothSides(){
+
+        final MarketDataChannel mktDataChannel = Mockito.mock(MarketDataChannel.class);
+        final OrderChannel orderChannel = Mockito.mock(OrderChannel.class);
+
+        final OrderBook book = new OrderBook(mktDataChannel, orderChannel);
 
+        book.onBookUpdate(wrapBufferInDecoder(tick1()));
 
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 96L, 500L, 1));
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 96L, 300L, 2));
+        book.onLimitOrder(new LimitOrderFlyweight(Side.SELL, 120L, 1_000L, 3));
+
+        Mockito.clearInvocations(mktDataChannel);
+
+        book.onBatchCancelOrder(new long[]{1, 3, 4}, 3);
+
+        Assert.assertEquals( 500L, book.getBidBookSide().getFirstLevel().next().getQuantity());
+        Assert.assertEquals( 5_000L, book.getAskBookSide().getFirstLevel().next().next().getQuantity());
+        Mockito.verify(mktDataChannel, Mockito.times(1)).publish(Mockito.any());
+    }
 }
@@ -0,0 +1,188 @@
+package codingblackfemales.orderbook;
+
+import codingblackfemales.orderbook.channel.MarketDataChannel;
+import codingblackfemales.orderbook.channel.OrderChannel;
+import codingblackfemales.orderbook.order.LimitOrderFlyweight;
+import codingblackfemales.orderbook.order.MarketByOrderFlyweight;
+import codingblackfemales.sequencer.FillRecorder;
+import messages.marketdata.*;
+import messages.order.Side;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+public class MarketByOrderBookTest {
+
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+
+    private final FillRecorder fillRecorder = new FillRecorder();
+
+    private OrderBook book;
+
+    @Before
+    public void setUp(){
+        book = new OrderBook(new MarketDataChannel(buffer -> {}), new OrderChannel(fillRecorder));
+
+        add(1001, BookSide.BID, 98L, 100L);
+        add(1002, BookSide.BID, 100L, 200L);
+        add(1003, BookSide.BID, 99L, 300L);
+        add(2001, BookSide.ASK, 101L, 100L);
+    }
+
+    private void add(long orderId, BookSide side, long price, long size){
+        final MboOrderAddEncoder encoder = new MboOrderAddEncoder();
+        encoder.wrapAndApplyHeader(buffer, 0, headerEncoder);
+        encoder.instrumentId(123L).orderId(orderId).side(side).price(price).size(size);
+        final MboOrderAddDecoder decoder = new MboOrderAddDecoder();
+        decoder.wrapAndApplyHeader(buffer, 0, headerDecoder);
+        book.onMboOrderAdd(decoder);
+    }
+
+    private void modify(long orderId, long price, long size){
+        final MboOrderModifyEncoder encoder = new MboOrderModifyEncoder();
+        encoder.wrapAndApplyHeader(buffer, 0, headerEncoder);
+        encoder.instrumentId(123L).orderId(orderId).price(price).size(size);
+        final MboOrderModifyDecoder decoder = new MboOrderModifyDecoder();
+        decoder.wrapAndApplyHeader(buffer, 0, headerDecoder);
+        book.onMboOrderModify(decoder);
+    }
+
+    private void delete(long orderId){
+        final MboOrderDeleteEncoder encoder = new MboOrderDeleteEncoder();
+        encoder.wrapAndApplyHeader(buffer, 0, headerEncoder);
+        encoder.instrumentId(123L).orderId(orderId);
+        final MboOrderDeleteDecoder decoder = new MboOrderDeleteDecoder();
+        decoder.wrapAndApplyHeader(buffer, 0, headerDecoder);
+        book.onMboOrderDelete(decoder);
+    }
+
+    private void execute(long orderId, long size, long price){
+        final MboOrderExecuteEncoder encoder = new MboOrderExecuteEncoder();
+        encoder.wrapAndApplyHeader(buffer, 0, headerEncoder);
+        encoder.instrumentId(123L).orderId(orderId).size(size).price(price);
+        final MboOrderExecuteDecoder decoder = new MboOrderExecuteDecoder();
+        decoder.wrapAndApplyHeader(buffer, 0, headerDecoder);
+        book.onMboOrderExecute(decoder);
+    }
+
+    @Test
+    public void testLevelsAreKeptInPriceOrder(){
+        final OrderBookLevel best = book.getBidBookSide().getFirstLevel();
+        Assert.assertEquals(100L, best.getPrice());
+        Assert.assertEquals(99L, best.next().getPrice());
+        Assert.assertEquals(98L, best.next().next().getPrice());
+        Assert.assertEquals(3, best.size());
+
+        delete(1002);
+
+        Assert.assertEquals(99L, book.getBidBookSide().getFirstLevel().getPrice());
+        Assert.assertEquals(2, book.getBidBookSide().getFirstLevel().size());
+    }
+
+    @Test
+    public void testModifyKeepsQueuePositionOnlyWhenReducing(){
+        add(1004, BookSide.BID, 99L, 50L);
+
+        modify(1003, 99L, 250L);
+        final OrderBookLevel level = book.getBidBookSide().findLevel(99L);
+        Assert.assertEquals(300L, level.getQuantity());
+        Assert.assertEquals(1003, ((MarketByOrderFlyweight) level.getFirstOrder()).getOrderId());
+
+        modify(1003, 99L, 400L);
+        Assert.assertEquals(450L, level.getQuantity());
+        Assert.assertEquals(1004, ((MarketByOrderFlyweight) level.getFirstOrder()).getOrderId());
+
+        modify(1004, 98L, 50L);
+        Assert.assertEquals(400L, level.getQuantity());
+        Assert.assertEquals(150L, book.getBidBookSide().findLevel(98L).getQuantity());
+    }
+
+    @Test
+    public void testExecutionFillsOurOrderOnlyWhenAheadInTheQueue(){
+        book.onLimitOrder(new LimitOrderFlyweight(Side.BUY, 100L, 50L, 1));
+        add(1005, BookSide.BID, 100L, 100L);
+
+        //the order ahead of ours trades, we don't
+        execute(1002, 200L, 100L);
+        Assert.assertTrue(fillRecorder.getFills().isEmpty());
+        Assert.assertEquals(150L, book.getBidBookSide().getFirstLevel().getQuantity());
+
+        //the one behind trades, so we must have traded first
+        execute(1005, 70L, 100L);
+        Assert.assertEquals(List.of("1:50@100"), fillRecorder.getFills());
+
+        final OrderBookLevel level = book.getBidBookSide().getFirstLevel();
+        Assert.assertEquals(80L, level.getQuantity());
+        Assert.assertEquals(80L, level.getFirstOrder().getQuantity());
+    }
+
+    @Test
+    public void testCrossingAddTradesWithOurOrdersOnly(){
+        book.onLimitOrder(new LimitOrderFlyweight(Side.SELL, 101L, 30L, 2));
+        Assert.assertEquals(130L, book.getAskBookSide().getFirstLevel().getQuantity());
+
+        add(1006, BookSide.BID, 101L, 50L);
+
+        Assert.assertEquals(List.of("2:30@101"), fillRecorder.getFills());
+        Assert.assertEquals(100L, book.getAskBookSide().getFirstLevel().getQuantity());
+
+        final OrderBookLevel bestBid = book.getBidBookSide().getFirstLevel();
+        Assert.assertEquals(101L, bestBid.getPrice());
+        Assert.assertEquals(20L, bestBid.getQuantity());
+    }
+
+    @Test
+    public void testModifyToNothingAtANewPriceIsADelete(){
+        modify(1003, 97L, 0L);
+
+        Assert.assertNull(book.getBidBookSide().findLevel(99L));
+        Assert.assertNull(book.getBidBookSide().findLevel(97L));
+        Assert.assertEquals(2, book.getBidBookSide().getLevelCount());
+
+        //it's gone, so a later modify is ignored rather than bringing it back
+        modify(1003, 97L, 100L);
+        Assert.assertNull(book.getBidBookSide().findLevel(97L));
+    }
+
+    @Test
+    public void testDeepBookIsPublishedInFull(){
+        final BookUpdateDecoder update = new BookUpdateDecoder();
+        final int[] published = new int[2];
+        book = new OrderBook(new MarketDataChannel(message -> {
+            update.wrapAndApplyHeader(message, 0, headerDecoder);
+            published[0] = 0;
+            for(BookUpdateDecoder.BidBookDecoder bid : update.bidBook()){
+                published[0]++;
+            }
+            published[1] = update.askBook().count();
+        }), new OrderChannel(fillRecorder));
+
+        add(4999, BookSide.ASK, 2_000L, 10L);
+        Assert.assertEquals(0, published[0]);
+        Assert.assertEquals(1, published[1]);
+
+        for(int i = 0; i < 200; i++){
+            add(3000 + i, BookSide.BID, 1_000L - i, 10L);
+            add(4000 + i, BookSide.ASK, 2_000L + i, 10L);
+        }
+        //out of price order, between existing levels
+        add(5000, BookSide.BID, 1_000L - 199, 10L);
+        add(5001, BookSide.ASK, 2_000L + 100, 10L);
+
+        Assert.assertEquals(200, published[0]);
+        Assert.assertEquals(200, published[1]);
+        Assert.assertEquals(20L, book.getAskBookSide().findLevel(2_100L).getQuantity());
+
+        OrderBookLevel level = book.getAskBookSide().getFirstLevel();
+        for(int i = 0; i < 200; i++){
+            Assert.assertEquals(2_000L + i, level.getPrice());
+            level = level.next();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package codingblackfemales.orderbook;
+
+import codingblackfemales.orderbook.channel.MarketDataChannel;
+import codingblackfemales.orderbook.channel.OrderChannel;
+import codingblackfemales.sequencer.marketdata.BookUpdates;
+import messages.marketdata.*;
+import messages.order.Side;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static codingblackfemales.sequencer.marketdata.BookUpdates.levels;
+
+public class OrderBookPoolTest {
+
+    private final BookUpdateDecoder bookUpdateDecoder = new BookUpdateDecoder();
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+
+    private final OrderBook book = new OrderBook(new MarketDataChannel(buffer -> {}), new OrderChannel(buffer -> {}));
+
+    private BookUpdateDecoder tick(final long offset){
+        BookUpdates.encode(buffer, 0, BookUpdates.INSTRUMENT_ID,
+                levels(100L - offset, 100L, 96L - offset, 200L, 93L - offset, 300L),
+                levels(101L + offset, 101L, 115L + offset, 200L));
+        bookUpdateDecoder.wrapAndApplyHeader(buffer, 0, new MessageHeaderDecoder());
+        return bookUpdateDecoder;
+    }
+
+    private void churn(final int iterations){
+        for(int i = 0; i < iterations; i++){
+            book.onBookUpdate(tick(i % 3));
+            book.onLimitOrder(book.newLimitOrder(Side.BUY, 90L, 100L, i));
+            book.onCancelOrder(i);
+        }
+    }
+
+    @Test
+    public void testWarmBookReusesOrdersAndLevels(){
+        churn(10);
+
+        final int limitOrders = book.getLimitOrderPool().getCreatedCount();
+        final int marketDataOrders = book.getMarketDataOrderPool().getCreatedCount();
+        final int bidLevels = book.getBidBookSide().getLevelPool().getCreatedCount();
+
+        churn(1_000);
+
+        Assert.assertEquals(limitOrders, book.getLimitOrderPool().getCreatedCount());
+        Assert.assertEquals(marketDataOrders, book.getMarketDataOrderPool().getCreatedCount());
+        Assert.assertEquals(bidLevels, book.getBidBookSide().getLevelPool().getCreatedCount());
+    }
+}
@@ -0,0 +1,133 @@
+package codingblackfemales.collection.intrusive;
+
+/**
+ * The header of an intrusive doubly linked list. The list keeps the first and last nodes and the size, and each
+ * node only keeps its neighbours and the list it belongs to, so adding and removing anywhere in the list is O(1).
+ *
+ * A node can only be in one list at a time.
+ *
+ * @param <TYPEOF>
+ */
+public class IntrusiveLinkedList<TYPEOF extends IntrusiveLinkedListNode<TYPEOF>> {
+
+    private TYPEOF first = null;
+    private TYPEOF last = null;
+    private int size = 0;
+
+    public TYPEOF first() {
+        return first;
+    }
+
+    public TYPEOF last() {
+        return last;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return true if the node is linked into this list right now.
+     */
+    public boolean contains(final TYPEOF node) {
+        return node.list == this;
+    }
+
+    public void addLast(final TYPEOF item) {
+        link(item);
+        item.previous = last;
+        item.next = null;
+        if (last == null) {
+            first = item;
+        } else {
+            last.next = item;
+        }
+        last = item;
+    }
+
+    public void addFirst(final TYPEOF item) {
+        link(item);
+        item.previous = null;
+        item.next = first;
+        if (first == null) {
+            last = item;
+        } else {
+            first.previous = item;
+        }
+        first = item;
+    }
+
+    /**
+     * Links the item in ahead of a node already in this list.
+     */
+    public void insertBefore(final TYPEOF node, final TYPEOF item) {
+        if (node.list != this) {
+            throw new IllegalArgumentException(String.format("Node is not in this list node=[%s]", node));
+        }
+        if (node == first) {
+            addFirst(item);
+            return;
+        }
+        link(item);
+        item.previous = node.previous;
+        item.next = node;
+        node.previous.next = item;
+        node.previous = item;
+    }
+
+    /**
+     * Unlinks the node from its neighbours. The node keeps its own <code>next</code> so a caller that removes the node
+     * it is visiting can still move on from it.
+     */
+    public void remove(final TYPEOF node) {
+        if (node.list != this) {
+            throw new IllegalArgumentException(String.format("Node is not in this list node=[%s]", node));
+        }
+        if (node.previous == null) {
+            first = node.next;
+        } else {
+            node.previous.next = node.next;
+        }
+        if (node.next == null) {
+            last = node.previous;
+        } else {
+            node.next.previous = node.previous;
+        }
+        node.list = null;
+        size--;
+    }
+
+    /**
+     * Empties the list, leaving the nodes that were in it on their own.
+     */
+    public void clear() {
+        TYPEOF node = first;
+        while (node != null) {
+            final TYPEOF next = node.next;
+            node.list = null;
+            node.next = null;
+            node.previous = null;
+            node = next;
+        }
+        first = null;
+        last = null;
+        size = 0;
+    }
+
+    private void link(final TYPEOF item) {
+        if (item.list != null) {
+            throw new IllegalStateException(String.format("Node is already in a list node=[%s]", item));
+        }
+        item.list = this;
+        size++;
+    }
+
+    @Override
+    public String toString() {
+        return "IntrusiveLinkedList(size=" + size + ",first=" + first + ",last=" + last + ")";
+    }
+}
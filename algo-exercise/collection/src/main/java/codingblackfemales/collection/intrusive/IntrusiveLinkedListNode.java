@@ -1,11 +1,13 @@
 package codingblackfemales.collection.intrusive;
 
 /**
- * A basic implementation of an Intrusive Linked List. Some features of this:
+ * A node of an {@link IntrusiveLinkedList}. Some features of this:
  *
  * 1) The remove call always returns the new first node
- * 2)
+ * 2) A node that isn't in a list yet is a list of one, and adding to it starts a list with it at the head
  *
+ * Lists that live as long as their owner, like the levels of a book, should own an {@link IntrusiveLinkedList}
+ * rather than rely on 2), which allocates a new header every time.
  *
  * @param <TYPEOF>
  */
@@ -13,122 +15,67 @@ public abstract class IntrusiveLinkedListNode<TYPEOF extends IntrusiveLinkedList
 
     protected TYPEOF next = null;
     protected TYPEOF previous = null;
-    protected TYPEOF first = null;
-    protected TYPEOF last = null;
 
-    protected int size = 0;
+    IntrusiveLinkedList<TYPEOF> list = null;
+
+    IntrusiveNodePool<?> pool = null;
+    boolean released = false;
 
     protected IntrusiveLinkedListNode() {
-        this.first = (TYPEOF) this;
-        this.last = (TYPEOF) this;
-        this.previous = null;
-        this.next = null;
-        this.size = 1;
     }
 
     public IntrusiveLinkedListNode<TYPEOF> add(final TYPEOF item) {
-        addToTail(item);
-        setPrevious(item, this.last);
-        setLast(item);
-        item.first = this.first;
-        setSize(this.size() + 1);
+        listOf().addLast(item);
         return first();
     }
 
-    private void setPrevious(final TYPEOF item, final TYPEOF previous){
-        item.previous = previous;
-    }
-
-    private void addToTail(final TYPEOF item){
-        this.last.next = item;
-    }
-
-    private void setLast(final TYPEOF item){
-        this.first.last = item;
-    }
-
-    private void setSize(final int size){
-        this.first.size = size;
+    /**
+     * Links the item in ahead of this node.
+     *
+     * @return the first node, which is the item if this node was first.
+     */
+    public TYPEOF insertBefore(final TYPEOF item) {
+        listOf().insertBefore((TYPEOF) this, item);
+        return first();
     }
 
-    private void setSize(final TYPEOF newFirst, final int size){
-        newFirst.size = size;
-    }
+    public TYPEOF remove() {
+        final IntrusiveLinkedList<TYPEOF> list = this.list;
 
-    private void linkPreviousAndNext(){
-        TYPEOF previous = this.previous;
-        TYPEOF next = this.next;
+        if (list != null) {
+            list.remove((TYPEOF) this);
+        }
 
-        if (previous != null) {
-            previous.next = next;
+        if (pool != null) {
+            pool.onRemoved(this);
         }
-    }
 
-    private void setFirst(TYPEOF first) {
-        this.first.first = first;
-//        IntrusiveLinkedListNode<TYPEOF> thePrevious = first;
-//        while (thePrevious != null) {
-//            thePrevious.first = first;
-//            thePrevious = thePrevious.next;
-//        }
+        return list == null ? null : list.first();
     }
 
-    private void resetFirst(TYPEOF first) {
-        //this.first.first = first;
-        IntrusiveLinkedListNode<TYPEOF> thePrevious = first;
-        while (thePrevious != null) {
-            thePrevious.first = first;
-            thePrevious = thePrevious.next;
-        }
+    /**
+     * Back on its own, so a pooled node doesn't keep the nodes it was linked to alive.
+     */
+    void unlinkAll() {
+        this.list = null;
+        this.previous = null;
+        this.next = null;
     }
 
-//    private void setSize(TYPEOF last) {
-//        if (last == null) {
-//            return;
-//        }
-//
-//        IntrusiveLinkedListNode<TYPEOF> thePrevious = last.previous;
-//        while (thePrevious != null) {
-//            thePrevious.size = this.size;
-//            thePrevious = thePrevious.previous;
-//        }
-//    }
-
-    public TYPEOF remove() {
-
-        TYPEOF previousLast = this.last();
-
-        final int newSize = this.size() - 1;
-
-        if(previousLast.equals(this)){
-            setLast(this.previous);
-        }
-
-        linkPreviousAndNext();
-
-        TYPEOF newFirst = null;
-
-        if (this.first.equals(this)) {
-            newFirst = next;
-            resetFirst(newFirst);
-        }else{
-            newFirst = this.first();
-        }
-
-        if(newFirst != null){
-            setSize(newFirst, newSize);
-            return newFirst;
-        }else{
-            return null;
+    private IntrusiveLinkedList<TYPEOF> listOf() {
+        if (list == null) {
+            final IntrusiveLinkedList<TYPEOF> newList = new IntrusiveLinkedList<>();
+            newList.addLast((TYPEOF) this);
         }
+        return list;
     }
 
     public TYPEOF first() {
-        return this.first.first;
+        return list == null ? (TYPEOF) this : list.first();
     }
 
     public TYPEOF last() {
-        return this.first.last;
+        return list == null ? (TYPEOF) this : list.last();
     }
 
     public TYPEOF next() {
@@ -144,6 +91,6 @@ public abstract class IntrusiveLinkedListNode<TYPEOF extends IntrusiveLinkedList
     }
 
     public int size() {
-        return this.first.size;
+        return list == null ? 1 : list.size();
     }
 }
@@ -0,0 +1,112 @@
+package codingblackfemales.collection.intrusive;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Recycles intrusive list nodes rather than leaving removed ones for the garbage collector.
+ *
+ * Nodes handed out by {@link #acquire()} come back to the pool by themselves when they are removed from their list.
+ * They aren't reused straight away though, as whoever removed them is usually still walking the list or reading the
+ * node, they wait until the owner calls {@link #reclaim()} once it knows nothing refers to them any more. A removed
+ * node must not be added to a list again, acquire a new one instead.
+ *
+ * @param <NODE>
+ */
+public class IntrusiveNodePool<NODE extends IntrusiveLinkedListNode<?>> {
+
+    private final Supplier<NODE> factory;
+    private final Consumer<NODE> onReclaim;
+
+    private Object[] free = new Object[16];
+    private int freeCount = 0;
+
+    private Object[] removed = new Object[16];
+    private int removedCount = 0;
+
+    private int created = 0;
+
+    public IntrusiveNodePool(final Supplier<NODE> factory) {
+        this(factory, node -> {});
+    }
+
+    /**
+     * @param onReclaim told of each node as it is reclaimed, while it still holds its old contents, e.g. to drop it
+     *                  from an index.
+     */
+    public IntrusiveNodePool(final Supplier<NODE> factory, final Consumer<NODE> onReclaim) {
+        this.factory = factory;
+        this.onReclaim = onReclaim;
+    }
+
+    @SuppressWarnings("unchecked")
+    public NODE acquire() {
+        final NODE node;
+        if (freeCount > 0) {
+            node = (NODE) free[--freeCount];
+            free[freeCount] = null;
+        } else {
+            node = factory.get();
+            created++;
+        }
+        node.pool = this;
+        node.released = false;
+        return node;
+    }
+
+    /**
+     * Gives back a node that was never added to a list, e.g. an aggressive order that matched in full.
+     */
+    public void release(final NODE node) {
+        if (node.pool != this || node.released) {
+            return;
+        }
+        node.released = true;
+        removed = ensureCapacity(removed, removedCount);
+        removed[removedCount++] = node;
+    }
+
+    /**
+     * Makes the nodes released since the last call available to {@link #acquire()} again.
+     *
+     * @return how many nodes were reclaimed.
+     */
+    @SuppressWarnings("unchecked")
+    public int reclaim() {
+        final int reclaimed = removedCount;
+        for (int i = 0; i < removedCount; i++) {
+            final NODE node = (NODE) removed[i];
+            onReclaim.accept(node);
+            node.unlinkAll();
+            free = ensureCapacity(free, freeCount);
+            free[freeCount++] = node;
+            removed[i] = null;
+        }
+        removedCount = 0;
+        return reclaimed;
+    }
+
+    @SuppressWarnings("unchecked")
+    void onRemoved(final IntrusiveLinkedListNode<?> node) {
+        release((NODE) node);
+    }
+
+    /**
+     * @return how many nodes the pool has had to create, which stops growing once the pool is warm.
+     */
+    public int getCreatedCount() {
+        return created;
+    }
+
+    public int getFreeCount() {
+        return freeCount;
+    }
+
+    private static Object[] ensureCapacity(final Object[] nodes, final int count) {
+        if (count < nodes.length) {
+            return nodes;
+        }
+        return Arrays.copyOf(nodes, nodes.length * 2);
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.Test;
 import java.util.stream.IntStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class IntrusiveLinkedListTest {
 
@@ -47,23 +49,23 @@ public class IntrusiveLinkedListTest {
         final ExampleNode node = new ExampleNode(0);
 
         assertEquals(1, node.size());
-        assertEquals(0, node.first.getI());
-        assertEquals(node, node.first);
-        assertEquals(node, node.last);
+        assertEquals(0, node.first().getI());
+        assertEquals(node, node.first());
+        assertEquals(node, node.last());
 
         IntStream.range(1, 5).forEach( i -> {
             node.add(new ExampleNode(i));
         });
 
-        assertEquals(4, node.last.getI());
-        assertEquals(0, node.first.getI());
+        assertEquals(4, node.last().getI());
+        assertEquals(0, node.first().getI());
         assertEquals(5, node.size());
 
         //when we remove a node we always return latest head.
-        ExampleNode latestHead = node.first.next.remove();
+        ExampleNode latestHead = node.first().next.remove();
 
-        assertEquals(0, latestHead.first.getI());
-        assertEquals(4, latestHead.last.getI());
+        assertEquals(0, latestHead.first().getI());
+        assertEquals(4, latestHead.last().getI());
         assertEquals(4, latestHead.size());
 
         assertEquals(2, latestHead.next.getI());
@@ -79,7 +81,7 @@ public class IntrusiveLinkedListTest {
             node.add(new ExampleNode(i));
         });
 
-        final ExampleNode newNodeMinus1Last = node.first.last.remove();
+        final ExampleNode newNodeMinus1Last = node.first().last().remove();
         final ExampleNode expectedLast1 = node.next.next.next;
 
         assertEquals(3, expectedLast1.getI());
@@ -87,7 +89,7 @@ public class IntrusiveLinkedListTest {
 
         assertAllLastEquals(newNodeMinus1Last, expectedLast1, 3);
 
-        final ExampleNode newFirst2 = node.first.last.remove();
+        final ExampleNode newFirst2 = node.first().last().remove();
         final ExampleNode newLast2 = newFirst2.next.next;
 
         assertEquals(3, newFirst2.size());
@@ -95,7 +97,7 @@ public class IntrusiveLinkedListTest {
 
         assertAllLastEquals(newFirst2, newLast2, 2);
 
-        final ExampleNode newFirst3 = node.first.last.remove();
+        final ExampleNode newFirst3 = node.first().last().remove();
         final ExampleNode newLast3 = newFirst3.next;
 
         assertEquals(2, newFirst3.size());
@@ -103,7 +105,7 @@ public class IntrusiveLinkedListTest {
 
         assertAllLastEquals(newFirst3, newLast3, 1);
 
-        final ExampleNode newFirst4 = node.first.last.remove();
+        final ExampleNode newFirst4 = node.first().last().remove();
         final ExampleNode newLast4 = newFirst4;
 
         assertEquals(1, newFirst4.size());
@@ -122,23 +124,104 @@ public class IntrusiveLinkedListTest {
             node.add(new ExampleNode(i));
         });
 
-        final ExampleNode node1First = node.first.remove();
-        assertEquals(1, node1First.first.getI());
+        final ExampleNode node1First = node.first().remove();
+        assertEquals(1, node1First.first().getI());
         assertEquals(4, node1First.size());
 
-        final ExampleNode node2First = node1First.first.remove();
-        assertEquals(2, node2First.first.getI());
+        final ExampleNode node2First = node1First.first().remove();
+        assertEquals(2, node2First.first().getI());
         assertEquals(3, node2First.size());
 
-        final ExampleNode node3First = node2First.first.remove();
-        assertEquals(3, node3First.first.getI());
+        final ExampleNode node3First = node2First.first().remove();
+        assertEquals(3, node3First.first().getI());
         assertEquals(2, node3First.size());
 
-        final ExampleNode node4First = node3First.first.remove();
-        assertEquals(4, node4First.first.getI());
+        final ExampleNode node4First = node3First.first().remove();
+        assertEquals(4, node4First.first().getI());
         assertEquals(1, node4First.size());
     }
 
+    @Test
+    public void testInsertBefore(){
+        final ExampleNode node = new ExampleNode(1);
+        node.add(new ExampleNode(3));
+
+        //in the middle, the head stays the same
+        final ExampleNode head = node.next.insertBefore(new ExampleNode(2));
+        assertEquals(node, head);
+        assertEquals(3, head.size());
+        assertEquals(2, head.next.getI());
+        assertEquals(1, head.next.previous().getI());
+        assertEquals(2, head.next.next.previous().getI());
+
+        //at the front, the new node is the head for everyone
+        final ExampleNode newHead = head.insertBefore(new ExampleNode(0));
+        assertEquals(0, newHead.getI());
+        assertEquals(4, newHead.size());
+        assertEquals(0, newHead.last().first().getI());
+        assertAllLastEquals(newHead, newHead.last(), 3);
+    }
+
+    @Test
+    public void testRemovingKeepsLinksConsistent(){
+        final ExampleNode node = new ExampleNode(0);
+        IntStream.range(1, 4).forEach( i -> node.add(new ExampleNode(i)));
+
+        //taking one out of the middle re-links both neighbours
+        final ExampleNode head = node.next.remove();
+        assertEquals(0, head.next.previous().getI());
+
+        //taking the head away keeps the last node
+        final ExampleNode newHead = head.remove();
+        assertEquals(2, newHead.getI());
+        assertEquals(3, newHead.last().getI());
+        assertEquals(2, newHead.size());
+
+        newHead.add(new ExampleNode(4));
+        assertEquals(4, newHead.last().getI());
+        assertEquals(3, newHead.next.next.previous().getI());
+    }
+
+    @Test
+    public void testListHeader(){
+        final IntrusiveLinkedList<ExampleNode> list = new IntrusiveLinkedList<>();
+        final ExampleNode one = new ExampleNode(1);
+        final ExampleNode three = new ExampleNode(3);
+
+        list.addLast(one);
+        list.addLast(three);
+        list.insertBefore(three, new ExampleNode(2));
+        list.addFirst(new ExampleNode(0));
+
+        assertEquals(4, list.size());
+        assertEquals(0, list.first().getI());
+        assertEquals(3, list.last().getI());
+        assertEquals(list.first(), three.first());
+        assertEquals(4, three.size());
+
+        list.remove(three);
+        assertEquals(2, list.last().getI());
+        assertNull(list.last().next());
+
+        list.remove(list.first());
+        assertEquals(one, list.first());
+        assertNull(one.previous());
+
+        list.remove(one.next());
+        list.remove(one);
+        assertTrue(list.isEmpty());
+        assertNull(list.first());
+        assertNull(list.last());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNodeCanOnlyBeInOneList(){
+        final ExampleNode node = new ExampleNode(1);
+        final IntrusiveLinkedList<ExampleNode> list = new IntrusiveLinkedList<>();
+        list.addLast(node);
+        new IntrusiveLinkedList<ExampleNode>().addLast(node);
+    }
+
     private static void assertAllLastEquals(ExampleNode starting, ExampleNode expectedLast, int expectedLastId){
         ExampleNode next = starting;
 
@@ -0,0 +1,87 @@
+package codingblackfemales.collection.intrusive;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class IntrusiveNodePoolTest {
+
+    static class ExampleNode extends IntrusiveLinkedListNode<ExampleNode> {
+    }
+
+    private final IntrusiveNodePool<ExampleNode> pool = new IntrusiveNodePool<>(ExampleNode::new);
+
+    @Test
+    public void testRemovedNodesAreReusedOnlyAfterReclaim(){
+        final ExampleNode head = pool.acquire();
+        final ExampleNode second = pool.acquire();
+        head.add(second);
+
+        head.next().remove();
+        //still readable by whoever removed it
+        assertEquals(0, pool.getFreeCount());
+
+        assertEquals(1, pool.reclaim());
+        assertEquals(1, pool.getFreeCount());
+
+        final ExampleNode reused = pool.acquire();
+        assertSame(second, reused);
+        assertNull(reused.previous());
+        assertEquals(1, reused.size());
+        assertEquals(2, pool.getCreatedCount());
+    }
+
+    @Test
+    public void testReclaimedNodesArePassedOn(){
+        final List<ExampleNode> reclaimed = new ArrayList<>();
+        final IntrusiveNodePool<ExampleNode> watchedPool = new IntrusiveNodePool<>(ExampleNode::new, reclaimed::add);
+        final ExampleNode head = watchedPool.acquire();
+        head.add(watchedPool.acquire());
+        final ExampleNode second = head.next();
+
+        second.remove();
+        assertEquals(0, reclaimed.size());
+
+        watchedPool.reclaim();
+        assertEquals(List.of(second), reclaimed);
+    }
+
+    @Test
+    public void testNodesAreOnlyReleasedOnce(){
+        final ExampleNode node = pool.acquire();
+        pool.release(node);
+        pool.release(node);
+
+        assertEquals(1, pool.reclaim());
+        assertEquals(0, pool.reclaim());
+    }
+
+    @Test
+    public void testNodesFromElsewhereAreIgnored(){
+        final ExampleNode head = new ExampleNode();
+        head.add(new ExampleNode());
+        head.next().remove();
+        pool.release(head);
+
+        assertEquals(0, pool.reclaim());
+    }
+
+    @Test
+    public void testSteadyStateDoesNotCreateNodes(){
+        for(int i = 0; i < 1_000; i++){
+            ExampleNode head = pool.acquire();
+            head.add(pool.acquire());
+            head.add(pool.acquire());
+            head = head.remove();
+            head = head.remove();
+            head.remove();
+            pool.reclaim();
+        }
+        assertEquals(3, pool.getCreatedCount());
+    }
+}
@@ -4,13 +4,15 @@ import codingblackfemales.action.Action;
 import codingblackfemales.action.CancelChildOrder;
 import codingblackfemales.action.CreateChildOrder;
 import codingblackfemales.algo.AlgoLogic;
+import codingblackfemales.sequencer.clock.TradingSession;
 import codingblackfemales.sotw.ChildOrder;
 import codingblackfemales.sotw.SimpleAlgoState;
 import codingblackfemales.sotw.marketdata.BidLevel;
 import codingblackfemales.util.Util;
 import messages.order.Side;
 import static codingblackfemales.action.NoAction.NoAction;
-import java.time.*;
+import java.time.LocalTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import org.slf4j.Logger;
@@ -23,9 +25,14 @@ public class MyAlgoLogic2 implements AlgoLogic {
     private static final LocalTime MARKET_CLOSE_TIME = LocalTime.of(16, 30, 0);
     private static final ZoneId LONDON_TIME_ZONE = ZoneId.of("Europe/London");
 
+    private final TradingSession session = new TradingSession(LONDON_TIME_ZONE, MARKET_OPEN_TIME, MARKET_CLOSE_TIME);
+    private long now; // time of the current evaluation, read once from the state's clock
+
     @Override
     public Action evaluate(SimpleAlgoState state) {
 
+        now = state.getClock().epochNanos();
+
         /* New logic:
             * 1. Maintain 3 active child orders on the market, each for 100 shares, to fill a parent order of 300 shares
             * 2. Cancel an order if the order is active but not filled and market is closed (time based on LSEG opening times)
@@ -95,15 +102,10 @@ public class MyAlgoLogic2 implements AlgoLogic {
         return NoAction;
     }
 
-    // Method to see when the order book is closed
+    // Method to see when the order book is closed, as of the clock time of the current evaluation
     public boolean isMarketClosed() {
-        ZonedDateTime timeNow = ZonedDateTime.now(LONDON_TIME_ZONE); // Define London time zone & the present time
-        LocalDate today = LocalDate.now(LONDON_TIME_ZONE); // Declare today's date according to London's time zone
-        ZonedDateTime marketCloseDateTime = ZonedDateTime.of(today, MARKET_CLOSE_TIME, LONDON_TIME_ZONE); // Declare market closing conditions
-        ZonedDateTime marketOpenDateTime = ZonedDateTime.of(today, MARKET_OPEN_TIME, LONDON_TIME_ZONE);  // Declare market opening conditions
-
-        // Deduce if the current time is before opening, after closing, or on a weekend - we will ignore holidays for now (could create a list/map of holiday dates using some sort of library)
-        return timeNow.isBefore(marketOpenDateTime) || timeNow.isAfter(marketCloseDateTime) || timeNow.isEqual(marketCloseDateTime) || today.getDayOfWeek() == DayOfWeek.SATURDAY || today.getDayOfWeek() == DayOfWeek.SUNDAY; // Market is closed @ or after 4.30pm
+        // Closed before opening, at or after closing, or on a weekend - we will ignore holidays for now (could create a list/map of holiday dates using some sort of library)
+        return session.isClosed(now);
     }
 
 }
\ No newline at end of file
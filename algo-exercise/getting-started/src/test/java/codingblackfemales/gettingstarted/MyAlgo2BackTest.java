@@ -9,6 +9,7 @@ import codingblackfemales.orderbook.channel.OrderChannel;
 import codingblackfemales.orderbook.consumer.OrderBookInboundOrderConsumer;
 import codingblackfemales.sequencer.DefaultSequencer;
 import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.clock.SimulatedClock;
 import codingblackfemales.sequencer.consumer.LoggingConsumer;
 import codingblackfemales.sequencer.marketdata.SequencerTestCase;
 import codingblackfemales.sequencer.net.TestNetwork;
@@ -17,12 +18,15 @@ import codingblackfemales.service.OrderService;
 import codingblackfemales.sotw.ChildOrder;
 import messages.marketdata.*;
 import org.agrona.concurrent.UnsafeBuffer;
-import org.junit.Test;
+import org.junit.jupiter.api.Test;
 
 import java.nio.ByteBuffer;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
 public class MyAlgo2BackTest extends SequencerTestCase {
@@ -31,6 +35,7 @@ public class MyAlgo2BackTest extends SequencerTestCase {
     private final BookUpdateEncoder encoder = new BookUpdateEncoder();
 
     private AlgoContainer container;
+    private SimulatedClock clock;
 
     @Override
     public Sequencer getSequencer() {
@@ -46,7 +51,9 @@ public class MyAlgo2BackTest extends SequencerTestCase {
 
         final OrderBookInboundOrderConsumer orderConsumer = new OrderBookInboundOrderConsumer(book);
 
-        container = new AlgoContainer(new MarketDataService(runTrigger), new OrderService(runTrigger), runTrigger, actioner);
+        // a Monday morning in London, so the market is open whatever the time the test runs
+        clock = new SimulatedClock(londonTime(2024, 6, 3, 10, 0));
+        container = new AlgoContainer(new MarketDataService(runTrigger), new OrderService(runTrigger), runTrigger, actioner, clock);
         //set my algo logic
         container.setLogic(new MyAlgoLogic2());
 
@@ -211,12 +218,36 @@ public class MyAlgo2BackTest extends SequencerTestCase {
         //create a sample market data tick....
         send(createSampleMarketDataTick());
 
-        //when: market data is not in our favour
+        //when: the market closes and market data is not in our favour
+        clock.setTime(londonTime(2024, 6, 3, 16, 30));
         send(createSampleMarketDataTick3());
 
         // assert tha the orders have been cancelled as local time is past 4.30pm - Day order decision fu-filled
         assertEquals(container.getState().getActiveChildOrders().size(), 0);
 
     }
-}
 
+    @Test
+    public void testOrdersArePlacedWhenTheClockIsInTradingHours() throws Exception {
+        send(createSampleMarketDataTick());
+
+        assertEquals(3, container.getState().getChildOrders().size());
+    }
+
+    @Test
+    public void testNoOrdersArePlacedWhenTheClockIsOutsideTradingHours() throws Exception {
+        clock.setTime(londonTime(2024, 6, 3, 16, 30)); // the close
+
+        send(createSampleMarketDataTick());
+        assertEquals(0, container.getState().getChildOrders().size());
+
+        clock.setTime(londonTime(2024, 6, 8, 10, 0)); // a Saturday
+
+        send(createSampleMarketDataTick());
+        assertEquals(0, container.getState().getChildOrders().size());
+    }
+
+    private static long londonTime(int year, int month, int day, int hour, int minute) {
+        return TimeUnit.SECONDS.toNanos(ZonedDateTime.of(year, month, day, hour, minute, 0, 0, ZoneId.of("Europe/London")).toEpochSecond());
+    }
+}
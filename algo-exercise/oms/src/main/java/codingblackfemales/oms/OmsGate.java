@@ -0,0 +1,206 @@
+package codingblackfemales.oms;
+
+import codingblackfemales.sequencer.DroppedCommandListener;
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.frame.FrameFilter;
+import codingblackfemales.sequencer.frame.FrameReader;
+import messages.marketdata.MessageHeaderDecoder;
+import messages.order.CreateOrderDecoder;
+import messages.order.ModifyOrderDecoder;
+import messages.order.Side;
+import org.agrona.DirectBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sits in front of the sequencer and checks every <code>CreateOrder</code> for a parent against that parent's
+ * limits: same side, no more than the available quantity and no worse than the limit price. Approved quantity is
+ * reserved on the parent straight away, so that several children sent before the first is sequenced cannot
+ * over-allocate. Rejected orders are dropped and counted, everything else passes through unchanged.
+ *
+ * A <code>ModifyOrder</code> for a child of a parent is held to the same limits for whatever quantity it adds, so
+ * amending a child up cannot take the parent over its quantity either. Amends down always pass.
+ *
+ * A gate after this one must be given this as its {@link DroppedCommandListener}, so that what is reserved for an
+ * order it drops is freed again, e.g. <code>riskGate.setDroppedCommandListener(omsGate)</code>.
+ */
+public class OmsGate implements Sequencer, DroppedCommandListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(OmsGate.class);
+
+    public static final int ACCEPTED = 0;
+    public static final int UNKNOWN_PARENT = 1;
+    public static final int SIDE_MISMATCH = 2;
+    public static final int OVER_ALLOCATION = 3;
+    public static final int PRICE_OUTSIDE_LIMIT = 4;
+
+    private final Sequencer sequencer;
+    private final OrderManagementSystem oms;
+    private final ParentOrderStore parents;
+
+    private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+    private final CreateOrderDecoder createOrder = new CreateOrderDecoder();
+    private final ModifyOrderDecoder modifyOrder = new ModifyOrderDecoder();
+    private final FrameFilter acceptFilter = this::accept;
+
+    private DroppedCommandListener droppedCommandListener = DroppedCommandListener.NONE;
+
+    private long rejectCount = 0L;
+    private int lastRejectReason = ACCEPTED;
+
+    public OmsGate(final Sequencer sequencer, final OrderManagementSystem oms) {
+        this.sequencer = sequencer;
+        this.oms = oms;
+        this.parents = oms.getParents();
+    }
+
+    /**
+     * Told of the orders this gate drops, so that a gate in front of it can free what it reserved for them.
+     */
+    public OmsGate setDroppedCommandListener(final DroppedCommandListener droppedCommandListener) {
+        this.droppedCommandListener = droppedCommandListener;
+        return this;
+    }
+
+    @Override
+    public void onCommand(final DirectBuffer buffer) {
+        onCommand(buffer, 0, buffer.capacity());
+    }
+
+    @Override
+    public void onCommand(final DirectBuffer buffer, final int offset, final int length) {
+        if (accept(buffer, offset, length)) {
+            sequencer.onCommand(buffer, offset, length);
+        }
+    }
+
+    /**
+     * A batch is sent on as it came unless a child in it is rejected, in which case the children either side of it
+     * still go together.
+     */
+    @Override
+    public void onCommandBatch(final DirectBuffer buffer, final int offset, final int length) {
+        FrameReader.filter(buffer, offset, length, acceptFilter, sequencer);
+    }
+
+    private boolean accept(final DirectBuffer buffer, final int offset, final int length) {
+        header.wrap(buffer, offset);
+
+        if (header.schemaId() == CreateOrderDecoder.SCHEMA_ID && header.templateId() == CreateOrderDecoder.TEMPLATE_ID) {
+            createOrder.wrap(buffer, offset + header.encodedLength(), header.blockLength(), header.version());
+
+            if (createOrder.parentOrderId() != 0L) {
+                final int result = check(createOrder);
+                if (result != ACCEPTED) {
+                    rejectCount++;
+                    lastRejectReason = result;
+                    logger.warn("[OMS] Rejected child order, reason=" + result + " " + createOrder);
+                    droppedCommandListener.onDropped(buffer, offset, length);
+                    return false;
+                }
+            }
+        } else if (header.schemaId() == ModifyOrderDecoder.SCHEMA_ID && header.templateId() == ModifyOrderDecoder.TEMPLATE_ID) {
+            modifyOrder.wrap(buffer, offset + header.encodedLength(), header.blockLength(), header.version());
+
+            final int result = checkAmend(modifyOrder);
+            if (result != ACCEPTED) {
+                rejectCount++;
+                lastRejectReason = result;
+                logger.warn("[OMS] Rejected child order amend, reason=" + result + " " + modifyOrder);
+                droppedCommandListener.onDropped(buffer, offset, length);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * An order dropped further on was let through here, so it has the quantity reserved that {@link #check} or
+     * {@link #checkAmend} reserved for it. The OMS has not seen it, so that quantity is worked out the same way again.
+     */
+    @Override
+    public void onDropped(final DirectBuffer buffer, final int offset, final int length) {
+        header.wrap(buffer, offset);
+
+        if (header.schemaId() == CreateOrderDecoder.SCHEMA_ID && header.templateId() == CreateOrderDecoder.TEMPLATE_ID) {
+            createOrder.wrap(buffer, offset + header.encodedLength(), header.blockLength(), header.version());
+
+            final int index = createOrder.parentOrderId() == 0L ? ParentOrderStore.NOT_FOUND : parents.indexOf(createOrder.parentOrderId());
+            if (index != ParentOrderStore.NOT_FOUND) {
+                parents.unreserve(index, createOrder.quantity());
+            }
+        } else if (header.schemaId() == ModifyOrderDecoder.SCHEMA_ID && header.templateId() == ModifyOrderDecoder.TEMPLATE_ID) {
+            modifyOrder.wrap(buffer, offset + header.encodedLength(), header.blockLength(), header.version());
+
+            final int index = oms.parentIndexOf(modifyOrder.orderId());
+            final long added = modifyOrder.quantity() - oms.openQuantity(modifyOrder.orderId());
+            if (index != ParentOrderStore.NOT_FOUND && modifyOrder.quantity() != 0L && added > 0L) {
+                parents.unreserve(index, added);
+            }
+        }
+
+        droppedCommandListener.onDropped(buffer, offset, length);
+    }
+
+    private int check(final CreateOrderDecoder create) {
+        final int index = parents.indexOf(create.parentOrderId());
+        if (index == ParentOrderStore.NOT_FOUND) {
+            return UNKNOWN_PARENT;
+        }
+
+        final Side side = parents.side(index);
+        if (create.side() != side) {
+            return SIDE_MISMATCH;
+        }
+        if (create.quantity() > parents.availableQuantity(index)) {
+            return OVER_ALLOCATION;
+        }
+
+        if (isOutsideLimit(index, create.price())) {
+            return PRICE_OUTSIDE_LIMIT;
+        }
+
+        parents.reserve(index, create.quantity());
+        return ACCEPTED;
+    }
+
+    /**
+     * Children the OMS doesn't know of have no parent, or have not been sequenced yet, so there is nothing to hold
+     * them to.
+     */
+    private int checkAmend(final ModifyOrderDecoder modify) {
+        final long childOrderId = modify.orderId();
+        final int index = oms.parentIndexOf(childOrderId);
+        if (index == ParentOrderStore.NOT_FOUND || modify.quantity() == 0L) {
+            return ACCEPTED;
+        }
+
+        if (isOutsideLimit(index, modify.price())) {
+            return PRICE_OUTSIDE_LIMIT;
+        }
+
+        final long added = modify.quantity() - oms.openQuantity(childOrderId);
+        if (added <= 0L) {
+            return ACCEPTED;
+        }
+        if (added > parents.availableQuantity(index)) {
+            return OVER_ALLOCATION;
+        }
+
+        parents.reserve(index, added);
+        return ACCEPTED;
+    }
+
+    private boolean isOutsideLimit(final int index, final long price) {
+        final long limitPrice = parents.limitPrice(index);
+        return limitPrice != 0L && (parents.side(index) == Side.BUY ? price > limitPrice : price < limitPrice);
+    }
+
+    public long getRejectCount() {
+        return rejectCount;
+    }
+
+    public int getLastRejectReason() {
+        return lastRejectReason;
+    }
+}
@@ -0,0 +1,172 @@
+package codingblackfemales.oms;
+
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.event.OrderEventListener;
+import messages.order.*;
+import org.agrona.collections.Long2LongHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Owns parent orders and keeps their child allocation and executions up to date from the order events on the
+ * network. Children are linked to parents by the <code>parentOrderId</code> on <code>CreateOrder</code>; children
+ * without a parent are ignored.
+ *
+ * Add this as a consumer on the network, and send child orders through {@link #gate(Sequencer)} so that limits
+ * are enforced before they reach the sequencer.
+ */
+public class OrderManagementSystem extends OrderEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderManagementSystem.class);
+
+    private final ParentOrderStore parents;
+
+    private final Long2LongHashMap parentIndexByChild = new Long2LongHashMap(ParentOrderStore.NOT_FOUND);
+    private final Long2LongHashMap openQuantityByChild = new Long2LongHashMap(0L);
+
+    public OrderManagementSystem() {
+        this(new ParentOrderStore());
+    }
+
+    public OrderManagementSystem(final ParentOrderStore parents) {
+        super(CreateOrderDecoder.TEMPLATE_ID, CancelOrderDecoder.TEMPLATE_ID, ModifyOrderDecoder.TEMPLATE_ID, BatchCancelOrderDecoder.TEMPLATE_ID,
+                CancelAckedOrderDecoder.TEMPLATE_ID, PartialFillOrderDecoder.TEMPLATE_ID, FillOrderDecoder.TEMPLATE_ID);
+        this.parents = parents;
+    }
+
+    public ParentOrderStore getParents() {
+        return parents;
+    }
+
+    public int newParentOrder(final long parentOrderId, final Side side, final long quantity, final long limitPrice) {
+        return parents.add(parentOrderId, side, quantity, limitPrice);
+    }
+
+    public OmsGate gate(final Sequencer sequencer) {
+        return new OmsGate(sequencer, this);
+    }
+
+    public int childCount() {
+        return parentIndexByChild.size();
+    }
+
+    /**
+     * @return the index of the child's parent, or {@link ParentOrderStore#NOT_FOUND} if it has none or is closed.
+     */
+    int parentIndexOf(final long childOrderId) {
+        return (int) parentIndexByChild.get(childOrderId);
+    }
+
+    long openQuantity(final long childOrderId) {
+        return openQuantityByChild.get(childOrderId);
+    }
+
+    @Override
+    public void onCreateOrder(final CreateOrderDecoder create) {
+        if (create.parentOrderId() == 0L) {
+            return;
+        }
+
+        final int index = parents.indexOf(create.parentOrderId());
+        if (index == ParentOrderStore.NOT_FOUND) {
+            logger.warn("[OMS] Child order " + create.orderId() + " references unknown parent " + create.parentOrderId());
+            return;
+        }
+
+        parentIndexByChild.put(create.orderId(), index);
+        openQuantityByChild.put(create.orderId(), create.quantity());
+        parents.allocate(index, create.quantity());
+    }
+
+    @Override
+    public void onCancelOrder(final CancelOrderDecoder cancel) {
+        release(cancel.orderId());
+    }
+
+    /**
+     * Moves the child's allocation on its parent by the change in open quantity, any quantity the gate reserved for
+     * an amend up moves from pending to allocated.
+     */
+    @Override
+    public void onModifyOrder(final ModifyOrderDecoder modify) {
+        final long childOrderId = modify.orderId();
+        final int index = (int) parentIndexByChild.get(childOrderId);
+        if (index == ParentOrderStore.NOT_FOUND) {
+            return;
+        }
+
+        final long open = openQuantityByChild.get(childOrderId);
+        if (modify.quantity() > open) {
+            parents.allocate(index, modify.quantity() - open);
+        } else {
+            parents.release(index, open - modify.quantity());
+        }
+
+        if (modify.quantity() == 0L) {
+            forget(childOrderId);
+        } else {
+            openQuantityByChild.put(childOrderId, modify.quantity());
+        }
+    }
+
+    @Override
+    public void onBatchCancelOrder(final BatchCancelOrderDecoder batchCancel) {
+        for (BatchCancelOrderDecoder.OrdersDecoder order : batchCancel.orders()) {
+            release(order.orderId());
+        }
+    }
+
+    @Override
+    public void onCancelAckedOrder(final CancelAckedOrderDecoder cancelAcked) {
+        release(cancelAcked.orderId());
+    }
+
+    @Override
+    public void onPartialFill(final PartialFillOrderDecoder partialFill) {
+        fill(partialFill.orderId(), partialFill.quantity(), partialFill.price());
+    }
+
+    @Override
+    public void onFill(final FillOrderDecoder fill) {
+        fill(fill.orderId(), fill.quantity(), fill.price());
+    }
+
+    @Override
+    public void onAckedOrder(final AckedOrderDecoder acked) {
+    }
+
+    @Override
+    public void onPendingOrder(final PendingOrderDecoder pending) {
+    }
+
+    private void fill(final long childOrderId, final long quantity, final long price) {
+        final int index = (int) parentIndexByChild.get(childOrderId);
+        if (index == ParentOrderStore.NOT_FOUND) {
+            return;
+        }
+
+        final long open = openQuantityByChild.get(childOrderId);
+        final long filled = Math.min(open, quantity);
+        parents.execute(index, filled, price);
+
+        if (open - filled == 0L) {
+            forget(childOrderId);
+        } else {
+            openQuantityByChild.put(childOrderId, open - filled);
+        }
+    }
+
+    private void release(final long childOrderId) {
+        final int index = (int) parentIndexByChild.get(childOrderId);
+        if (index == ParentOrderStore.NOT_FOUND) {
+            return;
+        }
+        parents.release(index, openQuantityByChild.get(childOrderId));
+        forget(childOrderId);
+    }
+
+    private void forget(final long childOrderId) {
+        parentIndexByChild.remove(childOrderId);
+        openQuantityByChild.remove(childOrderId);
+    }
+}
@@ -0,0 +1,171 @@
+package codingblackfemales.oms;
+
+import messages.order.Side;
+import org.agrona.collections.Long2LongHashMap;
+
+import java.util.Arrays;
+
+/**
+ * Parent orders held as parallel primitive arrays (struct of arrays) and addressed by index, so that updates on
+ * the fill path are an index lookup and a few array writes, with no allocation.
+ *
+ * Quantities per parent:
+ * <ul>
+ *     <li>pending - approved by the {@link OmsGate} but not yet seen on the network.</li>
+ *     <li>allocated - open on child orders in the market.</li>
+ *     <li>executed - filled.</li>
+ * </ul>
+ * available = quantity - executed - allocated - pending.
+ */
+public class ParentOrderStore {
+
+    public static final int NOT_FOUND = -1;
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final Long2LongHashMap indexByParentOrderId = new Long2LongHashMap(NOT_FOUND);
+
+    private long[] parentOrderIds;
+    private Side[] sides;
+    private long[] quantities;
+    private long[] limitPrices;
+    private long[] pending;
+    private long[] allocated;
+    private long[] executed;
+    private long[] executedNotional;
+
+    private int size = 0;
+
+    public ParentOrderStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ParentOrderStore(final int initialCapacity) {
+        parentOrderIds = new long[initialCapacity];
+        sides = new Side[initialCapacity];
+        quantities = new long[initialCapacity];
+        limitPrices = new long[initialCapacity];
+        pending = new long[initialCapacity];
+        allocated = new long[initialCapacity];
+        executed = new long[initialCapacity];
+        executedNotional = new long[initialCapacity];
+    }
+
+    /**
+     * @param limitPrice the worst price children may be placed at, or 0 for no limit.
+     * @return the index of the new parent.
+     */
+    public int add(final long parentOrderId, final Side side, final long quantity, final long limitPrice) {
+        if (parentOrderId == 0L) {
+            throw new IllegalArgumentException("parentOrderId 0 is reserved for children without a parent");
+        }
+        if (indexByParentOrderId.containsKey(parentOrderId)) {
+            throw new IllegalArgumentException(String.format("Parent order [%d] already exists", parentOrderId));
+        }
+        if (size == parentOrderIds.length) {
+            grow();
+        }
+
+        final int index = size++;
+        parentOrderIds[index] = parentOrderId;
+        sides[index] = side;
+        quantities[index] = quantity;
+        limitPrices[index] = limitPrice;
+        pending[index] = 0L;
+        allocated[index] = 0L;
+        executed[index] = 0L;
+        executedNotional[index] = 0L;
+        indexByParentOrderId.put(parentOrderId, index);
+        return index;
+    }
+
+    public int indexOf(final long parentOrderId) {
+        return (int) indexByParentOrderId.get(parentOrderId);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long parentOrderId(final int index) {
+        return parentOrderIds[index];
+    }
+
+    public Side side(final int index) {
+        return sides[index];
+    }
+
+    public long quantity(final int index) {
+        return quantities[index];
+    }
+
+    public long limitPrice(final int index) {
+        return limitPrices[index];
+    }
+
+    public long pendingQuantity(final int index) {
+        return pending[index];
+    }
+
+    public long allocatedQuantity(final int index) {
+        return allocated[index];
+    }
+
+    public long executedQuantity(final int index) {
+        return executed[index];
+    }
+
+    public long leavesQuantity(final int index) {
+        return quantities[index] - executed[index];
+    }
+
+    public long availableQuantity(final int index) {
+        return quantities[index] - executed[index] - allocated[index] - pending[index];
+    }
+
+    public long averageExecutedPrice(final int index) {
+        return executed[index] == 0 ? 0 : executedNotional[index] / executed[index];
+    }
+
+    void reserve(final int index, final long quantity) {
+        pending[index] += quantity;
+    }
+
+    /**
+     * Frees quantity the gate reserved for an order that was dropped before it was sequenced.
+     */
+    void unreserve(final int index, final long quantity) {
+        pending[index] -= Math.min(pending[index], quantity);
+    }
+
+    /**
+     * Moves quantity from pending (if it was reserved by the gate) to allocated.
+     */
+    void allocate(final int index, final long quantity) {
+        final long fromPending = Math.min(pending[index], quantity);
+        pending[index] -= fromPending;
+        allocated[index] += quantity;
+    }
+
+    void release(final int index, final long quantity) {
+        allocated[index] -= quantity;
+    }
+
+    void execute(final int index, final long quantity, final long price) {
+        allocated[index] -= quantity;
+        executed[index] += quantity;
+        executedNotional[index] += quantity * price;
+    }
+
+    private void grow() {
+        final int capacity = Math.max(1, parentOrderIds.length * 2);
+        parentOrderIds = Arrays.copyOf(parentOrderIds, capacity);
+        sides = Arrays.copyOf(sides, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        limitPrices = Arrays.copyOf(limitPrices, capacity);
+        pending = Arrays.copyOf(pending, capacity);
+        allocated = Arrays.copyOf(allocated, capacity);
+        executed = Arrays.copyOf(executed, capacity);
+        executedNotional = Arrays.copyOf(executedNotional, capacity);
+    }
+}
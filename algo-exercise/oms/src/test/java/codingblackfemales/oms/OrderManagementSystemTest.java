@@ -0,0 +1,190 @@
+package codingblackfemales.oms;
+
+import codingblackfemales.sequencer.DefaultSequencer;
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.net.TestNetwork;
+import messages.order.CancelOrderEncoder;
+import messages.order.CreateOrderEncoder;
+import messages.order.FillOrderEncoder;
+import messages.order.MessageHeaderEncoder;
+import messages.order.ModifyOrderEncoder;
+import messages.order.Side;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+
+public class OrderManagementSystemTest {
+
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+
+    private OrderManagementSystem oms;
+    private Sequencer sequencer;
+    private OmsGate gate;
+
+    @Before
+    public void setUp() {
+        final TestNetwork network = new TestNetwork();
+        sequencer = new DefaultSequencer(network);
+        oms = new OrderManagementSystem();
+        network.addConsumer(oms);
+        gate = oms.gate(sequencer);
+    }
+
+    private void createChild(final Side side, final long quantity, final long price, final long parentOrderId) {
+        final CreateOrderEncoder encoder = new CreateOrderEncoder();
+        encoder.wrapAndApplyHeader(buffer, 0, headerEncoder);
+        encoder.side(side).quantity(quantity).price(price).parentOrderId(parentOrderId);
+        gate.onCommand(buffer, 0, headerEncoder.encodedLength() + encoder.encodedLength());
+    }
+
+    private void fill(final long childOrderId, final long quantity, final long price) {
+        final FillOrderEncoder encoder = new FillOrderEncoder();
+        encoder.wrapAndApplyHeader(buffer, 0, headerEncoder);
+        encoder.orderId(childOrderId).quantity(quantity).price(price);
+        sequencer.onCommand(buffer, 0, headerEncoder.encodedLength() + encoder.encodedLength());
+    }
+
+    private void cancel(final long childOrderId) {
+        final CancelOrderEncoder encoder = new CancelOrderEncoder();
+        encoder.wrapAndApplyHeader(buffer, 0, headerEncoder);
+        encoder.orderId(childOrderId);
+        sequencer.onCommand(buffer, 0, headerEncoder.encodedLength() + encoder.encodedLength());
+    }
+
+    private void amend(final long childOrderId, final long quantity, final long price) {
+        amend(sequencer, childOrderId, quantity, price);
+    }
+
+    private void amend(final Sequencer to, final long childOrderId, final long quantity, final long price) {
+        final ModifyOrderEncoder encoder = new ModifyOrderEncoder();
+        encoder.wrapAndApplyHeader(buffer, 0, headerEncoder);
+        encoder.orderId(childOrderId).quantity(quantity).price(price);
+        to.onCommand(buffer, 0, headerEncoder.encodedLength() + encoder.encodedLength());
+    }
+
+    @Test
+    public void testAmendsMoveChildAllocation() {
+        final int parent = oms.newParentOrder(1000L, Side.SELL, 300, 0);
+
+        createChild(Side.SELL, 100, 100, 1000L);
+        amend(2, 150, 101);
+        assertEquals(150, oms.getParents().allocatedQuantity(parent));
+
+        fill(2, 50, 101);
+        amend(2, 40, 101);
+        assertEquals(40, oms.getParents().allocatedQuantity(parent));
+        assertEquals(210, oms.getParents().availableQuantity(parent));
+
+        amend(2, 0, 101);
+        assertEquals(0, oms.getParents().allocatedQuantity(parent));
+        assertEquals(0, oms.childCount());
+    }
+
+    @Test
+    public void testChildAllocationFillsAndCancelsUpdateParent() {
+        final int parent = oms.newParentOrder(1000L, Side.BUY, 300, 105);
+
+        //the sequencer assigns child order ids 2, 3, ...
+        createChild(Side.BUY, 100, 100, 1000L);
+        createChild(Side.BUY, 100, 101, 1000L);
+
+        final ParentOrderStore parents = oms.getParents();
+        assertEquals(200, parents.allocatedQuantity(parent));
+        assertEquals(0, parents.pendingQuantity(parent));
+        assertEquals(100, parents.availableQuantity(parent));
+
+        fill(2, 40, 100);
+        fill(2, 60, 100);
+        assertEquals(100, parents.executedQuantity(parent));
+        assertEquals(100, parents.allocatedQuantity(parent));
+        assertEquals(200, parents.leavesQuantity(parent));
+        assertEquals(100, parents.averageExecutedPrice(parent));
+
+        cancel(3);
+        assertEquals(0, parents.allocatedQuantity(parent));
+        assertEquals(200, parents.availableQuantity(parent));
+        assertEquals(0, oms.childCount());
+    }
+
+    @Test
+    public void testGateRejectsChildrenOutsideParentLimits() {
+        oms.newParentOrder(2000L, Side.SELL, 100, 95);
+
+        createChild(Side.SELL, 60, 96, 2000L);
+        assertEquals(0, gate.getRejectCount());
+
+        createChild(Side.SELL, 60, 96, 2000L);
+        assertEquals(OmsGate.OVER_ALLOCATION, gate.getLastRejectReason());
+
+        createChild(Side.BUY, 10, 96, 2000L);
+        assertEquals(OmsGate.SIDE_MISMATCH, gate.getLastRejectReason());
+
+        createChild(Side.SELL, 10, 94, 2000L);
+        assertEquals(OmsGate.PRICE_OUTSIDE_LIMIT, gate.getLastRejectReason());
+
+        createChild(Side.SELL, 10, 96, 9999L);
+        assertEquals(OmsGate.UNKNOWN_PARENT, gate.getLastRejectReason());
+
+        assertEquals(4, gate.getRejectCount());
+        assertEquals(1, oms.childCount());
+    }
+
+    @Test
+    public void testGateHoldsAmendsToParentLimits() {
+        final int parent = oms.newParentOrder(3000L, Side.SELL, 300, 95);
+
+        createChild(Side.SELL, 100, 96, 3000L);
+        createChild(Side.SELL, 150, 96, 3000L);
+
+        amend(gate, 2, 200, 96);
+        assertEquals(OmsGate.OVER_ALLOCATION, gate.getLastRejectReason());
+        assertEquals(250, oms.getParents().allocatedQuantity(parent));
+
+        amend(gate, 2, 100, 94);
+        assertEquals(OmsGate.PRICE_OUTSIDE_LIMIT, gate.getLastRejectReason());
+
+        amend(gate, 2, 150, 96);
+        assertEquals(2, gate.getRejectCount());
+        assertEquals(300, oms.getParents().allocatedQuantity(parent));
+        assertEquals(0, oms.getParents().pendingQuantity(parent));
+        assertEquals(0, oms.getParents().availableQuantity(parent));
+
+        //reducing always passes
+        amend(gate, 3, 50, 96);
+        assertEquals(2, gate.getRejectCount());
+        assertEquals(100, oms.getParents().availableQuantity(parent));
+    }
+
+    @Test
+    public void testReservationsAreFreedWhenALaterGateDropsTheOrder() {
+        final int parent = oms.newParentOrder(4000L, Side.BUY, 300, 0);
+        createChild(Side.BUY, 100, 96, 4000L);
+
+        final Sequencer dropEverything = (buffer) -> gate.onDropped(buffer, 0, buffer.capacity());
+        gate = oms.gate(dropEverything);
+
+        createChild(Side.BUY, 150, 96, 4000L);
+        amend(gate, 2, 250, 96);
+
+        assertEquals(0, gate.getRejectCount());
+        assertEquals(0, oms.getParents().pendingQuantity(parent));
+        assertEquals(100, oms.getParents().allocatedQuantity(parent));
+        assertEquals(200, oms.getParents().availableQuantity(parent));
+    }
+
+    @Test
+    public void testStoreGrowsBeyondInitialCapacity() {
+        final ParentOrderStore store = new ParentOrderStore(2);
+        for (int i = 1; i <= 5000; i++) {
+            assertEquals(i - 1, store.add(i, Side.BUY, i, 0));
+        }
+        assertEquals(4999, store.indexOf(5000));
+        assertEquals(5000, store.quantity(store.indexOf(5000)));
+        assertEquals(ParentOrderStore.NOT_FOUND, store.indexOf(5001));
+    }
+}
@@ -1,23 +1,29 @@
 package codingblackfemales.sequencer;
 
+import codingblackfemales.sequencer.clock.Clock;
+import codingblackfemales.sequencer.clock.SystemClock;
 import codingblackfemales.sequencer.net.Network;
+import codingblackfemales.sequencer.frame.FrameReader;
 import messages.marketdata.MessageHeaderDecoder;
 import messages.marketdata.MessageHeaderEncoder;
 import messages.order.CreateOrderDecoder;
 import messages.order.CreateOrderEncoder;
 import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 
 import java.nio.ByteBuffer;
 
+/**
+ * Sequences commands and dispatches them to the network. Every message is stamped with its sequence number, the
+ * time the command entered and the time it was dispatched, so consumers can measure the latency
+ * of each hop from the header alone.
+ */
 public class DefaultSequencer implements Sequencer {
 
     private final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
     private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
 
-    private ByteBuffer byteBuffer;//= ByteBuffer.allocateDirect(1024);
-    private UnsafeBuffer mutableBuffer;// = new UnsafeBuffer(byteBuffer);
-
     private final CreateOrderDecoder createOrderDecoder = new CreateOrderDecoder();
     private final CreateOrderEncoder createOrderEncoder = new CreateOrderEncoder();
 
@@ -29,34 +35,76 @@ public class DefaultSequencer implements Sequencer {
     long sequencerNumber = 0L;
 
     private final Network network;
+    private final Clock clock;
 
     public DefaultSequencer(Network network) {
+        this(network, SystemClock.INSTANCE);
+    }
+
+    public DefaultSequencer(final Network network, final Clock clock) {
         this.network = network;
+        this.clock = clock;
     }
 
     @Override
     public void onCommand(DirectBuffer bb) {
+        onCommand(bb, 0, bb.capacity());
+    }
+
+    /**
+     * A command that already has an ingress timestamp in its header was stamped where it entered, e.g. when it was
+     * claimed on a {@link codingblackfemales.sequencer.ingress.SequencerIngress}, so the time it spent queued shows
+     * up in the sequencing time. Anything else is taken to have entered now.
+     */
+    @Override
+    public void onCommand(final DirectBuffer bb, final int offset, final int length) {
+
+        headerDecoder.wrap(bb, offset);
 
-        headerDecoder.wrap(bb, 0);
+        final long stampedIngressTimestamp = headerDecoder.ingressTimestamp();
+        final long ingressTimestamp = stampedIngressTimestamp != 0L ? stampedIngressTimestamp : clock.epochNanos();
 
         int schemaId = headerDecoder.schemaId();
         int templateId = headerDecoder.templateId();
 
         if(isModelMessage(schemaId, templateId)){
-            DirectBuffer mutatedBuffer = processModelCommand(bb, schemaId, headerDecoder);
-            sequenceAndDispatchMessage(mutatedBuffer);
+            DirectBuffer mutatedBuffer = processModelCommand(bb, offset, schemaId, headerDecoder);
+            sequenceAndDispatchMessage(mutatedBuffer, 0, headerDecoder.encodedLength() + createOrderEncoder.encodedLength(), ingressTimestamp, clock.epochNanos());
         }
         else{
-            sequenceAndDispatchMessage(bb);
+            sequenceAndDispatchMessage(bb, offset, length, ingressTimestamp, clock.epochNanos());
+            if (stampedIngressTimestamp == 0L) {
+                //the header was stamped in the caller's buffer, which is often reused for the next command
+                clearIngressTimestamp(bb, offset);
+            }
         }
 
     }
 
+    private void clearIngressTimestamp(final DirectBuffer bb, final int offset) {
+        final MutableDirectBuffer mutableBuffer = bb instanceof MutableDirectBuffer ? (MutableDirectBuffer) bb : new UnsafeBuffer(bb);
+        headerEncoder.wrap(mutableBuffer, offset).ingressTimestamp(0L);
+    }
+
+    @Override
+    public void onCommandBatch(final DirectBuffer buffer, final int offset, final int length) {
+        network.dispatchBatchStart();
+        try {
+            FrameReader.forEach(buffer, offset, length, this);
+        } finally {
+            network.dispatchBatchEnd();
+        }
+    }
+
     public DirectBuffer processModelCommand(final DirectBuffer byteBuffer, final int schemaId, final MessageHeaderDecoder header){
+        return processModelCommand(byteBuffer, 0, schemaId, header);
+    }
+
+    public DirectBuffer processModelCommand(final DirectBuffer byteBuffer, final int offset, final int schemaId, final MessageHeaderDecoder header){
 
         final int actingBlockLength = header.blockLength();
         final int actingVersion = header.version();
-        final int bufferOffset = header.encodedLength();
+        final int bufferOffset = offset + header.encodedLength();
 
         createOrderDecoder.wrap(byteBuffer, bufferOffset, actingBlockLength, actingVersion);
 
@@ -66,6 +114,7 @@ public class DefaultSequencer implements Sequencer {
         createOrderEncoder.quantity(createOrderDecoder.quantity());
         createOrderEncoder.side(createOrderDecoder.side());
         createOrderEncoder.orderId(newOrderId());
+        createOrderEncoder.parentOrderId(createOrderDecoder.parentOrderId());
         return businessMutableBuffer;
     }
 
@@ -76,25 +125,43 @@ public class DefaultSequencer implements Sequencer {
     }
 
     public void sequenceAndDispatchMessage(final DirectBuffer bb){
+        sequenceAndDispatchMessage(bb, 0, bb.capacity());
+    }
+
+    public void sequenceAndDispatchMessage(final DirectBuffer bb, final int offset, final int length){
+        final long now = clock.epochNanos();
+        sequenceAndDispatchMessage(bb, offset, length, now, now);
+    }
 
-        byteBuffer = ByteBuffer.allocateDirect(1024);
-        mutableBuffer = new UnsafeBuffer(byteBuffer);
+    /**
+     * Stamps the sequence number and timestamps into the message header in place and dispatches it at the same offset.
+     * Callers in this codebase always pass a mutable buffer, anything else is wrapped in a fresh view, never
+     * a shared field, as consumers may re-enter the sequencer while the message is still being dispatched.
+     */
+    public void sequenceAndDispatchMessage(final DirectBuffer bb, final int offset, final int length,
+                                           final long ingressTimestamp, final long sequencerTimestamp){
 
-        mutableBuffer.wrap(bb);
+        final MutableDirectBuffer mutableBuffer = bb instanceof MutableDirectBuffer ? (MutableDirectBuffer) bb : new UnsafeBuffer(bb);
 
-        headerEncoder.wrap(mutableBuffer, 0);
+        headerEncoder.wrap(mutableBuffer, offset);
 
         sequencerNumber += 1;
 
         headerEncoder.sequencerNumber(sequencerNumber);
+        headerEncoder.ingressTimestamp(ingressTimestamp);
+        headerEncoder.sequencerTimestamp(sequencerTimestamp);
 
-        dispatchToNetwork(mutableBuffer);
+        dispatchToNetwork(mutableBuffer, offset, length);
     }
 
     public void dispatchToNetwork(DirectBuffer sequencedBuffer){
         network.dispatch(sequencedBuffer);
     }
 
+    public void dispatchToNetwork(final DirectBuffer sequencedBuffer, final int offset, final int length){
+        network.dispatch(sequencedBuffer, offset, length);
+    }
+
     public boolean isModelMessage(final int schemaId, final int templateId) {
         return schemaId == CreateOrderEncoder.SCHEMA_ID && templateId == CreateOrderEncoder.TEMPLATE_ID;
     }
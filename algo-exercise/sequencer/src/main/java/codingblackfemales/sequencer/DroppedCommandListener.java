@@ -0,0 +1,15 @@
+package codingblackfemales.sequencer;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * Told of each command a gate in front of the sequencer drops, so that a gate before it can undo whatever it
+ * reserved for the command when letting it through.
+ */
+@FunctionalInterface
+public interface DroppedCommandListener {
+
+    DroppedCommandListener NONE = (buffer, offset, length) -> {};
+
+    void onDropped(final DirectBuffer buffer, final int offset, final int length);
+}
@@ -1,7 +1,34 @@
 package codingblackfemales.sequencer;
 
+import codingblackfemales.sequencer.frame.FrameReader;
+import codingblackfemales.sequencer.util.BufferViews;
 import org.agrona.DirectBuffer;
 
 public interface Sequencer {
     public void onCommand(final DirectBuffer byteBuffer);
+
+    /**
+     * Accepts a message that starts at <code>offset</code> rather than at the start of the buffer. By default it is
+     * passed on as a view that is reused once the call returns.
+     */
+    public default void onCommand(final DirectBuffer buffer, final int offset, final int length) {
+        if (offset == 0) {
+            onCommand(buffer);
+            return;
+        }
+        final BufferViews views = BufferViews.get();
+        try {
+            onCommand(views.acquire(buffer, offset, length));
+        } finally {
+            views.release();
+        }
+    }
+
+    /**
+     * Accepts a contiguous block of framed messages, see {@link codingblackfemales.sequencer.frame.Frame}. By default
+     * each message is handled as if passed to {@link #onCommand(DirectBuffer, int, int)} individually.
+     */
+    public default void onCommandBatch(final DirectBuffer buffer, final int offset, final int length) {
+        FrameReader.forEach(buffer, offset, length, this);
+    }
 }
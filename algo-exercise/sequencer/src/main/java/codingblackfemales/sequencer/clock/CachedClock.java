@@ -0,0 +1,47 @@
+package codingblackfemales.sequencer.clock;
+
+import codingblackfemales.sequencer.net.Consumer;
+import org.agrona.DirectBuffer;
+
+/**
+ * Reads its source once per sequenced message, so everything that handles the message sees the same time and
+ * reading it is a field load. Add it to the network ahead of the consumers that use it, or update it where the
+ * messages are handled, as the algo container does.
+ */
+public class CachedClock implements Clock, Consumer {
+
+    private final Clock source;
+
+    private long epochNanos;
+    private long nanoTime;
+
+    public CachedClock(final Clock source) {
+        this.source = source;
+        update();
+    }
+
+    public void update() {
+        epochNanos = source.epochNanos();
+        nanoTime = source.nanoTime();
+    }
+
+    @Override
+    public long epochNanos() {
+        return epochNanos;
+    }
+
+    @Override
+    public long nanoTime() {
+        return nanoTime;
+    }
+
+    @Override
+    public void onMessage(final DirectBuffer buffer) {
+        update();
+    }
+
+    @Override
+    public void onMessage(final DirectBuffer buffer, final int offset, final int length) {
+        update();
+    }
+}
@@ -0,0 +1,21 @@
+package codingblackfemales.sequencer.clock;
+
+/**
+ * A source of time that components are given rather than reading the system clock themselves, so backtests can
+ * replace it with a {@link SimulatedClock} and run as fast as the data can be sequenced.
+ */
+@FunctionalInterface
+public interface Clock {
+
+    /**
+     * @return the wall clock time in nanoseconds since the epoch.
+     */
+    long epochNanos();
+
+    /**
+     * @return a monotonic time in nanoseconds for measuring intervals, only differences between values are meaningful.
+     */
+    default long nanoTime() {
+        return epochNanos();
+    }
+}
@@ -0,0 +1,31 @@
+package codingblackfemales.sequencer.clock;
+
+/**
+ * A clock that only moves when told to, e.g. to the recorded time of each event as a backtest replays it. Time
+ * never goes backwards, so intervals measured against it are never negative.
+ */
+public class SimulatedClock implements Clock {
+
+    private long epochNanos;
+
+    public SimulatedClock(final long epochNanos) {
+        this.epochNanos = epochNanos;
+    }
+
+    @Override
+    public long epochNanos() {
+        return epochNanos;
+    }
+
+    public SimulatedClock setTime(final long epochNanos) {
+        if (epochNanos < this.epochNanos) {
+            throw new IllegalArgumentException(String.format("Simulated time cannot go backwards time=[%s] now=[%s]", epochNanos, this.epochNanos));
+        }
+        this.epochNanos = epochNanos;
+        return this;
+    }
+
+    public SimulatedClock advance(final long nanos) {
+        return setTime(epochNanos + nanos);
+    }
+}
@@ -0,0 +1,56 @@
+package codingblackfemales.sequencer.clock;
+
+import java.time.Instant;
+
+/**
+ * The real clock. Epoch time is derived from {@link System#nanoTime()} and an offset taken once at start up, as the
+ * wall clock can step when the host clock is adjusted.
+ *
+ * The offset is calibrated against {@link Instant#now()}, which has microsecond resolution on most platforms, rather
+ * than {@link System#currentTimeMillis()}: timestamps from different processes are compared to measure latency, and
+ * an offset rounded to the millisecond would swamp the microseconds being measured.
+ */
+public final class SystemClock implements Clock {
+
+    public static final SystemClock INSTANCE = new SystemClock();
+
+    private static final int CALIBRATION_SAMPLES = 16;
+
+    private final long offsetNanos;
+
+    private SystemClock() {
+        this.offsetNanos = calibrate();
+    }
+
+    /**
+     * Reads the wall clock between two reads of the monotonic clock a few times and keeps the sample taken in the
+     * shortest window, so a pre-emption in the middle of one read doesn't end up in the offset.
+     */
+    private static long calibrate() {
+        long bestWindow = Long.MAX_VALUE;
+        long bestOffset = 0L;
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            final long before = System.nanoTime();
+            final Instant now = Instant.now();
+            final long after = System.nanoTime();
+
+            final long window = after - before;
+            if (window < bestWindow) {
+                bestWindow = window;
+                final long epochNanos = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+                bestOffset = epochNanos - (before + window / 2);
+            }
+        }
+        return bestOffset;
+    }
+
+    @Override
+    public long epochNanos() {
+        return System.nanoTime() + offsetNanos;
+    }
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+}
@@ -0,0 +1,72 @@
+package codingblackfemales.sequencer.clock;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The daily open and close of a market in its local time zone, closed at weekends. The boundaries of the current
+ * day are worked out once, so checking a time is a comparison of longs until the day changes.
+ */
+public class TradingSession {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final ZoneId zone;
+    private final LocalTime open;
+    private final LocalTime close;
+
+    //the day the boundaries are for, starts empty so the first check computes them
+    private long dayStartNanos = Long.MAX_VALUE;
+    private long dayEndNanos = Long.MIN_VALUE;
+    private long openNanos;
+    private long closeNanos;
+
+    public TradingSession(final ZoneId zone, final LocalTime open, final LocalTime close) {
+        if (!open.isBefore(close)) {
+            throw new IllegalArgumentException(String.format("Session must open before it closes open=[%s] close=[%s]", open, close));
+        }
+        this.zone = zone;
+        this.open = open;
+        this.close = close;
+    }
+
+    /**
+     * @return true from the open up to, but not including, the close.
+     */
+    public boolean isOpen(final long epochNanos) {
+        if (epochNanos < dayStartNanos || epochNanos >= dayEndNanos) {
+            computeDay(epochNanos);
+        }
+        return epochNanos >= openNanos && epochNanos < closeNanos;
+    }
+
+    public boolean isClosed(final long epochNanos) {
+        return !isOpen(epochNanos);
+    }
+
+    private void computeDay(final long epochNanos) {
+        final Instant instant = Instant.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND), Math.floorMod(epochNanos, NANOS_PER_SECOND));
+        final LocalDate day = instant.atZone(zone).toLocalDate();
+
+        //days are not always 24 hours long when the clocks change
+        dayStartNanos = toEpochNanos(day.atStartOfDay(zone));
+        dayEndNanos = toEpochNanos(day.plusDays(1).atStartOfDay(zone));
+
+        if (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            openNanos = dayStartNanos;
+            closeNanos = dayStartNanos;
+        } else {
+            openNanos = toEpochNanos(ZonedDateTime.of(day, open, zone));
+            closeNanos = toEpochNanos(ZonedDateTime.of(day, close, zone));
+        }
+    }
+
+    private static long toEpochNanos(final ZonedDateTime time) {
+        return time.toEpochSecond() * NANOS_PER_SECOND + time.getNano();
+    }
+}
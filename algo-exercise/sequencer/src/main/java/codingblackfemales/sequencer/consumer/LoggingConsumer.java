@@ -1,12 +1,15 @@
 package codingblackfemales.sequencer.consumer;
 
+import codingblackfemales.sequencer.event.TemplateDispatcher;
 import codingblackfemales.sequencer.net.Consumer;
+import codingblackfemales.sequencer.net.Subscription;
 import messages.marketdata.BookUpdateDecoder;
 import messages.marketdata.MessageHeaderDecoder;
+import messages.order.BatchCancelOrderDecoder;
 import messages.order.CancelOrderDecoder;
 import messages.order.CreateOrderDecoder;
-import messages.order.CreateOrderEncoder;
 import messages.order.FillOrderDecoder;
+import messages.order.ModifyOrderDecoder;
 import org.agrona.DirectBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,37 +26,49 @@ public class LoggingConsumer implements Consumer {
     private final FillOrderDecoder fillDecoder = new FillOrderDecoder();
 
     private final CancelOrderDecoder cancelDecoder = new CancelOrderDecoder();
+    private final ModifyOrderDecoder modifyDecoder = new ModifyOrderDecoder();
+    private final BatchCancelOrderDecoder batchCancelDecoder = new BatchCancelOrderDecoder();
+
+    private final TemplateDispatcher dispatcher = new TemplateDispatcher()
+            .subscribe(BookUpdateDecoder.SCHEMA_ID, BookUpdateDecoder.TEMPLATE_ID, (buffer, offset, actingBlockLength, actingVersion) ->
+                    logger.info("[" + sequencerNumber(buffer, offset) + "] \n" + bookUpdateToString(bookUpdateDecoder.wrap(buffer, offset, actingBlockLength, actingVersion))))
+            .subscribe(CreateOrderDecoder.SCHEMA_ID, CreateOrderDecoder.TEMPLATE_ID, (buffer, offset, actingBlockLength, actingVersion) ->
+                    logger.info("[" + sequencerNumber(buffer, offset) + "] " + createOrderDecoder.wrap(buffer, offset, actingBlockLength, actingVersion)))
+            .subscribe(FillOrderDecoder.SCHEMA_ID, FillOrderDecoder.TEMPLATE_ID, (buffer, offset, actingBlockLength, actingVersion) ->
+                    logger.info("[" + sequencerNumber(buffer, offset) + "] " + fillDecoder.wrap(buffer, offset, actingBlockLength, actingVersion)))
+            .subscribe(CancelOrderDecoder.SCHEMA_ID, CancelOrderDecoder.TEMPLATE_ID, (buffer, offset, actingBlockLength, actingVersion) ->
+                    logger.info("[" + sequencerNumber(buffer, offset) + "] " + cancelDecoder.wrap(buffer, offset, actingBlockLength, actingVersion)))
+            .subscribe(ModifyOrderDecoder.SCHEMA_ID, ModifyOrderDecoder.TEMPLATE_ID, (buffer, offset, actingBlockLength, actingVersion) ->
+                    logger.info("[" + sequencerNumber(buffer, offset) + "] " + modifyDecoder.wrap(buffer, offset, actingBlockLength, actingVersion)))
+            .subscribe(BatchCancelOrderDecoder.SCHEMA_ID, BatchCancelOrderDecoder.TEMPLATE_ID, (buffer, offset, actingBlockLength, actingVersion) ->
+                    logger.info("[" + sequencerNumber(buffer, offset) + "] " + batchCancelDecoder.wrap(buffer, offset, actingBlockLength, actingVersion)));
+
+    private final Subscription subscription = Subscription.of(BookUpdateDecoder.SCHEMA_ID, BookUpdateDecoder.TEMPLATE_ID)
+            .and(CreateOrderDecoder.SCHEMA_ID, CreateOrderDecoder.TEMPLATE_ID, FillOrderDecoder.TEMPLATE_ID, CancelOrderDecoder.TEMPLATE_ID,
+                    ModifyOrderDecoder.TEMPLATE_ID, BatchCancelOrderDecoder.TEMPLATE_ID);
+
+    @Override
+    public Subscription getSubscription() {
+        return subscription;
+    }
 
     @Override
     public void onMessage(final DirectBuffer buffer) {
+        onMessage(buffer, 0, buffer.capacity());
+    }
+
+    @Override
+    public void onMessage(final DirectBuffer buffer, final int offset, final int length) {
+        dispatcher.onMessage(buffer, offset, length);
+    }
+
+    @Override
+    public void onMessage(final DirectBuffer buffer, final int offset, final int length,
+                          final int schemaId, final int templateId, final int actingBlockLength, final int actingVersion) {
+        dispatcher.onMessage(buffer, offset, length, schemaId, templateId, actingBlockLength, actingVersion);
+    }
 
-        decoder.wrap(buffer, 0);
-
-        if (decoder.schemaId() == BookUpdateDecoder.SCHEMA_ID && decoder.templateId() == BookUpdateDecoder.TEMPLATE_ID) {
-            final int actingBlockLength = decoder.blockLength();
-            final int actingVersion = decoder.version();
-            int bufferOffset = decoder.encodedLength();
-            bookUpdateDecoder.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-            logger.info("[" + decoder.sequencerNumber() + "] \n" + bookUpdateToString(bookUpdateDecoder));
-        } else if (decoder.schemaId() == CreateOrderEncoder.SCHEMA_ID && decoder.templateId() == CreateOrderDecoder.TEMPLATE_ID) {
-            final int actingBlockLength = decoder.blockLength();
-            final int actingVersion = decoder.version();
-
-            int bufferOffset = decoder.encodedLength();
-            createOrderDecoder.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-            logger.info("[" + decoder.sequencerNumber() + "] " + createOrderDecoder);
-        } else if (decoder.schemaId() == FillOrderDecoder.SCHEMA_ID && decoder.templateId() == FillOrderDecoder.TEMPLATE_ID) {
-            final int actingBlockLength = decoder.blockLength();
-            final int actingVersion = decoder.version();
-            int bufferOffset = decoder.encodedLength();
-            fillDecoder.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-            logger.info("[" + decoder.sequencerNumber() + "] " + fillDecoder);
-        }else if (decoder.schemaId() == CancelOrderDecoder.SCHEMA_ID && decoder.templateId() == CancelOrderDecoder.TEMPLATE_ID) {
-            final int actingBlockLength = decoder.blockLength();
-            final int actingVersion = decoder.version();
-            int bufferOffset = decoder.encodedLength();
-            cancelDecoder.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-            logger.info("[" + decoder.sequencerNumber() + "] " + cancelDecoder);
-        }
+    private long sequencerNumber(final DirectBuffer buffer, final int bodyOffset) {
+        return decoder.wrap(buffer, bodyOffset - MessageHeaderDecoder.ENCODED_LENGTH).sequencerNumber();
     }
 }
@@ -1,41 +1,124 @@
 package codingblackfemales.sequencer.event;
 
 import codingblackfemales.sequencer.net.Consumer;
-import messages.marketdata.AskBookUpdateDecoder;
-import messages.marketdata.BidBookUpdateDecoder;
-import messages.marketdata.BookUpdateDecoder;
-import messages.marketdata.MessageHeaderDecoder;
+import codingblackfemales.sequencer.net.Subscription;
+import messages.marketdata.*;
 import org.agrona.DirectBuffer;
 
+/**
+ * Decodes market data messages and calls the matching <code>on...</code> method. By default only the book
+ * updates are decoded; listeners that rebuild the book order by order pass {@link #ALL_TEMPLATES}, or whichever
+ * template ids they handle, to the constructor.
+ *
+ * On a network it is handed the header the network decoded to route the message; elsewhere it decodes the header
+ * itself, or several listeners can share one {@link TemplateDispatcher} through {@link #subscribe(TemplateDispatcher)}.
+ */
 public abstract class MarketDataEventListener implements Consumer {
 
-    private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+    protected static final int[] BOOK_UPDATE_TEMPLATES = {
+            BookUpdateDecoder.TEMPLATE_ID, AskBookUpdateDecoder.TEMPLATE_ID, BidBookUpdateDecoder.TEMPLATE_ID
+    };
+
+    protected static final int[] ALL_TEMPLATES = {
+            BookUpdateDecoder.TEMPLATE_ID, AskBookUpdateDecoder.TEMPLATE_ID, BidBookUpdateDecoder.TEMPLATE_ID,
+            MboOrderAddDecoder.TEMPLATE_ID, MboOrderModifyDecoder.TEMPLATE_ID, MboOrderDeleteDecoder.TEMPLATE_ID,
+            MboOrderExecuteDecoder.TEMPLATE_ID
+    };
+
     private final BookUpdateDecoder book = new BookUpdateDecoder();
     private final AskBookUpdateDecoder ask = new AskBookUpdateDecoder();
     private final BidBookUpdateDecoder bid = new BidBookUpdateDecoder();
+    private final MboOrderAddDecoder mboAdd = new MboOrderAddDecoder();
+    private final MboOrderModifyDecoder mboModify = new MboOrderModifyDecoder();
+    private final MboOrderDeleteDecoder mboDelete = new MboOrderDeleteDecoder();
+    private final MboOrderExecuteDecoder mboExecute = new MboOrderExecuteDecoder();
+
+    private final int[] templateIds;
+    private final Subscription subscription;
+    private final TemplateDispatcher dispatcher = new TemplateDispatcher();
+
+    protected MarketDataEventListener() {
+        this(BOOK_UPDATE_TEMPLATES);
+    }
+
+    protected MarketDataEventListener(final int... templateIds) {
+        this.templateIds = templateIds.clone();
+        this.subscription = Subscription.of(BookUpdateDecoder.SCHEMA_ID, templateIds);
+        subscribe(dispatcher);
+    }
+
+    /**
+     * Subscribes this listener's templates, and its batch boundaries, to a shared dispatcher.
+     */
+    public void subscribe(final TemplateDispatcher shared) {
+        for (int templateId : templateIds) {
+            shared.subscribe(BookUpdateDecoder.SCHEMA_ID, templateId, handlerFor(templateId));
+        }
+        if (shared != dispatcher) {
+            shared.addBatchListener(this);
+        }
+    }
+
+    private MessageHandler handlerFor(final int templateId) {
+        switch (templateId) {
+            case BookUpdateDecoder.TEMPLATE_ID:
+                return (buffer, offset, actingBlockLength, actingVersion) -> onBookUpdate(book.wrap(buffer, offset, actingBlockLength, actingVersion));
+            case AskBookUpdateDecoder.TEMPLATE_ID:
+                return (buffer, offset, actingBlockLength, actingVersion) -> onAskBook(ask.wrap(buffer, offset, actingBlockLength, actingVersion));
+            case BidBookUpdateDecoder.TEMPLATE_ID:
+                return (buffer, offset, actingBlockLength, actingVersion) -> onBidBook(bid.wrap(buffer, offset, actingBlockLength, actingVersion));
+            case MboOrderAddDecoder.TEMPLATE_ID:
+                return (buffer, offset, actingBlockLength, actingVersion) -> onMboOrderAdd(mboAdd.wrap(buffer, offset, actingBlockLength, actingVersion));
+            case MboOrderModifyDecoder.TEMPLATE_ID:
+                return (buffer, offset, actingBlockLength, actingVersion) -> onMboOrderModify(mboModify.wrap(buffer, offset, actingBlockLength, actingVersion));
+            case MboOrderDeleteDecoder.TEMPLATE_ID:
+                return (buffer, offset, actingBlockLength, actingVersion) -> onMboOrderDelete(mboDelete.wrap(buffer, offset, actingBlockLength, actingVersion));
+            case MboOrderExecuteDecoder.TEMPLATE_ID:
+                return (buffer, offset, actingBlockLength, actingVersion) -> onMboOrderExecute(mboExecute.wrap(buffer, offset, actingBlockLength, actingVersion));
+            default:
+                throw new IllegalArgumentException(String.format("Not a market data message templateId=[%s]", templateId));
+        }
+    }
+
+    @Override
+    public Subscription getSubscription() {
+        return subscription;
+    }
 
     @Override
     public void onMessage(final DirectBuffer buffer) {
-        header.wrap(buffer, 0);
-
-        final int actingBlockLength = header.blockLength();
-        final int actingVersion = header.version();
-        final int bufferOffset = header.encodedLength();
-
-        if(header.templateId() == BookUpdateDecoder.TEMPLATE_ID){
-            book.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-            onBookUpdate(book);
-        }else if(header.templateId() == AskBookUpdateDecoder.TEMPLATE_ID){
-            ask.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-            onAskBook(ask);
-        }else if(header.templateId() == BidBookUpdateDecoder.TEMPLATE_ID){
-            bid.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-            onBidBook(bid);
-        }
+        onMessage(buffer, 0, buffer.capacity());
+    }
+
+    @Override
+    public void onMessage(final DirectBuffer buffer, final int offset, final int length) {
+        dispatcher.onMessage(buffer, offset, length);
+    }
+
+    @Override
+    public void onMessage(final DirectBuffer buffer, final int offset, final int length,
+                          final int schemaId, final int templateId, final int actingBlockLength, final int actingVersion) {
+        dispatcher.onMessage(buffer, offset, length, schemaId, templateId, actingBlockLength, actingVersion);
     }
 
     public abstract void onBookUpdate(BookUpdateDecoder bookUpdate);
     public abstract void onAskBook(AskBookUpdateDecoder askBook);
     public abstract void onBidBook(BidBookUpdateDecoder bidBook);
 
+    /*
+     * Market by order events, only listeners that rebuild the book order by order need them.
+     */
+
+    public void onMboOrderAdd(MboOrderAddDecoder add) {
+    }
+
+    public void onMboOrderModify(MboOrderModifyDecoder modify) {
+    }
+
+    public void onMboOrderDelete(MboOrderDeleteDecoder delete) {
+    }
+
+    public void onMboOrderExecute(MboOrderExecuteDecoder execute) {
+    }
+
 }
@@ -0,0 +1,16 @@
+package codingblackfemales.sequencer.event;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * Handles one message template, see {@link TemplateDispatcher}. The header has already been decoded, the handler
+ * is given what it needs to wrap a decoder over the message body.
+ */
+@FunctionalInterface
+public interface MessageHandler {
+
+    /**
+     * @param offset of the message body, the header starts <code>MessageHeaderDecoder.ENCODED_LENGTH</code> before it.
+     */
+    void onMessage(DirectBuffer buffer, int offset, int actingBlockLength, int actingVersion);
+}
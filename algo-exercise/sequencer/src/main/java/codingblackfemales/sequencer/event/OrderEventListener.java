@@ -1,62 +1,115 @@
 package codingblackfemales.sequencer.event;
 
 import codingblackfemales.sequencer.net.Consumer;
-import messages.marketdata.MessageHeaderDecoder;
+import codingblackfemales.sequencer.net.Subscription;
 import messages.order.*;
 import org.agrona.DirectBuffer;
 
+/**
+ * Decodes order messages and calls the matching <code>on...</code> method. Subclasses that only handle some of
+ * them can pass those template ids to the constructor, the rest are never decoded.
+ *
+ * On a network it is handed the header the network decoded to route the message; elsewhere it decodes the header
+ * itself, or several listeners can share one {@link TemplateDispatcher} through {@link #subscribe(TemplateDispatcher)}.
+ */
 public abstract class OrderEventListener implements Consumer {
 
-    private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+    protected static final int[] ALL_TEMPLATES = {
+            CreateOrderDecoder.TEMPLATE_ID, CancelOrderDecoder.TEMPLATE_ID, ModifyOrderDecoder.TEMPLATE_ID,
+            BatchCancelOrderDecoder.TEMPLATE_ID, AckedOrderDecoder.TEMPLATE_ID, CancelAckedOrderDecoder.TEMPLATE_ID,
+            PendingOrderDecoder.TEMPLATE_ID, PartialFillOrderDecoder.TEMPLATE_ID, FillOrderDecoder.TEMPLATE_ID
+    };
 
     private final CreateOrderDecoder createOrderDecoder = new CreateOrderDecoder();
     private final CancelOrderDecoder cancelOrderDecoder = new CancelOrderDecoder();
+    private final ModifyOrderDecoder modifyOrderDecoder = new ModifyOrderDecoder();
+    private final BatchCancelOrderDecoder batchCancelOrderDecoder = new BatchCancelOrderDecoder();
     private final AckedOrderDecoder ackedOrderDecoder = new AckedOrderDecoder();
     private final CancelAckedOrderDecoder cancelAckedOrderDecoder = new CancelAckedOrderDecoder();
     private final PendingOrderDecoder pendingOrderDecoder = new PendingOrderDecoder();
     private final PartialFillOrderDecoder partialFillOrderDecoder = new PartialFillOrderDecoder();
     private final FillOrderDecoder fillOrderDecoder = new FillOrderDecoder();
 
-    @Override
-    public void onMessage(DirectBuffer buffer){
-
-        header.wrap(buffer, 0);
-
-        final int actingBlockLength = header.blockLength();
-        final int actingVersion = header.version();
-        final int bufferOffset = header.encodedLength();
-
-        if(header.schemaId() == CreateOrderEncoder.SCHEMA_ID) {
-
-            if (header.templateId() == CreateOrderDecoder.TEMPLATE_ID) {
-                createOrderDecoder.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-                onCreateOrder(createOrderDecoder);
-            } else if (header.templateId() == CancelOrderDecoder.TEMPLATE_ID) {
-                cancelOrderDecoder.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-                onCancelOrder(cancelOrderDecoder);
-            } else if (header.templateId() == AckedOrderDecoder.TEMPLATE_ID) {
-                ackedOrderDecoder.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-                onAckedOrder(ackedOrderDecoder);
-            } else if (header.templateId() == CancelAckedOrderDecoder.TEMPLATE_ID) {
-                cancelAckedOrderDecoder.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-                onCancelAckedOrder(cancelAckedOrderDecoder);
-            } else if (header.templateId() == PendingOrderDecoder.TEMPLATE_ID) {
-                pendingOrderDecoder.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-                onPendingOrder(pendingOrderDecoder);
-            } else if (header.templateId() == PartialFillOrderDecoder.TEMPLATE_ID) {
-                partialFillOrderDecoder.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-                onPartialFill(partialFillOrderDecoder);
-            } else if (header.templateId() == FillOrderDecoder.TEMPLATE_ID) {
-                fillOrderDecoder.wrap(buffer, bufferOffset, actingBlockLength, actingVersion);
-                onFill(fillOrderDecoder);
-            }
+    private final int[] templateIds;
+    private final Subscription subscription;
+    private final TemplateDispatcher dispatcher = new TemplateDispatcher();
+
+    protected OrderEventListener() {
+        this(ALL_TEMPLATES);
+    }
+
+    protected OrderEventListener(final int... templateIds) {
+        this.templateIds = templateIds.clone();
+        this.subscription = Subscription.of(CreateOrderDecoder.SCHEMA_ID, templateIds);
+        subscribe(dispatcher);
+    }
+
+    /**
+     * Subscribes this listener's templates, and its batch boundaries, to a shared dispatcher.
+     */
+    public void subscribe(final TemplateDispatcher shared) {
+        for (int templateId : templateIds) {
+            shared.subscribe(CreateOrderDecoder.SCHEMA_ID, templateId, handlerFor(templateId));
         }
+        if (shared != dispatcher) {
+            shared.addBatchListener(this);
+        }
+    }
+
+    private MessageHandler handlerFor(final int templateId) {
+        switch (templateId) {
+            case CreateOrderDecoder.TEMPLATE_ID:
+                return (buffer, offset, actingBlockLength, actingVersion) -> onCreateOrder(createOrderDecoder.wrap(buffer, offset, actingBlockLength, actingVersion));
+            case CancelOrderDecoder.TEMPLATE_ID:
+                return (buffer, offset, actingBlockLength, actingVersion) -> onCancelOrder(cancelOrderDecoder.wrap(buffer, offset, actingBlockLength, actingVersion));
+            case ModifyOrderDecoder.TEMPLATE_ID:
+                return (buffer, offset, actingBlockLength, actingVersion) -> onModifyOrder(modifyOrderDecoder.wrap(buffer, offset, actingBlockLength, actingVersion));
+            case BatchCancelOrderDecoder.TEMPLATE_ID:
+                return (buffer, offset, actingBlockLength, actingVersion) -> onBatchCancelOrder(batchCancelOrderDecoder.wrap(buffer, offset, actingBlockLength, actingVersion));
+            case AckedOrderDecoder.TEMPLATE_ID:
+                return (buffer, offset, actingBlockLength, actingVersion) -> onAckedOrder(ackedOrderDecoder.wrap(buffer, offset, actingBlockLength, actingVersion));
+            case CancelAckedOrderDecoder.TEMPLATE_ID:
+                return (buffer, offset, actingBlockLength, actingVersion) -> onCancelAckedOrder(cancelAckedOrderDecoder.wrap(buffer, offset, actingBlockLength, actingVersion));
+            case PendingOrderDecoder.TEMPLATE_ID:
+                return (buffer, offset, actingBlockLength, actingVersion) -> onPendingOrder(pendingOrderDecoder.wrap(buffer, offset, actingBlockLength, actingVersion));
+            case PartialFillOrderDecoder.TEMPLATE_ID:
+                return (buffer, offset, actingBlockLength, actingVersion) -> onPartialFill(partialFillOrderDecoder.wrap(buffer, offset, actingBlockLength, actingVersion));
+            case FillOrderDecoder.TEMPLATE_ID:
+                return (buffer, offset, actingBlockLength, actingVersion) -> onFill(fillOrderDecoder.wrap(buffer, offset, actingBlockLength, actingVersion));
+            default:
+                throw new IllegalArgumentException(String.format("Not an order message templateId=[%s]", templateId));
+        }
+    }
+
+    @Override
+    public Subscription getSubscription() {
+        return subscription;
+    }
+
+    @Override
+    public void onMessage(final DirectBuffer buffer) {
+        onMessage(buffer, 0, buffer.capacity());
+    }
+
+    @Override
+    public void onMessage(final DirectBuffer buffer, final int offset, final int length) {
+        dispatcher.onMessage(buffer, offset, length);
+    }
+
+    @Override
+    public void onMessage(final DirectBuffer buffer, final int offset, final int length,
+                          final int schemaId, final int templateId, final int actingBlockLength, final int actingVersion) {
+        dispatcher.onMessage(buffer, offset, length, schemaId, templateId, actingBlockLength, actingVersion);
     }
 
     public abstract void onCreateOrder(final CreateOrderDecoder create);
 
     public abstract void onCancelOrder(final CancelOrderDecoder cancel);
 
+    public abstract void onModifyOrder(final ModifyOrderDecoder modify);
+
+    public abstract void onBatchCancelOrder(final BatchCancelOrderDecoder batchCancel);
+
     public abstract void onAckedOrder(final AckedOrderDecoder acked);
 
     public abstract void onCancelAckedOrder(final CancelAckedOrderDecoder cancelAcked);
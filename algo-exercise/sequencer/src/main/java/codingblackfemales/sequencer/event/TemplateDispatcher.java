@@ -0,0 +1,112 @@
+package codingblackfemales.sequencer.event;
+
+import codingblackfemales.sequencer.net.Consumer;
+import messages.marketdata.MessageHeaderDecoder;
+import org.agrona.DirectBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes each message header once and jumps straight to the handlers subscribed to its schema and template, via a
+ * table indexed by the two ids. Messages nobody has subscribed to cost a header decode and an array lookup.
+ *
+ * The table is built at start up; subscribing while messages are being dispatched is not supported. Several
+ * listeners can share one dispatcher, each subscribing only the templates it handles, so the header is decoded once
+ * per message rather than once per listener. They are called in the order they subscribed. Behind a network, which
+ * has already decoded the header to route the message, the header isn't decoded here at all.
+ */
+public class TemplateDispatcher implements Consumer {
+
+    private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+
+    //[schemaId][templateId]
+    private MessageHandler[][] handlers = new MessageHandler[0][];
+
+    private final List<Consumer> batchListeners = new ArrayList<>();
+
+    public TemplateDispatcher subscribe(final int schemaId, final int templateId, final MessageHandler handler) {
+        if (schemaId < 0 || templateId < 0) {
+            throw new IllegalArgumentException(String.format("Invalid message ids schemaId=[%s] templateId=[%s]", schemaId, templateId));
+        }
+        if (schemaId >= handlers.length) {
+            final MessageHandler[][] grown = new MessageHandler[schemaId + 1][];
+            System.arraycopy(handlers, 0, grown, 0, handlers.length);
+            handlers = grown;
+        }
+        MessageHandler[] templates = handlers[schemaId];
+        if (templates == null || templateId >= templates.length) {
+            final MessageHandler[] grown = new MessageHandler[templateId + 1];
+            if (templates != null) {
+                System.arraycopy(templates, 0, grown, 0, templates.length);
+            }
+            handlers[schemaId] = templates = grown;
+        }
+
+        final MessageHandler existing = templates[templateId];
+        templates[templateId] = existing == null ? handler : fanOut(existing, handler);
+        return this;
+    }
+
+    private static MessageHandler fanOut(final MessageHandler first, final MessageHandler second) {
+        return (buffer, offset, actingBlockLength, actingVersion) -> {
+            first.onMessage(buffer, offset, actingBlockLength, actingVersion);
+            second.onMessage(buffer, offset, actingBlockLength, actingVersion);
+        };
+    }
+
+    /**
+     * Passes batch boundaries on to a listener that subscribed through this dispatcher.
+     */
+    public TemplateDispatcher addBatchListener(final Consumer listener) {
+        batchListeners.add(listener);
+        return this;
+    }
+
+    public boolean isSubscribed(final int schemaId, final int templateId) {
+        return handlerFor(schemaId, templateId) != null;
+    }
+
+    private MessageHandler handlerFor(final int schemaId, final int templateId) {
+        if (schemaId >= handlers.length) {
+            return null;
+        }
+        final MessageHandler[] templates = handlers[schemaId];
+        return templates == null || templateId >= templates.length ? null : templates[templateId];
+    }
+
+    @Override
+    public void onMessage(final DirectBuffer buffer) {
+        onMessage(buffer, 0, buffer.capacity());
+    }
+
+    @Override
+    public void onMessage(final DirectBuffer buffer, final int offset, final int length) {
+        header.wrap(buffer, offset);
+        //read everything from the header first, a handler may re-enter and wrap it over another message
+        onMessage(buffer, offset, length, header.schemaId(), header.templateId(), header.blockLength(), header.version());
+    }
+
+    @Override
+    public void onMessage(final DirectBuffer buffer, final int offset, final int length,
+                          final int schemaId, final int templateId, final int actingBlockLength, final int actingVersion) {
+        final MessageHandler handler = handlerFor(schemaId, templateId);
+        if (handler != null) {
+            handler.onMessage(buffer, offset + MessageHeaderDecoder.ENCODED_LENGTH, actingBlockLength, actingVersion);
+        }
+    }
+
+    @Override
+    public void onBatchStart() {
+        for (int i = 0; i < batchListeners.size(); i++) {
+            batchListeners.get(i).onBatchStart();
+        }
+    }
+
+    @Override
+    public void onBatchEnd() {
+        for (int i = 0; i < batchListeners.size(); i++) {
+            batchListeners.get(i).onBatchEnd();
+        }
+    }
+}
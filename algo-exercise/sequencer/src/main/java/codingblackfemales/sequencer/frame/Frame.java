@@ -0,0 +1,37 @@
+package codingblackfemales.sequencer.frame;
+
+/**
+ * Layout of a frame: a fixed header followed by one SBE message, padded so the next frame starts on an
+ * {@link #ALIGNMENT} boundary. Aligned frames keep the 8 byte fields in the SBE header and body naturally
+ * aligned when many messages are packed back to back into one buffer.
+ *
+ * <pre>
+ *   0               4               8
+ *   +---------------+---------------+-------------------------------+---------+
+ *   | messageLength |   reserved    |  SBE header + message body    | padding |
+ *   +---------------+---------------+-------------------------------+---------+
+ * </pre>
+ */
+public final class Frame {
+
+    public static final int ALIGNMENT = 8;
+
+    public static final int LENGTH_OFFSET = 0;
+    public static final int RESERVED_OFFSET = 4;
+    public static final int HEADER_LENGTH = 8;
+
+    private Frame() {
+    }
+
+    public static int align(final int value) {
+        return (value + ALIGNMENT - 1) & ~(ALIGNMENT - 1);
+    }
+
+    public static int frameLength(final int messageLength) {
+        return align(HEADER_LENGTH + messageLength);
+    }
+
+    public static int messageOffset(final int frameOffset) {
+        return frameOffset + HEADER_LENGTH;
+    }
+}
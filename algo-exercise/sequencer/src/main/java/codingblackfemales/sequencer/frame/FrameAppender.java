@@ -0,0 +1,90 @@
+package codingblackfemales.sequencer.frame;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+
+import java.nio.ByteOrder;
+
+/**
+ * Packs messages back to back into a buffer as {@link Frame}s.
+ *
+ * Messages can either be copied in with {@link #append(DirectBuffer, int, int)}, or encoded in place by
+ * wrapping an encoder at {@link #messageOffset()} and then calling {@link #commit(int)} with the encoded length.
+ */
+public class FrameAppender {
+
+    public static final int INSUFFICIENT_CAPACITY = -1;
+
+    private MutableDirectBuffer buffer;
+    private int position = 0;
+
+    public FrameAppender() {
+    }
+
+    public FrameAppender(final MutableDirectBuffer buffer) {
+        wrap(buffer);
+    }
+
+    public FrameAppender wrap(final MutableDirectBuffer buffer) {
+        this.buffer = buffer;
+        this.position = 0;
+        return this;
+    }
+
+    public MutableDirectBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * @return the number of bytes of frames written so far, i.e. the length to pass to a reader.
+     */
+    public int position() {
+        return position;
+    }
+
+    public void reset() {
+        position = 0;
+    }
+
+    public boolean hasCapacityFor(final int messageLength) {
+        return position + Frame.frameLength(messageLength) <= buffer.capacity();
+    }
+
+    /**
+     * @return where the next message should be encoded.
+     */
+    public int messageOffset() {
+        return Frame.messageOffset(position);
+    }
+
+    /**
+     * Completes the frame for a message already encoded at {@link #messageOffset()}.
+     *
+     * @return the offset of the committed message, or {@link #INSUFFICIENT_CAPACITY}.
+     */
+    public int commit(final int messageLength) {
+        if (!hasCapacityFor(messageLength)) {
+            return INSUFFICIENT_CAPACITY;
+        }
+
+        final int frameOffset = position;
+        buffer.putInt(frameOffset + Frame.LENGTH_OFFSET, messageLength, ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(frameOffset + Frame.RESERVED_OFFSET, 0, ByteOrder.LITTLE_ENDIAN);
+        position = frameOffset + Frame.frameLength(messageLength);
+
+        return Frame.messageOffset(frameOffset);
+    }
+
+    /**
+     * Copies a message into the next frame.
+     *
+     * @return the offset of the appended message, or {@link #INSUFFICIENT_CAPACITY}.
+     */
+    public int append(final DirectBuffer message, final int offset, final int length) {
+        if (!hasCapacityFor(length)) {
+            return INSUFFICIENT_CAPACITY;
+        }
+        buffer.putBytes(messageOffset(), message, offset, length);
+        return commit(length);
+    }
+}
@@ -0,0 +1,14 @@
+package codingblackfemales.sequencer.frame;
+
+import org.agrona.DirectBuffer;
+
+@FunctionalInterface
+public interface FrameFilter {
+    /**
+     * @param buffer the buffer holding the whole block of frames.
+     * @param offset where the SBE message (starting with its header) begins.
+     * @param length the length of the SBE message, excluding frame header and padding.
+     * @return true to pass the message on.
+     */
+    boolean accept(final DirectBuffer buffer, final int offset, final int length);
+}
@@ -0,0 +1,13 @@
+package codingblackfemales.sequencer.frame;
+
+import org.agrona.DirectBuffer;
+
+@FunctionalInterface
+public interface FrameHandler {
+    /**
+     * @param buffer the buffer holding the whole block of frames.
+     * @param offset where the SBE message (starting with its header) begins.
+     * @param length the length of the SBE message, excluding frame header and padding.
+     */
+    void onFrame(final DirectBuffer buffer, final int offset, final int length);
+}
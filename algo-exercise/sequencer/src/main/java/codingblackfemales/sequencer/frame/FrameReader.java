@@ -0,0 +1,96 @@
+package codingblackfemales.sequencer.frame;
+
+import codingblackfemales.sequencer.Sequencer;
+import org.agrona.DirectBuffer;
+
+import java.nio.ByteOrder;
+
+/**
+ * Walks a block of {@link Frame}s written by a {@link FrameAppender}, handing each message to the handler by offset
+ * so that nothing is copied or re-wrapped.
+ */
+public final class FrameReader {
+
+    private FrameReader() {
+    }
+
+    /**
+     * @return the number of messages read from <code>[offset, offset + length)</code>.
+     */
+    public static int forEach(final DirectBuffer buffer, final int offset, final int length, final FrameHandler handler) {
+        final int limit = offset + length;
+        int position = offset;
+        int count = 0;
+
+        while (position + Frame.HEADER_LENGTH <= limit) {
+            final int messageLength = messageLength(buffer, position, limit);
+            handler.onFrame(buffer, Frame.messageOffset(position), messageLength);
+
+            position += Frame.frameLength(messageLength);
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Hands each message to {@link Sequencer#onCommand(DirectBuffer, int, int)}, without a handler to allocate.
+     *
+     * @return the number of messages read from <code>[offset, offset + length)</code>.
+     */
+    public static int forEach(final DirectBuffer buffer, final int offset, final int length, final Sequencer sequencer) {
+        final int limit = offset + length;
+        int position = offset;
+        int count = 0;
+
+        while (position + Frame.HEADER_LENGTH <= limit) {
+            final int messageLength = messageLength(buffer, position, limit);
+            sequencer.onCommand(buffer, Frame.messageOffset(position), messageLength);
+
+            position += Frame.frameLength(messageLength);
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Passes the messages the filter accepts on to the sequencer, still framed. Consecutive accepted messages go as
+     * one batch, so a block that is accepted whole is passed on as it came.
+     *
+     * @return the number of messages rejected.
+     */
+    public static int filter(final DirectBuffer buffer, final int offset, final int length, final FrameFilter filter, final Sequencer sequencer) {
+        final int limit = offset + length;
+        int position = offset;
+        int acceptedFrom = offset;
+        int rejected = 0;
+
+        while (position + Frame.HEADER_LENGTH <= limit) {
+            final int messageLength = messageLength(buffer, position, limit);
+            final int frameLength = Frame.frameLength(messageLength);
+            if (!filter.accept(buffer, Frame.messageOffset(position), messageLength)) {
+                if (position > acceptedFrom) {
+                    sequencer.onCommandBatch(buffer, acceptedFrom, position - acceptedFrom);
+                }
+                acceptedFrom = position + frameLength;
+                rejected++;
+            }
+            position += frameLength;
+        }
+
+        final int acceptedTo = Math.min(position, limit);
+        if (acceptedTo > acceptedFrom) {
+            sequencer.onCommandBatch(buffer, acceptedFrom, acceptedTo - acceptedFrom);
+        }
+        return rejected;
+    }
+
+    private static int messageLength(final DirectBuffer buffer, final int position, final int limit) {
+        final int messageLength = buffer.getInt(position + Frame.LENGTH_OFFSET, ByteOrder.LITTLE_ENDIAN);
+        if (messageLength <= 0 || Frame.messageOffset(position) + messageLength > limit) {
+            throw new IllegalStateException(String.format("Malformed frame: message length=[%d] at offset=[%d] exceeds limit=[%d]", messageLength, position, limit));
+        }
+        return messageLength;
+    }
+}
@@ -0,0 +1,58 @@
+package codingblackfemales.sequencer.ingress;
+
+import codingblackfemales.sequencer.Sequencer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.MessageHandler;
+import org.agrona.concurrent.ringbuffer.ManyToOneRingBuffer;
+
+/**
+ * The consumer side of the ingress queue: drains the commands written by {@link SequencerIngress}es into the
+ * sequencer from a single thread, so the sequencer itself needs no locking.
+ */
+public class IngressDriver implements Agent {
+
+    public static final int DEFAULT_READ_LIMIT = 64;
+
+    private final ManyToOneRingBuffer ringBuffer;
+    private final Sequencer sequencer;
+    private final MessageHandler handler = this::onMessage;
+
+    public IngressDriver(final AtomicBuffer buffer, final Sequencer sequencer) {
+        this.ringBuffer = new ManyToOneRingBuffer(buffer);
+        this.sequencer = sequencer;
+    }
+
+    private void onMessage(final int msgTypeId, final MutableDirectBuffer buffer, final int offset, final int length) {
+        if (msgTypeId == SequencerIngress.BATCH_TYPE_ID) {
+            sequencer.onCommandBatch(buffer, offset, length);
+        } else {
+            sequencer.onCommand(buffer, offset, length);
+        }
+    }
+
+    /**
+     * Hands at most <code>limit</code> queued commands to the sequencer, returns how many it handed over.
+     */
+    public int poll(final int limit) {
+        return ringBuffer.read(handler, limit);
+    }
+
+    /**
+     * Number of bytes queued but not yet handed to the sequencer.
+     */
+    public int size() {
+        return ringBuffer.size();
+    }
+
+    @Override
+    public int doWork() {
+        return poll(DEFAULT_READ_LIMIT);
+    }
+
+    @Override
+    public String roleName() {
+        return "sequencer-ingress";
+    }
+}
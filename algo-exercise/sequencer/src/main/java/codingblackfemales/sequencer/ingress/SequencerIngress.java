@@ -0,0 +1,148 @@
+package codingblackfemales.sequencer.ingress;
+
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.clock.Clock;
+import codingblackfemales.sequencer.clock.SystemClock;
+import codingblackfemales.sequencer.frame.Frame;
+import messages.marketdata.MessageHeaderEncoder;
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.ManyToOneRingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBuffer;
+import org.agrona.concurrent.ringbuffer.RingBufferDescriptor;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The producer side of a many-to-one queue of commands in front of a sequencer. The
+ * {@link codingblackfemales.sequencer.DefaultSequencer} is not thread safe, so anything that submits commands from
+ * its own thread (gateways, the actioner, order channels) goes through one of these instead, and a single
+ * {@link IngressDriver} drains the queue into the sequencer.
+ *
+ * Any number of threads may call it concurrently. Each command claims its slot in the ring buffer, is copied in
+ * place and then committed, so nothing is allocated per message and the sequencer sees one total order.
+ *
+ * The ingress timestamp in each command's header is stamped as it is committed, so the time a command waits in the
+ * queue is part of the sequencing time the network reports.
+ *
+ * If the ring buffer stays full for longer than the timeout (e.g. the sequencer has stopped) the command is
+ * rejected with an {@link IllegalStateException} rather than blocking the caller forever.
+ */
+public class SequencerIngress implements Sequencer {
+
+    public static final int DEFAULT_CAPACITY = 1024 * 1024;
+    public static final long DEFAULT_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    public static final int MESSAGE_TYPE_ID = 1;
+    public static final int BATCH_TYPE_ID = 2;
+
+    private static final int INGRESS_TIMESTAMP_OFFSET = MessageHeaderEncoder.ingressTimestampEncodingOffset();
+    private static final int INGRESS_TIMESTAMP_LIMIT = INGRESS_TIMESTAMP_OFFSET + Long.BYTES;
+
+    private final RingBuffer ringBuffer;
+    private final long timeoutNanos;
+    private final Clock clock;
+
+    public SequencerIngress(final AtomicBuffer buffer) {
+        this(buffer, DEFAULT_TIMEOUT_NANOS);
+    }
+
+    public SequencerIngress(final AtomicBuffer buffer, final long timeoutNanos) {
+        this(buffer, timeoutNanos, SystemClock.INSTANCE);
+    }
+
+    public SequencerIngress(final AtomicBuffer buffer, final long timeoutNanos, final Clock clock) {
+        this.ringBuffer = new ManyToOneRingBuffer(buffer);
+        this.timeoutNanos = timeoutNanos;
+        this.clock = clock;
+    }
+
+    /**
+     * Allocates the off-heap buffer for a queue within one process, to share between a {@link SequencerIngress}
+     * and an {@link IngressDriver}.
+     */
+    public static AtomicBuffer allocate(final int capacity) {
+        if (!BitUtil.isPowerOfTwo(capacity)) {
+            throw new IllegalArgumentException(String.format("capacity=[%d] must be a power of two", capacity));
+        }
+        return new UnsafeBuffer(ByteBuffer.allocateDirect(capacity + RingBufferDescriptor.TRAILER_LENGTH));
+    }
+
+    public int maxMsgLength() {
+        return ringBuffer.maxMsgLength();
+    }
+
+    @Override
+    public void onCommand(final DirectBuffer buffer) {
+        onCommand(buffer, 0, buffer.capacity());
+    }
+
+    @Override
+    public void onCommand(final DirectBuffer buffer, final int offset, final int length) {
+        if (length > ringBuffer.maxMsgLength()) {
+            throw new IllegalArgumentException(String.format("Command too large for the ingress length=[%d] max=[%d]", length, ringBuffer.maxMsgLength()));
+        }
+        write(MESSAGE_TYPE_ID, buffer, offset, length);
+    }
+
+    @Override
+    public void onCommandBatch(final DirectBuffer buffer, final int offset, final int length) {
+        if (length > ringBuffer.maxMsgLength()) {
+            throw new IllegalArgumentException(String.format("Batch too large for the ingress length=[%d] max=[%d]", length, ringBuffer.maxMsgLength()));
+        }
+        write(BATCH_TYPE_ID, buffer, offset, length);
+    }
+
+    private void write(final int msgTypeId, final DirectBuffer buffer, final int offset, final int length) {
+        int index = ringBuffer.tryClaim(msgTypeId, length);
+        if (index < 0) {
+            final long deadline = System.nanoTime() + timeoutNanos;
+            while ((index = ringBuffer.tryClaim(msgTypeId, length)) < 0) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException(String.format("Sequencer ingress full for more than %dns, is the sequencer running?", timeoutNanos));
+                }
+                Thread.onSpinWait();
+            }
+        }
+
+        try {
+            final AtomicBuffer slot = ringBuffer.buffer();
+            slot.putBytes(index, buffer, offset, length);
+            final long ingressTimestamp = clock.epochNanos();
+            if (msgTypeId == BATCH_TYPE_ID) {
+                stampBatch(slot, index, length, ingressTimestamp);
+            } else {
+                stamp(slot, index, length, ingressTimestamp);
+            }
+        } catch (final RuntimeException e) {
+            ringBuffer.abort(index);
+            throw e;
+        }
+        ringBuffer.commit(index);
+    }
+
+    private static void stampBatch(final MutableDirectBuffer buffer, final int offset, final int length, final long ingressTimestamp) {
+        final int limit = offset + length;
+        int position = offset;
+        while (position + Frame.HEADER_LENGTH <= limit) {
+            final int messageLength = buffer.getInt(position + Frame.LENGTH_OFFSET, ByteOrder.LITTLE_ENDIAN);
+            final int messageOffset = Frame.messageOffset(position);
+            if (messageLength <= 0 || messageOffset + messageLength > limit) {
+                throw new IllegalArgumentException(String.format("Malformed frame: message length=[%d] at offset=[%d] exceeds limit=[%d]", messageLength, position - offset, length));
+            }
+            stamp(buffer, messageOffset, messageLength, ingressTimestamp);
+            position += Frame.frameLength(messageLength);
+        }
+    }
+
+    private static void stamp(final MutableDirectBuffer buffer, final int offset, final int length, final long ingressTimestamp) {
+        if (length >= INGRESS_TIMESTAMP_LIMIT) {
+            buffer.putLong(offset + INGRESS_TIMESTAMP_OFFSET, ingressTimestamp, ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package codingblackfemales.sequencer.ipc;
+
+import codingblackfemales.sequencer.ingress.SequencerIngress;
+import org.agrona.BitUtil;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.broadcast.BroadcastBufferDescriptor;
+import org.agrona.concurrent.ringbuffer.RingBufferDescriptor;
+
+import java.io.File;
+import java.nio.MappedByteBuffer;
+
+/**
+ * Memory-mapped files shared between the sequencer process and the processes that send it commands or consume
+ * its output. The sequencer creates both files, everyone else maps the existing ones.
+ *
+ * <ul>
+ *     <li><code>network.dat</code> - an Agrona broadcast buffer, one transmitter (the sequencer) and any number of
+ *     receivers. A receiver that falls behind is lapped rather than stalling the transmitter.</li>
+ *     <li><code>ingress.dat</code> - an Agrona many-to-one ring buffer of commands into the sequencer.</li>
+ * </ul>
+ */
+public final class IpcBuffers {
+
+    public static final String NETWORK_FILE = "network.dat";
+    public static final String INGRESS_FILE = "ingress.dat";
+
+    public static final int DEFAULT_CAPACITY = 16 * 1024 * 1024;
+
+    public static final int MESSAGE_TYPE_ID = SequencerIngress.MESSAGE_TYPE_ID;
+    public static final int BATCH_TYPE_ID = SequencerIngress.BATCH_TYPE_ID;
+
+    private IpcBuffers() {
+    }
+
+    public static File defaultDirectory() {
+        return new File(IoUtil.tmpDirName(), "cbf-sequencer");
+    }
+
+    public static UnsafeBuffer createBroadcastBuffer(final File file, final int capacity) {
+        return create(file, capacity, BroadcastBufferDescriptor.TRAILER_LENGTH);
+    }
+
+    public static UnsafeBuffer createRingBuffer(final File file, final int capacity) {
+        return create(file, capacity, RingBufferDescriptor.TRAILER_LENGTH);
+    }
+
+    public static UnsafeBuffer openExisting(final File file) {
+        final MappedByteBuffer mapped = IoUtil.mapExistingFile(file, file.getName());
+        return new UnsafeBuffer(mapped);
+    }
+
+    public static void close(final UnsafeBuffer buffer) {
+        if (buffer.byteBuffer() != null) {
+            IoUtil.unmap(buffer.byteBuffer());
+        }
+    }
+
+    private static UnsafeBuffer create(final File file, final int capacity, final int trailerLength) {
+        if (!BitUtil.isPowerOfTwo(capacity)) {
+            throw new IllegalArgumentException(String.format("capacity=[%d] must be a power of two", capacity));
+        }
+        IoUtil.ensureDirectoryExists(file.getParentFile(), file.getParent());
+        final MappedByteBuffer mapped = IoUtil.mapNewFile(file, capacity + trailerLength);
+        return new UnsafeBuffer(mapped);
+    }
+}
@@ -0,0 +1,32 @@
+package codingblackfemales.sequencer.ipc;
+
+import codingblackfemales.sequencer.consumer.LoggingConsumer;
+import org.agrona.concurrent.AgentRunner;
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+
+/**
+ * Runs a {@link LoggingConsumer} in its own process against a sequencer started with an {@link IpcNetwork}.
+ *
+ * <pre>
+ *   java codingblackfemales.sequencer.ipc.IpcLoggingConsumer [directory]
+ * </pre>
+ */
+public class IpcLoggingConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(IpcLoggingConsumer.class);
+
+    public static void main(String[] args) {
+        final File directory = args.length > 0 ? new File(args[0]) : IpcBuffers.defaultDirectory();
+
+        final IpcNetworkSubscriber subscriber = new IpcNetworkSubscriber(directory);
+        subscriber.addConsumer(new LoggingConsumer());
+
+        final AgentRunner runner = new AgentRunner(new BackoffIdleStrategy(), throwable -> logger.error("[IPC] Error in logging consumer", throwable), null, subscriber);
+        Runtime.getRuntime().addShutdownHook(new Thread(runner::close));
+        runner.run();
+    }
+}
@@ -0,0 +1,65 @@
+package codingblackfemales.sequencer.ipc;
+
+import codingblackfemales.sequencer.metrics.NetworkMetrics;
+import codingblackfemales.sequencer.net.Network;
+import messages.marketdata.MessageHeaderDecoder;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.broadcast.BroadcastTransmitter;
+
+import java.io.File;
+
+/**
+ * Sequencer side of the shared-memory network: every dispatched message is broadcast into a memory-mapped file
+ * that {@link IpcNetworkSubscriber}s in other processes poll. Transmitting never waits for receivers, so a
+ * subscriber that crashes or pauses cannot stall the sequencer or the other subscribers.
+ *
+ * Only the given length is copied, so callers should pass the encoded length rather than the buffer capacity. A
+ * message longer than {@link #maxMsgLength()} is rejected rather than cut short.
+ */
+public class IpcNetwork implements Network, AutoCloseable {
+
+    private final UnsafeBuffer buffer;
+    private final BroadcastTransmitter transmitter;
+    private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+    private final NetworkMetrics metrics;
+
+    public IpcNetwork(final File directory) {
+        this(directory, IpcBuffers.DEFAULT_CAPACITY);
+    }
+
+    public IpcNetwork(final File directory, final int capacity) {
+        this.buffer = IpcBuffers.createBroadcastBuffer(new File(directory, IpcBuffers.NETWORK_FILE), capacity);
+        this.transmitter = new BroadcastTransmitter(buffer);
+        this.metrics = new NetworkMetrics("ipc-" + directory.getName());
+    }
+
+    @Override
+    public void dispatch(final DirectBuffer buffer) {
+        dispatch(buffer, 0, buffer.capacity());
+    }
+
+    public int maxMsgLength() {
+        return transmitter.maxMsgLength();
+    }
+
+    @Override
+    public void dispatch(final DirectBuffer buffer, final int offset, final int length) {
+        if (length > transmitter.maxMsgLength()) {
+            throw new IllegalArgumentException(String.format("Message too large for the network length=[%d] max=[%d]", length, transmitter.maxMsgLength()));
+        }
+        header.wrap(buffer, offset);
+        metrics.onDispatch(header.sequencerNumber(), header.ingressTimestamp(), header.sequencerTimestamp());
+        transmitter.transmit(IpcBuffers.MESSAGE_TYPE_ID, buffer, offset, length);
+    }
+
+    @Override
+    public NetworkMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void close() {
+        IpcBuffers.close(buffer);
+    }
+}
@@ -0,0 +1,163 @@
+package codingblackfemales.sequencer.ipc;
+
+import codingblackfemales.sequencer.clock.Clock;
+import codingblackfemales.sequencer.clock.SystemClock;
+import codingblackfemales.sequencer.metrics.ConsumerMetrics;
+import codingblackfemales.sequencer.metrics.NetworkMetrics;
+import codingblackfemales.sequencer.net.Consumer;
+import codingblackfemales.sequencer.net.RoutingTable;
+import messages.marketdata.MessageHeaderDecoder;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.MessageHandler;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.broadcast.BroadcastReceiver;
+import org.agrona.concurrent.broadcast.CopyBroadcastReceiver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consumer side of the shared-memory network, polled from the consuming process's own thread (e.g. with an Agrona
+ * <code>AgentRunner</code>). Each poll that returns messages is delivered to the consumers as one batch.
+ *
+ * A subscriber that falls more than the buffer capacity behind is lapped: the skipped messages are lost, counted in
+ * {@link #getLappedCount()} and reading resumes from the latest message.
+ */
+public class IpcNetworkSubscriber implements Agent, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(IpcNetworkSubscriber.class);
+
+    public static final int DEFAULT_POLL_LIMIT = 64;
+
+    private final UnsafeBuffer buffer;
+    private final CopyBroadcastReceiver receiver;
+
+    private final List<Consumer> consumers = new ArrayList<>();
+    private final List<ConsumerMetrics> consumerMetrics = new ArrayList<>();
+    private final RoutingTable routing = new RoutingTable();
+
+    private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+    private final NetworkMetrics metrics;
+    private final Clock clock = SystemClock.INSTANCE;
+    private final MessageHandler handler = this::onMessage;
+
+    private boolean inBatch = false;
+    private long lappedCount = 0L;
+
+    public IpcNetworkSubscriber(final File directory) {
+        this.buffer = IpcBuffers.openExisting(new File(directory, IpcBuffers.NETWORK_FILE));
+        final BroadcastReceiver broadcastReceiver = new BroadcastReceiver(buffer);
+        this.receiver = new CopyBroadcastReceiver(broadcastReceiver, new UnsafeBuffer(ByteBuffer.allocateDirect(broadcastReceiver.capacity() / 8)));
+        this.metrics = new NetworkMetrics("ipc-subscriber-" + directory.getName());
+    }
+
+    public void addConsumer(final Consumer consumer) {
+        consumers.add(consumer);
+        consumerMetrics.add(metrics.register(consumer));
+        routing.add(consumer.getSubscription());
+    }
+
+    public NetworkMetrics getMetrics() {
+        return metrics;
+    }
+
+    public long getLappedCount() {
+        return lappedCount;
+    }
+
+    /**
+     * @return the number of messages delivered, at most <code>limit</code>.
+     */
+    public int poll(final int limit) {
+        int received = 0;
+        try {
+            while (received < limit) {
+                final int count = receive();
+                if (count == 0) {
+                    break;
+                }
+                received += count;
+            }
+        } finally {
+            if (inBatch) {
+                inBatch = false;
+                for (int i = 0; i < consumers.size(); i++) {
+                    consumers.get(i).onBatchEnd();
+                }
+            }
+        }
+        return received;
+    }
+
+    private int receive() {
+        try {
+            return receiver.receive(handler);
+        } catch (IllegalStateException e) {
+            lappedCount++;
+            logger.warn("[IPC] Subscriber lapped by the sequencer, messages were lost, lappedCount=" + lappedCount);
+            return 0;
+        }
+    }
+
+    private void onMessage(final int msgTypeId, final MutableDirectBuffer buffer, final int offset, final int length) {
+        if (!inBatch) {
+            inBatch = true;
+            for (int i = 0; i < consumers.size(); i++) {
+                consumers.get(i).onBatchStart();
+            }
+        }
+
+        header.wrap(buffer, offset);
+        final long sequenceNumber = header.sequencerNumber();
+        final long sequencerTimestamp = header.sequencerTimestamp();
+        metrics.onDispatch(sequenceNumber, header.ingressTimestamp(), sequencerTimestamp);
+
+        final int schemaId = header.schemaId();
+        final int templateId = header.templateId();
+        final int blockLength = header.blockLength();
+        final int version = header.version();
+        final int[] route = routing.route(schemaId, templateId);
+        for (int i = 0; i < route.length; i++) {
+            consumerMetrics.get(route[i]).onMessageRouted(sequenceNumber);
+        }
+        final long received = clock.epochNanos();
+        if (metrics.isConsumerTiming()) {
+            //each consumer starts when the one before it finishes
+            final long first = clock.nanoTime();
+            long start = first;
+            for (int i = 0; i < route.length; i++) {
+                final int index = route[i];
+                consumers.get(index).onMessage(buffer, offset, length, schemaId, templateId, blockLength, version);
+                final long end = clock.nanoTime();
+                consumerMetrics.get(index).onMessageProcessed(sequenceNumber, sequencerTimestamp, received + (start - first), end - start);
+                start = end;
+            }
+        } else {
+            for (int i = 0; i < route.length; i++) {
+                final int index = route[i];
+                consumers.get(index).onMessage(buffer, offset, length, schemaId, templateId, blockLength, version);
+                consumerMetrics.get(index).onMessageDelivered(sequenceNumber, sequencerTimestamp, received);
+            }
+        }
+    }
+
+    @Override
+    public int doWork() {
+        return poll(DEFAULT_POLL_LIMIT);
+    }
+
+    @Override
+    public String roleName() {
+        return "ipc-subscriber";
+    }
+
+    @Override
+    public void close() {
+        IpcBuffers.close(buffer);
+    }
+}
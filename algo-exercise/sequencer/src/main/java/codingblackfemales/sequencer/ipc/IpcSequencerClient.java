@@ -0,0 +1,37 @@
+package codingblackfemales.sequencer.ipc;
+
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.ingress.SequencerIngress;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.File;
+
+/**
+ * A {@link Sequencer} for processes other than the sequencer's own: commands are written into the shared ingress
+ * ring buffer and picked up by the {@link IpcSequencerDriver}. Any number of processes may write concurrently.
+ *
+ * If the ring buffer stays full for longer than the timeout (e.g. the sequencer process has died) the command is
+ * rejected with an {@link IllegalStateException} rather than blocking the caller forever.
+ */
+public class IpcSequencerClient extends SequencerIngress implements AutoCloseable {
+
+    private final UnsafeBuffer buffer;
+
+    public IpcSequencerClient(final File directory) {
+        this(directory, DEFAULT_TIMEOUT_NANOS);
+    }
+
+    public IpcSequencerClient(final File directory, final long timeoutNanos) {
+        this(IpcBuffers.openExisting(new File(directory, IpcBuffers.INGRESS_FILE)), timeoutNanos);
+    }
+
+    private IpcSequencerClient(final UnsafeBuffer buffer, final long timeoutNanos) {
+        super(buffer, timeoutNanos);
+        this.buffer = buffer;
+    }
+
+    @Override
+    public void close() {
+        IpcBuffers.close(buffer);
+    }
+}
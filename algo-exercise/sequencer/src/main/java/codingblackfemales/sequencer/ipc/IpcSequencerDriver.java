@@ -0,0 +1,39 @@
+package codingblackfemales.sequencer.ipc;
+
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.ingress.IngressDriver;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.File;
+
+/**
+ * Runs in the sequencer process: creates the ingress ring buffer and drains the commands written by
+ * {@link IpcSequencerClient}s into the sequencer from a single thread, so the sequencer itself needs no locking.
+ */
+public class IpcSequencerDriver extends IngressDriver implements AutoCloseable {
+
+    private final UnsafeBuffer buffer;
+
+    public IpcSequencerDriver(final File directory, final Sequencer sequencer) {
+        this(directory, IpcBuffers.DEFAULT_CAPACITY, sequencer);
+    }
+
+    public IpcSequencerDriver(final File directory, final int capacity, final Sequencer sequencer) {
+        this(IpcBuffers.createRingBuffer(new File(directory, IpcBuffers.INGRESS_FILE), capacity), sequencer);
+    }
+
+    private IpcSequencerDriver(final UnsafeBuffer buffer, final Sequencer sequencer) {
+        super(buffer, sequencer);
+        this.buffer = buffer;
+    }
+
+    @Override
+    public String roleName() {
+        return "ipc-sequencer";
+    }
+
+    @Override
+    public void close() {
+        IpcBuffers.close(buffer);
+    }
+}
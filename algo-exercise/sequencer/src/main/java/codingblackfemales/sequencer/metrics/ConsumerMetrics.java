@@ -0,0 +1,152 @@
+package codingblackfemales.sequencer.metrics;
+
+/**
+ * Throughput, processing time and lag for one consumer on a network.
+ *
+ * Lag is measured in sequence numbers: the last sequence number routed to this consumer, minus the last one it
+ * finished processing. Only messages the consumer subscribes to count, so a consumer that filters out most of the
+ * stream isn't reported as falling ever further behind. Latency is the time from the sequencer dispatching a
+ * message, taken from its header, to this consumer starting on it, so it compares epoch times and may cross processes;
+ * processing time is measured in-process with the monotonic clock, and only while
+ * {@link NetworkMetrics#isConsumerTiming() consumer timing} is on. Queue depth is only meaningful for networks that
+ * buffer messages ahead of the consumer; synchronous networks leave it at zero.
+ */
+public class ConsumerMetrics implements ConsumerMetricsMXBean {
+
+    private final String name;
+    private final LatencyHistogram processingTime = new LatencyHistogram();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private volatile long lastRoutedSequenceNumber = 0L;
+    private volatile long lastSequenceNumber = 0L;
+    private volatile long messageCount = 0L;
+    private volatile long queueDepth = 0L;
+
+    ConsumerMetrics(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Called when a message is routed to the consumer, before it is processed.
+     */
+    public void onMessageRouted(final long sequenceNumber) {
+        if (sequenceNumber > lastRoutedSequenceNumber) {
+            lastRoutedSequenceNumber = sequenceNumber;
+        }
+    }
+
+    public void onMessageProcessed(final long sequenceNumber, final long processingNanos) {
+        processingTime.record(processingNanos);
+        onMessageProcessed(sequenceNumber);
+    }
+
+    private void onMessageProcessed(final long sequenceNumber) {
+        if (sequenceNumber > lastSequenceNumber) {
+            lastSequenceNumber = sequenceNumber;
+        }
+        messageCount = messageCount + 1;
+    }
+
+    /**
+     * Called instead of {@link #onMessageProcessed(long, long, long, long)} when the consumer wasn't timed.
+     *
+     * @param receivedTimestamp epoch time the message was received, shared by every consumer it was routed to.
+     */
+    public void onMessageDelivered(final long sequenceNumber, final long sequencerTimestamp, final long receivedTimestamp) {
+        if (sequencerTimestamp != 0L) {
+            latency.record(receivedTimestamp - sequencerTimestamp);
+        }
+        onMessageProcessed(sequenceNumber);
+    }
+
+    /**
+     * @param sequencerTimestamp from the message header, zero if the message didn't come through a sequencer.
+     * @param receivedTimestamp epoch time this consumer started on the message.
+     * @param processingNanos monotonic time this consumer spent on the message.
+     */
+    public void onMessageProcessed(final long sequenceNumber, final long sequencerTimestamp, final long receivedTimestamp, final long processingNanos) {
+        if (sequencerTimestamp != 0L) {
+            latency.record(receivedTimestamp - sequencerTimestamp);
+        }
+        onMessageProcessed(sequenceNumber, processingNanos);
+    }
+
+    public void setQueueDepth(final long queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public LatencyHistogram getProcessingTime() {
+        return processingTime;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    @Override
+    public long getMeanProcessingNanos() {
+        return processingTime.getMeanNanos();
+    }
+
+    @Override
+    public long getP50ProcessingNanos() {
+        return processingTime.getPercentileNanos(50);
+    }
+
+    @Override
+    public long getP99ProcessingNanos() {
+        return processingTime.getPercentileNanos(99);
+    }
+
+    @Override
+    public long getMaxProcessingNanos() {
+        return processingTime.getMaxNanos();
+    }
+
+    @Override
+    public long getMeanLatencyNanos() {
+        return latency.getMeanNanos();
+    }
+
+    @Override
+    public long getP99LatencyNanos() {
+        return latency.getPercentileNanos(99);
+    }
+
+    @Override
+    public long getNegativeLatencyCount() {
+        return latency.getNegativeCount();
+    }
+
+    @Override
+    public long getQueueDepth() {
+        return queueDepth;
+    }
+
+    @Override
+    public long getLastSequenceNumber() {
+        return lastSequenceNumber;
+    }
+
+    @Override
+    public long getSequenceLag() {
+        return Math.max(0L, lastRoutedSequenceNumber - lastSequenceNumber);
+    }
+
+    @Override
+    public String toString() {
+        return "ConsumerMetrics(name=" + name + ",messages=" + getMessageCount() + ",meanNanos=" + getMeanProcessingNanos()
+                + ",p99Nanos=" + getP99ProcessingNanos() + ",maxNanos=" + getMaxProcessingNanos()
+                + ",p99LatencyNanos=" + getP99LatencyNanos() + ",queueDepth=" + queueDepth + ",lag=" + getSequenceLag() + ")";
+    }
+}
@@ -0,0 +1,27 @@
+package codingblackfemales.sequencer.metrics;
+
+public interface ConsumerMetricsMXBean {
+    String getName();
+
+    long getMessageCount();
+
+    long getMeanProcessingNanos();
+
+    long getP50ProcessingNanos();
+
+    long getP99ProcessingNanos();
+
+    long getMaxProcessingNanos();
+
+    long getMeanLatencyNanos();
+
+    long getP99LatencyNanos();
+
+    long getNegativeLatencyCount();
+
+    long getQueueDepth();
+
+    long getLastSequenceNumber();
+
+    long getSequenceLag();
+}
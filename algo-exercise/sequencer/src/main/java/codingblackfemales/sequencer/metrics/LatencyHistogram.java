@@ -0,0 +1,98 @@
+package codingblackfemales.sequencer.metrics;
+
+/**
+ * Histogram of nanosecond durations bucketed by powers of two. Bucket <code>i</code> holds values in
+ * [2^(i-1), 2^i), so recording is a leading-zero count and an array increment with no allocation.
+ *
+ * There is a single writer (the dispatching thread); readers on other threads, such as JMX or the
+ * periodic reporter, may see a slightly stale view.
+ *
+ * Durations measured between two clocks, e.g. across processes, can come out negative when the clocks disagree.
+ * Those are counted on their own rather than recorded, so they neither hide in the lowest bucket nor skew the mean.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final long[] counts = new long[BUCKETS];
+
+    private volatile long totalCount = 0L;
+    private volatile long totalNanos = 0L;
+    private volatile long maxNanos = 0L;
+    private volatile long negativeCount = 0L;
+
+    public void record(final long nanos) {
+        if (nanos < 0L) {
+            negativeCount = negativeCount + 1;
+            return;
+        }
+        counts[bucketFor(nanos)]++;
+        totalNanos = totalNanos + nanos;
+        if (nanos > maxNanos) {
+            maxNanos = nanos;
+        }
+        totalCount = totalCount + 1;
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return how many negative durations were seen, these are not included in {@link #getCount()}.
+     */
+    public long getNegativeCount() {
+        return negativeCount;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public long getMeanNanos() {
+        final long count = totalCount;
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    /**
+     * @return the upper bound of the bucket containing the given percentile (0-100), never more than the max seen.
+     */
+    public long getPercentileNanos(final double percentile) {
+        final long count = totalCount;
+        if (count == 0) {
+            return 0;
+        }
+
+        final long target = Math.max(1L, (long) Math.ceil(count * (percentile / 100.0)));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(upperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = 0;
+        }
+        totalCount = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+        negativeCount = 0;
+    }
+
+    static int bucketFor(final long value) {
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+    }
+
+    static long upperBound(final int bucket) {
+        return bucket == 0 ? 0 : (1L << bucket) - 1;
+    }
+}
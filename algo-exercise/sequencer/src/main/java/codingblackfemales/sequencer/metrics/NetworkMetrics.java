@@ -0,0 +1,147 @@
+package codingblackfemales.sequencer.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static codingblackfemales.sequencer.util.MessageUtil.padLeft;
+import static codingblackfemales.sequencer.util.MessageUtil.padRight;
+
+/**
+ * The metrics surface of a network: one {@link ConsumerMetrics} per consumer plus the last sequence
+ * number dispatched and the time messages spent in the sequencer between the ingress and sequencer
+ * timestamps in their headers.
+ *
+ * Timing each consumer separately costs a clock read per consumer per message on the dispatch path, so it is off
+ * unless {@link #setConsumerTiming(boolean)} turns it on. Without it each message is stamped once as it arrives and
+ * every consumer's latency is measured from that.
+ */
+public class NetworkMetrics {
+
+    public static final String JMX_DOMAIN = "codingblackfemales.sequencer";
+
+    private final String networkName;
+    private final List<ConsumerMetrics> consumers = new ArrayList<>();
+    private final List<ObjectName> registeredNames = new ArrayList<>();
+    private final LatencyHistogram sequencingTime = new LatencyHistogram();
+
+    private volatile long lastDispatchedSequenceNumber = 0L;
+    private volatile long dispatchedCount = 0L;
+    private volatile boolean consumerTiming = false;
+
+    public NetworkMetrics(final String networkName) {
+        this.networkName = networkName;
+    }
+
+    public String getNetworkName() {
+        return networkName;
+    }
+
+    public NetworkMetrics setConsumerTiming(final boolean consumerTiming) {
+        this.consumerTiming = consumerTiming;
+        return this;
+    }
+
+    public boolean isConsumerTiming() {
+        return consumerTiming;
+    }
+
+    public ConsumerMetrics register(final Object consumer) {
+        final String simpleName = consumer.getClass().getSimpleName();
+        final String name = (simpleName.isEmpty() ? consumer.getClass().getName() : simpleName) + "-" + consumers.size();
+        final ConsumerMetrics metrics = new ConsumerMetrics(name);
+        consumers.add(metrics);
+        return metrics;
+    }
+
+    public void onDispatch(final long sequenceNumber) {
+        if (sequenceNumber > lastDispatchedSequenceNumber) {
+            lastDispatchedSequenceNumber = sequenceNumber;
+        }
+        dispatchedCount = dispatchedCount + 1;
+    }
+
+    public void onDispatch(final long sequenceNumber, final long ingressTimestamp, final long sequencerTimestamp) {
+        if (ingressTimestamp != 0L && sequencerTimestamp != 0L) {
+            sequencingTime.record(sequencerTimestamp - ingressTimestamp);
+        }
+        onDispatch(sequenceNumber);
+    }
+
+    public LatencyHistogram getSequencingTime() {
+        return sequencingTime;
+    }
+
+    public long getLastDispatchedSequenceNumber() {
+        return lastDispatchedSequenceNumber;
+    }
+
+    public long getDispatchedCount() {
+        return dispatchedCount;
+    }
+
+    public List<ConsumerMetrics> getConsumers() {
+        return Collections.unmodifiableList(consumers);
+    }
+
+    public synchronized void registerMBeans() {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ConsumerMetrics consumer : consumers) {
+            try {
+                final ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=Network,network=" + ObjectName.quote(networkName)
+                        + ",consumer=" + ObjectName.quote(consumer.getName()));
+                if (!server.isRegistered(objectName)) {
+                    server.registerMBean(consumer, objectName);
+                    registeredNames.add(objectName);
+                }
+            } catch (JMException e) {
+                throw new RuntimeException(String.format("Failed to register metrics for network=[%s] consumer=[%s]", networkName, consumer.getName()), e);
+            }
+        }
+    }
+
+    public synchronized void unregisterMBeans() {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName objectName : registeredNames) {
+            try {
+                if (server.isRegistered(objectName)) {
+                    server.unregisterMBean(objectName);
+                }
+            } catch (JMException e) {
+                throw new RuntimeException(String.format("Failed to unregister metrics objectName=[%s]", objectName), e);
+            }
+        }
+        registeredNames.clear();
+    }
+
+    /**
+     * @return a fixed-width text table of every consumer, slowest (by p99) easy to spot by eye.
+     */
+    public String dump() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("Network[").append(networkName).append("] dispatched=").append(dispatchedCount)
+                .append(" lastSequence=").append(lastDispatchedSequenceNumber)
+                .append(" sequencingP99(ns)=").append(sequencingTime.getPercentileNanos(99))
+                .append(" sequencingNegative=").append(sequencingTime.getNegativeCount()).append("\n");
+        builder.append(padRight("consumer", 40)).append(padLeft("messages", 12)).append(padLeft("mean(ns)", 12))
+                .append(padLeft("p50(ns)", 12)).append(padLeft("p99(ns)", 12)).append(padLeft("max(ns)", 12))
+                .append(padLeft("p99lat(ns)", 12)).append(padLeft("queue", 8)).append(padLeft("lag", 8)).append("\n");
+        for (ConsumerMetrics consumer : consumers) {
+            builder.append(padRight(consumer.getName(), 40))
+                    .append(padLeft(String.valueOf(consumer.getMessageCount()), 12))
+                    .append(padLeft(String.valueOf(consumer.getMeanProcessingNanos()), 12))
+                    .append(padLeft(String.valueOf(consumer.getP50ProcessingNanos()), 12))
+                    .append(padLeft(String.valueOf(consumer.getP99ProcessingNanos()), 12))
+                    .append(padLeft(String.valueOf(consumer.getMaxProcessingNanos()), 12))
+                    .append(padLeft(String.valueOf(consumer.getP99LatencyNanos()), 12))
+                    .append(padLeft(String.valueOf(consumer.getQueueDepth()), 8))
+                    .append(padLeft(String.valueOf(consumer.getSequenceLag()), 8))
+                    .append("\n");
+        }
+        return builder.toString();
+    }
+}
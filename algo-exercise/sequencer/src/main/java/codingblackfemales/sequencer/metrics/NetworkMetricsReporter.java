@@ -0,0 +1,42 @@
+package codingblackfemales.sequencer.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs a {@link NetworkMetrics#dump()} on a fixed period from a background daemon thread.
+ */
+public class NetworkMetricsReporter implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(NetworkMetricsReporter.class);
+
+    private final NetworkMetrics metrics;
+    private final ScheduledExecutorService executor;
+
+    public NetworkMetricsReporter(final NetworkMetrics metrics) {
+        this.metrics = metrics;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "metrics-" + metrics.getNetworkName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public NetworkMetricsReporter start(final long period, final TimeUnit unit) {
+        executor.scheduleAtFixedRate(this::report, period, period, unit);
+        return this;
+    }
+
+    public void report() {
+        logger.info("[METRICS] \n" + metrics.dump());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
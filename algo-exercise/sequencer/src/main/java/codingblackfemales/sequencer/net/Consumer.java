@@ -1,7 +1,53 @@
 package codingblackfemales.sequencer.net;
 
+import codingblackfemales.sequencer.util.BufferViews;
 import org.agrona.DirectBuffer;
 
 public interface Consumer {
     public void onMessage(final DirectBuffer buffer);
+
+    /**
+     * Receives a message that starts at <code>offset</code>, e.g. one frame of a larger buffer. Consumers that decode
+     * the message should override this to wrap their decoders at the offset instead of taking a view. The default view
+     * is reused, so consumers that keep the buffer past the call must copy it.
+     */
+    public default void onMessage(final DirectBuffer buffer, final int offset, final int length) {
+        if (offset == 0) {
+            onMessage(buffer);
+            return;
+        }
+        final BufferViews views = BufferViews.get();
+        try {
+            onMessage(views.acquire(buffer, offset, length));
+        } finally {
+            views.release();
+        }
+    }
+
+    /**
+     * Receives a message whose header the network has already decoded to route it, so consumers that dispatch on
+     * the template needn't decode it again. <code>offset</code> is still the start of the header.
+     */
+    public default void onMessage(final DirectBuffer buffer, final int offset, final int length,
+                                  final int schemaId, final int templateId, final int actingBlockLength, final int actingVersion) {
+        onMessage(buffer, offset, length);
+    }
+
+    /**
+     * Called before the first message of a batch, consumers that can defer work until the batch is complete
+     * should do so in {@link #onBatchEnd()}.
+     */
+    public default void onBatchStart() {
+    }
+
+    public default void onBatchEnd() {
+    }
+
+    /**
+     * The messages this consumer wants, read once when it joins a network. Consumers that only handle some
+     * templates should narrow it so the network doesn't call them for the rest.
+     */
+    public default Subscription getSubscription() {
+        return Subscription.ALL;
+    }
 }
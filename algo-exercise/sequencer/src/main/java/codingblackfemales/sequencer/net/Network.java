@@ -1,7 +1,30 @@
 package codingblackfemales.sequencer.net;
 
+import codingblackfemales.sequencer.metrics.NetworkMetrics;
+import codingblackfemales.sequencer.util.BufferViews;
 import org.agrona.DirectBuffer;
 
 public interface Network {
     public void dispatch(final DirectBuffer buffer);
+
+    public default void dispatch(final DirectBuffer buffer, final int offset, final int length) {
+        if (offset == 0) {
+            dispatch(buffer);
+            return;
+        }
+        final BufferViews views = BufferViews.get();
+        try {
+            dispatch(views.acquire(buffer, offset, length));
+        } finally {
+            views.release();
+        }
+    }
+
+    public default void dispatchBatchStart() {
+    }
+
+    public default void dispatchBatchEnd() {
+    }
+
+    public NetworkMetrics getMetrics();
 }
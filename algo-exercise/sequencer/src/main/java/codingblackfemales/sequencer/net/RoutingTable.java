@@ -0,0 +1,69 @@
+package codingblackfemales.sequencer.net;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Which of a network's consumers each message goes to, by the schema and template id in its header. The route
+ * for an id pair is worked out from the consumers' {@link Subscription}s the first time it is seen and cached, so
+ * after that routing a message is two array lookups. Routes keep the order the consumers were added in.
+ *
+ * Adding a consumer clears the cache; consumers are expected to join before messages flow.
+ */
+public class RoutingTable {
+
+    private static final int[] NO_ROUTE = new int[0];
+
+    private final List<Subscription> subscriptions = new ArrayList<>();
+
+    //[schemaId][templateId], indexes of the consumers to deliver to
+    private int[][][] routes = new int[0][][];
+
+    /**
+     * @return the index of the consumer, the order routes list it in.
+     */
+    public int add(final Subscription subscription) {
+        subscriptions.add(subscription);
+        routes = new int[0][][];
+        return subscriptions.size() - 1;
+    }
+
+    public int size() {
+        return subscriptions.size();
+    }
+
+    public int[] route(final int schemaId, final int templateId) {
+        if (schemaId < 0 || templateId < 0) {
+            return NO_ROUTE;
+        }
+        if (schemaId < routes.length) {
+            final int[][] schema = routes[schemaId];
+            if (schema != null && templateId < schema.length && schema[templateId] != null) {
+                return schema[templateId];
+            }
+        }
+        return computeRoute(schemaId, templateId);
+    }
+
+    private int[] computeRoute(final int schemaId, final int templateId) {
+        int[] route = new int[subscriptions.size()];
+        int count = 0;
+        for (int i = 0; i < subscriptions.size(); i++) {
+            if (subscriptions.get(i).matches(schemaId, templateId)) {
+                route[count++] = i;
+            }
+        }
+        route = count == 0 ? NO_ROUTE : Arrays.copyOf(route, count);
+
+        if (schemaId >= routes.length) {
+            routes = Arrays.copyOf(routes, schemaId + 1);
+        }
+        int[][] schema = routes[schemaId];
+        if (schema == null || templateId >= schema.length) {
+            schema = routes[schemaId] = schema == null ? new int[templateId + 1][] : Arrays.copyOf(schema, templateId + 1);
+        }
+        schema[templateId] = route;
+        return route;
+    }
+}
@@ -0,0 +1,94 @@
+package codingblackfemales.sequencer.net;
+
+import java.util.Arrays;
+
+/**
+ * The messages a {@link Consumer} wants from a network, by schema and template id. Networks only deliver matching
+ * messages, so a consumer that handles a few templates isn't called for the rest. Immutable.
+ */
+public final class Subscription {
+
+    public static final Subscription ALL = new Subscription(true, new boolean[0][]);
+    public static final Subscription NONE = new Subscription(false, new boolean[0][]);
+
+    private final boolean all;
+    //[schemaId][templateId]
+    private final boolean[][] templates;
+
+    private Subscription(final boolean all, final boolean[][] templates) {
+        this.all = all;
+        this.templates = templates;
+    }
+
+    public static Subscription of(final int schemaId, final int... templateIds) {
+        return NONE.and(schemaId, templateIds);
+    }
+
+    public Subscription and(final int schemaId, final int... templateIds) {
+        if (all) {
+            return this;
+        }
+        if (schemaId < 0) {
+            throw new IllegalArgumentException(String.format("Invalid schemaId=[%s]", schemaId));
+        }
+        final boolean[][] combined = Arrays.copyOf(templates, Math.max(templates.length, schemaId + 1));
+        boolean[] schema = combined[schemaId] == null ? new boolean[0] : combined[schemaId];
+        for (int templateId : templateIds) {
+            if (templateId < 0) {
+                throw new IllegalArgumentException(String.format("Invalid templateId=[%s] schemaId=[%s]", templateId, schemaId));
+            }
+            if (templateId >= schema.length) {
+                schema = Arrays.copyOf(schema, templateId + 1);
+            }
+            schema[templateId] = true;
+        }
+        combined[schemaId] = schema;
+        return new Subscription(false, combined);
+    }
+
+    public Subscription and(final Subscription other) {
+        if (all || other.all) {
+            return ALL;
+        }
+        Subscription combined = this;
+        for (int schemaId = 0; schemaId < other.templates.length; schemaId++) {
+            final boolean[] schema = other.templates[schemaId];
+            for (int templateId = 0; schema != null && templateId < schema.length; templateId++) {
+                if (schema[templateId]) {
+                    combined = combined.and(schemaId, templateId);
+                }
+            }
+        }
+        return combined;
+    }
+
+    public boolean matches(final int schemaId, final int templateId) {
+        if (all) {
+            return true;
+        }
+        if (schemaId < 0 || schemaId >= templates.length || templates[schemaId] == null) {
+            return false;
+        }
+        final boolean[] schema = templates[schemaId];
+        return templateId >= 0 && templateId < schema.length && schema[templateId];
+    }
+
+    @Override
+    public String toString() {
+        if (all) {
+            return "Subscription(ALL)";
+        }
+        final StringBuilder builder = new StringBuilder("Subscription(");
+        for (int schemaId = 0; schemaId < templates.length; schemaId++) {
+            for (int templateId = 0; templates[schemaId] != null && templateId < templates[schemaId].length; templateId++) {
+                if (templates[schemaId][templateId]) {
+                    builder.append(schemaId).append('/').append(templateId).append(',');
+                }
+            }
+        }
+        if (builder.charAt(builder.length() - 1) == ',') {
+            builder.setLength(builder.length() - 1);
+        }
+        return builder.append(')').toString();
+    }
+}
@@ -1,23 +1,107 @@
 package codingblackfemales.sequencer.net;
 
+import codingblackfemales.sequencer.clock.Clock;
+import codingblackfemales.sequencer.clock.SystemClock;
+import codingblackfemales.sequencer.metrics.ConsumerMetrics;
+import codingblackfemales.sequencer.metrics.NetworkMetrics;
+import messages.marketdata.MessageHeaderDecoder;
 import org.agrona.DirectBuffer;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Dispatches synchronously on the caller's thread. Each message goes only to the consumers whose
+ * {@link Subscription} matches it, batch boundaries go to every consumer.
+ */
 public class TestNetwork implements Network{
 
-    private final List<Consumer> consumers = new LinkedList<>();
+    private final List<Consumer> consumers = new ArrayList<>();
+    private final List<ConsumerMetrics> consumerMetrics = new ArrayList<>();
+    private final RoutingTable routing = new RoutingTable();
+
+    private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+    private final NetworkMetrics metrics;
+    private final Clock clock;
+
+    public TestNetwork() {
+        this("test");
+    }
+
+    public TestNetwork(final String name) {
+        this(name, SystemClock.INSTANCE);
+    }
+
+    public TestNetwork(final String name, final Clock clock) {
+        this.metrics = new NetworkMetrics(name);
+        this.clock = clock;
+    }
 
     @Override
     public void dispatch(DirectBuffer buffer){
-        for (Consumer consumer: consumers) {
-            consumer.onMessage(buffer);
+        dispatch(buffer, 0, buffer.capacity());
+    }
+
+    @Override
+    public void dispatch(final DirectBuffer buffer, final int offset, final int length){
+        header.wrap(buffer, offset);
+        final long sequenceNumber = header.sequencerNumber();
+        final long sequencerTimestamp = header.sequencerTimestamp();
+
+        metrics.onDispatch(sequenceNumber, header.ingressTimestamp(), sequencerTimestamp);
+
+        final int schemaId = header.schemaId();
+        final int templateId = header.templateId();
+        final int blockLength = header.blockLength();
+        final int version = header.version();
+        final int[] route = routing.route(schemaId, templateId);
+        for (int i = 0; i < route.length; i++) {
+            consumerMetrics.get(route[i]).onMessageRouted(sequenceNumber);
+        }
+        final long received = clock.epochNanos();
+        if (metrics.isConsumerTiming()) {
+            //each consumer starts when the one before it finishes
+            final long first = clock.nanoTime();
+            long start = first;
+            for (int i = 0; i < route.length; i++) {
+                final int index = route[i];
+                consumers.get(index).onMessage(buffer, offset, length, schemaId, templateId, blockLength, version);
+                final long end = clock.nanoTime();
+                consumerMetrics.get(index).onMessageProcessed(sequenceNumber, sequencerTimestamp, received + (start - first), end - start);
+                start = end;
+            }
+        } else {
+            for (int i = 0; i < route.length; i++) {
+                final int index = route[i];
+                consumers.get(index).onMessage(buffer, offset, length, schemaId, templateId, blockLength, version);
+                consumerMetrics.get(index).onMessageDelivered(sequenceNumber, sequencerTimestamp, received);
+            }
+        }
+    }
+
+    @Override
+    public void dispatchBatchStart() {
+        for (int i = 0; i < consumers.size(); i++) {
+            consumers.get(i).onBatchStart();
+        }
+    }
+
+    @Override
+    public void dispatchBatchEnd() {
+        for (int i = 0; i < consumers.size(); i++) {
+            consumers.get(i).onBatchEnd();
         }
     }
 
     public void addConsumer(Consumer consumer){
         consumers.add(consumer);
+        consumerMetrics.add(metrics.register(consumer));
+        routing.add(consumer.getSubscription());
+    }
+
+    @Override
+    public NetworkMetrics getMetrics() {
+        return metrics;
     }
 
 }
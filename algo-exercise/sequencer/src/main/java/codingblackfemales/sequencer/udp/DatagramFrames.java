@@ -0,0 +1,72 @@
+package codingblackfemales.sequencer.udp;
+
+import codingblackfemales.sequencer.frame.FrameAppender;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Packs framed messages into a datagram of at most <code>mtu</code> bytes, sending it when the next message does
+ * not fit or when flushed. Every datagram on the wire, multicast or retransmit, is a block of frames, optionally
+ * preceded by a fixed length header that is repeated in each datagram.
+ */
+class DatagramFrames {
+
+    private final ByteBuffer byteBuffer;
+    private final UnsafeBuffer header;
+    private final FrameAppender appender;
+
+    DatagramFrames(final int mtu) {
+        this(mtu, 0);
+    }
+
+    DatagramFrames(final int mtu, final int headerLength) {
+        this.byteBuffer = ByteBuffer.allocateDirect(mtu);
+        this.header = new UnsafeBuffer(byteBuffer, 0, headerLength);
+        this.appender = new FrameAppender(new UnsafeBuffer(byteBuffer, headerLength, mtu - headerLength));
+    }
+
+    /**
+     * @return the header sent in front of the frames of every datagram until it is changed.
+     */
+    MutableDirectBuffer header() {
+        return header;
+    }
+
+    void append(final DatagramChannel channel, final SocketAddress destination, final DirectBuffer buffer, final int offset, final int length) {
+        if (!appender.hasCapacityFor(length)) {
+            flush(channel, destination);
+            if (!appender.hasCapacityFor(length)) {
+                throw new IllegalArgumentException(String.format("Message length=[%d] does not fit in a datagram of mtu=[%d]", length, byteBuffer.capacity()));
+            }
+        }
+        appender.append(buffer, offset, length);
+    }
+
+    void flush(final DatagramChannel channel, final SocketAddress destination) {
+        if (appender.position() == 0) {
+            return;
+        }
+        send(channel, destination);
+    }
+
+    /**
+     * Sends the datagram even when it holds no frames, for a header that means something on its own.
+     */
+    void send(final DatagramChannel channel, final SocketAddress destination) {
+        byteBuffer.clear().limit(header.capacity() + appender.position());
+        try {
+            channel.send(byteBuffer, destination);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appender.reset();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package codingblackfemales.sequencer.udp;
+
+import codingblackfemales.sequencer.metrics.NetworkMetrics;
+import codingblackfemales.sequencer.net.Network;
+import messages.marketdata.MessageHeaderDecoder;
+import org.agrona.DirectBuffer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Sends sequenced messages to a UDP multicast group. Messages dispatched within a batch are packed into as few
+ * datagrams as the MTU allows, otherwise each message is sent in its own datagram.
+ *
+ * UDP can drop, so wrap this in a {@link SequencerJournal} and run a {@link RetransmitService} next to the
+ * sequencer for {@link MulticastSubscriber}s to recover gaps from.
+ */
+public class MulticastNetwork implements Network, AutoCloseable {
+
+    public static final int DEFAULT_MTU = 1408;
+
+    private final DatagramChannel channel;
+    private final InetSocketAddress group;
+    private final DatagramFrames datagram;
+    private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+    private final NetworkMetrics metrics;
+
+    private int batchDepth = 0;
+
+    public MulticastNetwork(final InetSocketAddress group, final NetworkInterface networkInterface) {
+        this(group, networkInterface, DEFAULT_MTU);
+    }
+
+    public MulticastNetwork(final InetSocketAddress group, final NetworkInterface networkInterface, final int mtu) {
+        try {
+            this.channel = DatagramChannel.open(StandardProtocolFamily.INET);
+            channel.setOption(StandardSocketOptions.IP_MULTICAST_IF, networkInterface);
+            channel.setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.group = group;
+        this.datagram = new DatagramFrames(mtu);
+        this.metrics = new NetworkMetrics("multicast-" + group);
+    }
+
+    @Override
+    public void dispatch(final DirectBuffer buffer) {
+        dispatch(buffer, 0, buffer.capacity());
+    }
+
+    @Override
+    public void dispatch(final DirectBuffer buffer, final int offset, final int length) {
+        header.wrap(buffer, offset);
+        metrics.onDispatch(header.sequencerNumber(), header.ingressTimestamp(), header.sequencerTimestamp());
+
+        datagram.append(channel, group, buffer, offset, length);
+        if (batchDepth == 0) {
+            datagram.flush(channel, group);
+        }
+    }
+
+    @Override
+    public void dispatchBatchStart() {
+        batchDepth++;
+    }
+
+    @Override
+    public void dispatchBatchEnd() {
+        if (batchDepth > 0 && --batchDepth == 0) {
+            datagram.flush(channel, group);
+        }
+    }
+
+    @Override
+    public NetworkMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
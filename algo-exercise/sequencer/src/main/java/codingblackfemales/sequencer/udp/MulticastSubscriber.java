@@ -0,0 +1,254 @@
+package codingblackfemales.sequencer.udp;
+
+import codingblackfemales.sequencer.frame.FrameHandler;
+import codingblackfemales.sequencer.frame.FrameReader;
+import codingblackfemales.sequencer.clock.Clock;
+import codingblackfemales.sequencer.clock.SystemClock;
+import codingblackfemales.sequencer.metrics.ConsumerMetrics;
+import codingblackfemales.sequencer.metrics.NetworkMetrics;
+import codingblackfemales.sequencer.net.Consumer;
+import codingblackfemales.sequencer.net.RoutingTable;
+import messages.marketdata.MessageHeaderDecoder;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.Agent;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receives sequenced messages from a {@link MulticastNetwork} and delivers them to its consumers strictly in
+ * sequence order, one batch per datagram.
+ *
+ * When a sequence number is skipped, messages after it are dropped and the missing range is requested from the
+ * {@link RetransmitService} over unicast, retrying at an interval until it is filled. Every reply datagram carries
+ * the oldest sequence number the service still holds; if that is later than the one expected, the subscriber skips
+ * ahead to it and counts the difference as lost. If the service never answers, the whole gap is counted as lost
+ * once the retries run out.
+ */
+public class MulticastSubscriber implements Agent, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MulticastSubscriber.class);
+
+    private static final long DEFAULT_RETRY_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final int RECEIVE_BUFFER_LENGTH = 64 * 1024;
+
+    private final DatagramChannel dataChannel;
+    private final DatagramChannel retransmitChannel;
+    private final InetSocketAddress retransmitAddress;
+
+    private final ByteBuffer receiveByteBuffer = ByteBuffer.allocateDirect(RECEIVE_BUFFER_LENGTH);
+    private final UnsafeBuffer receiveBuffer = new UnsafeBuffer(receiveByteBuffer);
+    private final ByteBuffer request = ByteBuffer.allocateDirect(RetransmitService.REQUEST_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+
+    private final List<Consumer> consumers = new ArrayList<>();
+    private final List<ConsumerMetrics> consumerMetrics = new ArrayList<>();
+    private final RoutingTable routing = new RoutingTable();
+
+    private final SequenceGapDetector gapDetector;
+    private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+    private final NetworkMetrics metrics;
+    private final Clock clock = SystemClock.INSTANCE;
+    private final FrameHandler frameHandler = this::onFrame;
+
+    private boolean inBatch = false;
+    private long duplicateCount = 0L;
+
+    public MulticastSubscriber(final InetSocketAddress group, final NetworkInterface networkInterface, final InetSocketAddress retransmitAddress) {
+        this(joinGroup(group, networkInterface), retransmitAddress, DEFAULT_RETRY_INTERVAL_NANOS);
+    }
+
+    /**
+     * @param dataChannel a channel already bound, and joined to the multicast group if there is one.
+     */
+    public MulticastSubscriber(final DatagramChannel dataChannel, final InetSocketAddress retransmitAddress, final long retryIntervalNanos) {
+        try {
+            this.dataChannel = dataChannel;
+            dataChannel.configureBlocking(false);
+            this.retransmitChannel = DatagramChannel.open(StandardProtocolFamily.INET);
+            retransmitChannel.bind(new InetSocketAddress(0));
+            retransmitChannel.configureBlocking(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.retransmitAddress = retransmitAddress;
+        this.gapDetector = new SequenceGapDetector(retryIntervalNanos);
+        this.metrics = new NetworkMetrics("multicast-subscriber");
+    }
+
+    private static DatagramChannel joinGroup(final InetSocketAddress group, final NetworkInterface networkInterface) {
+        try {
+            final DatagramChannel channel = DatagramChannel.open(StandardProtocolFamily.INET);
+            channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            channel.bind(new InetSocketAddress(group.getPort()));
+            channel.join(group.getAddress(), networkInterface);
+            return channel;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void addConsumer(final Consumer consumer) {
+        consumers.add(consumer);
+        consumerMetrics.add(metrics.register(consumer));
+        routing.add(consumer.getSubscription());
+    }
+
+    public NetworkMetrics getMetrics() {
+        return metrics;
+    }
+
+    public SequenceGapDetector getGapDetector() {
+        return gapDetector;
+    }
+
+    public long getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    @Override
+    public int doWork() throws IOException {
+        int workCount = receive(dataChannel, false);
+        workCount += receive(retransmitChannel, true);
+
+        final long now = System.nanoTime();
+        if (gapDetector.shouldRequest(now)) {
+            requestRetransmit(gapDetector.expected(), gapDetector.gapTo());
+            workCount++;
+        } else if (gapDetector.isExhausted(now)) {
+            logger.warn("[MULTICAST] No retransmission of " + gapDetector.expected() + "-" + gapDetector.gapTo() + ", giving up on them");
+            gapDetector.skipTo(gapDetector.gapTo() + 1);
+            workCount++;
+        }
+        return workCount;
+    }
+
+    private int receive(final DatagramChannel channel, final boolean retransmission) throws IOException {
+        receiveByteBuffer.clear();
+        if (channel.receive(receiveByteBuffer) == null) {
+            return 0;
+        }
+        onDatagram(receiveBuffer, receiveByteBuffer.position(), retransmission);
+        return 1;
+    }
+
+    void onDatagram(final DirectBuffer buffer, final int length, final boolean retransmission) {
+        int offset = 0;
+        if (retransmission) {
+            if (length < RetransmitService.REPLY_HEADER_LENGTH) {
+                logger.warn("[MULTICAST] Ignoring retransmit datagram of length " + length + ", too short for its header");
+                return;
+            }
+            final long firstAvailable = buffer.getLong(0, ByteOrder.LITTLE_ENDIAN);
+            if (gapDetector.isInGap() && firstAvailable > gapDetector.expected()) {
+                logger.warn("[MULTICAST] Messages " + gapDetector.expected() + "-" + (firstAvailable - 1) + " are no longer available, skipping ahead");
+                gapDetector.skipTo(firstAvailable);
+            }
+            offset = RetransmitService.REPLY_HEADER_LENGTH;
+        }
+
+        try {
+            FrameReader.forEach(buffer, offset, length - offset, frameHandler);
+        } finally {
+            if (inBatch) {
+                inBatch = false;
+                for (int i = 0; i < consumers.size(); i++) {
+                    consumers.get(i).onBatchEnd();
+                }
+            }
+        }
+    }
+
+    private void onFrame(final DirectBuffer buffer, final int offset, final int length) {
+        header.wrap(buffer, offset);
+        final long sequenceNumber = header.sequencerNumber();
+
+        switch (gapDetector.onSequence(sequenceNumber)) {
+            case SequenceGapDetector.DELIVER:
+                deliver(buffer, offset, length, sequenceNumber);
+                break;
+            case SequenceGapDetector.DUPLICATE:
+                duplicateCount++;
+                break;
+            default:
+                //dropped, the gap before it is requested and this is resent after it
+                break;
+        }
+    }
+
+    private void deliver(final DirectBuffer buffer, final int offset, final int length, final long sequenceNumber) {
+        if (!inBatch) {
+            inBatch = true;
+            for (int i = 0; i < consumers.size(); i++) {
+                consumers.get(i).onBatchStart();
+            }
+        }
+
+        //the header is still wrapped at this message
+        final long sequencerTimestamp = header.sequencerTimestamp();
+        metrics.onDispatch(sequenceNumber, header.ingressTimestamp(), sequencerTimestamp);
+        final int schemaId = header.schemaId();
+        final int templateId = header.templateId();
+        final int blockLength = header.blockLength();
+        final int version = header.version();
+        final int[] route = routing.route(schemaId, templateId);
+        for (int i = 0; i < route.length; i++) {
+            consumerMetrics.get(route[i]).onMessageRouted(sequenceNumber);
+        }
+        final long received = clock.epochNanos();
+        if (metrics.isConsumerTiming()) {
+            //each consumer starts when the one before it finishes
+            final long first = clock.nanoTime();
+            long start = first;
+            for (int i = 0; i < route.length; i++) {
+                final int index = route[i];
+                consumers.get(index).onMessage(buffer, offset, length, schemaId, templateId, blockLength, version);
+                final long end = clock.nanoTime();
+                consumerMetrics.get(index).onMessageProcessed(sequenceNumber, sequencerTimestamp, received + (start - first), end - start);
+                start = end;
+            }
+        } else {
+            for (int i = 0; i < route.length; i++) {
+                final int index = route[i];
+                consumers.get(index).onMessage(buffer, offset, length, schemaId, templateId, blockLength, version);
+                consumerMetrics.get(index).onMessageDelivered(sequenceNumber, sequencerTimestamp, received);
+            }
+        }
+    }
+
+    private void requestRetransmit(final long from, final long to) throws IOException {
+        logger.info("[MULTICAST] Requesting retransmit of " + from + "-" + to);
+        request.clear();
+        request.putLong(0, from);
+        request.putLong(Long.BYTES, to);
+        request.limit(RetransmitService.REQUEST_LENGTH);
+        retransmitChannel.send(request, retransmitAddress);
+    }
+
+    @Override
+    public String roleName() {
+        return "multicast-subscriber";
+    }
+
+    @Override
+    public void close() {
+        try {
+            dataChannel.close();
+            retransmitChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package codingblackfemales.sequencer.udp;
+
+import codingblackfemales.sequencer.frame.FrameHandler;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.Agent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Answers gap requests from {@link MulticastSubscriber}s out of the {@link SequencerJournal}, replying by unicast to
+ * the requester only. A request is two little-endian longs, the first and last sequence numbers wanted.
+ *
+ * A reply may span several datagrams, each starting with a little-endian long header giving the oldest sequence
+ * number the journal still held when the reply was sent, followed by frames. Messages before it cannot be resent,
+ * so a subscriber waiting on one of them skips ahead to it. When none of the range is held any more, the reply is
+ * a single datagram with the header alone.
+ */
+public class RetransmitService implements Agent, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetransmitService.class);
+
+    public static final int REQUEST_LENGTH = 2 * Long.BYTES;
+    public static final int REPLY_HEADER_LENGTH = Long.BYTES;
+
+    /**
+     * Bounds the reply to one request so that a subscriber far behind cannot monopolise the service.
+     */
+    public static final int MAX_MESSAGES_PER_REQUEST = 1024;
+
+    private final SequencerJournal journal;
+    private final DatagramChannel channel;
+    private final ByteBuffer request = ByteBuffer.allocateDirect(REQUEST_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+    private final DatagramFrames datagram;
+    private final FrameHandler replyHandler = this::reply;
+
+    private SocketAddress requester;
+    private long requestCount = 0L;
+
+    public RetransmitService(final SequencerJournal journal, final InetSocketAddress bindAddress) {
+        this(journal, bindAddress, MulticastNetwork.DEFAULT_MTU);
+    }
+
+    public RetransmitService(final SequencerJournal journal, final InetSocketAddress bindAddress, final int mtu) {
+        this.journal = journal;
+        this.datagram = new DatagramFrames(mtu, REPLY_HEADER_LENGTH);
+        try {
+            this.channel = DatagramChannel.open();
+            channel.bind(bindAddress);
+            channel.configureBlocking(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public InetSocketAddress getLocalAddress() {
+        try {
+            return (InetSocketAddress) channel.getLocalAddress();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    @Override
+    public int doWork() throws IOException {
+        request.clear();
+        requester = channel.receive(request);
+        if (requester == null || request.position() < REQUEST_LENGTH) {
+            return 0;
+        }
+
+        requestCount++;
+        final long firstAvailable = journal.firstSequenceNumber();
+        final long from = Math.max(request.getLong(0), firstAvailable);
+        final long to = Math.min(Math.min(request.getLong(Long.BYTES), journal.lastSequenceNumber()), from + MAX_MESSAGES_PER_REQUEST - 1);
+        datagram.header().putLong(0, firstAvailable, ByteOrder.LITTLE_ENDIAN);
+
+        if (from > to) {
+            logger.debug("[RETRANSMIT] " + requester + " requested " + request.getLong(0) + "-" + request.getLong(Long.BYTES) + ", nothing to send");
+            if (firstAvailable > request.getLong(0)) {
+                //the range has left the journal, say so rather than let the subscriber retry until it gives up
+                datagram.send(channel, requester);
+            }
+            return 1;
+        }
+
+        logger.debug("[RETRANSMIT] " + requester + " requested " + request.getLong(0) + "-" + request.getLong(Long.BYTES) + ", sending " + from + "-" + to);
+
+        for (long sequenceNumber = from; sequenceNumber <= to; sequenceNumber++) {
+            journal.read(sequenceNumber, replyHandler);
+        }
+        datagram.flush(channel, requester);
+        return 1;
+    }
+
+    private void reply(final DirectBuffer buffer, final int offset, final int length) {
+        datagram.append(channel, requester, buffer, offset, length);
+    }
+
+    @Override
+    public String roleName() {
+        return "retransmit-service";
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
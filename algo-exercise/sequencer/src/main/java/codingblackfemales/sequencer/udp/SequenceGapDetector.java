@@ -0,0 +1,126 @@
+package codingblackfemales.sequencer.udp;
+
+/**
+ * Tracks the next sequence number a receiver expects and classifies each arriving one. A receiver that joins late
+ * takes the first sequence number it sees as its starting point.
+ *
+ * While a gap is open the detector remembers the range still missing, so the receiver can re-request it if the
+ * retransmission itself is lost, without sending a request for every message that arrives in the meantime. If
+ * nothing comes back after {@link #DEFAULT_MAX_REQUESTS} requests (e.g. the retransmit service has restarted with
+ * an empty journal) the gap is given up on rather than requested forever.
+ */
+public class SequenceGapDetector {
+
+    public static final int DELIVER = 0;
+    public static final int DUPLICATE = 1;
+    public static final int GAP = 2;
+
+    public static final int DEFAULT_MAX_REQUESTS = 20;
+
+    private final long retryIntervalNanos;
+    private final int maxRequests;
+
+    private long expected = 0L;
+    private long gapTo = 0L;
+    private long lastRequestNanos = 0L;
+    private int requestsInGap = 0;
+    private long gapCount = 0L;
+    private long lostCount = 0L;
+
+    public SequenceGapDetector(final long retryIntervalNanos) {
+        this(retryIntervalNanos, DEFAULT_MAX_REQUESTS);
+    }
+
+    public SequenceGapDetector(final long retryIntervalNanos, final int maxRequests) {
+        this.retryIntervalNanos = retryIntervalNanos;
+        this.maxRequests = maxRequests;
+    }
+
+    public int onSequence(final long sequenceNumber) {
+        if (expected == 0L) {
+            expected = sequenceNumber;
+        }
+
+        if (sequenceNumber == expected) {
+            expected++;
+            if (expected > gapTo) {
+                closeGap();
+            }
+            return DELIVER;
+        } else if (sequenceNumber < expected) {
+            return DUPLICATE;
+        }
+
+        if (gapTo == 0L) {
+            gapCount++;
+        }
+        gapTo = Math.max(gapTo, sequenceNumber);
+        return GAP;
+    }
+
+    /**
+     * @return true if a request for the open gap should be sent now, and records that it has been.
+     */
+    public boolean shouldRequest(final long nowNanos) {
+        if (!isInGap()) {
+            return false;
+        }
+        if (lastRequestNanos != 0L && nowNanos - lastRequestNanos < retryIntervalNanos) {
+            return false;
+        }
+        if (requestsInGap >= maxRequests) {
+            return false;
+        }
+        lastRequestNanos = nowNanos;
+        requestsInGap++;
+        return true;
+    }
+
+    /**
+     * @return true once the open gap has been requested the maximum number of times and a further retry interval
+     * has passed without it being filled.
+     */
+    public boolean isExhausted(final long nowNanos) {
+        return isInGap() && requestsInGap >= maxRequests && nowNanos - lastRequestNanos >= retryIntervalNanos;
+    }
+
+    /**
+     * Gives up on everything before <code>sequenceNumber</code>, used when the retransmit service no longer holds
+     * the missing messages.
+     */
+    public void skipTo(final long sequenceNumber) {
+        if (sequenceNumber > expected) {
+            lostCount += sequenceNumber - expected;
+            expected = sequenceNumber;
+            if (expected > gapTo) {
+                closeGap();
+            }
+        }
+    }
+
+    private void closeGap() {
+        gapTo = 0L;
+        requestsInGap = 0;
+        lastRequestNanos = 0L;
+    }
+
+    public boolean isInGap() {
+        return gapTo != 0L;
+    }
+
+    public long expected() {
+        return expected;
+    }
+
+    public long gapTo() {
+        return gapTo;
+    }
+
+    public long getGapCount() {
+        return gapCount;
+    }
+
+    public long getLostCount() {
+        return lostCount;
+    }
+}
@@ -0,0 +1,140 @@
+package codingblackfemales.sequencer.udp;
+
+import codingblackfemales.sequencer.frame.FrameHandler;
+import codingblackfemales.sequencer.metrics.NetworkMetrics;
+import codingblackfemales.sequencer.net.Network;
+import messages.marketdata.MessageHeaderDecoder;
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+
+/**
+ * Keeps the most recent sequenced messages so that receivers can recover gaps, and passes everything through to
+ * the network it decorates. Messages are stored in fixed-size slots indexed by <code>sequenceNumber % slots</code>,
+ * so retention is bounded and both append and lookup are O(1).
+ *
+ * The sequencer appends on its own thread while a {@link RetransmitService} reads on another. A slot's sequence
+ * number is cleared before its message is overwritten and only set again once the copy is complete, and a reader
+ * checks it both before and after copying the message out, so a slot that is being overwritten is never sent.
+ */
+public class SequencerJournal implements Network {
+
+    private static final int SEQUENCE_OFFSET = 0;
+    private static final int LENGTH_OFFSET = 8;
+    private static final int SLOT_HEADER_LENGTH = 16;
+
+    private final Network delegate;
+    private final int slots;
+    private final int slotLength;
+    private final UnsafeBuffer journal;
+    private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+
+    //only used by the reading thread
+    private final UnsafeBuffer readBuffer;
+
+    private volatile long lastSequenceNumber = 0L;
+
+    public SequencerJournal(final Network delegate, final int slots, final int maxMessageLength) {
+        if (!BitUtil.isPowerOfTwo(slots)) {
+            throw new IllegalArgumentException(String.format("slots=[%d] must be a power of two", slots));
+        }
+        this.delegate = delegate;
+        this.slots = slots;
+        this.slotLength = BitUtil.align(SLOT_HEADER_LENGTH + maxMessageLength, 8);
+        this.journal = new UnsafeBuffer(ByteBuffer.allocateDirect(slots * slotLength));
+        this.readBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(slotLength - SLOT_HEADER_LENGTH));
+    }
+
+    @Override
+    public void dispatch(final DirectBuffer buffer) {
+        dispatch(buffer, 0, buffer.capacity());
+    }
+
+    @Override
+    public void dispatch(final DirectBuffer buffer, final int offset, final int length) {
+        header.wrap(buffer, offset);
+        append(header.sequencerNumber(), buffer, offset, length);
+        delegate.dispatch(buffer, offset, length);
+    }
+
+    @Override
+    public void dispatchBatchStart() {
+        delegate.dispatchBatchStart();
+    }
+
+    @Override
+    public void dispatchBatchEnd() {
+        delegate.dispatchBatchEnd();
+    }
+
+    @Override
+    public NetworkMetrics getMetrics() {
+        return delegate.getMetrics();
+    }
+
+    public int maxMessageLength() {
+        return slotLength - SLOT_HEADER_LENGTH;
+    }
+
+    public void append(final long sequenceNumber, final DirectBuffer buffer, final int offset, final int length) {
+        if (length > maxMessageLength()) {
+            throw new IllegalArgumentException(String.format("Message too large for the journal sequenceNumber=[%d] length=[%d] max=[%d]", sequenceNumber, length, maxMessageLength()));
+        }
+        final int slotOffset = slotOffset(sequenceNumber);
+        journal.putLongVolatile(slotOffset + SEQUENCE_OFFSET, 0L);
+        VarHandle.storeStoreFence();
+        journal.putInt(slotOffset + LENGTH_OFFSET, length);
+        journal.putBytes(slotOffset + SLOT_HEADER_LENGTH, buffer, offset, length);
+        journal.putLongOrdered(slotOffset + SEQUENCE_OFFSET, sequenceNumber);
+        lastSequenceNumber = sequenceNumber;
+    }
+
+    /**
+     * @return the oldest sequence number still held, or 0 if nothing has been journaled.
+     */
+    public long firstSequenceNumber() {
+        final long last = lastSequenceNumber;
+        return last == 0L ? 0L : Math.max(1L, last - slots + 1);
+    }
+
+    public long lastSequenceNumber() {
+        return lastSequenceNumber;
+    }
+
+    /**
+     * Hands a copy of the journaled message to the handler, valid only for the duration of the callback. Only one
+     * thread may read at a time.
+     *
+     * @return false if the message has not been journaled or has been overwritten.
+     */
+    public boolean read(final long sequenceNumber, final FrameHandler handler) {
+        final long last = lastSequenceNumber;
+        if (last == 0L || sequenceNumber < Math.max(1L, last - slots + 1) || sequenceNumber > last) {
+            return false;
+        }
+        final int slotOffset = slotOffset(sequenceNumber);
+        if (journal.getLongVolatile(slotOffset + SEQUENCE_OFFSET) != sequenceNumber) {
+            return false;
+        }
+        final int length = journal.getInt(slotOffset + LENGTH_OFFSET);
+        if (length < 0 || length > readBuffer.capacity()) {
+            return false;
+        }
+        readBuffer.putBytes(0, journal, slotOffset + SLOT_HEADER_LENGTH, length);
+
+        //the copy must be complete before the sequence number is checked again
+        VarHandle.acquireFence();
+        if (journal.getLongVolatile(slotOffset + SEQUENCE_OFFSET) != sequenceNumber) {
+            return false;
+        }
+        handler.onFrame(readBuffer, 0, length);
+        return true;
+    }
+
+    private int slotOffset(final long sequenceNumber) {
+        return (int) (sequenceNumber & (slots - 1)) * slotLength;
+    }
+}
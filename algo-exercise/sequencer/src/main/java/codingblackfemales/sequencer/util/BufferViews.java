@@ -0,0 +1,42 @@
+package codingblackfemales.sequencer.util;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.util.Arrays;
+
+/**
+ * Reusable views over part of a buffer, for the default offset overloads that have nowhere of their own to keep
+ * one. Dispatch is synchronous and can come back into the same overload while an outer view is still being read,
+ * so each thread keeps one view per level of nesting. A view is only valid until it is released.
+ */
+public final class BufferViews {
+
+    private static final ThreadLocal<BufferViews> VIEWS = ThreadLocal.withInitial(BufferViews::new);
+
+    private UnsafeBuffer[] views = new UnsafeBuffer[4];
+    private int depth = 0;
+
+    private BufferViews() {
+    }
+
+    public static BufferViews get() {
+        return VIEWS.get();
+    }
+
+    public DirectBuffer acquire(final DirectBuffer buffer, final int offset, final int length) {
+        if (depth == views.length) {
+            views = Arrays.copyOf(views, depth * 2);
+        }
+        if (views[depth] == null) {
+            views[depth] = new UnsafeBuffer(new byte[0]);
+        }
+        final UnsafeBuffer view = views[depth++];
+        view.wrap(buffer, offset, length);
+        return view;
+    }
+
+    public void release() {
+        depth--;
+    }
+}
@@ -0,0 +1,37 @@
+package codingblackfemales.sequencer;
+
+import messages.order.FillOrderDecoder;
+import messages.order.MessageHeaderDecoder;
+import org.agrona.DirectBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stands in for the sequencer behind an order book, recording each fill as <code>orderId:quantity@price</code> and
+ * ignoring everything else.
+ */
+public class FillRecorder implements Sequencer {
+
+    private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+    private final FillOrderDecoder fill = new FillOrderDecoder();
+    private final List<String> fills = new ArrayList<>();
+
+    @Override
+    public void onCommand(DirectBuffer buffer) {
+        onCommand(buffer, 0, buffer.capacity());
+    }
+
+    @Override
+    public void onCommand(DirectBuffer buffer, int offset, int length) {
+        header.wrap(buffer, offset);
+        if (header.templateId() == FillOrderDecoder.TEMPLATE_ID) {
+            fill.wrap(buffer, offset + header.encodedLength(), header.blockLength(), header.version());
+            fills.add(fill.orderId() + ":" + fill.quantity() + "@" + fill.price());
+        }
+    }
+
+    public List<String> getFills() {
+        return fills;
+    }
+}
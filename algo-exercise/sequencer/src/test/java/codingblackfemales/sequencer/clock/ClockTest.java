@@ -0,0 +1,47 @@
+package codingblackfemales.sequencer.clock;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ClockTest {
+
+    @Test
+    public void testSimulatedClockOnlyMovesWhenTold() {
+        final SimulatedClock clock = new SimulatedClock(1_000L);
+        assertEquals(1_000L, clock.epochNanos());
+        assertEquals(1_000L, clock.nanoTime());
+
+        clock.advance(500L);
+        assertEquals(1_500L, clock.epochNanos());
+
+        clock.setTime(2_000L);
+        assertEquals(2_000L, clock.epochNanos());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSimulatedClockCannotGoBackwards() {
+        new SimulatedClock(1_000L).setTime(999L);
+    }
+
+    @Test
+    public void testCachedClockUpdatesOncePerMessage() {
+        final SimulatedClock source = new SimulatedClock(1_000L);
+        final CachedClock clock = new CachedClock(source);
+
+        source.advance(100L);
+        assertEquals(1_000L, clock.epochNanos());
+
+        clock.onMessage(new UnsafeBuffer(new byte[8]));
+        assertEquals(1_100L, clock.epochNanos());
+        assertEquals(1_100L, clock.nanoTime());
+    }
+
+    @Test
+    public void testSystemClockIsCloseToTheWallClock() {
+        final long epochMillis = SystemClock.INSTANCE.epochNanos() / 1_000_000L;
+        assertTrue(Math.abs(epochMillis - System.currentTimeMillis()) < 1_000L);
+    }
+}
@@ -0,0 +1,63 @@
+package codingblackfemales.sequencer.clock;
+
+import org.junit.Test;
+
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TradingSessionTest {
+
+    private static final ZoneId LONDON = ZoneId.of("Europe/London");
+
+    private final TradingSession session = new TradingSession(LONDON, LocalTime.of(8, 0), LocalTime.of(16, 30));
+
+    @Test
+    public void testOpenFromTheOpenUntilTheClose() {
+        //Monday 3rd June 2024, British Summer Time
+        assertFalse(session.isOpen(london(2024, 6, 3, 7, 59, 59) + 999_999_999L));
+        assertTrue(session.isOpen(london(2024, 6, 3, 8, 0, 0)));
+        assertTrue(session.isOpen(london(2024, 6, 3, 16, 29, 59)));
+        assertFalse(session.isOpen(london(2024, 6, 3, 16, 30, 0)));
+        assertTrue(session.isClosed(london(2024, 6, 3, 23, 0, 0)));
+    }
+
+    @Test
+    public void testClosedAtTheWeekend() {
+        assertTrue(session.isOpen(london(2024, 6, 7, 12, 0, 0)));
+        assertTrue(session.isClosed(london(2024, 6, 8, 12, 0, 0)));
+        assertTrue(session.isClosed(london(2024, 6, 9, 12, 0, 0)));
+        assertTrue(session.isOpen(london(2024, 6, 10, 12, 0, 0)));
+    }
+
+    @Test
+    public void testBoundariesFollowTheClocksChanging() {
+        //clocks went back on Sunday 27th October 2024, the open is an hour later in UTC the next day
+        assertTrue(session.isOpen(utc(2024, 10, 25, 7, 0)));
+        assertFalse(session.isOpen(utc(2024, 10, 28, 7, 0)));
+        assertTrue(session.isOpen(utc(2024, 10, 28, 8, 0)));
+    }
+
+    @Test
+    public void testGoingBackToAnEarlierDay() {
+        assertTrue(session.isClosed(london(2024, 6, 8, 12, 0, 0)));
+        assertTrue(session.isOpen(london(2024, 6, 3, 12, 0, 0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMustOpenBeforeItCloses() {
+        new TradingSession(LONDON, LocalTime.of(16, 30), LocalTime.of(8, 0));
+    }
+
+    private static long london(int year, int month, int day, int hour, int minute, int second) {
+        return TimeUnit.SECONDS.toNanos(ZonedDateTime.of(year, month, day, hour, minute, second, 0, LONDON).toEpochSecond());
+    }
+
+    private static long utc(int year, int month, int day, int hour, int minute) {
+        return TimeUnit.SECONDS.toNanos(ZonedDateTime.of(year, month, day, hour, minute, 0, 0, ZoneId.of("UTC")).toEpochSecond());
+    }
+}
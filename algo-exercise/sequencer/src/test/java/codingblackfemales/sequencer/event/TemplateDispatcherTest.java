@@ -0,0 +1,130 @@
+package codingblackfemales.sequencer.event;
+
+import codingblackfemales.sequencer.net.TestNetwork;
+import messages.marketdata.AskBookUpdateDecoder;
+import messages.marketdata.BidBookUpdateDecoder;
+import messages.marketdata.BidBookUpdateEncoder;
+import messages.marketdata.BookUpdateDecoder;
+import messages.marketdata.Venue;
+import messages.order.*;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TemplateDispatcherTest {
+
+    private final List<String> events = new ArrayList<>();
+
+    private final OrderEventListener fills = new OrderEventListener(PartialFillOrderDecoder.TEMPLATE_ID, FillOrderDecoder.TEMPLATE_ID) {
+        @Override public void onCreateOrder(CreateOrderDecoder create) { events.add("create"); }
+        @Override public void onCancelOrder(CancelOrderDecoder cancel) { events.add("cancel"); }
+        @Override public void onModifyOrder(ModifyOrderDecoder modify) { events.add("modify"); }
+        @Override public void onBatchCancelOrder(BatchCancelOrderDecoder batchCancel) { events.add("batchCancel"); }
+        @Override public void onAckedOrder(AckedOrderDecoder acked) { events.add("acked"); }
+        @Override public void onCancelAckedOrder(CancelAckedOrderDecoder cancelAcked) { events.add("cancelAcked"); }
+        @Override public void onPendingOrder(PendingOrderDecoder pending) { events.add("pending"); }
+        @Override public void onPartialFill(PartialFillOrderDecoder partialFill) { events.add("partialFill:" + partialFill.orderId()); }
+        @Override public void onFill(FillOrderDecoder fill) { events.add("fill"); }
+        @Override public void onBatchStart() { events.add("batchStart"); }
+    };
+
+    private final MarketDataEventListener marketData = new MarketDataEventListener() {
+        @Override public void onBookUpdate(BookUpdateDecoder bookUpdate) { events.add("book"); }
+        @Override public void onAskBook(AskBookUpdateDecoder askBook) { events.add("ask"); }
+        @Override public void onBidBook(BidBookUpdateDecoder bidBook) { events.add("bid:" + bidBook.instrumentId()); }
+    };
+
+    private static UnsafeBuffer partialFill(final long orderId) {
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(128));
+        new PartialFillOrderEncoder().wrapAndApplyHeader(buffer, 0, new MessageHeaderEncoder()).orderId(orderId).quantity(10).price(100);
+        return buffer;
+    }
+
+    private static UnsafeBuffer bidBook(final long instrumentId) {
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(128));
+        final BidBookUpdateEncoder encoder = new BidBookUpdateEncoder().wrapAndApplyHeader(buffer, 0, new messages.marketdata.MessageHeaderEncoder());
+        encoder.venue(Venue.XLON).instrumentId(instrumentId).bidBookCount(0);
+        return buffer;
+    }
+
+    @Test
+    public void testTemplatesAreMatchedOnSchemaAsWell() {
+        //the order partial fill and the market data bid book update share template id 9
+        assertEquals(PartialFillOrderDecoder.TEMPLATE_ID, BidBookUpdateDecoder.TEMPLATE_ID);
+
+        marketData.onMessage(partialFill(7L));
+        fills.onMessage(bidBook(123L));
+        assertTrue(events.isEmpty());
+
+        marketData.onMessage(bidBook(123L));
+        fills.onMessage(partialFill(7L));
+        assertEquals(List.of("bid:123", "partialFill:7"), events);
+    }
+
+    @Test
+    public void testListenersOnlyDecodeTheirTemplates() {
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(128));
+        new CreateOrderEncoder().wrapAndApplyHeader(buffer, 0, new MessageHeaderEncoder()).orderId(1L);
+
+        fills.onMessage(buffer);
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void testSharedDispatcherCallsSubscribersInOrder() {
+        final TemplateDispatcher dispatcher = new TemplateDispatcher();
+        fills.subscribe(dispatcher);
+        marketData.subscribe(dispatcher);
+        dispatcher.subscribe(PartialFillOrderDecoder.SCHEMA_ID, PartialFillOrderDecoder.TEMPLATE_ID,
+                (buffer, offset, actingBlockLength, actingVersion) -> events.add("second"));
+
+        assertTrue(dispatcher.isSubscribed(PartialFillOrderDecoder.SCHEMA_ID, PartialFillOrderDecoder.TEMPLATE_ID));
+        assertFalse(dispatcher.isSubscribed(CreateOrderDecoder.SCHEMA_ID, CreateOrderDecoder.TEMPLATE_ID));
+
+        dispatcher.onBatchStart();
+        dispatcher.onMessage(partialFill(3L));
+        dispatcher.onMessage(bidBook(456L));
+
+        assertEquals(List.of("batchStart", "partialFill:3", "second", "bid:456"), events);
+    }
+
+    @Test
+    public void testNetworkHandsListenersTheHeaderItDecoded() {
+        final TestNetwork network = new TestNetwork();
+        network.addConsumer(fills);
+        network.addConsumer(marketData);
+
+        network.dispatch(partialFill(3L));
+        network.dispatch(bidBook(456L));
+
+        assertEquals(List.of("partialFill:3", "bid:456"), events);
+
+        //the ids handed over are trusted, the header isn't read again
+        events.clear();
+        fills.onMessage(bidBook(456L), 0, 128, PartialFillOrderDecoder.SCHEMA_ID, PartialFillOrderDecoder.TEMPLATE_ID,
+                PartialFillOrderDecoder.BLOCK_LENGTH, PartialFillOrderDecoder.SCHEMA_VERSION);
+        assertEquals(1, events.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownTemplatesAreRejected() {
+        new OrderEventListener(BidBookUpdateDecoder.TEMPLATE_ID + 100) {
+            @Override public void onCreateOrder(CreateOrderDecoder create) {}
+            @Override public void onCancelOrder(CancelOrderDecoder cancel) {}
+            @Override public void onModifyOrder(ModifyOrderDecoder modify) {}
+            @Override public void onBatchCancelOrder(BatchCancelOrderDecoder batchCancel) {}
+            @Override public void onAckedOrder(AckedOrderDecoder acked) {}
+            @Override public void onCancelAckedOrder(CancelAckedOrderDecoder cancelAcked) {}
+            @Override public void onPendingOrder(PendingOrderDecoder pending) {}
+            @Override public void onPartialFill(PartialFillOrderDecoder partialFill) {}
+            @Override public void onFill(FillOrderDecoder fill) {}
+        };
+    }
+}
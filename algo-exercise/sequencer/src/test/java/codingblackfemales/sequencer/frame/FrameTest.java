@@ -0,0 +1,162 @@
+package codingblackfemales.sequencer.frame;
+
+import codingblackfemales.sequencer.DefaultSequencer;
+import codingblackfemales.sequencer.Sequencer;
+import codingblackfemales.sequencer.event.MarketDataEventListener;
+import codingblackfemales.sequencer.marketdata.BookUpdates;
+import codingblackfemales.sequencer.net.Consumer;
+import codingblackfemales.sequencer.net.TestNetwork;
+import messages.marketdata.AskBookUpdateDecoder;
+import messages.marketdata.BidBookUpdateDecoder;
+import messages.marketdata.BookUpdateDecoder;
+import messages.marketdata.MessageHeaderDecoder;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class FrameTest {
+
+    private int packBookUpdates(final FrameAppender appender, final int messages) {
+        for (int i = 0; i < messages; i++) {
+            final int length = BookUpdates.encode(appender.buffer(), appender.messageOffset(), i + 1);
+            appender.commit(length);
+        }
+        return appender.position();
+    }
+
+    @Test
+    public void testFramesAreAlignedAndReadBackByOffset() {
+        final FrameAppender appender = new FrameAppender(new UnsafeBuffer(ByteBuffer.allocateDirect(4096)));
+        final int length = packBookUpdates(appender, 5);
+
+        final MessageHeaderDecoder header = new MessageHeaderDecoder();
+        final List<Integer> offsets = new ArrayList<>();
+
+        final int count = FrameReader.forEach(appender.buffer(), 0, length, (buffer, offset, messageLength) -> {
+            header.wrap(buffer, offset);
+            assertEquals(BookUpdateDecoder.TEMPLATE_ID, header.templateId());
+            offsets.add(offset);
+        });
+
+        assertEquals(5, count);
+        offsets.forEach(offset -> assertEquals(0, offset % Frame.ALIGNMENT));
+    }
+
+    @Test
+    public void testAppendCopiesMessageAndReportsInsufficientCapacity() {
+        final UnsafeBuffer message = new UnsafeBuffer(ByteBuffer.allocateDirect(256));
+        final int messageLength = BookUpdates.encode(message, 0, 42L);
+
+        final FrameAppender appender = new FrameAppender(new UnsafeBuffer(ByteBuffer.allocateDirect(Frame.frameLength(messageLength))));
+
+        assertEquals(Frame.HEADER_LENGTH, appender.append(message, 0, messageLength));
+        assertEquals(FrameAppender.INSUFFICIENT_CAPACITY, appender.append(message, 0, messageLength));
+    }
+
+    @Test
+    public void testSequencerDispatchesBatchOfFramesInPlace() {
+        final List<String> events = new ArrayList<>();
+        final MessageHeaderDecoder header = new MessageHeaderDecoder();
+        final List<Long> instruments = new ArrayList<>();
+
+        final TestNetwork network = new TestNetwork();
+        network.addConsumer(new Consumer() {
+            @Override
+            public void onMessage(DirectBuffer buffer) {
+                throw new AssertionError("framed messages should be delivered by offset");
+            }
+
+            @Override
+            public void onMessage(DirectBuffer buffer, int offset, int length) {
+                header.wrap(buffer, offset);
+                events.add("message:" + header.sequencerNumber());
+            }
+
+            @Override
+            public void onBatchStart() {
+                events.add("start");
+            }
+
+            @Override
+            public void onBatchEnd() {
+                events.add("end");
+            }
+        });
+        network.addConsumer(new MarketDataEventListener() {
+            @Override
+            public void onBookUpdate(BookUpdateDecoder bookUpdate) {
+                instruments.add(bookUpdate.instrumentId());
+            }
+
+            @Override
+            public void onAskBook(AskBookUpdateDecoder askBook) {
+            }
+
+            @Override
+            public void onBidBook(BidBookUpdateDecoder bidBook) {
+            }
+        });
+
+        final FrameAppender appender = new FrameAppender(new UnsafeBuffer(ByteBuffer.allocateDirect(4096)));
+        final int length = packBookUpdates(appender, 3);
+
+        new DefaultSequencer(network).onCommandBatch(appender.buffer(), 0, length);
+
+        assertEquals(List.of("start", "message:1", "message:2", "message:3", "end"), events);
+        assertEquals(List.of(1L, 2L, 3L), instruments);
+    }
+
+    @Test
+    public void testFilterPassesOnRunsOfAcceptedFramesAsBatches() {
+        final FrameAppender appender = new FrameAppender(new UnsafeBuffer(ByteBuffer.allocateDirect(4096)));
+        final int length = packBookUpdates(appender, 5);
+
+        final BookUpdateDecoder bookUpdate = new BookUpdateDecoder();
+        final MessageHeaderDecoder header = new MessageHeaderDecoder();
+        final List<List<Long>> batches = new ArrayList<>();
+        final Sequencer batchRecorder = new Sequencer() {
+            @Override
+            public void onCommand(DirectBuffer buffer) {
+                throw new AssertionError("accepted frames should be passed on as batches");
+            }
+
+            @Override
+            public void onCommandBatch(DirectBuffer buffer, int offset, int batchLength) {
+                final List<Long> instruments = new ArrayList<>();
+                FrameReader.forEach(buffer, offset, batchLength, (b, o, l) -> {
+                    header.wrap(b, o);
+                    bookUpdate.wrap(b, o + header.encodedLength(), header.blockLength(), header.version());
+                    instruments.add(bookUpdate.instrumentId());
+                });
+                batches.add(instruments);
+            }
+        };
+
+        final FrameFilter rejectThird = (buffer, offset, messageLength) -> {
+            header.wrap(buffer, offset);
+            bookUpdate.wrap(buffer, offset + header.encodedLength(), header.blockLength(), header.version());
+            return bookUpdate.instrumentId() != 3L;
+        };
+
+        assertEquals(1, FrameReader.filter(appender.buffer(), 0, length, rejectThird, batchRecorder));
+        assertEquals(List.of(List.of(1L, 2L), List.of(4L, 5L)), batches);
+
+        batches.clear();
+        assertEquals(0, FrameReader.filter(appender.buffer(), 0, length, (buffer, offset, messageLength) -> true, batchRecorder));
+        assertEquals(List.of(List.of(1L, 2L, 3L, 4L, 5L)), batches);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testTruncatedBlockIsRejected() {
+        final FrameAppender appender = new FrameAppender(new UnsafeBuffer(ByteBuffer.allocateDirect(4096)));
+        final int length = packBookUpdates(appender, 2);
+
+        FrameReader.forEach(appender.buffer(), 0, length - Frame.ALIGNMENT, (buffer, offset, messageLength) -> {});
+    }
+}
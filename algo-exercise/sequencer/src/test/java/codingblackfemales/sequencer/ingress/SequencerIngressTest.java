@@ -0,0 +1,222 @@
+package codingblackfemales.sequencer.ingress;
+
+import codingblackfemales.sequencer.DefaultSequencer;
+import codingblackfemales.sequencer.clock.SimulatedClock;
+import codingblackfemales.sequencer.frame.FrameAppender;
+import codingblackfemales.sequencer.marketdata.BookUpdates;
+import codingblackfemales.sequencer.net.Consumer;
+import codingblackfemales.sequencer.net.TestNetwork;
+import messages.marketdata.BookUpdateDecoder;
+import messages.marketdata.MessageHeaderDecoder;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SequencerIngressTest {
+
+    private static final int PRODUCERS = 4;
+    private static final int MESSAGES_PER_PRODUCER = 20_000;
+
+    /**
+     * Instrument ids are <code>producer * MESSAGES_PER_PRODUCER + n</code>, so each producer's messages can be
+     * checked for order once they have been interleaved with everyone else's.
+     */
+    private static class RecordingConsumer implements Consumer {
+        private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+        private final BookUpdateDecoder decoder = new BookUpdateDecoder();
+        private final long[] lastInstrumentId = new long[PRODUCERS];
+        private long lastSequenceNumber;
+        private int received;
+        private int outOfOrder;
+
+        private RecordingConsumer() {
+            for (int i = 0; i < PRODUCERS; i++) {
+                lastInstrumentId[i] = i * (long) MESSAGES_PER_PRODUCER - 1;
+            }
+        }
+
+        @Override
+        public void onMessage(DirectBuffer buffer) {
+            onMessage(buffer, 0, buffer.capacity());
+        }
+
+        @Override
+        public void onMessage(DirectBuffer buffer, int offset, int length) {
+            decoder.wrapAndApplyHeader(buffer, offset, header);
+            if (header.sequencerNumber() != lastSequenceNumber + 1) {
+                outOfOrder++;
+            }
+            lastSequenceNumber = header.sequencerNumber();
+
+            final long instrumentId = decoder.instrumentId();
+            final int producer = (int) (instrumentId / MESSAGES_PER_PRODUCER);
+            if (instrumentId != lastInstrumentId[producer] + 1) {
+                outOfOrder++;
+            }
+            lastInstrumentId[producer] = instrumentId;
+            received++;
+        }
+    }
+
+    @Test
+    public void testConcurrentProducersAreSequencedInOneTotalOrder() throws Exception {
+        final TestNetwork network = new TestNetwork();
+        final RecordingConsumer consumer = new RecordingConsumer();
+        network.addConsumer(consumer);
+
+        //small enough that the producers regularly find it full and have to wait for the driver
+        final AtomicBuffer buffer = SequencerIngress.allocate(64 * 1024);
+        final SequencerIngress ingress = new SequencerIngress(buffer, TimeUnit.SECONDS.toNanos(10));
+        final IngressDriver driver = new IngressDriver(buffer, new DefaultSequencer(network));
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Throwable> errors = new ArrayList<>();
+        final List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            final int producer = p;
+            final Thread thread = new Thread(() -> {
+                final UnsafeBuffer message = new UnsafeBuffer(ByteBuffer.allocateDirect(256));
+                try {
+                    start.await();
+                    for (int i = 0; i < MESSAGES_PER_PRODUCER; i++) {
+                        ingress.onCommand(message, 0, BookUpdates.encode(message, 0, producer * (long) MESSAGES_PER_PRODUCER + i));
+                    }
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            }, "producer-" + p);
+            thread.start();
+            producers.add(thread);
+        }
+
+        start.countDown();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (consumer.received < PRODUCERS * MESSAGES_PER_PRODUCER) {
+            if (driver.doWork() == 0 && System.nanoTime() > deadline) {
+                fail("Timed out after receiving " + consumer.received + " messages");
+            }
+        }
+        for (Thread thread : producers) {
+            thread.join();
+        }
+
+        assertTrue(errors.toString(), errors.isEmpty());
+        assertEquals(PRODUCERS * MESSAGES_PER_PRODUCER, consumer.received);
+        assertEquals(PRODUCERS * (long) MESSAGES_PER_PRODUCER, consumer.lastSequenceNumber);
+        assertEquals(0, consumer.outOfOrder);
+        assertEquals(0, driver.size());
+    }
+
+    @Test
+    public void testBatchesAreDrainedAsBatches() {
+        final TestNetwork network = new TestNetwork();
+        final List<String> events = new ArrayList<>();
+        network.addConsumer(new Consumer() {
+            @Override
+            public void onMessage(DirectBuffer buffer) {
+                events.add("message");
+            }
+
+            @Override
+            public void onMessage(DirectBuffer buffer, int offset, int length) {
+                events.add("message");
+            }
+
+            @Override
+            public void onBatchStart() {
+                events.add("start");
+            }
+
+            @Override
+            public void onBatchEnd() {
+                events.add("end");
+            }
+        });
+
+        final AtomicBuffer buffer = SequencerIngress.allocate(4096);
+        final SequencerIngress ingress = new SequencerIngress(buffer);
+        final IngressDriver driver = new IngressDriver(buffer, new DefaultSequencer(network));
+
+        final FrameAppender appender = new FrameAppender(new UnsafeBuffer(ByteBuffer.allocateDirect(1024)));
+        appender.commit(BookUpdates.encode(appender.buffer(), appender.messageOffset(), 1L));
+        appender.commit(BookUpdates.encode(appender.buffer(), appender.messageOffset(), 2L));
+        ingress.onCommandBatch(appender.buffer(), 0, appender.position());
+
+        final UnsafeBuffer message = new UnsafeBuffer(ByteBuffer.allocateDirect(256));
+        ingress.onCommand(message, 0, BookUpdates.encode(message, 0, 3L));
+
+        assertEquals(2, driver.poll(10));
+        assertEquals(List.of("start", "message", "message", "end", "message"), events);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFullIngressTimesOut() {
+        final SequencerIngress ingress = new SequencerIngress(SequencerIngress.allocate(1024), TimeUnit.MILLISECONDS.toNanos(10));
+        final UnsafeBuffer message = new UnsafeBuffer(ByteBuffer.allocateDirect(256));
+        final int length = BookUpdates.encode(message, 0, 1L);
+
+        //nothing is draining it
+        for (int i = 0; i < 1024; i++) {
+            ingress.onCommand(message, 0, length);
+        }
+    }
+
+    @Test
+    public void testCommandsAreStampedWhenTheyEnterTheQueue() {
+        final SimulatedClock clock = new SimulatedClock(1_000L);
+        final TestNetwork network = new TestNetwork("ingress-test", clock);
+        final MessageHeaderDecoder header = new MessageHeaderDecoder();
+        final List<Long> ingressTimestamps = new ArrayList<>();
+        network.addConsumer(buffer -> ingressTimestamps.add(header.wrap(buffer, 0).ingressTimestamp()));
+
+        final AtomicBuffer buffer = SequencerIngress.allocate(4096);
+        final SequencerIngress ingress = new SequencerIngress(buffer, SequencerIngress.DEFAULT_TIMEOUT_NANOS, clock);
+        final IngressDriver driver = new IngressDriver(buffer, new DefaultSequencer(network, clock));
+
+        final UnsafeBuffer message = new UnsafeBuffer(ByteBuffer.allocateDirect(256));
+        ingress.onCommand(message, 0, BookUpdates.encode(message, 0, 1L));
+
+        clock.advance(100L);
+        final FrameAppender appender = new FrameAppender(new UnsafeBuffer(ByteBuffer.allocateDirect(1024)));
+        appender.commit(BookUpdates.encode(appender.buffer(), appender.messageOffset(), 2L));
+        appender.commit(BookUpdates.encode(appender.buffer(), appender.messageOffset(), 3L));
+        ingress.onCommandBatch(appender.buffer(), 0, appender.position());
+
+        //the sequencer gets round to them later
+        clock.advance(400L);
+        assertEquals(2, driver.poll(10));
+
+        assertEquals(List.of(1_000L, 1_100L, 1_100L), ingressTimestamps);
+        assertEquals(500L, network.getMetrics().getSequencingTime().getMaxNanos());
+        assertEquals(3L, network.getMetrics().getSequencingTime().getCount());
+    }
+
+    @Test
+    public void testCommandTooLargeForTheIngressIsRejected() {
+        final AtomicBuffer buffer = SequencerIngress.allocate(1024);
+        final SequencerIngress ingress = new SequencerIngress(buffer);
+        final UnsafeBuffer message = new UnsafeBuffer(ByteBuffer.allocateDirect(ingress.maxMsgLength() + 1));
+        try {
+            ingress.onCommand(message, 0, message.capacity());
+            fail("expected the command to be rejected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("length=[" + message.capacity() + "]"));
+        }
+
+        //nothing was queued
+        assertEquals(0, new IngressDriver(buffer, new DefaultSequencer(new TestNetwork())).size());
+    }
+}
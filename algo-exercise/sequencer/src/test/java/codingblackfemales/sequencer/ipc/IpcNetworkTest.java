@@ -0,0 +1,130 @@
+package codingblackfemales.sequencer.ipc;
+
+import codingblackfemales.sequencer.DefaultSequencer;
+import codingblackfemales.sequencer.frame.FrameAppender;
+import codingblackfemales.sequencer.marketdata.BookUpdates;
+import codingblackfemales.sequencer.net.Consumer;
+import messages.marketdata.MessageHeaderDecoder;
+import org.agrona.DirectBuffer;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IpcNetworkTest {
+
+    private File directory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("ipc-network-test").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        IoUtil.delete(directory, true);
+    }
+
+    private static class RecordingConsumer implements Consumer {
+        private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onMessage(DirectBuffer buffer) {
+            onMessage(buffer, 0, buffer.capacity());
+        }
+
+        @Override
+        public void onMessage(DirectBuffer buffer, int offset, int length) {
+            header.wrap(buffer, offset);
+            events.add("message:" + header.sequencerNumber());
+        }
+
+        @Override
+        public void onBatchStart() {
+            events.add("start");
+        }
+
+        @Override
+        public void onBatchEnd() {
+            events.add("end");
+        }
+    }
+
+    @Test
+    public void testCommandsFromClientAreSequencedAndBroadcastToEverySubscriber() {
+        try (IpcNetwork network = new IpcNetwork(directory, 64 * 1024);
+             IpcSequencerDriver driver = new IpcSequencerDriver(directory, 64 * 1024, new DefaultSequencer(network));
+             IpcSequencerClient client = new IpcSequencerClient(directory);
+             IpcNetworkSubscriber first = new IpcNetworkSubscriber(directory);
+             IpcNetworkSubscriber second = new IpcNetworkSubscriber(directory)) {
+
+            final RecordingConsumer firstConsumer = new RecordingConsumer();
+            final RecordingConsumer secondConsumer = new RecordingConsumer();
+            first.addConsumer(firstConsumer);
+            second.addConsumer(secondConsumer);
+
+            final UnsafeBuffer message = new UnsafeBuffer(ByteBuffer.allocateDirect(256));
+            client.onCommand(message, 0, BookUpdates.encode(message, 0, 1L));
+
+            final FrameAppender appender = new FrameAppender(new UnsafeBuffer(ByteBuffer.allocateDirect(1024)));
+            appender.commit(BookUpdates.encode(appender.buffer(), appender.messageOffset(), 2L));
+            appender.commit(BookUpdates.encode(appender.buffer(), appender.messageOffset(), 3L));
+            client.onCommandBatch(appender.buffer(), 0, appender.position());
+
+            assertEquals(2, driver.doWork());
+
+            assertEquals(3, first.poll(10));
+            assertEquals(3, second.poll(10));
+            assertEquals(0, first.poll(10));
+
+            final List<String> expected = List.of("start", "message:1", "message:2", "message:3", "end");
+            assertEquals(expected, firstConsumer.events);
+            assertEquals(expected, secondConsumer.events);
+            assertEquals(3, network.getMetrics().getLastDispatchedSequenceNumber());
+        }
+    }
+
+    @Test
+    public void testSlowSubscriberIsLappedWithoutStallingTheSequencer() {
+        try (IpcNetwork network = new IpcNetwork(directory, 1024);
+             IpcNetworkSubscriber slow = new IpcNetworkSubscriber(directory)) {
+
+            final RecordingConsumer consumer = new RecordingConsumer();
+            slow.addConsumer(consumer);
+
+            final DefaultSequencer sequencer = new DefaultSequencer(network);
+            final UnsafeBuffer message = new UnsafeBuffer(ByteBuffer.allocateDirect(256));
+            for (int i = 0; i < 100; i++) {
+                sequencer.onCommand(message, 0, BookUpdates.encode(message, 0, i));
+            }
+
+            slow.poll(1);
+            assertEquals(1, slow.getLappedCount());
+
+            //once lapped the subscriber carries on from the latest messages
+            sequencer.onCommand(message, 0, BookUpdates.encode(message, 0, 101L));
+            assertTrue(slow.poll(100) > 0);
+            assertEquals("message:101", consumer.events.get(consumer.events.size() - 2));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMessageTooLargeToBroadcastIsRejected() {
+        try (IpcNetwork network = new IpcNetwork(directory, 1024)) {
+            final UnsafeBuffer message = new UnsafeBuffer(ByteBuffer.allocateDirect(network.maxMsgLength() + 8));
+            BookUpdates.encode(message, 0, 1L);
+            network.dispatch(message, 0, message.capacity());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package codingblackfemales.sequencer.marketdata;
+
+import messages.marketdata.BookUpdateEncoder;
+import messages.marketdata.InstrumentStatus;
+import messages.marketdata.MessageHeaderEncoder;
+import messages.marketdata.Source;
+import messages.marketdata.Venue;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Book updates for tests, on {@link Venue#XLON} in continuous trading. Levels are given as price, size pairs, best
+ * level first.
+ */
+public final class BookUpdates {
+
+    public static final long INSTRUMENT_ID = 123L;
+
+    private static final ThreadLocal<BookUpdateEncoder> ENCODER = ThreadLocal.withInitial(BookUpdateEncoder::new);
+    private static final ThreadLocal<MessageHeaderEncoder> HEADER_ENCODER = ThreadLocal.withInitial(MessageHeaderEncoder::new);
+
+    private BookUpdates() {
+    }
+
+    public static long[] levels(final long... pricesAndSizes) {
+        if (pricesAndSizes.length % 2 != 0) {
+            throw new IllegalArgumentException(String.format("Levels must be price, size pairs length=[%s]", pricesAndSizes.length));
+        }
+        return pricesAndSizes;
+    }
+
+    /**
+     * @return the length of the encoded message, header included.
+     */
+    public static int encode(final MutableDirectBuffer buffer, final int offset, final long instrumentId, final long[] bids, final long[] asks) {
+        final BookUpdateEncoder encoder = ENCODER.get();
+        final MessageHeaderEncoder headerEncoder = HEADER_ENCODER.get();
+        encoder.wrapAndApplyHeader(buffer, offset, headerEncoder);
+        encoder.venue(Venue.XLON);
+        encoder.instrumentId(instrumentId);
+        encoder.source(Source.STREAM);
+
+        final BookUpdateEncoder.BidBookEncoder bidBook = encoder.bidBookCount(bids.length / 2);
+        for (int i = 0; i < bids.length; i += 2) {
+            bidBook.next().price(bids[i]).size(bids[i + 1]);
+        }
+        final BookUpdateEncoder.AskBookEncoder askBook = encoder.askBookCount(asks.length / 2);
+        for (int i = 0; i < asks.length; i += 2) {
+            askBook.next().price(asks[i]).size(asks[i + 1]);
+        }
+
+        encoder.instrumentStatus(InstrumentStatus.CONTINUOUS);
+        return headerEncoder.encodedLength() + encoder.encodedLength();
+    }
+
+    /**
+     * One level a side, 200@100 bid and 300@101 offered, for tests that only care which instrument a message was for.
+     */
+    public static int encode(final MutableDirectBuffer buffer, final int offset, final long instrumentId) {
+        return encode(buffer, offset, instrumentId, levels(100L, 200L), levels(101L, 300L));
+    }
+
+    public static UnsafeBuffer tick(final long[] bids, final long[] asks) {
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+        encode(buffer, 0, INSTRUMENT_ID, bids, asks);
+        return buffer;
+    }
+
+    /**
+     * 100@98 bid and 100@100 offered on {@link #INSTRUMENT_ID}.
+     */
+    public static UnsafeBuffer tick() {
+        return tick(levels(98L, 100L), levels(100L, 100L));
+    }
+}
@@ -0,0 +1,227 @@
+package codingblackfemales.sequencer.metrics;
+
+import codingblackfemales.sequencer.DefaultSequencer;
+import codingblackfemales.sequencer.clock.SimulatedClock;
+import codingblackfemales.sequencer.net.Consumer;
+import codingblackfemales.sequencer.net.Subscription;
+import codingblackfemales.sequencer.net.TestNetwork;
+import messages.marketdata.MessageHeaderDecoder;
+import messages.marketdata.MessageHeaderEncoder;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NetworkMetricsTest {
+
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+
+    private UnsafeBuffer message(final long sequenceNumber) {
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(64));
+        headerEncoder.wrap(buffer, 0).sequencerNumber(sequenceNumber);
+        return buffer;
+    }
+
+    @Test
+    public void testCountsAndLagPerConsumer() {
+        final TestNetwork network = new TestNetwork("metrics-test");
+        final UnsafeBuffer[] nested = new UnsafeBuffer[]{message(3)};
+
+        network.addConsumer(buffer -> {});
+        network.addConsumer(buffer -> {
+            //the second consumer triggers a nested dispatch, as the algo container does in back tests
+            if (nested[0] != null) {
+                final UnsafeBuffer toSend = nested[0];
+                nested[0] = null;
+                network.dispatch(toSend);
+            }
+        });
+
+        network.dispatch(message(1));
+        network.dispatch(message(2));
+
+        final NetworkMetrics metrics = network.getMetrics();
+
+        assertEquals(3, metrics.getDispatchedCount());
+        assertEquals(3, metrics.getLastDispatchedSequenceNumber());
+        assertEquals(2, metrics.getConsumers().size());
+
+        for (ConsumerMetrics consumer : metrics.getConsumers()) {
+            assertEquals(3, consumer.getMessageCount());
+            assertEquals(3, consumer.getLastSequenceNumber());
+            assertEquals(0, consumer.getSequenceLag());
+            assertTrue(consumer.getP50ProcessingNanos() <= consumer.getP99ProcessingNanos());
+            assertTrue(consumer.getP99ProcessingNanos() <= consumer.getMaxProcessingNanos());
+        }
+
+        final String dump = metrics.dump();
+        assertTrue(dump.contains("Network[metrics-test] dispatched=3"));
+    }
+
+    @Test
+    public void testFilteredConsumerOnlyLagsOnMessagesRoutedToIt() {
+        final TestNetwork network = new TestNetwork("filter-test");
+        final int[] received = new int[1];
+        network.addConsumer(new Consumer() {
+            @Override
+            public void onMessage(final DirectBuffer buffer) {
+                received[0]++;
+            }
+
+            @Override
+            public Subscription getSubscription() {
+                return Subscription.of(1, 2);
+            }
+        });
+
+        final UnsafeBuffer wanted = message(1);
+        headerEncoder.wrap(wanted, 0).schemaId(1).templateId(2);
+        network.dispatch(wanted);
+        for (int i = 2; i <= 100; i++) {
+            final UnsafeBuffer ignored = message(i);
+            headerEncoder.wrap(ignored, 0).schemaId(1).templateId(3);
+            network.dispatch(ignored);
+        }
+
+        final ConsumerMetrics consumer = network.getMetrics().getConsumers().get(0);
+        assertEquals(1, received[0]);
+        assertEquals(100, network.getMetrics().getLastDispatchedSequenceNumber());
+        assertEquals(1, consumer.getLastSequenceNumber());
+        assertEquals(0, consumer.getSequenceLag());
+    }
+
+    @Test
+    public void testLatencyFromHeaderTimestamps() {
+        final SimulatedClock clock = new SimulatedClock(1_000L);
+        final TestNetwork network = new TestNetwork("latency-test", clock);
+        network.getMetrics().setConsumerTiming(true);
+        final DefaultSequencer sequencer = new DefaultSequencer(network, clock);
+        final MessageHeaderDecoder header = new MessageHeaderDecoder();
+        final long[] stamped = new long[2];
+
+        network.addConsumer(buffer -> {
+            header.wrap(buffer, 0);
+            stamped[0] = header.ingressTimestamp();
+            stamped[1] = header.sequencerTimestamp();
+            clock.advance(500L);
+        });
+        network.addConsumer(buffer -> {});
+
+        sequencer.onCommand(message(0));
+
+        assertEquals(1_000L, stamped[0]);
+        assertEquals(1_000L, stamped[1]);
+
+        final ConsumerMetrics first = network.getMetrics().getConsumers().get(0);
+        final ConsumerMetrics second = network.getMetrics().getConsumers().get(1);
+        assertEquals(500L, first.getMaxProcessingNanos());
+        assertEquals(0L, first.getLatency().getMaxNanos());
+        //the second consumer waited while the first processed the message
+        assertEquals(500L, second.getLatency().getMaxNanos());
+        assertEquals(1L, network.getMetrics().getSequencingTime().getCount());
+    }
+
+    @Test
+    public void testClockIsReadOncePerMessageUnlessConsumersAreTimed() {
+        final int[] reads = new int[1];
+        final TestNetwork network = new TestNetwork("timing-test", () -> {
+            reads[0]++;
+            return 1_000L;
+        });
+        for (int i = 0; i < 3; i++) {
+            network.addConsumer(buffer -> {});
+        }
+
+        network.dispatch(message(1));
+        assertEquals(1, reads[0]);
+
+        network.getMetrics().setConsumerTiming(true);
+        reads[0] = 0;
+        network.dispatch(message(2));
+        //the arrival stamp, then a monotonic read before the first consumer and after each one
+        assertEquals(5, reads[0]);
+
+        for (ConsumerMetrics consumer : network.getMetrics().getConsumers()) {
+            assertEquals(2, consumer.getMessageCount());
+            assertEquals(1, consumer.getProcessingTime().getCount());
+        }
+    }
+
+    @Test
+    public void testIngressTimestampStampedUpstreamIsKept() {
+        final SimulatedClock clock = new SimulatedClock(1_000L);
+        final TestNetwork network = new TestNetwork("ingress-test", clock);
+        final DefaultSequencer sequencer = new DefaultSequencer(network, clock);
+        final MessageHeaderDecoder header = new MessageHeaderDecoder();
+        final long[] ingress = new long[1];
+        network.addConsumer(buffer -> ingress[0] = header.wrap(buffer, 0).ingressTimestamp());
+
+        final UnsafeBuffer queued = message(0);
+        headerEncoder.wrap(queued, 0).ingressTimestamp(400L);
+        sequencer.onCommand(queued);
+
+        assertEquals(400L, ingress[0]);
+        assertEquals(600L, network.getMetrics().getSequencingTime().getMaxNanos());
+
+        //a command the sequencer stamped itself doesn't carry the stamp into the next use of the buffer
+        final UnsafeBuffer reused = message(0);
+        sequencer.onCommand(reused);
+        assertEquals(1_000L, ingress[0]);
+        clock.advance(100L);
+        sequencer.onCommand(reused);
+        assertEquals(1_100L, ingress[0]);
+        assertEquals(0L, header.wrap(reused, 0).ingressTimestamp());
+    }
+
+    @Test
+    public void testNegativeDurationsAreCountedApart() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(100);
+        histogram.record(-50);
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(1, histogram.getNegativeCount());
+        assertEquals(100, histogram.getMeanNanos());
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100);
+        }
+        histogram.record(1_000_000);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMaxNanos());
+        assertEquals(127, histogram.getPercentileNanos(50));
+        assertEquals(127, histogram.getPercentileNanos(99));
+        assertEquals(1_000_000, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    public void testRegistersConsumersWithJmx() throws Exception {
+        final TestNetwork network = new TestNetwork("jmx-test");
+        network.addConsumer(buffer -> {});
+        network.dispatch(message(7));
+
+        final NetworkMetrics metrics = network.getMetrics();
+        metrics.registerMBeans();
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName name = new ObjectName(NetworkMetrics.JMX_DOMAIN + ":type=Network,network=\"jmx-test\",consumer=*");
+            final ObjectName registered = server.queryNames(name, null).iterator().next();
+            assertEquals(1L, server.getAttribute(registered, "MessageCount"));
+            assertEquals(7L, server.getAttribute(registered, "LastSequenceNumber"));
+        } finally {
+            metrics.unregisterMBeans();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package codingblackfemales.sequencer.net;
+
+import messages.marketdata.MessageHeaderEncoder;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SubscriptionTest {
+
+    private final List<String> received = new ArrayList<>();
+
+    private static UnsafeBuffer message(final int schemaId, final int templateId) {
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(64));
+        new MessageHeaderEncoder().wrap(buffer, 0).schemaId(schemaId).templateId(templateId);
+        return buffer;
+    }
+
+    private Consumer consumer(final String name, final Subscription subscription) {
+        return new Consumer() {
+            @Override
+            public void onMessage(final DirectBuffer buffer) {
+                received.add(name);
+            }
+
+            @Override
+            public void onBatchStart() {
+                received.add(name + ":batch");
+            }
+
+            @Override
+            public Subscription getSubscription() {
+                return subscription;
+            }
+        };
+    }
+
+    @Test
+    public void testMatches() {
+        final Subscription subscription = Subscription.of(1, 1, 9).and(2, 4);
+
+        assertTrue(subscription.matches(1, 9));
+        assertTrue(subscription.matches(2, 4));
+        assertFalse(subscription.matches(2, 9));
+        assertFalse(subscription.matches(3, 1));
+        assertFalse(Subscription.NONE.matches(1, 1));
+        assertTrue(Subscription.ALL.matches(7, 700));
+        assertTrue(subscription.and(Subscription.of(2, 9)).matches(2, 9));
+        assertEquals("Subscription(1/1,1/9,2/4)", subscription.toString());
+    }
+
+    @Test
+    public void testNetworkOnlyDeliversToInterestedConsumers() {
+        final TestNetwork network = new TestNetwork("routing-test");
+        network.addConsumer(consumer("all", Subscription.ALL));
+        network.addConsumer(consumer("marketData", Subscription.of(1, 1)));
+        network.addConsumer(consumer("orders", Subscription.of(2, 4, 9)));
+
+        network.dispatch(message(1, 1));
+        network.dispatch(message(2, 9));
+        network.dispatch(message(1, 9));
+        network.dispatchBatchStart();
+
+        assertEquals(List.of("all", "marketData", "all", "orders", "all", "all:batch", "marketData:batch", "orders:batch"), received);
+        assertEquals(3, network.getMetrics().getConsumers().get(0).getMessageCount());
+        assertEquals(1, network.getMetrics().getConsumers().get(2).getMessageCount());
+    }
+
+    @Test
+    public void testRoutesAreRecomputedWhenAConsumerJoins() {
+        final RoutingTable routing = new RoutingTable();
+        routing.add(Subscription.of(1, 1));
+        assertArrayEquals(new int[]{0}, routing.route(1, 1));
+        assertArrayEquals(new int[0], routing.route(1, 2));
+
+        routing.add(Subscription.ALL);
+        assertArrayEquals(new int[]{0, 1}, routing.route(1, 1));
+        assertArrayEquals(new int[]{1}, routing.route(1, 2));
+    }
+}
@@ -0,0 +1,214 @@
+package codingblackfemales.sequencer.udp;
+
+import codingblackfemales.sequencer.DefaultSequencer;
+import codingblackfemales.sequencer.frame.Frame;
+import codingblackfemales.sequencer.marketdata.BookUpdates;
+import codingblackfemales.sequencer.metrics.NetworkMetrics;
+import codingblackfemales.sequencer.net.Consumer;
+import codingblackfemales.sequencer.net.Network;
+import messages.marketdata.MessageHeaderDecoder;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the transport over unicast loopback, which exercises the same code paths as multicast without needing a
+ * multicast capable interface on the build machine.
+ */
+public class MulticastSubscriberTest {
+
+    private static class LossyNetwork implements Network {
+        private final Network delegate;
+        private final Set<Long> drop;
+        private final MessageHeaderDecoder header = new MessageHeaderDecoder();
+
+        LossyNetwork(final Network delegate, final Set<Long> drop) {
+            this.delegate = delegate;
+            this.drop = drop;
+        }
+
+        @Override
+        public void dispatch(DirectBuffer buffer) {
+            dispatch(buffer, 0, buffer.capacity());
+        }
+
+        @Override
+        public void dispatch(DirectBuffer buffer, int offset, int length) {
+            header.wrap(buffer, offset);
+            if (!drop.contains(header.sequencerNumber())) {
+                delegate.dispatch(buffer, offset, length);
+            }
+        }
+
+        @Override
+        public NetworkMetrics getMetrics() {
+            return delegate.getMetrics();
+        }
+    }
+
+    /**
+     * Sits between a subscriber and the retransmit service, dropping the first datagram of the first reply.
+     */
+    private static class LossyRetransmitProxy implements AutoCloseable {
+        private final DatagramChannel channel;
+        private final InetSocketAddress service;
+        private final ByteBuffer datagram = ByteBuffer.allocateDirect(64 * 1024);
+        private SocketAddress subscriber;
+        private int requestCount = 0;
+        private int droppedCount = 0;
+
+        LossyRetransmitProxy(final InetAddress address, final InetSocketAddress service) throws Exception {
+            this.channel = DatagramChannel.open();
+            channel.bind(new InetSocketAddress(address, 0));
+            channel.configureBlocking(false);
+            this.service = service;
+        }
+
+        InetSocketAddress getLocalAddress() throws Exception {
+            return (InetSocketAddress) channel.getLocalAddress();
+        }
+
+        void doWork() throws Exception {
+            datagram.clear();
+            final SocketAddress sender = channel.receive(datagram);
+            if (sender == null) {
+                return;
+            }
+            datagram.flip();
+            if (!sender.equals(service)) {
+                subscriber = sender;
+                requestCount++;
+                channel.send(datagram, service);
+            } else if (requestCount == 1 && droppedCount == 0) {
+                droppedCount++;
+            } else {
+                channel.send(datagram, subscriber);
+            }
+        }
+
+        @Override
+        public void close() throws Exception {
+            channel.close();
+        }
+    }
+
+    @Test
+    public void testGapIsRecoveredFromRetransmitServiceInOrder() throws Exception {
+        final InetAddress loopback = InetAddress.getLoopbackAddress();
+        final NetworkInterface loopbackInterface = NetworkInterface.getByInetAddress(loopback);
+
+        final DatagramChannel dataChannel = DatagramChannel.open();
+        dataChannel.bind(new InetSocketAddress(loopback, 0));
+        final InetSocketAddress dataAddress = (InetSocketAddress) dataChannel.getLocalAddress();
+
+        try (MulticastNetwork multicast = new MulticastNetwork(dataAddress, loopbackInterface)) {
+            final SequencerJournal journal = new SequencerJournal(new LossyNetwork(multicast, Set.of(2L, 3L)), 64, 256);
+
+            try (RetransmitService retransmitService = new RetransmitService(journal, new InetSocketAddress(loopback, 0));
+                 MulticastSubscriber subscriber = new MulticastSubscriber(dataChannel, retransmitService.getLocalAddress(), TimeUnit.MILLISECONDS.toNanos(10))) {
+
+                final List<Long> received = new ArrayList<>();
+                final MessageHeaderDecoder header = new MessageHeaderDecoder();
+                subscriber.addConsumer(new Consumer() {
+                    @Override
+                    public void onMessage(DirectBuffer buffer) {
+                        onMessage(buffer, 0, buffer.capacity());
+                    }
+
+                    @Override
+                    public void onMessage(DirectBuffer buffer, int offset, int length) {
+                        header.wrap(buffer, offset);
+                        received.add(header.sequencerNumber());
+                    }
+                });
+
+                final DefaultSequencer sequencer = new DefaultSequencer(journal);
+                final UnsafeBuffer message = new UnsafeBuffer(ByteBuffer.allocateDirect(256));
+                for (int i = 1; i <= 5; i++) {
+                    sequencer.onCommand(message, 0, BookUpdates.encode(message, 0, i));
+                }
+
+                final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (received.size() < 5 && System.nanoTime() < deadline) {
+                    subscriber.doWork();
+                    retransmitService.doWork();
+                }
+
+                assertEquals(List.of(1L, 2L, 3L, 4L, 5L), received);
+                assertEquals(1, subscriber.getGapDetector().getGapCount());
+                assertEquals(0, subscriber.getGapDetector().getLostCount());
+            }
+        }
+    }
+
+    @Test
+    public void testLosingTheStartOfAMultiDatagramReplyIsRequestedAgainRatherThanSkipped() throws Exception {
+        final InetAddress loopback = InetAddress.getLoopbackAddress();
+        final NetworkInterface loopbackInterface = NetworkInterface.getByInetAddress(loopback);
+
+        final DatagramChannel dataChannel = DatagramChannel.open();
+        dataChannel.bind(new InetSocketAddress(loopback, 0));
+        final InetSocketAddress dataAddress = (InetSocketAddress) dataChannel.getLocalAddress();
+
+        final UnsafeBuffer message = new UnsafeBuffer(ByteBuffer.allocateDirect(256));
+        final int messageLength = BookUpdates.encode(message, 0, 1);
+        //two messages per reply datagram, so resending 2-7 takes three
+        final int mtu = RetransmitService.REPLY_HEADER_LENGTH + 2 * Frame.frameLength(messageLength);
+
+        try (MulticastNetwork multicast = new MulticastNetwork(dataAddress, loopbackInterface)) {
+            final SequencerJournal journal = new SequencerJournal(new LossyNetwork(multicast, Set.of(2L, 3L, 4L, 5L, 6L, 7L)), 64, 256);
+
+            try (RetransmitService retransmitService = new RetransmitService(journal, new InetSocketAddress(loopback, 0), mtu);
+                 LossyRetransmitProxy proxy = new LossyRetransmitProxy(loopback, retransmitService.getLocalAddress());
+                 MulticastSubscriber subscriber = new MulticastSubscriber(dataChannel, proxy.getLocalAddress(), TimeUnit.MILLISECONDS.toNanos(10))) {
+
+                final List<Long> received = new ArrayList<>();
+                final MessageHeaderDecoder header = new MessageHeaderDecoder();
+                subscriber.addConsumer(new Consumer() {
+                    @Override
+                    public void onMessage(DirectBuffer buffer) {
+                        onMessage(buffer, 0, buffer.capacity());
+                    }
+
+                    @Override
+                    public void onMessage(DirectBuffer buffer, int offset, int length) {
+                        header.wrap(buffer, offset);
+                        received.add(header.sequencerNumber());
+                    }
+                });
+
+                final DefaultSequencer sequencer = new DefaultSequencer(journal);
+                for (int i = 1; i <= 8; i++) {
+                    sequencer.onCommand(message, 0, BookUpdates.encode(message, 0, i));
+                }
+
+                final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                while (received.size() < 8 && System.nanoTime() < deadline) {
+                    subscriber.doWork();
+                    proxy.doWork();
+                    retransmitService.doWork();
+                    proxy.doWork();
+                }
+
+                assertEquals(1, proxy.droppedCount);
+                assertTrue(proxy.requestCount >= 2);
+                assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L), received);
+                assertEquals(0, subscriber.getGapDetector().getLostCount());
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package codingblackfemales.sequencer.udp;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SequenceGapDetectorTest {
+
+    @Test
+    public void testLateJoinerStartsFromFirstSequenceSeen() {
+        final SequenceGapDetector detector = new SequenceGapDetector(100);
+
+        assertEquals(SequenceGapDetector.DELIVER, detector.onSequence(42));
+        assertEquals(SequenceGapDetector.DELIVER, detector.onSequence(43));
+        assertEquals(SequenceGapDetector.DUPLICATE, detector.onSequence(43));
+        assertEquals(44, detector.expected());
+        assertFalse(detector.isInGap());
+    }
+
+    @Test
+    public void testGapIsRequestedOnceUntilRetryIntervalAndClosedWhenFilled() {
+        final SequenceGapDetector detector = new SequenceGapDetector(100);
+
+        detector.onSequence(1);
+        assertEquals(SequenceGapDetector.GAP, detector.onSequence(4));
+        assertEquals(SequenceGapDetector.GAP, detector.onSequence(5));
+
+        assertTrue(detector.isInGap());
+        assertEquals(2, detector.expected());
+        assertEquals(5, detector.gapTo());
+        assertEquals(1, detector.getGapCount());
+
+        assertTrue(detector.shouldRequest(1_000));
+        assertFalse(detector.shouldRequest(1_050));
+        assertTrue(detector.shouldRequest(1_100));
+
+        for (long sequenceNumber = 2; sequenceNumber <= 5; sequenceNumber++) {
+            assertEquals(SequenceGapDetector.DELIVER, detector.onSequence(sequenceNumber));
+        }
+        assertFalse(detector.isInGap());
+        assertFalse(detector.shouldRequest(10_000));
+    }
+
+    @Test
+    public void testSkipToCountsLostMessages() {
+        final SequenceGapDetector detector = new SequenceGapDetector(100);
+
+        detector.onSequence(1);
+        detector.onSequence(10);
+        detector.skipTo(8);
+
+        assertEquals(6, detector.getLostCount());
+        assertEquals(SequenceGapDetector.DELIVER, detector.onSequence(8));
+        assertEquals(SequenceGapDetector.DELIVER, detector.onSequence(9));
+        assertEquals(SequenceGapDetector.DELIVER, detector.onSequence(10));
+        assertFalse(detector.isInGap());
+    }
+
+    @Test
+    public void testGapIsGivenUpOnOnceRequestsRunOut() {
+        final SequenceGapDetector detector = new SequenceGapDetector(100, 2);
+
+        detector.onSequence(1);
+        detector.onSequence(4);
+
+        assertTrue(detector.shouldRequest(1_000));
+        assertTrue(detector.shouldRequest(1_100));
+        assertFalse(detector.shouldRequest(1_200));
+        assertFalse(detector.isExhausted(1_150));
+        assertTrue(detector.isExhausted(1_200));
+
+        detector.skipTo(detector.gapTo() + 1);
+        assertFalse(detector.isInGap());
+        assertEquals(3, detector.getLostCount());
+
+        //a later gap gets its own requests
+        detector.onSequence(7);
+        assertTrue(detector.shouldRequest(2_000));
+    }
+}
@@ -0,0 +1,94 @@
+package codingblackfemales.sequencer.udp;
+
+import codingblackfemales.sequencer.net.TestNetwork;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SequencerJournalTest {
+
+    private static final int MESSAGE_LENGTH = 64;
+
+    /**
+     * Every long in the message is the sequence number, so a message that was copied while being overwritten shows
+     * up as a mix of two.
+     */
+    private static void fill(final UnsafeBuffer message, final long sequenceNumber) {
+        for (int i = 0; i < MESSAGE_LENGTH; i += Long.BYTES) {
+            message.putLong(i, sequenceNumber);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMessageTooLargeForASlotIsRejected() {
+        final SequencerJournal journal = new SequencerJournal(new TestNetwork(), 16, MESSAGE_LENGTH);
+        journal.append(1L, new UnsafeBuffer(new byte[MESSAGE_LENGTH + 1]), 0, MESSAGE_LENGTH + 1);
+    }
+
+    @Test
+    public void testOnlyHeldMessagesCanBeRead() {
+        final SequencerJournal journal = new SequencerJournal(new TestNetwork(), 16, MESSAGE_LENGTH);
+        final UnsafeBuffer message = new UnsafeBuffer(new byte[MESSAGE_LENGTH]);
+
+        assertFalse(journal.read(1L, (buffer, offset, length) -> { }));
+
+        for (long sequenceNumber = 1; sequenceNumber <= 20; sequenceNumber++) {
+            fill(message, sequenceNumber);
+            journal.append(sequenceNumber, message, 0, MESSAGE_LENGTH);
+        }
+
+        assertEquals(5L, journal.firstSequenceNumber());
+        assertFalse(journal.read(4L, (buffer, offset, length) -> { }));
+        final long[] read = new long[1];
+        assertTrue(journal.read(5L, (buffer, offset, length) -> read[0] = buffer.getLong(offset)));
+        assertEquals(5L, read[0]);
+    }
+
+    @Test
+    public void testReaderNeverSeesAHalfWrittenSlot() throws Exception {
+        final SequencerJournal journal = new SequencerJournal(new TestNetwork(), 4, MESSAGE_LENGTH);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicLong torn = new AtomicLong();
+        final AtomicLong reads = new AtomicLong();
+
+        final Thread reader = new Thread(() -> {
+            while (running.get()) {
+                final long last = journal.lastSequenceNumber();
+                for (long sequenceNumber = Math.max(1L, last - 3); sequenceNumber <= last; sequenceNumber++) {
+                    final long expected = sequenceNumber;
+                    journal.read(sequenceNumber, (buffer, offset, length) -> {
+                        reads.incrementAndGet();
+                        for (int i = 0; i < length; i += Long.BYTES) {
+                            if (buffer.getLong(offset + i) != expected) {
+                                torn.incrementAndGet();
+                                return;
+                            }
+                        }
+                    });
+                }
+            }
+        }, "journal-reader");
+        reader.start();
+
+        final UnsafeBuffer message = new UnsafeBuffer(ByteBuffer.allocateDirect(MESSAGE_LENGTH));
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+        long sequenceNumber = 0;
+        while (System.nanoTime() < deadline) {
+            fill(message, ++sequenceNumber);
+            journal.append(sequenceNumber, message, 0, MESSAGE_LENGTH);
+        }
+        running.set(false);
+        reader.join();
+
+        assertEquals(0L, torn.get());
+        assertTrue(reads.get() > 0);
+    }
+}
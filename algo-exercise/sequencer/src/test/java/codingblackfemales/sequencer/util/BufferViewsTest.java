@@ -0,0 +1,43 @@
+package codingblackfemales.sequencer.util;
+
+import codingblackfemales.sequencer.Sequencer;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class BufferViewsTest {
+
+    @Test
+    public void testViewsAreReusedAndSurviveNestedCalls() {
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[64]);
+        for (int i = 0; i < 64; i++) {
+            buffer.putByte(i, (byte) i);
+        }
+
+        final List<DirectBuffer> views = new ArrayList<>();
+        final List<Byte> firstBytes = new ArrayList<>();
+        final Sequencer sequencer = new Sequencer() {
+            @Override
+            public void onCommand(DirectBuffer view) {
+                views.add(view);
+                if (views.size() == 1) {
+                    onCommand(buffer, 32, 8);
+                }
+                firstBytes.add(view.getByte(0));
+            }
+        };
+
+        sequencer.onCommand(buffer, 16, 8);
+        sequencer.onCommand(buffer, 24, 8);
+
+        assertEquals(List.of((byte) 32, (byte) 16, (byte) 24), firstBytes);
+        assertSame(views.get(0), views.get(2));
+        assertEquals(8, views.get(2).capacity());
+    }
+}